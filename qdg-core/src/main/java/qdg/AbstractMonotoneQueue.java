@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+/**
+ * Base of the monotone priority queues, which keep their items in buckets
+ * of doubly linked lists. Monotone means that the added keys are not less
+ * than the last polled key, as in Dijkstra's algorithm with non-negative
+ * lengths. The empty queue accepts any key, and a key not allowed
+ * otherwise becomes the new lower bound.
+ */
+public abstract class AbstractMonotoneQueue implements LongPriorityQueue {
+	
+	protected long[] keys;
+	
+	/**
+	 * The bucket of each item, or -1.
+	 */
+	protected int[] bucket;
+	
+	protected int[] next;
+	
+	protected int[] previous;
+	
+	protected final int[] heads;
+	
+	protected int size;
+	
+	/**
+	 * The last polled key, a lower bound of the keys in the queue.
+	 */
+	protected long last;
+	
+	protected AbstractMonotoneQueue(int capacity, int numBuckets) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException();
+		}
+		keys = new long[capacity];
+		bucket = new int[capacity];
+		next = new int[capacity];
+		previous = new int[capacity];
+		for (int i = 0; i < capacity; ++i) {
+			bucket[i] = -1;
+		}
+		heads = new int[numBuckets];
+		for (int i = 0; i < numBuckets; ++i) {
+			heads[i] = -1;
+		}
+	}
+	
+	protected abstract int bucketOf(long key);
+	
+	/**
+	 * Whether the key can be added to the non-empty queue.
+	 */
+	protected boolean allows(long key) {
+		return key >= last;
+	}
+	
+	private void ensureCapacity(int item) {
+		if (item < 0) {
+			throw new IllegalArgumentException();
+		}
+		int capacity = bucket.length;
+		if (item >= capacity) {
+			int newCapacity = Math.max(item + 1, 2 * capacity);
+			long[] newKeys = new long[newCapacity];
+			System.arraycopy(keys, 0, newKeys, 0, capacity);
+			keys = newKeys;
+			int[] newBucket = new int[newCapacity];
+			System.arraycopy(bucket, 0, newBucket, 0, capacity);
+			for (int i = capacity; i < newCapacity; ++i) {
+				newBucket[i] = -1;
+			}
+			bucket = newBucket;
+			int[] newNext = new int[newCapacity];
+			System.arraycopy(next, 0, newNext, 0, capacity);
+			next = newNext;
+			int[] newPrevious = new int[newCapacity];
+			System.arraycopy(previous, 0, newPrevious, 0, capacity);
+			previous = newPrevious;
+		}
+	}
+	
+	protected void link(int item, int b) {
+		bucket[item] = b;
+		previous[item] = -1;
+		next[item] = heads[b];
+		if (heads[b] >= 0) {
+			previous[heads[b]] = item;
+		}
+		heads[b] = item;
+	}
+	
+	protected void unlink(int item) {
+		int b = bucket[item];
+		if (previous[item] >= 0) {
+			next[previous[item]] = next[item];
+		} else {
+			heads[b] = next[item];
+		}
+		if (next[item] >= 0) {
+			previous[next[item]] = previous[item];
+		}
+		bucket[item] = -1;
+	}
+	
+	@Override
+	public void add(int item, long key) {
+		ensureCapacity(item);
+		if (bucket[item] >= 0) {
+			throw new IllegalArgumentException();
+		}
+		if (!allows(key)) {
+			if (size > 0) {
+				throw new IllegalArgumentException();
+			}
+			last = key;
+		}
+		keys[item] = key;
+		link(item, bucketOf(key));
+		++size;
+	}
+	
+	@Override
+	public void decrease(int item, long key) {
+		if (!contains(item) || key > keys[item] || !allows(key)) {
+			throw new IllegalArgumentException();
+		}
+		unlink(item);
+		keys[item] = key;
+		link(item, bucketOf(key));
+	}
+	
+	@Override
+	public boolean contains(int item) {
+		return item >= 0 && item < bucket.length && bucket[item] >= 0;
+	}
+	
+	@Override
+	public long getKey(int item) {
+		if (!contains(item)) {
+			throw new IllegalArgumentException();
+		}
+		return keys[item];
+	}
+	
+	/**
+	 * Removes the first item of a bucket containing the minimal keys.
+	 */
+	protected int pollFrom(int b) {
+		int item = heads[b];
+		unlink(item);
+		last = keys[item];
+		--size;
+		return item;
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Removes all the items in O(size() + number of buckets).
+	 */
+	@Override
+	public void clear() {
+		for (int b = 0; b < heads.length; ++b) {
+			while (heads[b] >= 0) {
+				unlink(heads[b]);
+			}
+		}
+		size = 0;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * Key management of the sparse array lists. The used keys are doubly linked
+ * in the order of their insertion, and the free keys are doubly linked in
+ * LIFO order, so that {@link #nextFreeKey()} returns the last freed key, but
+ * any free key can be taken by a put. The links are stored in int arrays
+ * indexed by the keys, the values are stored by the subclasses.
+ * 
+ * Used keys can be iterated without allocation by {@link #firstKey()} and
+ * {@link #nextKey(int)}.
+ * 
+ * @author Marton Makai
+ */
+public abstract class AbstractSparseArrayList implements Serializable {
+	
+	private static final long serialVersionUID = 3105539519040751196L;
+
+	private static final int INITIAL_CAPACITY = 16;
+	
+	protected int[] previous = new int[0];
+	
+	protected int[] next = new int[0];
+	
+	protected int size = 0;
+	
+	protected int firstUsed = -1;
+	
+	// Though new elements could be inserted to the front, and then storing
+	// the index of the last used position would not be necessary, it still
+	// helps a bit in the debugging when the elements come in their original
+	// order.
+	protected int lastUsed = -1;
+	
+	protected int firstFree = -1;
+	
+	protected abstract boolean isUsed(int i);
+	
+	/**
+	 * Extends the value arrays to the given capacity.
+	 */
+	protected abstract void grow(int capacity);
+	
+	public int getIdBound() {
+		return size;
+	}
+	
+	public boolean containsKey(int i) {
+		return i >= 0 && i < size && isUsed(i);
+	}
+	
+	/**
+	 * The key the next add will use.
+	 */
+	protected int nextFreeKey() {
+		return firstFree >= 0 ? firstFree : size;
+	}
+	
+	/**
+	 * Extends the list so that k becomes a valid index. The new keys are
+	 * free.
+	 */
+	protected void ensureSize(int k) {
+		if (k >= previous.length) {
+			int capacity = Math.max(Math.max(2 * previous.length,
+					INITIAL_CAPACITY), k + 1);
+			previous = Arrays.copyOf(previous, capacity);
+			next = Arrays.copyOf(next, capacity);
+			grow(capacity);
+		}
+		while (k >= size) {
+			previous[size] = -1;
+			next[size] = firstFree;
+			if (firstFree >= 0) {
+				previous[firstFree] = size;
+			}
+			firstFree = size;
+			++size;
+		}
+	}
+	
+	/**
+	 * Moves the free key k to the end of the used keys.
+	 */
+	protected void link(int k) {
+		ensureSize(k);
+		if (previous[k] >= 0) {
+			next[previous[k]] = next[k];
+		} else {
+			firstFree = next[k];
+		}
+		if (next[k] >= 0) {
+			previous[next[k]] = previous[k];
+		}
+		// New element is added as last in order.
+		previous[k] = lastUsed;
+		next[k] = -1;
+		// firstUsed >= 0 and lastUsed >= 0 are equivalent.
+		if (firstUsed >= 0) {
+			next[lastUsed] = k;
+		} else {
+			firstUsed = k;
+		}
+		lastUsed = k;
+	}
+	
+	/**
+	 * Moves the used key k to the front of the free keys.
+	 */
+	protected void unlink(int k) {
+		if (previous[k] >= 0) {
+			next[previous[k]] = next[k];
+		} else {
+			firstUsed = next[k];
+		}
+		if (next[k] >= 0) {
+			previous[next[k]] = previous[k];
+		} else {
+			lastUsed = previous[k];
+		}
+		previous[k] = -1;
+		next[k] = firstFree;
+		if (firstFree >= 0) {
+			previous[firstFree] = k;
+		}
+		firstFree = k;
+	}
+	
+	/**
+	 * The first used key, or -1.
+	 */
+	public int firstKey() {
+		return firstUsed;
+	}
+	
+	/**
+	 * The used key following i, or -1.
+	 */
+	public int nextKey(int i) {
+		return next[i];
+	}
+	
+	private class KeyIterator extends UnmodifiableIterator<Integer> {
+
+		private int id;
+		
+		public KeyIterator(int first) {
+			id = first;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return id >= 0;
+		}
+
+		@Override
+		public Integer next() {
+			int current = id;
+			id = next[id];
+			return current;
+		}
+	}
+	
+	public Iterator<Integer> keyIterator() {
+		return new KeyIterator(firstUsed);
+	}
+	
+	public Iterable<Integer> keys() {
+		return new Iterable<Integer>() {
+
+			@Override
+			public Iterator<Integer> iterator() {
+				return keyIterator();
+			}
+		};
+	}
+	
+	/**
+	 * For testing purposes only.
+	 */
+	public Iterator<Integer> freeKeyIterator() {
+		return new KeyIterator(firstFree);
+	}
+	
+	public Iterable<Integer> freeKeys() {
+		return new Iterable<Integer>() {
+
+			@Override
+			public Iterator<Integer> iterator() {
+				return freeKeyIterator();
+			}
+		};
+	}
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+/**
+ * Dial's bucket queue, a monotone priority queue for keys within a
+ * window of the given spread above the last polled key, e.g.\ for
+ * Dijkstra's algorithm with integer lengths at most the spread. There is
+ * a bucket for each key of the window, hence both adding and polling are
+ * O(1), apart from stepping over the empty buckets.
+ */
+public class BucketQueue extends AbstractMonotoneQueue {
+	
+	private final long maxSpread;
+	
+	public BucketQueue(int capacity, long maxSpread) {
+		super(capacity, numBuckets(maxSpread));
+		this.maxSpread = maxSpread;
+	}
+	
+	private static int numBuckets(long maxSpread) {
+		if (maxSpread < 0 || maxSpread >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException();
+		}
+		return (int) maxSpread + 1;
+	}
+	
+	@Override
+	protected int bucketOf(long key) {
+		long b = key % heads.length;
+		return (int) (b < 0 ? b + heads.length : b);
+	}
+	
+	@Override
+	protected boolean allows(long key) {
+		return key >= last && key - last <= maxSpread;
+	}
+	
+	@Override
+	public int poll() {
+		if (size == 0) {
+			return -1;
+		}
+		int b = bucketOf(last);
+		while (heads[b] < 0) {
+			b = b + 1 == heads.length ? 0 : b + 1;
+		}
+		return pollFrom(b);
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Lock-free union-find datastructure of the ints 0, ..., size() - 1, which
+ * can be used by several threads at once, e.g.\ to process the edges of a
+ * graph in parallel.
+ * 
+ * Based on:
+ * @INPROCEEDINGS{Anderson91,
+ *   author = {Richard J. Anderson and Heather Woll},
+ *   title = {Wait-free Parallel Algorithms for the Union-Find Problem},
+ *   booktitle = {Proceedings of the Twenty-third Annual ACM Symposium on
+ *     Theory of Computing},
+ *   year = {1991},
+ *   pages = {370--380}
+ * }
+ * 
+ * The parents are kept in an AtomicIntegerArray. A union links the root of
+ * the larger item below the root of the smaller item by compare-and-set, and
+ * retries if the root got linked meanwhile, hence the root of each set is
+ * its smallest item once no unions are running. Finds halve the paths by
+ * compare-and-set, which never breaks a set, since it only replaces a parent
+ * by an ancestor.
+ */
+@GwtIncompatible("java.util.concurrent")
+public class ConcurrentIntUnionFind {
+	
+	private final AtomicIntegerArray parent;
+	
+	/**
+	 * Creates size singletons.
+	 */
+	public ConcurrentIntUnionFind(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException();
+		}
+		parent = new AtomicIntegerArray(size);
+		for (int i = 0; i < size; ++i) {
+			parent.set(i, i);
+		}
+	}
+	
+	public int size() {
+		return parent.length();
+	}
+	
+	/**
+	 * The root of the set of an item. While unions are running, it may be
+	 * linked below another root by the time it is returned.
+	 */
+	public int find(int item) {
+		if (item < 0 || item >= parent.length()) {
+			throw new IndexOutOfBoundsException();
+		}
+		while (true) {
+			int p = parent.get(item);
+			if (p == item) {
+				return item;
+			}
+			int gp = parent.get(p);
+			if (p != gp) {
+				parent.compareAndSet(item, p, gp);
+			}
+			item = gp;
+		}
+	}
+	
+	/**
+	 * Merges the sets of two items, and returns false if they are already in
+	 * the same set.
+	 */
+	public boolean union(int item1, int item2) {
+		while (true) {
+			int root1 = find(item1);
+			int root2 = find(item2);
+			if (root1 == root2) {
+				return false;
+			}
+			if (root1 < root2) {
+				int root = root1;
+				root1 = root2;
+				root2 = root;
+			}
+			if (parent.compareAndSet(root1, root1, root2)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Whether two items are in the same set, which is exact even while
+	 * unions are running.
+	 */
+	public boolean isSameSet(int item1, int item2) {
+		while (true) {
+			int root1 = find(item1);
+			int root2 = find(item2);
+			if (root1 == root2) {
+				return true;
+			}
+			// The sets were different at the time root1 was a root.
+			if (parent.get(root1) == root1) {
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * Sets the parent of each item to its root, which is its smallest item.
+	 * Must not be called while unions are running.
+	 */
+	public void compress(int begin, int end) {
+		for (int i = begin; i < end; ++i) {
+			parent.lazySet(i, find(i));
+		}
+	}
+	
+	/**
+	 * The parent of an item, which is its root after compress().
+	 */
+	public int getParent(int item) {
+		return parent.get(item);
+	}
+}
@@ -0,0 +1,807 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorMixedGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+import qdg.api.MixedGraph;
+import qdg.api.bits.EdgeCursor;
+import qdg.api.bits.EdgeMutationHandler;
+import qdg.api.bits.NodeMutationHandler;
+import qdg.bits.AbstractIdEntity;
+import qdg.bits.AbstractIdMap;
+import qdg.bits.AbstractMixedGraph;
+import qdg.bits.BooleanIdMap;
+import qdg.bits.ConcatEdgeCursor;
+import qdg.bits.ConcatIterator;
+import qdg.bits.DoubleIdMap;
+import qdg.bits.IntIdMap;
+import qdg.bits.LongIdMap;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * Immutable mixed graph in compressed sparse row (CSR) format.
+ *
+ * The out-arcs of node i are stored in outArcs[outOffset[i]] ..
+ * outArcs[outOffset[i + 1] - 1], with their targets in the same positions of
+ * outTargets. In-arcs and the undirected edges are indexed the same way.
+ * The whole graph is kept in a few int arrays, with no objects per node or
+ * per edge, hence it is suitable for large graphs which are only read after
+ * they are loaded.
+ *
+ * The graph can be built by a {@link Builder}, or copied from any mixed
+ * graph by {@link #copyOf(MixedGraph)}. Node, arc and undirected edge ids are
+ * consecutive, starting from 0. The order of the out-arcs, in-arcs and
+ * incident edges of a node follow the order of the ids, which is the order
+ * they were added to the builder.
+ *
+ * @author Marton Makai
+ */
+public class CsrMixedGraph extends AbstractMixedGraph
+		implements CursorMixedGraph, Serializable {
+
+	private static final long serialVersionUID = -2417236930214735468L;
+
+	public static class N extends AbstractIdEntity
+			implements Node {
+
+		public N(int id) {
+			super(id);
+		}
+
+		@Override
+		public String toString() {
+			return "Node [id=" + id + "]";
+		}
+	}
+
+	public static class E extends AbstractIdEntity
+			implements Edge {
+
+		private boolean directed;
+
+		public E(int id, boolean directed) {
+			super(id);
+			this.directed = directed;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = super.hashCode();
+			result = prime * result + (directed ? 1231 : 1237);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!super.equals(obj))
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			E other = (E) obj;
+			if (directed != other.directed)
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return "Edge [directed=" + directed + ", id=" + id + "]";
+		}
+	}
+
+	/**
+	 * Collects the nodes and edges of a {@link CsrMixedGraph}. Nodes are
+	 * referred by their integer ids, which are assigned consecutively from 0.
+	 */
+	public static class Builder {
+
+		private int numNodes;
+
+		private int numArcs;
+
+		private int[] arcSource = new int[16];
+
+		private int[] arcTarget = new int[16];
+
+		private int numUEdges;
+
+		private int[] uEdgeSource = new int[16];
+
+		private int[] uEdgeTarget = new int[16];
+
+		public int addNode() {
+			return numNodes++;
+		}
+
+		/**
+		 * Adds count nodes, and returns the id of the first one.
+		 */
+		public int addNodes(int count) {
+			int first = numNodes;
+			numNodes += count;
+			return first;
+		}
+
+		public int addArc(int source, int target) {
+			checkNode(source);
+			checkNode(target);
+			if (numArcs == arcSource.length) {
+				arcSource = Arrays.copyOf(arcSource, 2 * numArcs);
+				arcTarget = Arrays.copyOf(arcTarget, 2 * numArcs);
+			}
+			arcSource[numArcs] = source;
+			arcTarget[numArcs] = target;
+			return numArcs++;
+		}
+
+		public int addUEdge(int source, int target) {
+			checkNode(source);
+			checkNode(target);
+			if (numUEdges == uEdgeSource.length) {
+				uEdgeSource = Arrays.copyOf(uEdgeSource, 2 * numUEdges);
+				uEdgeTarget = Arrays.copyOf(uEdgeTarget, 2 * numUEdges);
+			}
+			uEdgeSource[numUEdges] = source;
+			uEdgeTarget[numUEdges] = target;
+			return numUEdges++;
+		}
+
+		private void checkNode(int id) {
+			if (id < 0 || id >= numNodes) {
+				throw new IllegalArgumentException("No node with id " + id);
+			}
+		}
+
+		public CsrMixedGraph build() {
+			return new CsrMixedGraph(this);
+		}
+	}
+
+	protected int numNodes;
+
+	protected int[] arcSource;
+
+	protected int[] arcTarget;
+
+	protected int[] outOffset;
+
+	protected int[] outArcs;
+
+	protected int[] outTargets;
+
+	protected int[] inOffset;
+
+	protected int[] inArcs;
+
+	protected int[] inSources;
+
+	protected int[] uEdgeSource;
+
+	protected int[] uEdgeTarget;
+
+	// Undirected edges are indexed both at their source and at their target,
+	// so that the incident edges keep the same order as in StaticMixedGraph.
+	protected int[] uEdgeOutOffset;
+
+	protected int[] uEdgeOutEdges;
+
+	protected int[] uEdgeOutTargets;
+
+	protected int[] uEdgeInOffset;
+
+	protected int[] uEdgeInEdges;
+
+	protected int[] uEdgeInSources;
+
+	protected CsrMixedGraph(Builder builder) {
+		numNodes = builder.numNodes;
+		arcSource = Arrays.copyOf(builder.arcSource, builder.numArcs);
+		arcTarget = Arrays.copyOf(builder.arcTarget, builder.numArcs);
+		outOffset = offsets(arcSource, numNodes);
+		outArcs = index(arcSource, outOffset);
+		outTargets = gather(arcTarget, outArcs);
+		inOffset = offsets(arcTarget, numNodes);
+		inArcs = index(arcTarget, inOffset);
+		inSources = gather(arcSource, inArcs);
+		uEdgeSource = Arrays.copyOf(builder.uEdgeSource, builder.numUEdges);
+		uEdgeTarget = Arrays.copyOf(builder.uEdgeTarget, builder.numUEdges);
+		uEdgeOutOffset = offsets(uEdgeSource, numNodes);
+		uEdgeOutEdges = index(uEdgeSource, uEdgeOutOffset);
+		uEdgeOutTargets = gather(uEdgeTarget, uEdgeOutEdges);
+		uEdgeInOffset = offsets(uEdgeTarget, numNodes);
+		uEdgeInEdges = index(uEdgeTarget, uEdgeInOffset);
+		uEdgeInSources = gather(uEdgeSource, uEdgeInEdges);
+	}
+
+	/**
+	 * Prefix sums of the number of occurrences of the nodes in the array of
+	 * endpoints.
+	 */
+	private static int[] offsets(int[] endpoints, int numNodes) {
+		int[] offset = new int[numNodes + 1];
+		for (int n : endpoints) {
+			++offset[n + 1];
+		}
+		for (int i = 0; i < numNodes; ++i) {
+			offset[i + 1] += offset[i];
+		}
+		return offset;
+	}
+
+	/**
+	 * Counting sort of the edge ids by their endpoints. The sort is stable,
+	 * hence the edges of a node are ordered by their ids.
+	 */
+	private static int[] index(int[] endpoints, int[] offset) {
+		int[] next = Arrays.copyOf(offset, offset.length - 1);
+		int[] edges = new int[endpoints.length];
+		for (int e = 0; e < endpoints.length; ++e) {
+			edges[next[endpoints[e]]++] = e;
+		}
+		return edges;
+	}
+
+	private static int[] gather(int[] values, int[] ids) {
+		int[] result = new int[ids.length];
+		for (int i = 0; i < ids.length; ++i) {
+			result[i] = values[ids[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * Copies a mixed graph. Directed graphs and undirected graphs can be
+	 * copied through the {@link qdg.view.DiGraphAsMixedGraph} and
+	 * {@link qdg.view.UGraphAsMixedGraph} views.
+	 */
+	public static CsrMixedGraph copyOf(MixedGraph g) {
+		return copyOf(g, null, null);
+	}
+
+	/**
+	 * Copies a mixed graph. If not null, nodeRef and edgeRef are filled with
+	 * the nodes and edges of the copy corresponding to the nodes and edges
+	 * of the original graph.
+	 */
+	public static CsrMixedGraph copyOf(MixedGraph g,
+			EntityMap<Node, Node> nodeRef, EntityMap<Edge, Edge> edgeRef) {
+		Builder builder = new Builder();
+		EntityMap<Node, Integer> index = g.createNodeMap();
+		for (Node n : g.getNodes()) {
+			int id = builder.addNode();
+			index.put(n, id);
+			if (nodeRef != null) {
+				nodeRef.put(n, new N(id));
+			}
+		}
+		for (Edge a : g.getArcs()) {
+			int id = builder.addArc(index.get(g.getSource(a)),
+					index.get(g.getTarget(a)));
+			if (edgeRef != null) {
+				edgeRef.put(a, new E(id, true));
+			}
+		}
+		for (Edge u : g.getUEdges()) {
+			int id = builder.addUEdge(index.get(g.getSource(u)),
+					index.get(g.getTarget(u)));
+			if (edgeRef != null) {
+				edgeRef.put(u, new E(id, false));
+			}
+		}
+		return builder.build();
+	}
+
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	public int getNumArcs() {
+		return arcSource.length;
+	}
+
+	public int getNumUEdges() {
+		return uEdgeSource.length;
+	}
+
+	@Override
+	public boolean isDirected(Edge edge) {
+		return ((E) edge).directed;
+	}
+
+	@Override
+	public Node getSource(Edge edge) {
+		if (((E) edge).directed) {
+			return new N(arcSource[((E) edge).getId()]);
+		} else {
+			return new N(uEdgeSource[((E) edge).getId()]);
+		}
+	}
+
+	@Override
+	public Node getTarget(Edge edge) {
+		if (((E) edge).directed) {
+			return new N(arcTarget[((E) edge).getId()]);
+		} else {
+			return new N(uEdgeTarget[((E) edge).getId()]);
+		}
+	}
+
+	private static class NodeIterator extends UnmodifiableIterator<Node> {
+
+		private int id = 0;
+
+		private int end;
+
+		public NodeIterator(int end) {
+			this.end = end;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return id < end;
+		}
+
+		@Override
+		public Node next() {
+			return new N(id++);
+		}
+	}
+
+	/**
+	 * Iterates the edges with ids ids[begin] .. ids[end - 1].
+	 */
+	private static class EdgeIterator extends UnmodifiableIterator<Edge> {
+
+		private int[] ids;
+
+		private int i;
+
+		private int end;
+
+		private boolean directed;
+
+		public EdgeIterator(int[] ids, int begin, int end, boolean directed) {
+			this.ids = ids;
+			this.i = begin;
+			this.end = end;
+			this.directed = directed;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return i < end;
+		}
+
+		@Override
+		public Edge next() {
+			return new E(ids[i++], directed);
+		}
+	}
+
+	private static class IdEdgeIterator extends UnmodifiableIterator<Edge> {
+
+		private int id = 0;
+
+		private int end;
+
+		private boolean directed;
+
+		public IdEdgeIterator(int end, boolean directed) {
+			this.end = end;
+			this.directed = directed;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return id < end;
+		}
+
+		@Override
+		public Edge next() {
+			return new E(id++, directed);
+		}
+	}
+
+	@Override
+	public Iterator<Node> getNodeIterator() {
+		return new NodeIterator(numNodes);
+	}
+
+	@Override
+	public Iterator<Edge> getArcIterator() {
+		return new IdEdgeIterator(arcSource.length, true);
+	}
+
+	@Override
+	public Iterator<Edge> getUEdgeIterator() {
+		return new IdEdgeIterator(uEdgeSource.length, false);
+	}
+
+	@Override
+	public Iterator<Edge> getOutArcIterator(Node node) {
+		int id = ((N) node).getId();
+		return new EdgeIterator(outArcs, outOffset[id], outOffset[id + 1], true);
+	}
+
+	@Override
+	public Iterator<Edge> getInArcIterator(Node node) {
+		int id = ((N) node).getId();
+		return new EdgeIterator(inArcs, inOffset[id], inOffset[id + 1], true);
+	}
+
+	@Override
+	public Iterator<Edge> getIncidentArcIterator(Node node) {
+		return new ConcatIterator<Edge>(
+				getOutArcIterator(node), getInArcIterator(node));
+	}
+
+	@Override
+	public Iterator<Edge> getIncidentUEdgeIterator(Node node) {
+		int id = ((N) node).getId();
+		return new ConcatIterator<Edge>(
+				new EdgeIterator(uEdgeOutEdges, uEdgeOutOffset[id],
+						uEdgeOutOffset[id + 1], false),
+				new EdgeIterator(uEdgeInEdges, uEdgeInOffset[id],
+						uEdgeInOffset[id + 1], false));
+	}
+
+	public int getOutDegree(Node node) {
+		int id = ((N) node).getId();
+		return outOffset[id + 1] - outOffset[id];
+	}
+
+	public int getInDegree(Node node) {
+		int id = ((N) node).getId();
+		return inOffset[id + 1] - inOffset[id];
+	}
+
+	protected class NodeMap<V> extends AbstractIdMap<Node, V> {
+
+		private static final long serialVersionUID = 2907379628327651781L;
+
+		@Override
+		public String toString() {
+			return "NodeMap [" +
+					Joiner.on(", ").join(Iterables.transform(getNodes(), f)) +
+					"]";
+		}
+	}
+
+	@Override
+	public <V> EntityMap<Node, V> createNodeMap() {
+		return new NodeMap<V>();
+	}
+
+	protected class EdgeMap<V> implements EntityMap<Edge, V>, Serializable {
+
+		private static final long serialVersionUID = -1367018218437932040L;
+
+		protected ArcMap<V> arcMap = new ArcMap<V>();
+
+		protected UEdgeMap<V> uEdgeMap = new UEdgeMap<V>();
+
+		@Override
+		public V put(Edge k, V v) {
+			if (((E) k).directed) {
+				return arcMap.put(k, v);
+			} else {
+				return uEdgeMap.put(k, v);
+			}
+		}
+
+		@Override
+		public V get(Object k) {
+			if (((E) k).directed) {
+				return arcMap.get((Edge) k);
+			} else {
+				return uEdgeMap.get((Edge) k);
+			}
+		}
+
+		private class PrintEntry implements Function<Edge, String> {
+
+			@Override
+			public String apply(Edge k) {
+				return "" + k + "=" + get(k);
+			}
+		};
+
+		protected transient Function<Edge, String> f = new PrintEntry();
+
+		@Override
+		public String toString() {
+			return "EdgeMap [" +
+					Joiner.on(", ").join(Iterables.transform(getEdges(), f)) +
+					"]";
+		}
+
+		@GwtIncompatible("ObjectInputStream")
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			in.defaultReadObject();
+			f = new PrintEntry();
+		}
+
+		@GwtIncompatible("ObjectOutputStream")
+		private void writeObject(ObjectOutputStream out) throws IOException {
+			out.defaultWriteObject();
+		}
+	}
+
+	@Override
+	public <V> EntityMap<Edge, V> createEdgeMap() {
+		return new EdgeMap<V>();
+	}
+
+	protected class ArcMap<V> extends AbstractIdMap<Edge, V> {
+
+		private static final long serialVersionUID = 4416937018412541740L;
+
+		@Override
+		public String toString() {
+			return "ArcMap [" +
+					Joiner.on(", ").join(Iterables.transform(getArcs(), f)) +
+					"]";
+		}
+	}
+
+	protected class UEdgeMap<V> extends AbstractIdMap<Edge, V> {
+
+		private static final long serialVersionUID = -3700616520843536418L;
+
+		@Override
+		public String toString() {
+			return "EdgeMap [" +
+					Joiner.on(", ").join(Iterables.transform(getUEdges(), f)) +
+					"]";
+		}
+	}
+
+	@Override
+	public <V> EntityMap<Edge, V> createUEdgeMap() {
+		return new UEdgeMap<V>();
+	}
+
+	@Override
+	public <V> EntityMap<Edge, V> createArcMap() {
+		return new ArcMap<V>();
+	}
+	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return new IntIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return new LongIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return new DoubleIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return new BooleanIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+
+	@Override
+	public Node addNode() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void remove(Node n) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Edge addArc(Node source, Node target) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Edge addUEdge(Node source, Node target) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void remove(Edge edge) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void addNodeMutationHandler(NodeMutationHandler handler) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void addEdgeMutationHandler(EdgeMutationHandler handler) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Iterates the edges of a node in one of the CSR indices.
+	 */
+	protected static class IndexCursor implements EdgeCursor {
+
+		private int[] offset;
+
+		private int[] edges;
+
+		private int[] nodes;
+
+		private int i;
+
+		private int end;
+
+		public IndexCursor(int[] offset, int[] edges, int[] nodes) {
+			this.offset = offset;
+			this.edges = edges;
+			this.nodes = nodes;
+		}
+
+		@Override
+		public void reset(int nodeId) {
+			i = offset[nodeId] - 1;
+			end = offset[nodeId + 1];
+		}
+
+		@Override
+		public boolean next() {
+			return ++i < end;
+		}
+
+		@Override
+		public int getEdgeId() {
+			return edges[i];
+		}
+
+		@Override
+		public int getNodeId() {
+			return nodes[i];
+		}
+	}
+
+	@Override
+	public int getNodeIdBound() {
+		return numNodes;
+	}
+
+	@Override
+	public int getArcIdBound() {
+		return arcSource.length;
+	}
+
+	@Override
+	public int getUEdgeIdBound() {
+		return uEdgeSource.length;
+	}
+
+	@Override
+	public EdgeCursor createOutArcCursor() {
+		return new IndexCursor(outOffset, outArcs, outTargets);
+	}
+
+	@Override
+	public EdgeCursor createInArcCursor() {
+		return new IndexCursor(inOffset, inArcs, inSources);
+	}
+
+	@Override
+	public EdgeCursor createIncidentArcCursor() {
+		return new ConcatEdgeCursor(createOutArcCursor(), createInArcCursor());
+	}
+
+	@Override
+	public EdgeCursor createIncidentUEdgeCursor() {
+		return new ConcatEdgeCursor(
+				new IndexCursor(uEdgeOutOffset, uEdgeOutEdges, uEdgeOutTargets),
+				new IndexCursor(uEdgeInOffset, uEdgeInEdges, uEdgeInSources));
+	}
+
+	@Override
+	public int getNodeId(Node node) {
+		return ((N) node).getId();
+	}
+
+	@Override
+	public int getArcId(Edge arc) {
+		return ((E) arc).getId();
+	}
+
+	@Override
+	public int getUEdgeId(Edge uEdge) {
+		return ((E) uEdge).getId();
+	}
+
+	@Override
+	public Node nodeFromId(int id) {
+		return new N(id);
+	}
+
+	@Override
+	public Edge arcFromId(int id) {
+		return new E(id, true);
+	}
+
+	@Override
+	public Edge uEdgeFromId(int id) {
+		return new E(id, false);
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+/**
+ * Indexed d-ary min-heap of int items, i.e.\ non-negative ints like node ids,
+ * with primitive double keys. The positions of the items are kept in an
+ * int array, which grows as larger items are added. Equal keys are polled
+ * in increasing order of the items.
+ */
+public class IndexedDoubleHeap {
+	
+	public static final int DEFAULT_ARITY = 4;
+	
+	private final int arity;
+	
+	private int[] heap;
+	
+	private int size;
+	
+	/**
+	 * The position of each item in the heap, or -1.
+	 */
+	private int[] position;
+	
+	private double[] keys;
+	
+	public IndexedDoubleHeap() {
+		this(0, DEFAULT_ARITY);
+	}
+	
+	public IndexedDoubleHeap(int capacity) {
+		this(capacity, DEFAULT_ARITY);
+	}
+	
+	public IndexedDoubleHeap(int capacity, int arity) {
+		if (capacity < 0 || arity < 2) {
+			throw new IllegalArgumentException();
+		}
+		this.arity = arity;
+		heap = new int[capacity];
+		position = new int[capacity];
+		keys = new double[capacity];
+		for (int i = 0; i < capacity; ++i) {
+			position[i] = -1;
+		}
+	}
+	
+	private void ensureCapacity(int item) {
+		if (item < 0) {
+			throw new IllegalArgumentException();
+		}
+		int capacity = position.length;
+		if (item >= capacity) {
+			int newCapacity = Math.max(item + 1, 2 * capacity);
+			int[] newPosition = new int[newCapacity];
+			System.arraycopy(position, 0, newPosition, 0, capacity);
+			for (int i = capacity; i < newCapacity; ++i) {
+				newPosition[i] = -1;
+			}
+			position = newPosition;
+			double[] newKeys = new double[newCapacity];
+			System.arraycopy(keys, 0, newKeys, 0, capacity);
+			keys = newKeys;
+			int[] newHeap = new int[newCapacity];
+			System.arraycopy(heap, 0, newHeap, 0, size);
+			heap = newHeap;
+		}
+	}
+	
+	public boolean contains(int item) {
+		return item >= 0 && item < position.length && position[item] >= 0;
+	}
+	
+	/**
+	 * The key of an item in the heap.
+	 */
+	public double getKey(int item) {
+		if (!contains(item)) {
+			throw new IllegalArgumentException();
+		}
+		return keys[item];
+	}
+	
+	public void add(int item, double key) {
+		ensureCapacity(item);
+		if (position[item] >= 0) {
+			throw new IllegalArgumentException();
+		}
+		keys[item] = key;
+		position[item] = size;
+		heap[size++] = item;
+		bubbleUp(size - 1);
+	}
+	
+	/**
+	 * Adds the first count items of the array with their keys, and restores
+	 * the heap order in linear time.
+	 */
+	public void addAll(int[] items, double[] itemKeys, int count) {
+		for (int i = 0; i < count; ++i) {
+			int item = items[i];
+			ensureCapacity(item);
+			if (position[item] >= 0) {
+				throw new IllegalArgumentException();
+			}
+			keys[item] = itemKeys[i];
+			position[item] = size;
+			heap[size++] = item;
+		}
+		if (size > 1) {
+			for (int i = (size - 2) / arity; i >= 0; --i) {
+				bubbleDown(i);
+			}
+		}
+	}
+	
+	/**
+	 * Decreases the key of an item in the heap.
+	 */
+	public void decrease(int item, double key) {
+		if (!contains(item) || less(keys[item], item, key, item)) {
+			throw new IllegalArgumentException();
+		}
+		keys[item] = key;
+		bubbleUp(position[item]);
+	}
+	
+	/**
+	 * The item of the minimal key, or -1 if the heap is empty.
+	 */
+	public int peek() {
+		return size == 0 ? -1 : heap[0];
+	}
+	
+	public double peekKey() {
+		if (size == 0) {
+			throw new IllegalStateException();
+		}
+		return keys[heap[0]];
+	}
+	
+	/**
+	 * Removes the item of the minimal key, and returns it, or -1 if the heap
+	 * is empty.
+	 */
+	public int poll() {
+		if (size == 0) {
+			return -1;
+		}
+		int item = heap[0];
+		position[item] = -1;
+		--size;
+		if (size > 0) {
+			int last = heap[size];
+			heap[0] = last;
+			position[last] = 0;
+			bubbleDown(0);
+		}
+		return item;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * Removes all the items in O(size()).
+	 */
+	public void clear() {
+		for (int i = 0; i < size; ++i) {
+			position[heap[i]] = -1;
+		}
+		size = 0;
+	}
+	
+	private static boolean less(double k1, int i1, double k2, int i2) {
+		return k1 < k2 || (k1 == k2 && i1 < i2);
+	}
+	
+	private void bubbleUp(int i) {
+		int item = heap[i];
+		double key = keys[item];
+		while (i > 0) {
+			int pi = (i - 1) / arity;
+			int parent = heap[pi];
+			if (less(key, item, keys[parent], parent)) {
+				heap[i] = parent;
+				position[parent] = i;
+				i = pi;
+			} else {
+				break;
+			}
+		}
+		heap[i] = item;
+		position[item] = i;
+	}
+	
+	private void bubbleDown(int i) {
+		int item = heap[i];
+		double key = keys[item];
+		while (true) {
+			int first = arity * i + 1;
+			if (first >= size) {
+				break;
+			}
+			int last = Math.min(first + arity, size);
+			int min = first;
+			int minItem = heap[first];
+			for (int c = first + 1; c < last; ++c) {
+				int child = heap[c];
+				if (less(keys[child], child, keys[minItem], minItem)) {
+					min = c;
+					minItem = child;
+				}
+			}
+			if (less(keys[minItem], minItem, key, item)) {
+				heap[i] = minItem;
+				position[minItem] = i;
+				i = min;
+			} else {
+				break;
+			}
+		}
+		heap[i] = item;
+		position[item] = i;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import java.util.Arrays;
+
+/**
+ * An int -> int map stored in a sparse array, without boxing the values.
+ * Keys are managed the same way as in {@link SparseArrayList}, absent keys
+ * are mapped to the default value.
+ * 
+ * @author Marton Makai
+ */
+public class IntSparseArrayList extends AbstractSparseArrayList {
+	
+	private static final long serialVersionUID = -2185327746120455291L;
+
+	protected final int defaultValue;
+	
+	protected int[] container = new int[0];
+	
+	protected boolean[] used = new boolean[0];
+	
+	public IntSparseArrayList() {
+		this(0);
+	}
+	
+	public IntSparseArrayList(int defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+	
+	@Override
+	protected boolean isUsed(int i) {
+		return used[i];
+	}
+	
+	@Override
+	protected void grow(int capacity) {
+		container = Arrays.copyOf(container, capacity);
+		used = Arrays.copyOf(used, capacity);
+	}
+	
+	public int getDefaultValue() {
+		return defaultValue;
+	}
+	
+	public int get(int i) {
+		if (containsKey(i)) {
+			return container[i];
+		} else {
+			return defaultValue;
+		}
+	}
+	
+	public int add(int v) {
+		// New element is added as last in order.
+		int newIndex = nextFreeKey();
+		put(newIndex, v);
+		return newIndex;
+	}
+	
+	/**
+	 * Returns true if k was not used before.
+	 */
+	public boolean put(int k, int v) {
+		if (k < 0) {
+			throw new IllegalArgumentException();
+		}
+		boolean added = !containsKey(k);
+		if (added) {
+			link(k);
+			used[k] = true;
+		}
+		container[k] = v;
+		return added;
+	}
+	
+	/**
+	 * Returns true if k was used.
+	 */
+	public boolean remove(int k) {
+		if (containsKey(k)) {
+			unlink(k);
+			used[k] = false;
+			container[k] = defaultValue;
+			return true;
+		} else {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import java.util.Arrays;
+
+/**
+ * Union-find datastructure of the ints 0, ..., size() - 1, with union by
+ * size and full path compression, stored in int arrays.
+ */
+public class IntUnionFind {
+	
+	/**
+	 * The parent of each item, the item itself for roots.
+	 */
+	private int[] parent;
+	
+	/**
+	 * The size of the set of each root.
+	 */
+	private int[] setSize;
+	
+	private int size;
+	
+	private int numSets;
+	
+	public IntUnionFind() {
+		this(0);
+	}
+	
+	/**
+	 * Creates size singletons.
+	 */
+	public IntUnionFind(int size) {
+		if (size < 0) {
+			throw new IllegalArgumentException();
+		}
+		parent = new int[Math.max(size, 1)];
+		setSize = new int[parent.length];
+		for (int i = 0; i < size; ++i) {
+			parent[i] = i;
+			setSize[i] = 1;
+		}
+		this.size = size;
+		numSets = size;
+	}
+	
+	/**
+	 * Adds a singleton, and returns its item, which is size() before.
+	 */
+	public int add() {
+		if (size == parent.length) {
+			parent = Arrays.copyOf(parent, 2 * size);
+			setSize = Arrays.copyOf(setSize, 2 * size);
+		}
+		parent[size] = size;
+		setSize[size] = 1;
+		++numSets;
+		return size++;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public int getNumSets() {
+		return numSets;
+	}
+	
+	/**
+	 * The root of the set of an item.
+	 */
+	public int find(int item) {
+		if (item < 0 || item >= size) {
+			throw new IndexOutOfBoundsException();
+		}
+		int root = item;
+		while (parent[root] != root) {
+			root = parent[root];
+		}
+		while (parent[item] != root) {
+			int p = parent[item];
+			parent[item] = root;
+			item = p;
+		}
+		return root;
+	}
+	
+	/**
+	 * Merges the sets of two items, and returns false if they are already in
+	 * the same set.
+	 */
+	public boolean union(int item1, int item2) {
+		int root1 = find(item1);
+		int root2 = find(item2);
+		if (root1 == root2) {
+			return false;
+		}
+		if (setSize[root1] < setSize[root2]) {
+			int root = root1;
+			root1 = root2;
+			root2 = root;
+		}
+		parent[root2] = root1;
+		setSize[root1] += setSize[root2];
+		--numSets;
+		return true;
+	}
+	
+	public boolean isSameSet(int item1, int item2) {
+		return find(item1) == find(item2);
+	}
+	
+	/**
+	 * The number of items in the set of an item.
+	 */
+	public int getSetSize(int item) {
+		return setSize[find(item)];
+	}
+}
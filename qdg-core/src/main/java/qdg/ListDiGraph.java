@@ -24,17 +24,23 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.WeakHashMap;
 
-import qdg.api.DiIdGraph;
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorDiGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+import qdg.api.bits.EdgeCursor;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.NodeMutationHandler;
 import qdg.bits.AbstractDiGraph;
 import qdg.bits.AbstractIdEntity;
 import qdg.bits.AbstractIdMap;
-import qdg.bits.ArcLace;
-import qdg.bits.ArcLace.ArcData;
-import qdg.bits.ArcLace.NodeData;
-import qdg.bits.ConcatIterator;
+import qdg.bits.BooleanIdMap;
+import qdg.bits.DoubleIdMap;
+import qdg.bits.IntArcLace;
+import qdg.bits.IntIdMap;
+import qdg.bits.LongIdMap;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Function;
@@ -50,9 +56,9 @@ import com.google.common.collect.Iterators;
  * @author Marton Makai
  */
 public class ListDiGraph extends AbstractDiGraph
-		implements DiIdGraph, Serializable {
+		implements CursorDiGraph, Serializable {
 	
-	private static final long serialVersionUID = -815385180481551292L;
+	private static final long serialVersionUID = 3349480658231580133L;
 
 	public static class N extends AbstractIdEntity
 			implements Node {
@@ -80,13 +86,9 @@ public class ListDiGraph extends AbstractDiGraph
 		}
 	}
 	
-	protected SparseArrayList<NodeData> nodes =
-			new SparseArrayList<NodeData>();
+	protected SparseArrayList<Boolean> nodes = new SparseArrayList<Boolean>();
 	
-	protected SparseArrayList<ArcData<Integer>> arcData =
-			new SparseArrayList<ArcData<Integer>>();
-	
-	protected transient ArcLace<Integer> arcLace = new ArcLace<Integer>(nodes, arcData);
+	protected IntArcLace arcLace = new IntArcLace();
 	
 	private transient Map<NodeMutationHandler, Object> nodeMutationHandlers;
 
@@ -156,14 +158,14 @@ public class ListDiGraph extends AbstractDiGraph
 
 	@Override
 	public Iterator<Edge> getIncidentArcIterator(Node node) {
-		return Iterators.transform(new ConcatIterator<Integer>(
-				arcLace.getOutArcIterator(((N) node).getId()),
-				arcLace.getInArcIterator(((N) node).getId())), constructEdge);
+		return Iterators.transform(
+				arcLace.getIncidentArcIterator(((N) node).getId()),
+				constructEdge);
 	}
 	
 	@Override
 	public Node addNode() {
-		int id = nodes.add(new NodeData());
+		int id = nodes.add(Boolean.TRUE);
 		Node n = new N(id);
 		for (NodeMutationHandler handler : nodeMutationHandlers.keySet()) {
 			handler.onAdd(n);
@@ -174,13 +176,11 @@ public class ListDiGraph extends AbstractDiGraph
 	@Override
 	public void remove(Node node) {
 		N n = (N) node;
-		while (arcLace.getOutArcIterator(n.getId()).hasNext()) {
-			A a = new A(arcLace.getOutArcIterator(n.getId()).next());
-			remove(a);
+		while (arcLace.getFirstOut(n.getId()) >= 0) {
+			remove(new A(arcLace.getFirstOut(n.getId())));
 		}
-		while (arcLace.getInArcIterator(n.getId()).hasNext()) {
-			A a = new A(arcLace.getInArcIterator(n.getId()).next());
-			remove(a);
+		while (arcLace.getFirstIn(n.getId()) >= 0) {
+			remove(new A(arcLace.getFirstIn(n.getId())));
 		}
 		for (NodeMutationHandler handler : nodeMutationHandlers.keySet()) {
 			handler.onRemove(node);
@@ -197,8 +197,7 @@ public class ListDiGraph extends AbstractDiGraph
 	public Edge addArc(Node source, Node target) {
 		N s = (N) source;
 		N t = (N) target;
-		int id = arcData.add(new ArcData<Integer>(s.getId(), t.getId()));
-		arcLace.laceArc(id, s.getId(), t.getId());
+		int id = arcLace.addArc(s.getId(), t.getId());
 		Edge arc = new A(id);
 		for (EdgeMutationHandler handler : edgeMutationHandlers.keySet()) {
 			handler.onAdd(arc);
@@ -213,7 +212,6 @@ public class ListDiGraph extends AbstractDiGraph
 			handler.onRemove(arc);
 		}
 		arcLace.remove(a.getId());
-		arcData.remove(a.getId());
 	}
 	
 	@Override
@@ -261,10 +259,65 @@ public class ListDiGraph extends AbstractDiGraph
 		return map;
 	}
 	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		IntIdMap.NodeMap map = new IntIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		LongIdMap.NodeMap map = new LongIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		DoubleIdMap.NodeMap map = new DoubleIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		BooleanIdMap.NodeMap map = new BooleanIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		IntIdMap.EdgeMap map = new IntIdMap.EdgeMap(defaultValue);
+		addEdgeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		LongIdMap.EdgeMap map = new LongIdMap.EdgeMap(defaultValue);
+		addEdgeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		DoubleIdMap.EdgeMap map = new DoubleIdMap.EdgeMap(defaultValue);
+		addEdgeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		BooleanIdMap.EdgeMap map = new BooleanIdMap.EdgeMap(defaultValue);
+		addEdgeMutationHandler(map);
+		return map;
+	}
+	
 	@GwtIncompatible("ObjectInputStream")
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
-		arcLace = new ArcLace<Integer>(nodes, arcData);
 		nodeMutationHandlers = new WeakHashMap<NodeMutationHandler, Object>();
 		edgeMutationHandlers = new WeakHashMap<EdgeMutationHandler, Object>();
 	}
@@ -274,6 +327,41 @@ public class ListDiGraph extends AbstractDiGraph
 		out.defaultWriteObject();
 	}
 
+	@Override
+	public int getNodeIdBound() {
+		return nodes.getIdBound();
+	}
+	
+	@Override
+	public int getArcIdBound() {
+		return arcLace.getArcIdBound();
+	}
+	
+	@Override
+	public EdgeCursor createOutArcCursor() {
+		return arcLace.createOutArcCursor();
+	}
+	
+	@Override
+	public EdgeCursor createInArcCursor() {
+		return arcLace.createInArcCursor();
+	}
+	
+	@Override
+	public EdgeCursor createIncidentArcCursor() {
+		return arcLace.createIncidentArcCursor();
+	}
+	
+	@Override
+	public int getNodeId(Node node) {
+		return ((N) node).getId();
+	}
+	
+	@Override
+	public int getArcId(Edge arc) {
+		return ((A) arc).getId();
+	}
+
 	@Override
 	public Node nodeFromId(int id) {
 		return new N(id);
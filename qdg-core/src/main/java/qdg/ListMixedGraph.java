@@ -24,17 +24,23 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.WeakHashMap;
 
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorMixedGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
-import qdg.api.MixedIdGraph;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+import qdg.api.bits.EdgeCursor;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.NodeMutationHandler;
 import qdg.bits.AbstractIdEntity;
 import qdg.bits.AbstractIdMap;
 import qdg.bits.AbstractMixedGraph;
-import qdg.bits.ArcLace;
-import qdg.bits.ArcLace.ArcData;
-import qdg.bits.ArcLace.NodeData;
-import qdg.bits.ConcatIterator;
+import qdg.bits.BooleanIdMap;
+import qdg.bits.DoubleIdMap;
+import qdg.bits.IntArcLace;
+import qdg.bits.IntIdMap;
+import qdg.bits.LongIdMap;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Function;
@@ -50,9 +56,9 @@ import com.google.common.collect.Iterators;
  * @author Marton Makai
  */
 public class ListMixedGraph extends AbstractMixedGraph
-		implements MixedIdGraph, Serializable {
+		implements CursorMixedGraph, Serializable {
 	
-	private static final long serialVersionUID = 4444550416599231556L;
+	private static final long serialVersionUID = -7369251120826337415L;
 
 	public static class N extends AbstractIdEntity
 			implements Node {
@@ -67,21 +73,6 @@ public class ListMixedGraph extends AbstractMixedGraph
 		}
 	}
 	
-	protected static class CombinedNodeData implements Serializable {
-		
-		private static final long serialVersionUID = 8855112085916381992L;
-
-		protected NodeData arcData = new NodeData();
-		
-		protected NodeData uEdgeData = new NodeData();
-    	
-		@Override
-		public String toString() {
-			return "CombinedNodeData [arcData=" + arcData + ", uEdgeData="
-					+ uEdgeData + "]";
-		}
-	}
-	
 	public static class E extends AbstractIdEntity
 			implements Edge {
 		
@@ -125,70 +116,11 @@ public class ListMixedGraph extends AbstractMixedGraph
 		return ((E) edge).directed;
 	}
 	
-	protected SparseArrayList<CombinedNodeData> nodes =
-			new SparseArrayList<CombinedNodeData>();
-	
-	private class ArcNodeMap implements EntityMap<Integer, NodeData> {
-		
-		@Override
-		public NodeData put(Integer k, NodeData v) {
-			CombinedNodeData c = nodes.get(k);
-			if (c == null) {
-				c = new CombinedNodeData();
-			}
-			c.arcData = v;
-			return v;
-		}
-
-		@Override
-		public NodeData get(Object k) {
-			CombinedNodeData c = nodes.get(k);
-			if (c == null) {
-				return null;
-			}
-			return c.arcData;
-		}
-	}
-	
-	protected transient EntityMap<Integer, NodeData> arcNodes =
-			new ArcNodeMap();
-	
-	private class UEdgeNodeMap implements EntityMap<Integer, NodeData> {
-		
-		@Override
-		public NodeData put(Integer k, NodeData v) {
-			CombinedNodeData c = nodes.get(k);
-			if (c == null) {
-				c = new CombinedNodeData();
-			}
-			c.uEdgeData = v;
-			return v;
-		}
-
-		@Override
-		public NodeData get(Object k) {
-			CombinedNodeData c = nodes.get(k);
-			if (c == null) {
-				return null;
-			}
-			return c.uEdgeData;
-		}
-	}
-	
-	protected transient EntityMap<Integer, NodeData> uEdgeNodes =
-			new UEdgeNodeMap();
-	
-	protected SparseArrayList<ArcData<Integer>> arcData =
-			new SparseArrayList<ArcData<Integer>>();
+	protected SparseArrayList<Boolean> nodes = new SparseArrayList<Boolean>();
 	
-	protected transient ArcLace<Integer> arcLace =
-			new ArcLace<Integer>(arcNodes, arcData);
+	protected IntArcLace arcLace = new IntArcLace();
 	
-	protected SparseArrayList<ArcData<Integer>> uEdgeData =
-			new SparseArrayList<ArcData<Integer>>();
-	
-	protected transient ArcLace<Integer> uEdgeLace =
-			new ArcLace<Integer>(uEdgeNodes, uEdgeData);
+	protected IntArcLace uEdgeLace = new IntArcLace();
 	
 	private transient Map<NodeMutationHandler, Object> nodeMutationHandlers;
 
@@ -280,22 +212,21 @@ public class ListMixedGraph extends AbstractMixedGraph
 
 	@Override
 	public Iterator<Edge> getIncidentArcIterator(Node node) {
-		return Iterators.transform(new ConcatIterator<Integer>(
-				arcLace.getOutArcIterator(((N) node).getId()),
-				arcLace.getInArcIterator(((N) node).getId())), constructArc);
+		return Iterators.transform(
+				arcLace.getIncidentArcIterator(((N) node).getId()),
+				constructArc);
 	}
 
 	@Override
 	public Iterator<Edge> getIncidentUEdgeIterator(Node node) {
-		return Iterators.transform(new ConcatIterator<Integer>(
-				uEdgeLace.getOutArcIterator(((N) node).getId()),
-				uEdgeLace.getInArcIterator(((N) node).getId())),
+		return Iterators.transform(
+				uEdgeLace.getIncidentArcIterator(((N) node).getId()),
 				constructUEdge);
 	}
 	
 	@Override
 	public Node addNode() {
-		int id = nodes.add(new CombinedNodeData());
+		int id = nodes.add(Boolean.TRUE);
 		Node n = new N(id);
 		for (NodeMutationHandler handler : nodeMutationHandlers.keySet()) {
 			handler.onAdd(n);
@@ -306,21 +237,17 @@ public class ListMixedGraph extends AbstractMixedGraph
 	@Override
 	public void remove(Node node) {
 		N n = (N) node;
-		while (arcLace.getOutArcIterator(n.getId()).hasNext()) {
-			E u = new E(arcLace.getOutArcIterator(n.getId()).next(), true);
-			remove(u);
+		while (arcLace.getFirstOut(n.getId()) >= 0) {
+			remove(new E(arcLace.getFirstOut(n.getId()), true));
 		}
-		while (arcLace.getInArcIterator(n.getId()).hasNext()) {
-			E u = new E(arcLace.getInArcIterator(n.getId()).next(), true);
-			remove(u);
+		while (arcLace.getFirstIn(n.getId()) >= 0) {
+			remove(new E(arcLace.getFirstIn(n.getId()), true));
 		}
-		while (uEdgeLace.getOutArcIterator(n.getId()).hasNext()) {
-			E u = new E(uEdgeLace.getOutArcIterator(n.getId()).next(), false);
-			remove(u);
+		while (uEdgeLace.getFirstOut(n.getId()) >= 0) {
+			remove(new E(uEdgeLace.getFirstOut(n.getId()), false));
 		}
-		while (uEdgeLace.getInArcIterator(n.getId()).hasNext()) {
-			E u = new E(uEdgeLace.getInArcIterator(n.getId()).next(), false);
-			remove(u);
+		while (uEdgeLace.getFirstIn(n.getId()) >= 0) {
+			remove(new E(uEdgeLace.getFirstIn(n.getId()), false));
 		}
 		for (NodeMutationHandler handler : nodeMutationHandlers.keySet()) {
 			handler.onRemove(node);
@@ -337,8 +264,7 @@ public class ListMixedGraph extends AbstractMixedGraph
 	public Edge addArc(Node source, Node target) {
 		N s = (N) source;
 		N t = (N) target;
-		int id = arcData.add(new ArcData<Integer>(s.getId(), t.getId()));
-		arcLace.laceArc(id, s.getId(), t.getId());
+		int id = arcLace.addArc(s.getId(), t.getId());
 		Edge arc = new E(id, true);
 		for (EdgeMutationHandler handler : edgeMutationHandlers.keySet()) {
 			handler.onAdd(arc);
@@ -354,10 +280,8 @@ public class ListMixedGraph extends AbstractMixedGraph
 		}
 		if (e.directed) {
 			arcLace.remove(e.getId());
-			arcData.remove(e.getId());
 		} else {
 			uEdgeLace.remove(e.getId());
-			uEdgeData.remove(e.getId());
 		}
 	}
 	
@@ -365,8 +289,7 @@ public class ListMixedGraph extends AbstractMixedGraph
 	public Edge addUEdge(Node source, Node target) {
 		N s = (N) source;
 		N t = (N) target;
-		int id = uEdgeData.add(new ArcData<Integer>(s.getId(), t.getId()));
-		uEdgeLace.laceArc(id, s.getId(), t.getId());
+		int id = uEdgeLace.addArc(s.getId(), t.getId());
 		Edge uEdge = new E(id, false);
 		for (EdgeMutationHandler handler : edgeMutationHandlers.keySet()) {
 			handler.onAdd(uEdge);
@@ -514,15 +437,79 @@ public class ListMixedGraph extends AbstractMixedGraph
 		return new ArcMap<V>();
 	}
 	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		IntIdMap.NodeMap map = new IntIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		LongIdMap.NodeMap map = new LongIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		DoubleIdMap.NodeMap map = new DoubleIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		BooleanIdMap.NodeMap map = new BooleanIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+	
 	@GwtIncompatible("ObjectInputStream")
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
-		arcLace = new ArcLace<Integer>(arcNodes, arcData);
-		uEdgeLace = new ArcLace<Integer>(uEdgeNodes, uEdgeData);
 		nodeMutationHandlers = new WeakHashMap<NodeMutationHandler, Object>();
 		edgeMutationHandlers = new WeakHashMap<EdgeMutationHandler, Object>();
-		arcNodes = new ArcNodeMap();
-		uEdgeNodes = new UEdgeNodeMap();
 	}
 	
 	@GwtIncompatible("ObjectOutputStream")
@@ -530,6 +517,56 @@ public class ListMixedGraph extends AbstractMixedGraph
 		out.defaultWriteObject();
 	}
 
+	@Override
+	public int getNodeIdBound() {
+		return nodes.getIdBound();
+	}
+	
+	@Override
+	public int getArcIdBound() {
+		return arcLace.getArcIdBound();
+	}
+	
+	@Override
+	public int getUEdgeIdBound() {
+		return uEdgeLace.getArcIdBound();
+	}
+	
+	@Override
+	public EdgeCursor createOutArcCursor() {
+		return arcLace.createOutArcCursor();
+	}
+	
+	@Override
+	public EdgeCursor createInArcCursor() {
+		return arcLace.createInArcCursor();
+	}
+	
+	@Override
+	public EdgeCursor createIncidentArcCursor() {
+		return arcLace.createIncidentArcCursor();
+	}
+	
+	@Override
+	public EdgeCursor createIncidentUEdgeCursor() {
+		return uEdgeLace.createIncidentArcCursor();
+	}
+	
+	@Override
+	public int getNodeId(Node node) {
+		return ((N) node).getId();
+	}
+	
+	@Override
+	public int getArcId(Edge arc) {
+		return ((E) arc).getId();
+	}
+	
+	@Override
+	public int getUEdgeId(Edge uEdge) {
+		return ((E) uEdge).getId();
+	}
+	
 	@Override
 	public Node nodeFromId(int id) {
 		return new N(id);
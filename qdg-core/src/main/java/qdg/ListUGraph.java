@@ -24,17 +24,23 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.WeakHashMap;
 
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorUGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
-import qdg.api.UIdGraph;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+import qdg.api.bits.EdgeCursor;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.NodeMutationHandler;
 import qdg.bits.AbstractIdEntity;
 import qdg.bits.AbstractIdMap;
 import qdg.bits.AbstractUGraph;
-import qdg.bits.ArcLace;
-import qdg.bits.ArcLace.ArcData;
-import qdg.bits.ArcLace.NodeData;
-import qdg.bits.ConcatIterator;
+import qdg.bits.BooleanIdMap;
+import qdg.bits.DoubleIdMap;
+import qdg.bits.IntArcLace;
+import qdg.bits.IntIdMap;
+import qdg.bits.LongIdMap;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Function;
@@ -50,9 +56,9 @@ import com.google.common.collect.Iterators;
  * @author Marton Makai
  */
 public class ListUGraph extends AbstractUGraph
-		implements UIdGraph, Serializable {
+		implements CursorUGraph, Serializable {
 	
-	private static final long serialVersionUID = 8729615163564836464L;
+	private static final long serialVersionUID = -1504922376925139745L;
 
 	public static class N extends AbstractIdEntity
 			implements Node {
@@ -80,14 +86,9 @@ public class ListUGraph extends AbstractUGraph
 		}
 	}
 	
-	protected SparseArrayList<NodeData> nodes =
-			new SparseArrayList<NodeData>();
+	protected SparseArrayList<Boolean> nodes = new SparseArrayList<Boolean>();
 	
-	protected SparseArrayList<ArcData<Integer>> uEdgeData =
-			new SparseArrayList<ArcData<Integer>>();
-	
-	protected transient ArcLace<Integer> uEdgeLace = new ArcLace<Integer>(
-			nodes, uEdgeData);
+	protected IntArcLace uEdgeLace = new IntArcLace();
 	
 	private transient Map<NodeMutationHandler, Object> nodeMutationHandlers;
 
@@ -145,14 +146,14 @@ public class ListUGraph extends AbstractUGraph
 
 	@Override
 	public Iterator<Edge> getIncidentUEdgeIterator(Node node) {
-		return Iterators.transform(new ConcatIterator<Integer>(
-				uEdgeLace.getOutArcIterator(((N) node).getId()),
-				uEdgeLace.getInArcIterator(((N) node).getId())), constructEdge);
+		return Iterators.transform(
+				uEdgeLace.getIncidentArcIterator(((N) node).getId()),
+				constructEdge);
 	}
 	
 	@Override
 	public Node addNode() {
-		int id = nodes.add(new NodeData());
+		int id = nodes.add(Boolean.TRUE);
 		Node n = new N(id);
 		for (NodeMutationHandler handler : nodeMutationHandlers.keySet()) {
 			handler.onAdd(n);
@@ -163,13 +164,11 @@ public class ListUGraph extends AbstractUGraph
 	@Override
 	public void remove(Node node) {
 		N n = (N) node;
-		while (uEdgeLace.getOutArcIterator(n.getId()).hasNext()) {
-			U u = new U(uEdgeLace.getOutArcIterator(n.getId()).next());
-			remove(u);
+		while (uEdgeLace.getFirstOut(n.getId()) >= 0) {
+			remove(new U(uEdgeLace.getFirstOut(n.getId())));
 		}
-		while (uEdgeLace.getInArcIterator(n.getId()).hasNext()) {
-			U u = new U(uEdgeLace.getInArcIterator(n.getId()).next());
-			remove(u);
+		while (uEdgeLace.getFirstIn(n.getId()) >= 0) {
+			remove(new U(uEdgeLace.getFirstIn(n.getId())));
 		}
 		for (NodeMutationHandler handler : nodeMutationHandlers.keySet()) {
 			handler.onRemove(node);
@@ -186,8 +185,7 @@ public class ListUGraph extends AbstractUGraph
 	public Edge addUEdge(Node source, Node target) {
 		N s = (N) source;
 		N t = (N) target;
-		int id = uEdgeData.add(new ArcData<Integer>(s.getId(), t.getId()));
-		uEdgeLace.laceArc(id, s.getId(), t.getId());
+		int id = uEdgeLace.addArc(s.getId(), t.getId());
 		Edge uEdge = new U(id);
 		for (EdgeMutationHandler handler : edgeMutationHandlers.keySet()) {
 			handler.onAdd(uEdge);
@@ -202,7 +200,6 @@ public class ListUGraph extends AbstractUGraph
 			handler.onRemove(uEdge);
 		}
 		uEdgeLace.remove(u.getId());
-		uEdgeData.remove(u.getId());
 	}
 	
 	@Override
@@ -250,10 +247,65 @@ public class ListUGraph extends AbstractUGraph
 		return map;
 	}
 	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		IntIdMap.NodeMap map = new IntIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		LongIdMap.NodeMap map = new LongIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		DoubleIdMap.NodeMap map = new DoubleIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		BooleanIdMap.NodeMap map = new BooleanIdMap.NodeMap(defaultValue);
+		addNodeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		IntIdMap.EdgeMap map = new IntIdMap.EdgeMap(defaultValue);
+		addEdgeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		LongIdMap.EdgeMap map = new LongIdMap.EdgeMap(defaultValue);
+		addEdgeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		DoubleIdMap.EdgeMap map = new DoubleIdMap.EdgeMap(defaultValue);
+		addEdgeMutationHandler(map);
+		return map;
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		BooleanIdMap.EdgeMap map = new BooleanIdMap.EdgeMap(defaultValue);
+		addEdgeMutationHandler(map);
+		return map;
+	}
+	
 	@GwtIncompatible("ObjectInputStream")
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
-		uEdgeLace = new ArcLace<Integer>(nodes, uEdgeData);
 		nodeMutationHandlers = new WeakHashMap<NodeMutationHandler, Object>();
 		edgeMutationHandlers = new WeakHashMap<EdgeMutationHandler, Object>();
 	}
@@ -263,6 +315,31 @@ public class ListUGraph extends AbstractUGraph
 		out.defaultWriteObject();
 	}
 
+	@Override
+	public int getNodeIdBound() {
+		return nodes.getIdBound();
+	}
+	
+	@Override
+	public int getUEdgeIdBound() {
+		return uEdgeLace.getArcIdBound();
+	}
+	
+	@Override
+	public EdgeCursor createIncidentUEdgeCursor() {
+		return uEdgeLace.createIncidentArcCursor();
+	}
+	
+	@Override
+	public int getNodeId(Node node) {
+		return ((N) node).getId();
+	}
+	
+	@Override
+	public int getUEdgeId(Edge uEdge) {
+		return ((U) uEdge).getId();
+	}
+
 	@Override
 	public Node nodeFromId(int id) {
 		return new N(id);
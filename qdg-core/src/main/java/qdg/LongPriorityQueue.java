@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+/**
+ * Priority queue of int items, i.e.\ non-negative ints like node ids, with
+ * primitive long keys.
+ */
+public interface LongPriorityQueue {
+	
+	/**
+	 * Throws IllegalArgumentException if the item is in the queue.
+	 */
+	void add(int item, long key);
+	
+	/**
+	 * Decreases the key of an item in the queue.
+	 */
+	void decrease(int item, long key);
+	
+	boolean contains(int item);
+	
+	/**
+	 * The key of an item in the queue.
+	 */
+	long getKey(int item);
+	
+	/**
+	 * Removes an item of the minimal key, and returns it, or -1 if the queue
+	 * is empty.
+	 */
+	int poll();
+	
+	int size();
+	
+	boolean isEmpty();
+	
+	void clear();
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+/**
+ * Radix heap, a monotone priority queue of long keys. Bucket 0 contains
+ * the keys equal to the last polled key, and bucket i > 0 the keys whose
+ * highest bit differing from the last polled key is bit i - 1. When
+ * bucket 0 runs empty, the first non-empty bucket is redistributed around
+ * its minimum, and each item moves to lower buckets only, which gives
+ * O(log C) amortized time per item for keys spread at most C.
+ * 
+ * Based on:
+ * @article{Ahuja1990,
+ *   author = {Ahuja, Ravindra K. and Mehlhorn, Kurt and Orlin, James and
+ *     Tarjan, Robert E.},
+ *   title = {Faster Algorithms for the Shortest Path Problem},
+ *   journal = {Journal of the ACM},
+ *   year = {1990},
+ *   volume = {37},
+ *   number = {2},
+ *   pages = {213--223}
+ * }
+ */
+public class RadixHeap extends AbstractMonotoneQueue {
+	
+	public RadixHeap() {
+		this(0);
+	}
+	
+	public RadixHeap(int capacity) {
+		super(capacity, Long.SIZE + 1);
+	}
+	
+	@Override
+	protected int bucketOf(long key) {
+		return key == last ? 0 : Long.SIZE - Long.numberOfLeadingZeros(key ^ last);
+	}
+	
+	@Override
+	public int poll() {
+		if (size == 0) {
+			return -1;
+		}
+		if (heads[0] < 0) {
+			int b = 1;
+			while (heads[b] < 0) {
+				++b;
+			}
+			long min = keys[heads[b]];
+			for (int item = next[heads[b]]; item >= 0; item = next[item]) {
+				min = Math.min(min, keys[item]);
+			}
+			last = min;
+			int item = heads[b];
+			while (item >= 0) {
+				int following = next[item];
+				unlink(item);
+				link(item, bucketOf(keys[item]));
+				item = following;
+			}
+		}
+		return pollFrom(0);
+	}
+}
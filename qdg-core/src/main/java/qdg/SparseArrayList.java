@@ -16,48 +16,46 @@
 
 package qdg;
 
-import java.io.Serializable;
 import java.util.AbstractMap.SimpleEntry;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.UnmodifiableIterator;
 
-public class SparseArrayList<E> implements SparseArrayMap<E>, Serializable {
+/**
+ * An Integer -> E map stored in a sparse array. The used and the free keys
+ * are kept in doubly linked lists stored in int arrays, so that
+ * {@link #add(Object)} reuses the last removed key.
+ * 
+ * @author Marton Makai
+ *
+ * @param <E>
+ */
+public class SparseArrayList<E> extends AbstractSparseArrayList
+		implements SparseArrayMap<E> {
 	
-	private static final long serialVersionUID = -4891243247383504348L;
+	private static final long serialVersionUID = -4891243247383504349L;
 
-	private static class LinkedElement<F> implements Serializable {
-		
-		private static final long serialVersionUID = -539690895763695408L;
-
-		private F f;
-		
-		private int previous = -1;
-		
-		private int next = -1;
-	}
-	
-	protected List<LinkedElement<E>> container =
-			new ArrayList<LinkedElement<E>>();
-	
-	protected int firstUsed = -1;
+	protected Object[] container = new Object[0];
 	
-	// Though new elements could be inserted to the front, and then storing
-	// the index of the last used position would not be necessary, it still
-	// helps a bit in the debugging when the elements come in their original
-	// order. Free elements are singly linked.
-	protected int lastUsed = -1;
+	@Override
+	protected boolean isUsed(int i) {
+		return container[i] != null;
+	}
 	
-	protected int firstFree = -1;
+	@Override
+	protected void grow(int capacity) {
+		container = Arrays.copyOf(container, capacity);
+	}
 	
+	@SuppressWarnings("unchecked")
+	@Override
 	public E get(int i) {
-		if (i >= container.size()) {
+		if (i < 0 || i >= size) {
 			return null;
 		} else {
-			return container.get(i).f;
+			return (E) container[i];
 		}
 	}
 
@@ -66,63 +64,18 @@ public class SparseArrayList<E> implements SparseArrayMap<E>, Serializable {
 		int i = (Integer) k;
 		return get(i);
 	}
-
+	
 	public int add(E e) {
 		// New element is added as last in order.
-		int newIndex;
-		if (firstFree >= 0) {
-			newIndex = firstFree;
-		} else {
-			newIndex = container.size();
-		}
+		int newIndex = nextFreeKey();
 		put(newIndex, e);
 		return newIndex;
 	}
 	
-	private class KeyIterator extends UnmodifiableIterator<Integer> {
 
-		private int id = -1;
-		
-		@Override
-		public boolean hasNext() {
-			if (id == -1) {
-				return firstUsed >= 0;
-			} else {
-				return container.get(id).next >= 0;
-			}
-		}
-
-		@Override
-		public Integer next() {
-			if (id == -1) {
-				id = firstUsed;
-			} else {
-				id = container.get(id).next;
-			}
-			return id;
-		}
-	}
-	
-	public Iterator<Integer> keyIterator() {
-		return new KeyIterator();
-	}
-	
-	public Iterable<Integer> keys() {
-		return new Iterable<Integer>() {
-
-			@Override
-			public Iterator<Integer> iterator() {
-				return new KeyIterator();
-			}
-		};
-	}
-	
-	/**
-	 * For testing purposes only.
-	 */
 	private class ValueIterator extends UnmodifiableIterator<E> {
 
-		private Iterator<Integer> id = new KeyIterator();
+		private Iterator<Integer> id = keyIterator();
 		
 		@Override
 		public boolean hasNext() {
@@ -131,8 +84,7 @@ public class SparseArrayList<E> implements SparseArrayMap<E>, Serializable {
 
 		@Override
 		public E next() {
-			int nextId = id.next();
-			return container.get(nextId).f;
+			return get(id.next().intValue());
 		}
 	}
 	
@@ -152,7 +104,7 @@ public class SparseArrayList<E> implements SparseArrayMap<E>, Serializable {
 	
 	private class EntryIterator extends UnmodifiableIterator<Map.Entry<Integer, E>> {
 
-		private Iterator<Integer> id = new KeyIterator();
+		private Iterator<Integer> id = keyIterator();
 		
 		@Override
 		public boolean hasNext() {
@@ -162,7 +114,7 @@ public class SparseArrayList<E> implements SparseArrayMap<E>, Serializable {
 		@Override
 		public Map.Entry<Integer, E> next() {
 			Integer nextId = id.next();
-			return new SimpleEntry<Integer, E>(nextId, container.get(nextId).f);
+			return new SimpleEntry<Integer, E>(nextId, get(nextId.intValue()));
 		}
 	}
 	
@@ -181,71 +133,12 @@ public class SparseArrayList<E> implements SparseArrayMap<E>, Serializable {
 	}
 
 	public E remove(int id) {
-		if (id >= container.size()) {
-			return null;
-		}
-		LinkedElement<E> removedElement = container.get(id);
-		if (removedElement.f != null) {
-			if (removedElement.previous >= 0) {
-				container.get(removedElement.previous).next = removedElement.next;
-			} else {
-				firstUsed = removedElement.next;
-			}
-			if (removedElement.next >= 0) {
-				container.get(removedElement.next).previous = removedElement.previous;
-			} else {
-				lastUsed = removedElement.previous;
-			}
-			E oldValue = removedElement.f;
-			removedElement.f = null;
-			removedElement.previous = -1;
-			removedElement.next = firstFree;
-			firstFree = id;
-			return oldValue;
-		} else {
-			return null;
+		E oldValue = get(id);
+		if (oldValue != null) {
+			unlink(id);
+			container[id] = null;
 		}
-	}
-
-	/**
-	 * For testing purposes only.
-	 */
-	private class FreeKeyIterator extends UnmodifiableIterator<Integer> {
-
-		private int id = -1;
-		
-		@Override
-		public boolean hasNext() {
-			if (id == -1) {
-				return firstFree >= 0;
-			} else {
-				return container.get(id).next >= 0;
-			}
-		}
-
-		@Override
-		public Integer next() {
-			if (id == -1) {
-				id = firstFree;
-			} else {
-				id = container.get(id).next;
-			}
-			return id;
-		}
-	}
-	
-	public Iterator<Integer> freeKeyIterator() {
-		return new FreeKeyIterator();
-	}
-	
-	public Iterable<Integer> freeKeys() {
-		return new Iterable<Integer>() {
-
-			@Override
-			public Iterator<Integer> iterator() {
-				return new FreeKeyIterator();
-			}
-		};
+		return oldValue;
 	}
 
 	@Override
@@ -253,41 +146,11 @@ public class SparseArrayList<E> implements SparseArrayMap<E>, Serializable {
 		if (v == null) {
 			throw new IllegalArgumentException();
 		}
-		while (k >= container.size()) {
-			LinkedElement<E> newElement = new LinkedElement<E>();
-			container.add(newElement);
-			if (firstFree >= 0) {
-				container.get(firstFree).previous = container.size() - 1;
-				newElement.next = firstFree;
-			}
-			firstFree = container.size() - 1;
-		}
-		LinkedElement<E> newElement = container.get(k);
-		if (newElement.f != null) {
-			E oldValue = newElement.f;
-			newElement.f = v;
-			return oldValue;
-		} else {
-			if (newElement.previous >= 0) {
-				container.get(newElement.previous).next = newElement.next;
-			} else {
-				firstFree = newElement.next;
-			}
-			if (newElement.next >= 0) {
-				container.get(newElement.next).previous = newElement.previous;
-			}
-			newElement.f = v;
-			// New element is added as last in order.
-			newElement.previous = lastUsed;
-			newElement.next = -1;
-			// firstUsed >= 0 and lastUsed >= 0 are equivalent.
-			if (firstUsed >= 0) {
-				container.get(lastUsed).next = k;
-			} else {
-				firstUsed = k;
-			}
-			lastUsed = k;
-			return null;
+		E oldValue = get(k.intValue());
+		if (oldValue == null) {
+			link(k);
 		}
+		container[k] = v;
+		return oldValue;
 	}
 }
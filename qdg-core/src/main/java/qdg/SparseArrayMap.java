@@ -6,5 +6,12 @@ import qdg.api.EntityMap;
 
 public interface SparseArrayMap<E> extends EntityMap<Integer, E> {
 
+	E get(int i);
+	
 	Iterator<Integer> keyIterator();
+	
+	/**
+	 * All keys are less than the bound.
+	 */
+	int getIdBound();
 }
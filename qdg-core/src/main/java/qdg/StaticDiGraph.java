@@ -22,15 +22,25 @@ import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
-import qdg.api.DiIdGraph;
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorDiGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+import qdg.api.bits.EdgeCursor;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.NodeMutationHandler;
 import qdg.bits.AbstractDiGraph;
 import qdg.bits.AbstractIdEntity;
 import qdg.bits.AbstractIdMap;
+import qdg.bits.BooleanIdMap;
+import qdg.bits.ConcatEdgeCursor;
 import qdg.bits.ConcatIterator;
+import qdg.bits.DoubleIdMap;
 import qdg.bits.IndexIterator;
+import qdg.bits.IntIdMap;
+import qdg.bits.LongIdMap;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Function;
@@ -39,7 +49,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 
 public class StaticDiGraph extends AbstractDiGraph
-		implements DiIdGraph {
+		implements CursorDiGraph {
 	
 	public static class N extends AbstractIdEntity
 			implements Node {
@@ -241,6 +251,117 @@ public class StaticDiGraph extends AbstractDiGraph
 	public <V> EntityMap<Edge, V> createArcMap() {
 		return new ArcMap<V>();
 	}
+	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return new IntIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return new LongIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return new DoubleIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return new BooleanIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+
+	protected class ListCursor implements EdgeCursor {
+		
+		private boolean out;
+		
+		private List<Edge> edges;
+		
+		private int i;
+		
+		public ListCursor(boolean out) {
+			this.out = out;
+		}
+
+		@Override
+		public void reset(int nodeId) {
+			NodeData data = nodes.get(nodeId);
+			edges = out ? data.outArcs : data.inArcs;
+			i = -1;
+		}
+
+		@Override
+		public boolean next() {
+			return ++i < edges.size();
+		}
+
+		@Override
+		public int getEdgeId() {
+			return ((A) edges.get(i)).getId();
+		}
+
+		@Override
+		public int getNodeId() {
+			EdgeData data = arcs.get(getEdgeId());
+			return out ? data.target.getId() : data.source.getId();
+		}
+	}
+	
+	@Override
+	public int getNodeIdBound() {
+		return nodes.size();
+	}
+	
+	@Override
+	public int getArcIdBound() {
+		return arcs.size();
+	}
+	
+	@Override
+	public EdgeCursor createOutArcCursor() {
+		return new ListCursor(true);
+	}
+	
+	@Override
+	public EdgeCursor createInArcCursor() {
+		return new ListCursor(false);
+	}
+	
+	@Override
+	public EdgeCursor createIncidentArcCursor() {
+		return new ConcatEdgeCursor(new ListCursor(true), new ListCursor(false));
+	}
+	
+	@Override
+	public int getNodeId(Node node) {
+		return ((N) node).getId();
+	}
+	
+	@Override
+	public int getArcId(Edge arc) {
+		return ((A) arc).getId();
+	}
 
 	@Override
 	public Node nodeFromId(int id) {
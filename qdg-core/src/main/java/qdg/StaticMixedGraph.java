@@ -22,15 +22,25 @@ import java.util.List;
 import java.util.Map;
 import java.util.WeakHashMap;
 
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorMixedGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
-import qdg.api.MixedIdGraph;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+import qdg.api.bits.EdgeCursor;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.NodeMutationHandler;
 import qdg.bits.AbstractIdEntity;
 import qdg.bits.AbstractIdMap;
 import qdg.bits.AbstractMixedGraph;
+import qdg.bits.BooleanIdMap;
+import qdg.bits.ConcatEdgeCursor;
 import qdg.bits.ConcatIterator;
+import qdg.bits.DoubleIdMap;
 import qdg.bits.IndexIterator;
+import qdg.bits.IntIdMap;
+import qdg.bits.LongIdMap;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Function;
@@ -39,7 +49,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 
 public class StaticMixedGraph extends AbstractMixedGraph
-		implements MixedIdGraph {
+		implements CursorMixedGraph {
 	
 	public static class N extends AbstractIdEntity
 			implements Node {
@@ -379,6 +389,161 @@ public class StaticMixedGraph extends AbstractMixedGraph
 	public <V> EntityMap<Edge, V> createArcMap() {
 		return new ArcMap<V>();
 	}
+	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return new IntIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return new LongIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return new DoubleIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return new BooleanIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+
+	protected class ListCursor implements EdgeCursor {
+		
+		private boolean directed;
+		
+		private boolean out;
+		
+		private List<Edge> edges;
+		
+		private int i;
+		
+		public ListCursor(boolean directed, boolean out) {
+			this.directed = directed;
+			this.out = out;
+		}
+
+		@Override
+		public void reset(int nodeId) {
+			NodeData data = nodes.get(nodeId);
+			if (directed) {
+				edges = out ? data.outArcs : data.inArcs;
+			} else {
+				edges = out ? data.outUEdges : data.inUEdges;
+			}
+			i = -1;
+		}
+
+		@Override
+		public boolean next() {
+			return ++i < edges.size();
+		}
+
+		@Override
+		public int getEdgeId() {
+			return ((E) edges.get(i)).getId();
+		}
+
+		@Override
+		public int getNodeId() {
+			EdgeData data = (directed ? arcs : uEdges).get(getEdgeId());
+			return out ? data.target.getId() : data.source.getId();
+		}
+	}
+	
+	@Override
+	public int getNodeIdBound() {
+		return nodes.size();
+	}
+	
+	@Override
+	public int getArcIdBound() {
+		return arcs.size();
+	}
+	
+	@Override
+	public int getUEdgeIdBound() {
+		return uEdges.size();
+	}
+	
+	@Override
+	public EdgeCursor createOutArcCursor() {
+		return new ListCursor(true, true);
+	}
+	
+	@Override
+	public EdgeCursor createInArcCursor() {
+		return new ListCursor(true, false);
+	}
+	
+	@Override
+	public EdgeCursor createIncidentArcCursor() {
+		return new ConcatEdgeCursor(
+				new ListCursor(true, true), new ListCursor(true, false));
+	}
+	
+	@Override
+	public EdgeCursor createIncidentUEdgeCursor() {
+		return new ConcatEdgeCursor(
+				new ListCursor(false, true), new ListCursor(false, false));
+	}
+	
+	@Override
+	public int getNodeId(Node node) {
+		return ((N) node).getId();
+	}
+	
+	@Override
+	public int getArcId(Edge arc) {
+		return ((E) arc).getId();
+	}
+	
+	@Override
+	public int getUEdgeId(Edge uEdge) {
+		return ((E) uEdge).getId();
+	}
 
 	@Override
 	public Node nodeFromId(int id) {
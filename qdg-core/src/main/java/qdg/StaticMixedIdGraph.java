@@ -22,17 +22,22 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Iterator;
 
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
 import qdg.api.MixedIdGraph;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.NodeMutationHandler;
 import qdg.bits.AbstractIdEntity;
 import qdg.bits.AbstractIdMap;
 import qdg.bits.AbstractMixedGraph;
-import qdg.bits.ArcLace;
-import qdg.bits.ArcLace.ArcData;
-import qdg.bits.ArcLace.NodeData;
-import qdg.bits.ConcatIterator;
+import qdg.bits.BooleanIdMap;
+import qdg.bits.DoubleIdMap;
+import qdg.bits.IntArcLace;
+import qdg.bits.IntIdMap;
+import qdg.bits.LongIdMap;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Function;
@@ -56,7 +61,7 @@ import com.google.common.collect.Iterators;
 public class StaticMixedIdGraph extends AbstractMixedGraph
 		implements MixedIdGraph, Serializable {
 	
-	private static final long serialVersionUID = 4444550416599231556L;
+	private static final long serialVersionUID = 2851935806411950162L;
 
 	public static class N extends AbstractIdEntity
 			implements Node {
@@ -71,21 +76,6 @@ public class StaticMixedIdGraph extends AbstractMixedGraph
 		}
 	}
 	
-	protected static class CombinedNodeData implements Serializable {
-		
-		private static final long serialVersionUID = 8855112085916381992L;
-
-		protected NodeData arcData = new NodeData();
-		
-		protected NodeData uEdgeData = new NodeData();
-    	
-		@Override
-		public String toString() {
-			return "CombinedNodeData [arcData=" + arcData + ", uEdgeData="
-					+ uEdgeData + "]";
-		}
-	}
-	
 	public static class E extends AbstractIdEntity
 			implements Edge {
 		
@@ -129,70 +119,12 @@ public class StaticMixedIdGraph extends AbstractMixedGraph
 		return ((E) edge).directed;
 	}
 	
-	protected StaticSparseArrayList<CombinedNodeData> nodes =
-			new StaticSparseArrayList<CombinedNodeData>();
-	
-	private class ArcNodeMap implements EntityMap<Integer, NodeData> {
-		
-		@Override
-		public NodeData put(Integer k, NodeData v) {
-			CombinedNodeData c = nodes.get(k);
-			if (c == null) {
-				c = new CombinedNodeData();
-			}
-			c.arcData = v;
-			return v;
-		}
-
-		@Override
-		public NodeData get(Object k) {
-			CombinedNodeData c = nodes.get(k);
-			if (c == null) {
-				return null;
-			}
-			return c.arcData;
-		}
-	}
-	
-	protected transient EntityMap<Integer, NodeData> arcNodes =
-			new ArcNodeMap();
+	protected StaticSparseArrayList<Boolean> nodes =
+			new StaticSparseArrayList<Boolean>();
 	
-	private class UEdgeNodeMap implements EntityMap<Integer, NodeData> {
-		
-		@Override
-		public NodeData put(Integer k, NodeData v) {
-			CombinedNodeData c = nodes.get(k);
-			if (c == null) {
-				c = new CombinedNodeData();
-			}
-			c.uEdgeData = v;
-			return v;
-		}
-
-		@Override
-		public NodeData get(Object k) {
-			CombinedNodeData c = nodes.get(k);
-			if (c == null) {
-				return null;
-			}
-			return c.uEdgeData;
-		}
-	}
-	
-	protected transient EntityMap<Integer, NodeData> uEdgeNodes =
-			new UEdgeNodeMap();
-	
-	protected StaticSparseArrayList<ArcData<Integer>> arcData =
-			new StaticSparseArrayList<ArcData<Integer>>();
+	protected IntArcLace arcLace = new IntArcLace();
 	
-	protected transient ArcLace<Integer> arcLace =
-			new ArcLace<Integer>(arcNodes, arcData);
-	
-	protected StaticSparseArrayList<ArcData<Integer>> uEdgeData =
-			new StaticSparseArrayList<ArcData<Integer>>();
-	
-	protected transient ArcLace<Integer> uEdgeLace =
-			new ArcLace<Integer>(uEdgeNodes, uEdgeData);
+	protected IntArcLace uEdgeLace = new IntArcLace();
 	
 	private static Function<Integer, Node> constructNode =
 			new Function<Integer, Node>() {
@@ -268,41 +200,36 @@ public class StaticMixedIdGraph extends AbstractMixedGraph
 
 	@Override
 	public Iterator<Edge> getIncidentArcIterator(Node node) {
-		return Iterators.transform(new ConcatIterator<Integer>(
-				arcLace.getOutArcIterator(((N) node).getId()),
-				arcLace.getInArcIterator(((N) node).getId())), constructArc);
+		return Iterators.transform(
+				arcLace.getIncidentArcIterator(((N) node).getId()),
+				constructArc);
 	}
 
 	@Override
 	public Iterator<Edge> getIncidentUEdgeIterator(Node node) {
-		return Iterators.transform(new ConcatIterator<Integer>(
-				uEdgeLace.getOutArcIterator(((N) node).getId()),
-				uEdgeLace.getInArcIterator(((N) node).getId())),
+		return Iterators.transform(
+				uEdgeLace.getIncidentArcIterator(((N) node).getId()),
 				constructUEdge);
 	}
 	
 	public Node addNode(int id) {
-		nodes.put(id, new CombinedNodeData());
+		nodes.put(id, Boolean.TRUE);
 		return new N(id);
 	}
 	
 	public void remove(Node node) {
 		N n = (N) node;
-		while (arcLace.getOutArcIterator(n.getId()).hasNext()) {
-			E u = new E(arcLace.getOutArcIterator(n.getId()).next(), true);
-			remove(u);
+		while (arcLace.getFirstOut(n.getId()) >= 0) {
+			remove(new E(arcLace.getFirstOut(n.getId()), true));
 		}
-		while (arcLace.getInArcIterator(n.getId()).hasNext()) {
-			E u = new E(arcLace.getInArcIterator(n.getId()).next(), true);
-			remove(u);
+		while (arcLace.getFirstIn(n.getId()) >= 0) {
+			remove(new E(arcLace.getFirstIn(n.getId()), true));
 		}
-		while (uEdgeLace.getOutArcIterator(n.getId()).hasNext()) {
-			E u = new E(uEdgeLace.getOutArcIterator(n.getId()).next(), false);
-			remove(u);
+		while (uEdgeLace.getFirstOut(n.getId()) >= 0) {
+			remove(new E(uEdgeLace.getFirstOut(n.getId()), false));
 		}
-		while (uEdgeLace.getInArcIterator(n.getId()).hasNext()) {
-			E u = new E(uEdgeLace.getInArcIterator(n.getId()).next(), false);
-			remove(u);
+		while (uEdgeLace.getFirstIn(n.getId()) >= 0) {
+			remove(new E(uEdgeLace.getFirstIn(n.getId()), false));
 		}
 		nodes.remove(n.getId());
 	}
@@ -310,7 +237,6 @@ public class StaticMixedIdGraph extends AbstractMixedGraph
 	public Edge addArc(int id, Node source, Node target) {
 		N s = (N) source;
 		N t = (N) target;
-		arcData.put(id, new ArcData<Integer>(s.getId(), t.getId()));
 		arcLace.laceArc(id, s.getId(), t.getId());
 		return new E(id, true);
 	}
@@ -318,7 +244,6 @@ public class StaticMixedIdGraph extends AbstractMixedGraph
 	public Edge addUEdge(int id, Node source, Node target) {
 		N s = (N) source;
 		N t = (N) target;
-		uEdgeData.put(id, new ArcData<Integer>(s.getId(), t.getId()));
 		uEdgeLace.laceArc(id, s.getId(), t.getId());
 		return new E(id, false);
 	}
@@ -327,10 +252,8 @@ public class StaticMixedIdGraph extends AbstractMixedGraph
 		E e = (E) edge;
 		if (e.directed) {
 			arcLace.remove(e.getId());
-			arcData.remove(e.getId());
 		} else {
 			uEdgeLace.remove(e.getId());
-			uEdgeData.remove(e.getId());
 		}
 	}
 	
@@ -445,19 +368,66 @@ public class StaticMixedIdGraph extends AbstractMixedGraph
 		return new ArcMap<V>();
 	}
 	
-	@GwtIncompatible("ObjectInputStream")
-	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-		in.defaultReadObject();
-		arcLace = new ArcLace<Integer>(arcNodes, arcData);
-		uEdgeLace = new ArcLace<Integer>(uEdgeNodes, uEdgeData);
-		arcNodes = new ArcNodeMap();
-		uEdgeNodes = new UEdgeNodeMap();
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return new IntIdMap.NodeMap(defaultValue);
 	}
 	
-	@GwtIncompatible("ObjectOutputStream")
-	private void writeObject(ObjectOutputStream out) throws IOException {
-		out.defaultWriteObject();
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return new LongIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return new DoubleIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return new BooleanIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
 	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+	
 
 	@Override
 	public Node addNode() {
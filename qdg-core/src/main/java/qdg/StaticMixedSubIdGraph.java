@@ -22,7 +22,11 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Iterator;
 
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
 import qdg.api.MixedIdGraph;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.HasId;
@@ -32,7 +36,11 @@ import qdg.bits.AbstractMixedGraph;
 import qdg.bits.ArcLace;
 import qdg.bits.ArcLace.ArcData;
 import qdg.bits.ArcLace.NodeData;
+import qdg.bits.BooleanIdMap;
 import qdg.bits.ConcatIterator;
+import qdg.bits.DoubleIdMap;
+import qdg.bits.IntIdMap;
+import qdg.bits.LongIdMap;
 
 import com.google.common.annotations.GwtIncompatible;
 import com.google.common.base.Function;
@@ -407,6 +415,66 @@ public class StaticMixedSubIdGraph extends AbstractMixedGraph
 		return new ArcMap<V>();
 	}
 	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return new IntIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return new LongIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return new DoubleIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return new BooleanIdMap.NodeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		return new IntIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		return new LongIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		return new DoubleIdMap.EdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		return new BooleanIdMap.EdgeMap(defaultValue);
+	}
+	
 	@GwtIncompatible("ObjectInputStream")
 	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
 		in.defaultReadObject();
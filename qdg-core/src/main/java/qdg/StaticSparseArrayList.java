@@ -16,11 +16,9 @@
 
 package qdg;
 
-import java.io.Serializable;
 import java.util.AbstractMap.SimpleEntry;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 
 import com.google.common.collect.UnmodifiableIterator;
@@ -33,34 +31,30 @@ import com.google.common.collect.UnmodifiableIterator;
  *
  * @param <E>
  */
-public class StaticSparseArrayList<E> implements SparseArrayMap<E>, Serializable {
+public class StaticSparseArrayList<E> extends AbstractSparseArrayList
+		implements SparseArrayMap<E> {
 	
-	private static final long serialVersionUID = -4891243247383504348L;
+	private static final long serialVersionUID = -4891243247383504349L;
 
-	private static class LinkedElement<F> implements Serializable {
-		
-		private static final long serialVersionUID = -539690895763695408L;
-
-		private F f;
-		
-		private int previous = -1;
-		
-		private int next = -1;
-	}
-	
-	protected List<LinkedElement<E>> container =
-			new ArrayList<LinkedElement<E>>();
+	protected Object[] container = new Object[0];
 	
-	protected int firstUsed = -1;
+	@Override
+	protected boolean isUsed(int i) {
+		return container[i] != null;
+	}
 	
-	// Free elements are not linked.
-	protected int lastUsed = -1;
+	@Override
+	protected void grow(int capacity) {
+		container = Arrays.copyOf(container, capacity);
+	}
 	
+	@SuppressWarnings("unchecked")
+	@Override
 	public E get(int i) {
-		if (i >= container.size()) {
+		if (i < 0 || i >= size) {
 			return null;
 		} else {
-			return container.get(i).f;
+			return (E) container[i];
 		}
 	}
 
@@ -70,50 +64,9 @@ public class StaticSparseArrayList<E> implements SparseArrayMap<E>, Serializable
 		return get(i);
 	}
 	
-	private class KeyIterator extends UnmodifiableIterator<Integer> {
-
-		private int id = -1;
-		
-		@Override
-		public boolean hasNext() {
-			if (id == -1) {
-				return firstUsed >= 0;
-			} else {
-				return container.get(id).next >= 0;
-			}
-		}
-
-		@Override
-		public Integer next() {
-			if (id == -1) {
-				id = firstUsed;
-			} else {
-				id = container.get(id).next;
-			}
-			return id;
-		}
-	}
-	
-	public Iterator<Integer> keyIterator() {
-		return new KeyIterator();
-	}
-	
-	public Iterable<Integer> keys() {
-		return new Iterable<Integer>() {
-
-			@Override
-			public Iterator<Integer> iterator() {
-				return new KeyIterator();
-			}
-		};
-	}
-	
-	/**
-	 * For testing purposes only.
-	 */
 	private class ValueIterator extends UnmodifiableIterator<E> {
 
-		private Iterator<Integer> id = new KeyIterator();
+		private Iterator<Integer> id = keyIterator();
 		
 		@Override
 		public boolean hasNext() {
@@ -122,8 +75,7 @@ public class StaticSparseArrayList<E> implements SparseArrayMap<E>, Serializable
 
 		@Override
 		public E next() {
-			int nextId = id.next();
-			return container.get(nextId).f;
+			return get(id.next().intValue());
 		}
 	}
 	
@@ -143,7 +95,7 @@ public class StaticSparseArrayList<E> implements SparseArrayMap<E>, Serializable
 	
 	private class EntryIterator extends UnmodifiableIterator<Map.Entry<Integer, E>> {
 
-		private Iterator<Integer> id = new KeyIterator();
+		private Iterator<Integer> id = keyIterator();
 		
 		@Override
 		public boolean hasNext() {
@@ -153,7 +105,7 @@ public class StaticSparseArrayList<E> implements SparseArrayMap<E>, Serializable
 		@Override
 		public Map.Entry<Integer, E> next() {
 			Integer nextId = id.next();
-			return new SimpleEntry<Integer, E>(nextId, container.get(nextId).f);
+			return new SimpleEntry<Integer, E>(nextId, get(nextId.intValue()));
 		}
 	}
 	
@@ -172,55 +124,24 @@ public class StaticSparseArrayList<E> implements SparseArrayMap<E>, Serializable
 	}
 
 	public E remove(int id) {
-		if (id >= container.size()) {
-			return null;
-		}
-		LinkedElement<E> removedElement = container.get(id);
-		if (removedElement.f != null) {
-			if (removedElement.previous >= 0) {
-				container.get(removedElement.previous).next = removedElement.next;
-			} else {
-				firstUsed = removedElement.next;
-			}
-			if (removedElement.next >= 0) {
-				container.get(removedElement.next).previous = removedElement.previous;
-			} else {
-				lastUsed = removedElement.previous;
-			}
-			E oldValue = removedElement.f;
-			removedElement.f = null;
-			return oldValue;
-		} else {
-			return null;
+		E oldValue = get(id);
+		if (oldValue != null) {
+			unlink(id);
+			container[id] = null;
 		}
+		return oldValue;
 	}
-	
+
 	@Override
 	public E put(Integer k, E v) {
 		if (v == null) {
 			throw new IllegalArgumentException();
 		}
-		while (k >= container.size()) {
-			LinkedElement<E> newElement = new LinkedElement<E>();
-			container.add(newElement);
-		}
-		LinkedElement<E> newElement = container.get(k);
-		if (newElement.f != null) {
-			E oldValue = newElement.f;
-			newElement.f = v;
-			return oldValue;
-		} else {
-			newElement.f = v;
-			newElement.previous = lastUsed;
-			newElement.next = -1;
-			// firstUsed >= 0 and lastUsed >= 0 are equivalent.
-			if (firstUsed >= 0) {
-				container.get(lastUsed).next = k;
-			} else {
-				firstUsed = k;
-			}
-			lastUsed = k;
-			return null;
+		E oldValue = get(k.intValue());
+		if (oldValue == null) {
+			link(k);
 		}
+		container[k] = v;
+		return oldValue;
 	}
 }
@@ -19,10 +19,13 @@ package qdg;
 import qdg.api.EntityMap;
 
 /**
- * Simple union-find datastructure without path compression.
+ * Union-find datastructure of arbitrary items, with union by rank and path
+ * compression.
  * 
  * With constant-time parent and rank map operations all union-find
- * operations are of logarithmic time complexity.
+ * operations are of almost constant amortized time complexity. For items
+ * identified by ints, e.g.\ node ids, IntUnionFind avoids the boxing of the
+ * maps, and ConcurrentIntUnionFind can be shared by threads.
  *
  * @param <T>
  */
@@ -44,28 +47,38 @@ public class UnionFind<T> {
 			return;
 		}
 		int rank1 = rank.get(root1);
-		if (rank1 < rank.get(root2)) {
+		int rank2 = rank.get(root2);
+		if (rank1 < rank2) {
 			parent.put(root1, root2);
-		} else if (rank1 > rank.get(root2)) {
+		} else if (rank1 > rank2) {
 			parent.put(root2, root1);
 		} else {
 			parent.put(root2, root1);
-			rank.put(root1, rank1);
+			rank.put(root1, rank1 + 1);
 		}
 	}
 	
 	public T find(T t) {
+		if (t == null) {
+			return null;
+		}
+		T root = t;
 		while (true) {
-			if (t == null) {
+			T p = parent.get(root);
+			if (p == null) {
 				return null;
 			}
-			T root = parent.get(t);
-			if (t.equals(root)) {
-				return root;
-			} else {
-				t = root;
+			if (root.equals(p)) {
+				break;
 			}
+			root = p;
+		}
+		while (!t.equals(root)) {
+			T p = parent.get(t);
+			parent.put(t, root);
+			t = p;
 		}
+		return root;
 	}
 	
 	public void add(T t) {
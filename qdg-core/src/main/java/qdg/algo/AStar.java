@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+import qdg.view.DiGraphAsCursorDiGraph;
+
+import com.google.common.base.Function;
+
+/**
+ * Point to point shortest path queries by A*, i.e.\ Dijkstra's algorithm
+ * from the source with the distances plus the potentials of the nodes as
+ * keys, stopped when the target is settled. The potential must be a lower
+ * bound of the distance to the target, and consistent, i.e.\ the length of
+ * each arc uv must be at least the potential of u minus the potential of v.
+ * The zero potential gives Dijkstra's algorithm, LandmarkOracle gives
+ * potentials by landmarks.
+ * 
+ * The potential of a node is evaluated once per query, when the node is
+ * reached. The lengths, the search state and thread safety are as in
+ * BidirectionalDijkstra.
+ */
+public class AStar {
+	
+	protected final CursorDiGraph g;
+	
+	protected final double[] lengths;
+	
+	private final SearchSpace search;
+	
+	private final double[] potentials;
+	
+	private final EdgeCursor cursor;
+	
+	public AStar(DiGraph g, EntityMap<Edge, Double> lengths) {
+		this(DiGraphAsCursorDiGraph.of(g), lengths);
+	}
+	
+	private AStar(CursorDiGraph g, EntityMap<Edge, Double> lengths) {
+		this(g, ArcLengths.of(g, lengths));
+	}
+	
+	public AStar(AStar other) {
+		this(other.g, other.lengths);
+	}
+	
+	private AStar(CursorDiGraph g, double[] lengths) {
+		this.g = g;
+		this.lengths = lengths;
+		search = new SearchSpace(g.getNodeIdBound());
+		potentials = new double[g.getNodeIdBound()];
+		cursor = g.createOutArcCursor();
+	}
+	
+	public CursorDiGraph getGraph() {
+		return g;
+	}
+	
+	private boolean search(int s, int t,
+			Function<? super Node, Double> potential) {
+		search.reset();
+		potentials[s] = potential.apply(g.nodeFromId(s));
+		search.label(s, 0.0, potentials[s], -1, -1);
+		while (!search.queue.isEmpty()) {
+			int u = search.poll();
+			if (u == t) {
+				return true;
+			}
+			double dist = search.getDistance(u);
+			cursor.reset(u);
+			while (cursor.next()) {
+				int a = cursor.getEdgeId();
+				int v = cursor.getNodeId();
+				double d = dist + lengths[a];
+				if (!search.isReached(v)) {
+					potentials[v] = potential.apply(g.nodeFromId(v));
+					search.label(v, d, d + potentials[v], a, u);
+				} else if (d < search.getDistance(v) && !search.isSettled(v)) {
+					search.label(v, d, d + potentials[v], a, u);
+				}
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * The length of a shortest path from s to t, or infinity if t is not
+	 * reachable from s.
+	 */
+	public double computeDistance(Node s, Node t,
+			Function<? super Node, Double> potential) {
+		int tId = g.getNodeId(t);
+		return search(g.getNodeId(s), tId, potential)
+				? search.getDistance(tId) : Double.POSITIVE_INFINITY;
+	}
+	
+	public double computeDistance(Node s, Node t,
+			EntityMap<Node, Double> potential) {
+		return computeDistance(s, t, asFunction(potential));
+	}
+	
+	/**
+	 * A shortest path from s to t, or null if t is not reachable from s.
+	 */
+	public ShortestPath computePath(Node s, Node t,
+			Function<? super Node, Double> potential) {
+		int tId = g.getNodeId(t);
+		if (!search(g.getNodeId(s), tId, potential)) {
+			return null;
+		}
+		List<Edge> arcs = new ArrayList<Edge>();
+		for (int v = tId; search.getPredArc(v) >= 0; v = search.getPredNode(v)) {
+			arcs.add(g.arcFromId(search.getPredArc(v)));
+		}
+		Collections.reverse(arcs);
+		return new ShortestPath(search.getDistance(tId), arcs);
+	}
+	
+	public ShortestPath computePath(Node s, Node t,
+			EntityMap<Node, Double> potential) {
+		return computePath(s, t, asFunction(potential));
+	}
+	
+	/**
+	 * The number of nodes settled by the last query.
+	 */
+	public int getNumSettled() {
+		return search.getNumSettled();
+	}
+	
+	private static Function<Node, Double> asFunction(
+			final EntityMap<Node, Double> potential) {
+		return new Function<Node, Double>() {
+			
+			@Override
+			public Double apply(Node v) {
+				return potential.get(v);
+			}
+		};
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import qdg.api.CursorDiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.LongEntityMap;
+import qdg.bits.BoxedMaps;
+
+/**
+ * Copies arc lengths into arrays indexed by arc ids.
+ */
+final class ArcLengths {
+	
+	private ArcLengths() {
+	}
+	
+	/**
+	 * Throws IllegalArgumentException for missing, negative or NaN lengths.
+	 */
+	static double[] of(CursorDiGraph g, EntityMap<Edge, Double> lengths) {
+		double[] result = new double[g.getArcIdBound()];
+		DoubleEntityMap<Edge> l = BoxedMaps.asDoubleMap(lengths, Double.NaN);
+		for (Edge a : g.getArcs()) {
+			double length = l.getDouble(a);
+			if (!(length >= 0.0)) {
+				throw new IllegalArgumentException();
+			}
+			result[g.getArcId(a)] = length;
+		}
+		return result;
+	}
+	
+	/**
+	 * Same as of(), for long lengths, which are exact below 2^53.
+	 */
+	static double[] ofLongs(CursorDiGraph g, EntityMap<Edge, Long> lengths) {
+		double[] result = new double[g.getArcIdBound()];
+		LongEntityMap<Edge> l = BoxedMaps.asLongMap(lengths, -1L);
+		for (Edge a : g.getArcs()) {
+			long length = l.getLong(a);
+			if (length < 0) {
+				throw new IllegalArgumentException();
+			}
+			result[g.getArcId(a)] = length;
+		}
+		return result;
+	}
+}
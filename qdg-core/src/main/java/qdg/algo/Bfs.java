@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import qdg.api.DiGraph;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+
+/**
+ * Breadth first search, with an int array as the queue. Usage: reset(),
+ * addSource() for each source, and start(), or simply run() for a single
+ * source.
+ */
+public class Bfs extends Traversal {
+	
+	private final int[] distance;
+	
+	private EdgeCursor cursor;
+	
+	private boolean cursorReverse;
+	
+	private int head;
+	
+	public Bfs(DiGraph g) {
+		super(g);
+		distance = new int[this.g.getNodeIdBound()];
+	}
+	
+	@Override
+	public void reset() {
+		super.reset();
+		head = 0;
+	}
+	
+	public void addSource(int s) {
+		if (!isReached(s)) {
+			reach(s, -1);
+			distance[s] = 0;
+			order[numOrdered++] = s;
+			visitor.discover(s);
+		}
+	}
+	
+	public void addSource(Node s) {
+		addSource(g.getNodeId(s));
+	}
+	
+	/**
+	 * Processes the queue until it gets empty or the visitor stops the
+	 * search.
+	 */
+	public void start() {
+		if (cursor == null || cursorReverse != reverse) {
+			cursor = createCursor();
+			cursorReverse = reverse;
+		}
+		TraversalVisitor visitor = this.visitor;
+		while (head < numOrdered && !visitor.stopped) {
+			int u = order[head++];
+			int dist = distance[u] + 1;
+			cursor.reset(u);
+			while (cursor.next()) {
+				int a = cursor.getEdgeId();
+				int v = cursor.getNodeId();
+				visitor.examineArc(a, u, v);
+				if (!isReached(v)) {
+					reach(v, a);
+					distance[v] = dist;
+					order[numOrdered++] = v;
+					visitor.treeArc(a, u, v);
+					visitor.discover(v);
+				}
+				if (visitor.stopped) {
+					return;
+				}
+			}
+			visitor.finish(u);
+		}
+	}
+	
+	public void run(Node s) {
+		reset();
+		addSource(s);
+		start();
+	}
+	
+	/**
+	 * The number of arcs on a shortest path from the sources, or -1 for
+	 * unreached nodes.
+	 */
+	public int getDistance(int v) {
+		return isReached(v) ? distance[v] : -1;
+	}
+	
+	public int getDistance(Node v) {
+		return getDistance(g.getNodeId(v));
+	}
+}
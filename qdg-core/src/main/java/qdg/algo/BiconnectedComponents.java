@@ -0,0 +1,313 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.Arrays;
+
+import qdg.StaticUGraph;
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorUGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.IntEntityMap;
+import qdg.api.MixedGraph;
+import qdg.api.UGraph;
+import qdg.api.bits.EdgeCursor;
+import qdg.view.MixedGraphAsUGraph;
+import qdg.view.UGraphAsCursorUGraph;
+
+/**
+ * Biconnected components, articulation points and bridges of an undirected
+ * graph, or of a mixed graph with its arcs taken as undirected edges, in
+ * linear time.
+ * 
+ * Based on:
+ * @ARTICLE{Hopcroft73,
+ *   author = {John Hopcroft and Robert Tarjan},
+ *   title = {Algorithm 447: Efficient Algorithms for Graph Manipulation},
+ *   journal = {Communications of the ACM},
+ *   year = {1973},
+ *   volume = {16},
+ *   number = {6},
+ *   pages = {372--378}
+ * }
+ * 
+ * The incident edges are copied into int arrays, and the depth first
+ * search keeps its call stack and the stack of edges in int arrays, hence
+ * there is no recursion and no allocation per node or edge. Parallel edges
+ * are told apart by their ids, so two parallel edges are never bridges.
+ * 
+ * The blocks, i.e.\ the biconnected components, are numbered in the order
+ * they are completed, and each edge belongs to one of them, except for
+ * loops. Isolated nodes belong to no block.
+ */
+public class BiconnectedComponents {
+	
+	private final CursorUGraph g;
+	
+	private final int n;
+	
+	private final int[] adjBegin;
+	
+	private final int[] adjNode;
+	
+	private final int[] adjEdge;
+	
+	private boolean[] articulationPoint;
+	
+	private boolean[] bridge;
+	
+	private int[] block;
+	
+	private int numBlocks;
+	
+	public BiconnectedComponents(UGraph g) {
+		this.g = UGraphAsCursorUGraph.of(g);
+		n = this.g.getNodeIdBound();
+		EdgeCursor cursor = this.g.createIncidentUEdgeCursor();
+		adjBegin = new int[n + 1];
+		int size = 0;
+		for (int v = 0; v < n; ++v) {
+			cursor.reset(v);
+			while (cursor.next()) {
+				++size;
+			}
+		}
+		adjNode = new int[size];
+		adjEdge = new int[size];
+		int i = 0;
+		for (int v = 0; v < n; ++v) {
+			adjBegin[v] = i;
+			cursor.reset(v);
+			while (cursor.next()) {
+				adjNode[i] = cursor.getNodeId();
+				adjEdge[i++] = cursor.getEdgeId();
+			}
+		}
+		adjBegin[n] = i;
+	}
+	
+	/**
+	 * Blocks of the MixedGraphAsUGraph view of g.
+	 */
+	public BiconnectedComponents(MixedGraph g) {
+		this(new MixedGraphAsUGraph(g));
+	}
+	
+	public CursorUGraph getGraph() {
+		return g;
+	}
+	
+	public void run() {
+		int m = g.getUEdgeIdBound();
+		articulationPoint = new boolean[n];
+		bridge = new boolean[m];
+		block = new int[m];
+		Arrays.fill(block, -1);
+		numBlocks = 0;
+		int[] disc = new int[n];
+		Arrays.fill(disc, -1);
+		int[] low = new int[n];
+		int[] callNode = new int[n];
+		int[] callPos = new int[n];
+		int[] callEdge = new int[n];
+		int[] edgeStack = new int[m];
+		int edgeStackSize = 0;
+		int time = 0;
+		for (Node root : g.getNodes()) {
+			int r = g.getNodeId(root);
+			if (disc[r] >= 0) {
+				continue;
+			}
+			disc[r] = low[r] = time++;
+			int top = 0;
+			callNode[0] = r;
+			callPos[0] = adjBegin[r];
+			callEdge[0] = -1;
+			int rootChildren = 0;
+			while (top >= 0) {
+				int v = callNode[top];
+				int i = callPos[top];
+				if (i < adjBegin[v + 1]) {
+					callPos[top] = i + 1;
+					int w = adjNode[i];
+					int e = adjEdge[i];
+					if (e == callEdge[top] || w == v) {
+						continue;
+					}
+					if (disc[w] < 0) {
+						// Tree edge.
+						edgeStack[edgeStackSize++] = e;
+						disc[w] = low[w] = time++;
+						++top;
+						callNode[top] = w;
+						callPos[top] = adjBegin[w];
+						callEdge[top] = e;
+					} else if (disc[w] < disc[v]) {
+						// Back edge, seen from its lower end.
+						edgeStack[edgeStackSize++] = e;
+						if (disc[w] < low[v]) {
+							low[v] = disc[w];
+						}
+					}
+					continue;
+				}
+				int e = callEdge[top];
+				if (--top < 0) {
+					break;
+				}
+				int u = callNode[top];
+				if (low[v] < low[u]) {
+					low[u] = low[v];
+				}
+				if (low[v] >= disc[u]) {
+					// u separates the subtree of v, whose edges form a block.
+					if (top > 0) {
+						articulationPoint[u] = true;
+					} else {
+						++rootChildren;
+					}
+					int f;
+					do {
+						f = edgeStack[--edgeStackSize];
+						block[f] = numBlocks;
+					} while (f != e);
+					++numBlocks;
+					if (low[v] > disc[u]) {
+						bridge[e] = true;
+					}
+				}
+			}
+			if (rootChildren > 1) {
+				articulationPoint[r] = true;
+			}
+		}
+	}
+	
+	private void checkRun() {
+		if (block == null) {
+			throw new IllegalStateException();
+		}
+	}
+	
+	public boolean isArticulationPoint(int v) {
+		checkRun();
+		return articulationPoint[v];
+	}
+	
+	public boolean isArticulationPoint(Node v) {
+		return isArticulationPoint(g.getNodeId(v));
+	}
+	
+	public boolean isBridge(int uEdge) {
+		checkRun();
+		return bridge[uEdge];
+	}
+	
+	public boolean isBridge(Edge uEdge) {
+		return isBridge(g.getUEdgeId(uEdge));
+	}
+	
+	public int getNumBlocks() {
+		checkRun();
+		return numBlocks;
+	}
+	
+	/**
+	 * The block of an undirected edge by its id, or -1 for loops and ids not
+	 * used by the graph.
+	 */
+	public int getBlock(int uEdge) {
+		checkRun();
+		return block[uEdge];
+	}
+	
+	public int getBlock(Edge uEdge) {
+		return getBlock(g.getUEdgeId(uEdge));
+	}
+	
+	/**
+	 * A primitive map of the articulation points.
+	 */
+	public BooleanEntityMap<Node> createArticulationPointMap() {
+		checkRun();
+		BooleanEntityMap<Node> map = g.createBooleanNodeMap(false);
+		for (Node v : g.getNodes()) {
+			if (articulationPoint[g.getNodeId(v)]) {
+				map.putBoolean(v, true);
+			}
+		}
+		return map;
+	}
+	
+	/**
+	 * A primitive map of the bridges.
+	 */
+	public BooleanEntityMap<Edge> createBridgeMap() {
+		checkRun();
+		BooleanEntityMap<Edge> map = g.createBooleanUEdgeMap(false);
+		for (Edge e : g.getUEdges()) {
+			if (bridge[g.getUEdgeId(e)]) {
+				map.putBoolean(e, true);
+			}
+		}
+		return map;
+	}
+	
+	/**
+	 * A primitive map of the blocks of the undirected edges.
+	 */
+	public IntEntityMap<Edge> createBlockMap() {
+		checkRun();
+		IntEntityMap<Edge> map = g.createIntUEdgeMap(-1);
+		for (Edge e : g.getUEdges()) {
+			map.putInt(e, block[g.getUEdgeId(e)]);
+		}
+		return map;
+	}
+	
+	/**
+	 * The block-cut tree, or forest for disconnected graphs. The node of id
+	 * b is block b, and the node of id getNumBlocks() + i is the i-th
+	 * articulation point in the order of the node ids. Each articulation
+	 * point is connected to the blocks containing it.
+	 */
+	public StaticUGraph createBlockCutTree() {
+		checkRun();
+		StaticUGraph tree = new StaticUGraph();
+		Node[] blockNodes = new Node[numBlocks];
+		for (int b = 0; b < numBlocks; ++b) {
+			blockNodes[b] = tree.addNode();
+		}
+		int[] last = new int[numBlocks];
+		Arrays.fill(last, -1);
+		for (int v = 0; v < n; ++v) {
+			if (!articulationPoint[v]) {
+				continue;
+			}
+			Node cut = tree.addNode();
+			for (int i = adjBegin[v]; i < adjBegin[v + 1]; ++i) {
+				int b = block[adjEdge[i]];
+				if (b >= 0 && last[b] != v) {
+					last[b] = v;
+					tree.addUEdge(blockNodes[b], cut);
+				}
+			}
+		}
+		return tree;
+	}
+}
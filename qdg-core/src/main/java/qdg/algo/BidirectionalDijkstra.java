@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+import qdg.view.DiGraphAsCursorDiGraph;
+
+/**
+ * Point to point shortest path queries by bidirectional Dijkstra, for
+ * non-negative arc lengths. A forward search from the source and a backward
+ * search from the target are run alternately, always advancing the one with
+ * the smaller queue, until the sum of the smallest keys of the queues
+ * reaches the length of the shortest path found so far.
+ * 
+ * The lengths are copied into an array indexed by arc ids when the object
+ * is created, and the search state is stamped, hence a query touches only
+ * the nodes it reaches. The graph must not be modified while the object is
+ * in use. An object is not thread safe: each thread should create its own
+ * copy by the copy constructor, which shares the graph and the lengths.
+ */
+public class BidirectionalDijkstra {
+	
+	protected final CursorDiGraph g;
+	
+	protected final double[] lengths;
+	
+	private final SearchSpace forward;
+	
+	private final SearchSpace backward;
+	
+	private final EdgeCursor outCursor;
+	
+	private final EdgeCursor inCursor;
+	
+	/**
+	 * The node where the forward and backward paths meet, or -1.
+	 */
+	private int meeting;
+	
+	private double best;
+	
+	public BidirectionalDijkstra(DiGraph g, EntityMap<Edge, Double> lengths) {
+		this(DiGraphAsCursorDiGraph.of(g), lengths);
+	}
+	
+	private BidirectionalDijkstra(CursorDiGraph g,
+			EntityMap<Edge, Double> lengths) {
+		this(g, ArcLengths.of(g, lengths));
+	}
+	
+	public BidirectionalDijkstra(BidirectionalDijkstra other) {
+		this(other.g, other.lengths);
+	}
+	
+	private BidirectionalDijkstra(CursorDiGraph g, double[] lengths) {
+		this.g = g;
+		this.lengths = lengths;
+		forward = new SearchSpace(g.getNodeIdBound());
+		backward = new SearchSpace(g.getNodeIdBound());
+		outCursor = g.createOutArcCursor();
+		inCursor = g.createInArcCursor();
+	}
+	
+	public CursorDiGraph getGraph() {
+		return g;
+	}
+	
+	private void search(int s, int t) {
+		forward.reset();
+		backward.reset();
+		forward.label(s, 0.0, 0.0, -1, -1);
+		backward.label(t, 0.0, 0.0, -1, -1);
+		meeting = s == t ? s : -1;
+		best = s == t ? 0.0 : Double.POSITIVE_INFINITY;
+		while (!forward.queue.isEmpty() && !backward.queue.isEmpty()
+				&& forward.queue.peekKey() + backward.queue.peekKey() < best) {
+			if (forward.queue.size() <= backward.queue.size()) {
+				scan(forward, backward, outCursor);
+			} else {
+				scan(backward, forward, inCursor);
+			}
+		}
+	}
+	
+	private void scan(SearchSpace search, SearchSpace other,
+			EdgeCursor cursor) {
+		int u = search.poll();
+		double dist = search.getDistance(u);
+		cursor.reset(u);
+		while (cursor.next()) {
+			int a = cursor.getEdgeId();
+			int v = cursor.getNodeId();
+			double d = dist + lengths[a];
+			if (d < search.getDistance(v) && !search.isSettled(v)) {
+				search.label(v, d, d, a, u);
+				if (other.isReached(v)) {
+					double total = d + other.getDistance(v);
+					if (total < best) {
+						best = total;
+						meeting = v;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * The length of a shortest path from s to t, or infinity if t is not
+	 * reachable from s.
+	 */
+	public double computeDistance(Node s, Node t) {
+		search(g.getNodeId(s), g.getNodeId(t));
+		return best;
+	}
+	
+	/**
+	 * A shortest path from s to t, or null if t is not reachable from s.
+	 */
+	public ShortestPath computePath(Node s, Node t) {
+		search(g.getNodeId(s), g.getNodeId(t));
+		if (meeting < 0) {
+			return null;
+		}
+		List<Edge> arcs = new ArrayList<Edge>();
+		for (int v = meeting; forward.getPredArc(v) >= 0;
+				v = forward.getPredNode(v)) {
+			arcs.add(g.arcFromId(forward.getPredArc(v)));
+		}
+		Collections.reverse(arcs);
+		for (int v = meeting; backward.getPredArc(v) >= 0;
+				v = backward.getPredNode(v)) {
+			arcs.add(g.arcFromId(backward.getPredArc(v)));
+		}
+		return new ShortestPath(best, arcs);
+	}
+	
+	/**
+	 * The number of nodes settled by the last query in the two directions.
+	 */
+	public int getNumSettled() {
+		return forward.getNumSettled() + backward.getNumSettled();
+	}
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+
+import qdg.ConcurrentIntUnionFind;
+import qdg.api.CursorUGraph;
+import qdg.api.Graph.Node;
+import qdg.api.IntEntityMap;
+import qdg.api.MixedGraph;
+import qdg.api.UGraph;
+import qdg.api.bits.EdgeCursor;
+import qdg.bits.ParallelTasks;
+import qdg.view.MixedGraphAsUGraph;
+import qdg.view.UGraphAsCursorUGraph;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Connected components of an undirected graph, or of a mixed graph with
+ * its arcs taken as undirected edges, by the Afforest algorithm, run in
+ * parallel by the tasks of an executor.
+ * 
+ * Based on:
+ * @INPROCEEDINGS{Sutton18,
+ *   author = {Michael Sutton and Tal Ben-Nun and Amnon Barak},
+ *   title = {Optimizing Parallel Graph Connectivity Computation via
+ *     Subgraph Sampling},
+ *   booktitle = {2018 IEEE International Parallel and Distributed
+ *     Processing Symposium},
+ *   year = {2018},
+ *   pages = {12--21}
+ * }
+ * 
+ * The first few edges of each node are linked in a ConcurrentIntUnionFind,
+ * which usually finds most of the largest component. The component of a
+ * sample of nodes that is most frequent is taken as the largest, and then
+ * only the nodes outside it link their remaining edges, since an edge
+ * leaving it is linked from its other end.
+ * 
+ * The components are numbered in the order of their smallest node ids.
+ */
+@GwtIncompatible("java.util.concurrent")
+public class ConnectedComponents {
+	
+	/**
+	 * The number of edges of each node linked before sampling.
+	 */
+	static final int NEIGHBOR_ROUNDS = 2;
+	
+	static final int NUM_SAMPLES = 1024;
+	
+	/**
+	 * Fewer nodes than this per task are processed by a single task.
+	 */
+	static final int MIN_NODES_PER_TASK = 1024;
+	
+	private final CursorUGraph g;
+	
+	private int[] component;
+	
+	private int[] componentSize;
+	
+	private Executor executor;
+	
+	private int numTasks;
+	
+	public ConnectedComponents(UGraph g) {
+		this.g = UGraphAsCursorUGraph.of(g);
+	}
+	
+	/**
+	 * Components of the MixedGraphAsUGraph view of g.
+	 */
+	public ConnectedComponents(MixedGraph g) {
+		this(new MixedGraphAsUGraph(g));
+	}
+	
+	public CursorUGraph getGraph() {
+		return g;
+	}
+	
+	private interface RangeTask {
+		
+		void process(EdgeCursor cursor, int begin, int end);
+	}
+	
+	/**
+	 * Processes the node ids in chunks, by the tasks of the executor if there
+	 * are enough of them.
+	 */
+	private void forEach(final RangeTask task) throws InterruptedException {
+		int n = g.getNodeIdBound();
+		int numChunks = Math.min(numTasks, n / MIN_NODES_PER_TASK);
+		if (executor == null || numChunks < 2) {
+			task.process(g.createIncidentUEdgeCursor(), 0, n);
+			return;
+		}
+		int chunkSize = (n + numChunks - 1) / numChunks;
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (int t = 0; t < numChunks; ++t) {
+			final int begin = t * chunkSize;
+			final int end = Math.min(n, begin + chunkSize);
+			tasks.add(new Runnable() {
+				
+				@Override
+				public void run() {
+					task.process(g.createIncidentUEdgeCursor(), begin, end);
+				}
+			});
+		}
+		ParallelTasks.run(executor, tasks);
+	}
+	
+	/**
+	 * Computes the components by a single thread.
+	 */
+	public void run() {
+		try {
+			run(null, 1);
+		} catch (InterruptedException e) {
+			// Nothing runs on other threads.
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Computes the components by numTasks tasks of the executor.
+	 */
+	public void run(Executor executor, int numTasks)
+			throws InterruptedException {
+		if (numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		this.executor = executor;
+		this.numTasks = numTasks;
+		int n = g.getNodeIdBound();
+		final ConcurrentIntUnionFind uf = new ConcurrentIntUnionFind(n);
+		for (int r = 0; r < NEIGHBOR_ROUNDS; ++r) {
+			final int round = r;
+			forEach(new RangeTask() {
+				
+				@Override
+				public void process(EdgeCursor cursor, int begin, int end) {
+					for (int v = begin; v < end; ++v) {
+						cursor.reset(v);
+						int i = 0;
+						while (i <= round && cursor.next()) {
+							++i;
+						}
+						if (i > round) {
+							uf.union(v, cursor.getNodeId());
+						}
+					}
+				}
+			});
+			compress(uf);
+		}
+		final int largest = sampleLargest(uf);
+		forEach(new RangeTask() {
+			
+			@Override
+			public void process(EdgeCursor cursor, int begin, int end) {
+				for (int v = begin; v < end; ++v) {
+					// Nodes linked to another root by now are processed.
+					if (uf.getParent(v) == largest) {
+						continue;
+					}
+					cursor.reset(v);
+					int i = 0;
+					while (cursor.next()) {
+						if (i++ >= NEIGHBOR_ROUNDS) {
+							uf.union(v, cursor.getNodeId());
+						}
+					}
+				}
+			}
+		});
+		compress(uf);
+		this.executor = null;
+		component = new int[n];
+		Arrays.fill(component, -1);
+		for (Node v : g.getNodes()) {
+			component[g.getNodeId(v)] = 0;
+		}
+		int numComponents = 0;
+		int[] sizes = new int[16];
+		for (int v = 0; v < n; ++v) {
+			if (component[v] < 0) {
+				continue;
+			}
+			int root = uf.getParent(v);
+			int c;
+			if (root == v) {
+				c = numComponents++;
+				if (c == sizes.length) {
+					sizes = Arrays.copyOf(sizes, 2 * c);
+				}
+			} else {
+				// The root is the smallest id, numbered already.
+				c = component[root];
+			}
+			component[v] = c;
+			++sizes[c];
+		}
+		componentSize = Arrays.copyOf(sizes, numComponents);
+	}
+	
+	private void compress(final ConcurrentIntUnionFind uf)
+			throws InterruptedException {
+		forEach(new RangeTask() {
+			
+			@Override
+			public void process(EdgeCursor cursor, int begin, int end) {
+				uf.compress(begin, end);
+			}
+		});
+	}
+	
+	/**
+	 * The most frequent root of a sample of the nodes, or -1 if there are no
+	 * nodes.
+	 */
+	private int sampleLargest(ConcurrentIntUnionFind uf) {
+		int n = g.getNodeIdBound();
+		if (n == 0) {
+			return -1;
+		}
+		Random random = new Random(n);
+		int[] roots = new int[NUM_SAMPLES];
+		for (int i = 0; i < NUM_SAMPLES; ++i) {
+			roots[i] = uf.getParent(random.nextInt(n));
+		}
+		Arrays.sort(roots);
+		int largest = roots[0];
+		int maxCount = 0;
+		for (int i = 0, j; i < NUM_SAMPLES; i = j) {
+			for (j = i; j < NUM_SAMPLES && roots[j] == roots[i]; ++j) {
+				// Counts equal roots.
+			}
+			if (j - i > maxCount) {
+				maxCount = j - i;
+				largest = roots[i];
+			}
+		}
+		return largest;
+	}
+	
+	private void checkRun() {
+		if (component == null) {
+			throw new IllegalStateException();
+		}
+	}
+	
+	public int getNumComponents() {
+		checkRun();
+		return componentSize.length;
+	}
+	
+	/**
+	 * The component of a node id, or -1 for ids not used by the graph.
+	 */
+	public int getComponent(int v) {
+		checkRun();
+		return component[v];
+	}
+	
+	public int getComponent(Node v) {
+		return getComponent(g.getNodeId(v));
+	}
+	
+	/**
+	 * The number of nodes in a component.
+	 */
+	public int getComponentSize(int c) {
+		checkRun();
+		return componentSize[c];
+	}
+	
+	/**
+	 * A primitive map of the components of the nodes.
+	 */
+	public IntEntityMap<Node> createComponentMap() {
+		checkRun();
+		IntEntityMap<Node> map = g.createIntNodeMap(-1);
+		for (Node v : g.getNodes()) {
+			map.putInt(v, component[g.getNodeId(v)]);
+		}
+		return map;
+	}
+}
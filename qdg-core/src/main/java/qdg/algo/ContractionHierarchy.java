@@ -0,0 +1,211 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.io.Serializable;
+import java.util.concurrent.Executor;
+
+import qdg.api.DiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.view.DiGraphAsCursorDiGraph;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Contraction hierarchy of a digraph with non-negative arc lengths, for
+ * exact shortest path queries by ContractionHierarchyQuery.
+ * 
+ * Based on:
+ * @INPROCEEDINGS{Geisberger08,
+ *   author = {Robert Geisberger and Peter Sanders and Dominik Schultes and
+ *     Daniel Delling},
+ *   title = {Contraction Hierarchies: Faster and Simpler Hierarchical
+ *     Routing in Road Networks},
+ *   booktitle = {Experimental Algorithms, WEA 2008},
+ *   year = {2008},
+ *   pages = {319--333}
+ * }
+ * 
+ * The nodes are contracted in rounds. In each round the nodes whose
+ * priority, i.e.\ the number of shortcuts needed minus the number of arcs
+ * removed plus the number of contracted neighbors, is smaller than the
+ * priorities of all their neighbors are contracted, hence the contracted
+ * nodes are independent and their witness searches can run in parallel.
+ * The result does not depend on the number of tasks.
+ * 
+ * The hierarchy refers to the nodes and arcs by their ids in
+ * DiGraphAsCursorDiGraph.of(g), and it consists of int and double arrays
+ * only: the upward arcs of each node and the downward arcs into each node in
+ * CSR form, and for each arc of the hierarchy either the original arc or
+ * the two arcs a shortcut replaces. Hence it is compact and serializable,
+ * and can be used with any graph having the same ids, e.g.\ a deserialized
+ * StaticDiGraph built the same way. Mixed graphs can be preprocessed by
+ * their MixedGraphAsDiGraph views.
+ */
+public class ContractionHierarchy implements Serializable {
+	
+	private static final long serialVersionUID = 6410519863374519547L;
+	
+	private final int[] rank;
+	
+	private final int[] upBegin;
+	
+	private final int[] upHead;
+	
+	private final double[] upLength;
+	
+	private final int[] upArc;
+	
+	private final int[] downBegin;
+	
+	private final int[] downTail;
+	
+	private final double[] downLength;
+	
+	private final int[] downArc;
+	
+	/**
+	 * The original arc id of each arc of the hierarchy, or -1 for shortcuts.
+	 */
+	private final int[] original;
+	
+	private final int[] first;
+	
+	private final int[] second;
+	
+	ContractionHierarchy(int[] rank, int[] upBegin, int[] upHead,
+			double[] upLength, int[] upArc, int[] downBegin, int[] downTail,
+			double[] downLength, int[] downArc, int[] original, int[] first,
+			int[] second) {
+		this.rank = rank;
+		this.upBegin = upBegin;
+		this.upHead = upHead;
+		this.upLength = upLength;
+		this.upArc = upArc;
+		this.downBegin = downBegin;
+		this.downTail = downTail;
+		this.downLength = downLength;
+		this.downArc = downArc;
+		this.original = original;
+		this.first = first;
+		this.second = second;
+	}
+	
+	public static ContractionHierarchy build(DiGraph g,
+			EntityMap<Edge, Double> lengths) {
+		return new ContractionHierarchyBuilder(
+				DiGraphAsCursorDiGraph.of(g), lengths).build();
+	}
+	
+	/**
+	 * Same as build(DiGraph, EntityMap), but the priorities and the
+	 * shortcuts of each round are computed by numTasks tasks of the
+	 * executor.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public static ContractionHierarchy build(DiGraph g,
+			EntityMap<Edge, Double> lengths, Executor executor, int numTasks)
+			throws InterruptedException {
+		if (numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		return new ContractionHierarchyBuilder(
+				DiGraphAsCursorDiGraph.of(g), lengths).build(executor, numTasks);
+	}
+	
+	public int getNodeIdBound() {
+		return rank.length;
+	}
+	
+	/**
+	 * The position of a node in the contraction order, or -1 for ids not
+	 * used by the graph.
+	 */
+	public int getRank(int node) {
+		return rank[node];
+	}
+	
+	/**
+	 * The number of arcs in the hierarchy, including the shortcuts.
+	 */
+	public int getNumArcs() {
+		return original.length;
+	}
+	
+	public int getNumShortcuts() {
+		int count = 0;
+		for (int a : original) {
+			if (a < 0) {
+				++count;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * The upward arcs of v are the indices from getUpBegin(v) to
+	 * getUpBegin(v + 1), exclusive.
+	 */
+	int getUpBegin(int v) {
+		return upBegin[v];
+	}
+	
+	int getUpHead(int i) {
+		return upHead[i];
+	}
+	
+	double getUpLength(int i) {
+		return upLength[i];
+	}
+	
+	int getUpArc(int i) {
+		return upArc[i];
+	}
+	
+	/**
+	 * The downward arcs into v, i.e.\ the arcs from higher nodes, are the
+	 * indices from getDownBegin(v) to getDownBegin(v + 1), exclusive.
+	 */
+	int getDownBegin(int v) {
+		return downBegin[v];
+	}
+	
+	int getDownTail(int i) {
+		return downTail[i];
+	}
+	
+	double getDownLength(int i) {
+		return downLength[i];
+	}
+	
+	int getDownArc(int i) {
+		return downArc[i];
+	}
+	
+	int getOriginal(int arc) {
+		return original[arc];
+	}
+	
+	int getFirst(int arc) {
+		return first[arc];
+	}
+	
+	int getSecond(int arc) {
+		return second[arc];
+	}
+}
@@ -0,0 +1,510 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import qdg.IndexedDoubleHeap;
+import qdg.api.CursorDiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.bits.ParallelTasks;
+
+/**
+ * Builds a ContractionHierarchy. The remaining graph is kept in adjacency
+ * arrays, with at most one arc, the shortest, for each pair of nodes. The
+ * adjacency of a contracted node is not changed any more, it gives the
+ * upward and downward arcs of the node.
+ */
+final class ContractionHierarchyBuilder {
+	
+	/**
+	 * A witness search stops after settling this many nodes, and then the
+	 * shortcuts not witnessed yet are added.
+	 */
+	static final int WITNESS_SETTLE_LIMIT = 500;
+	
+	private final CursorDiGraph g;
+	
+	private final int n;
+	
+	private final int[][] outNode;
+	
+	private final double[][] outLength;
+	
+	private final int[][] outArc;
+	
+	private final int[] outSize;
+	
+	private final int[][] inNode;
+	
+	private final double[][] inLength;
+	
+	private final int[][] inArc;
+	
+	private final int[] inSize;
+	
+	private int[] original = new int[16];
+	
+	private int[] first = new int[16];
+	
+	private int[] second = new int[16];
+	
+	private int numArcs;
+	
+	private final int[] rank;
+	
+	private final int[] priority;
+	
+	private final int[] contractedNeighbors;
+	
+	/**
+	 * The nodes contracted in the current round, which the witness searches
+	 * must avoid, since each of them is removed without the shortcuts the
+	 * others would need for paths through it.
+	 */
+	private final boolean[] contracting;
+	
+	/**
+	 * The remaining nodes in increasing order of ids.
+	 */
+	private int[] remaining;
+	
+	private int numRemaining;
+	
+	private Executor executor;
+	
+	/**
+	 * One witness search for each task.
+	 */
+	private final List<WitnessSearch> searches = new ArrayList<WitnessSearch>();
+	
+	ContractionHierarchyBuilder(CursorDiGraph g,
+			EntityMap<Edge, Double> lengths) {
+		this.g = g;
+		n = g.getNodeIdBound();
+		outNode = new int[n][];
+		outLength = new double[n][];
+		outArc = new int[n][];
+		outSize = new int[n];
+		inNode = new int[n][];
+		inLength = new double[n][];
+		inArc = new int[n][];
+		inSize = new int[n];
+		rank = new int[n];
+		Arrays.fill(rank, -1);
+		priority = new int[n];
+		contractedNeighbors = new int[n];
+		contracting = new boolean[n];
+		boolean[] used = new boolean[n];
+		for (Node v : g.getNodes()) {
+			used[g.getNodeId(v)] = true;
+		}
+		remaining = new int[n];
+		for (int v = 0; v < n; ++v) {
+			if (used[v]) {
+				remaining[numRemaining++] = v;
+			}
+			outNode[v] = new int[2];
+			outLength[v] = new double[2];
+			outArc[v] = new int[2];
+			inNode[v] = new int[2];
+			inLength[v] = new double[2];
+			inArc[v] = new int[2];
+		}
+		double[] l = ArcLengths.of(g, lengths);
+		for (Edge e : g.getArcs()) {
+			int a = g.getArcId(e);
+			int u = g.getNodeId(g.getSource(e));
+			int w = g.getNodeId(g.getTarget(e));
+			if (u != w) {
+				relax(u, w, l[a], a, -1, -1);
+			}
+		}
+	}
+	
+	private static int find(int[] nodes, int size, int v) {
+		for (int i = 0; i < size; ++i) {
+			if (nodes[i] == v) {
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Adds an arc from u to w to the hierarchy, unless there is one already
+	 * which is not longer.
+	 */
+	private void relax(int u, int w, double length, int orig, int a1,
+			int a2) {
+		int i = find(outNode[u], outSize[u], w);
+		if (i >= 0 && outLength[u][i] <= length) {
+			return;
+		}
+		if (numArcs == original.length) {
+			original = Arrays.copyOf(original, 2 * numArcs);
+			first = Arrays.copyOf(first, 2 * numArcs);
+			second = Arrays.copyOf(second, 2 * numArcs);
+		}
+		int arc = numArcs++;
+		original[arc] = orig;
+		first[arc] = a1;
+		second[arc] = a2;
+		if (i >= 0) {
+			outLength[u][i] = length;
+			outArc[u][i] = arc;
+			int j = find(inNode[w], inSize[w], u);
+			inLength[w][j] = length;
+			inArc[w][j] = arc;
+		} else {
+			if (outSize[u] == outNode[u].length) {
+				int size = 2 * outSize[u];
+				outNode[u] = Arrays.copyOf(outNode[u], size);
+				outLength[u] = Arrays.copyOf(outLength[u], size);
+				outArc[u] = Arrays.copyOf(outArc[u], size);
+			}
+			outNode[u][outSize[u]] = w;
+			outLength[u][outSize[u]] = length;
+			outArc[u][outSize[u]++] = arc;
+			if (inSize[w] == inNode[w].length) {
+				int size = 2 * inSize[w];
+				inNode[w] = Arrays.copyOf(inNode[w], size);
+				inLength[w] = Arrays.copyOf(inLength[w], size);
+				inArc[w] = Arrays.copyOf(inArc[w], size);
+			}
+			inNode[w][inSize[w]] = u;
+			inLength[w][inSize[w]] = length;
+			inArc[w][inSize[w]++] = arc;
+		}
+	}
+	
+	/**
+	 * Removes v from the adjacency of x, by moving the last entry into its
+	 * place.
+	 */
+	private static void remove(int[] nodes, double[] lengths, int[] arcs,
+			int size, int v) {
+		int i = find(nodes, size, v);
+		nodes[i] = nodes[size - 1];
+		lengths[i] = lengths[size - 1];
+		arcs[i] = arcs[size - 1];
+	}
+	
+	/**
+	 * The shortcuts of a node, from[i] to to[i] replacing in[i] and out[i].
+	 */
+	static final class Shortcuts {
+		
+		int size;
+		
+		int[] from = new int[4];
+		
+		int[] to = new int[4];
+		
+		double[] length = new double[4];
+		
+		int[] in = new int[4];
+		
+		int[] out = new int[4];
+		
+		void add(int u, int w, double l, int a1, int a2) {
+			if (size == from.length) {
+				from = Arrays.copyOf(from, 2 * size);
+				to = Arrays.copyOf(to, 2 * size);
+				length = Arrays.copyOf(length, 2 * size);
+				in = Arrays.copyOf(in, 2 * size);
+				out = Arrays.copyOf(out, 2 * size);
+			}
+			from[size] = u;
+			to[size] = w;
+			length[size] = l;
+			in[size] = a1;
+			out[size++] = a2;
+		}
+	}
+	
+	/**
+	 * Dijkstra's algorithm in the remaining graph, with one node and the
+	 * nodes contracted in the current round excluded, one for each task.
+	 */
+	final class WitnessSearch {
+		
+		private final IndexedDoubleHeap queue = new IndexedDoubleHeap(n);
+		
+		private final int[] stamp = new int[n];
+		
+		private int version;
+		
+		private final double[] distance = new double[n];
+		
+		void run(int s, int excluded, double maxDistance) {
+			if (++version == Integer.MAX_VALUE) {
+				Arrays.fill(stamp, 0);
+				version = 1;
+			}
+			queue.clear();
+			stamp[s] = version;
+			distance[s] = 0.0;
+			queue.add(s, 0.0);
+			int numSettled = 0;
+			while (!queue.isEmpty() && queue.peekKey() <= maxDistance
+					&& numSettled < WITNESS_SETTLE_LIMIT) {
+				int u = queue.poll();
+				++numSettled;
+				double dist = distance[u];
+				int[] nodes = outNode[u];
+				double[] lengths = outLength[u];
+				for (int i = 0; i < outSize[u]; ++i) {
+					int v = nodes[i];
+					if (v == excluded || contracting[v]) {
+						continue;
+					}
+					double d = dist + lengths[i];
+					if (stamp[v] != version) {
+						stamp[v] = version;
+						distance[v] = d;
+						queue.add(v, d);
+					} else if (d < distance[v] && queue.contains(v)) {
+						distance[v] = d;
+						queue.decrease(v, d);
+					}
+				}
+			}
+		}
+		
+		double getDistance(int v) {
+			return stamp[v] == version ? distance[v] : Double.POSITIVE_INFINITY;
+		}
+		
+		/**
+		 * Returns the number of shortcuts needed to contract v, and adds them
+		 * to shortcuts if it is not null.
+		 */
+		int contract(int v, Shortcuts shortcuts) {
+			int count = 0;
+			for (int i = 0; i < inSize[v]; ++i) {
+				int u = inNode[v][i];
+				double lengthIn = inLength[v][i];
+				double max = 0.0;
+				for (int j = 0; j < outSize[v]; ++j) {
+					if (outNode[v][j] != u) {
+						max = Math.max(max, outLength[v][j]);
+					}
+				}
+				run(u, v, lengthIn + max);
+				for (int j = 0; j < outSize[v]; ++j) {
+					int w = outNode[v][j];
+					double length = lengthIn + outLength[v][j];
+					if (w != u && getDistance(w) > length) {
+						++count;
+						if (shortcuts != null) {
+							shortcuts.add(u, w, length, inArc[v][i],
+									outArc[v][j]);
+						}
+					}
+				}
+			}
+			return count;
+		}
+		
+		void updatePriority(int v) {
+			priority[v] = contract(v, null) - inSize[v] - outSize[v]
+					+ contractedNeighbors[v];
+		}
+	}
+	
+	private interface NodeTask {
+		
+		void process(WitnessSearch search, int i);
+	}
+	
+	/**
+	 * Calls the task for 0, ..., count - 1, split into a task of the executor
+	 * for each witness search, or on the calling thread if there is no
+	 * executor.
+	 */
+	private void forEach(final int count, final NodeTask task)
+			throws InterruptedException {
+		if (executor == null || count < 2 * searches.size()) {
+			for (int i = 0; i < count; ++i) {
+				task.process(searches.get(0), i);
+			}
+			return;
+		}
+		int numTasks = searches.size();
+		int chunkSize = (count + numTasks - 1) / numTasks;
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (int t = 0; t < numTasks; ++t) {
+			final int begin = t * chunkSize;
+			final int end = Math.min(count, begin + chunkSize);
+			final WitnessSearch search = searches.get(t);
+			tasks.add(new Runnable() {
+				
+				@Override
+				public void run() {
+					for (int i = begin; i < end; ++i) {
+						task.process(search, i);
+					}
+				}
+			});
+		}
+		ParallelTasks.run(executor, tasks);
+	}
+	
+	ContractionHierarchy build() {
+		try {
+			return build(null, 1);
+		} catch (InterruptedException e) {
+			// Nothing runs on other threads.
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	ContractionHierarchy build(Executor executor, int numTasks)
+			throws InterruptedException {
+		this.executor = executor;
+		for (int t = 0; t < numTasks; ++t) {
+			searches.add(new WitnessSearch());
+		}
+		final int[] dirty = Arrays.copyOf(remaining, numRemaining);
+		int numDirty = numRemaining;
+		boolean[] isDirty = new boolean[n];
+		final int[] selected = new int[n];
+		final Shortcuts[] shortcuts = new Shortcuts[n];
+		int nextRank = 0;
+		while (numRemaining > 0) {
+			forEach(numDirty, new NodeTask() {
+				
+				@Override
+				public void process(WitnessSearch search, int i) {
+					search.updatePriority(dirty[i]);
+				}
+			});
+			int numSelected = 0;
+			for (int i = 0; i < numRemaining; ++i) {
+				int v = remaining[i];
+				if (isLocalMinimum(v)) {
+					selected[numSelected++] = v;
+					contracting[v] = true;
+				}
+			}
+			forEach(numSelected, new NodeTask() {
+				
+				@Override
+				public void process(WitnessSearch search, int i) {
+					Shortcuts s = new Shortcuts();
+					search.contract(selected[i], s);
+					shortcuts[i] = s;
+				}
+			});
+			numDirty = 0;
+			for (int i = 0; i < numSelected; ++i) {
+				int v = selected[i];
+				contracting[v] = false;
+				rank[v] = nextRank++;
+				Shortcuts s = shortcuts[i];
+				shortcuts[i] = null;
+				for (int j = 0; j < s.size; ++j) {
+					relax(s.from[j], s.to[j], s.length[j], -1, s.in[j],
+							s.out[j]);
+				}
+				for (int j = 0; j < outSize[v]; ++j) {
+					int w = outNode[v][j];
+					remove(inNode[w], inLength[w], inArc[w], inSize[w]--, v);
+					++contractedNeighbors[w];
+					if (!isDirty[w]) {
+						isDirty[w] = true;
+						dirty[numDirty++] = w;
+					}
+				}
+				for (int j = 0; j < inSize[v]; ++j) {
+					int u = inNode[v][j];
+					remove(outNode[u], outLength[u], outArc[u], outSize[u]--, v);
+					++contractedNeighbors[u];
+					if (!isDirty[u]) {
+						isDirty[u] = true;
+						dirty[numDirty++] = u;
+					}
+				}
+			}
+			for (int i = 0; i < numDirty; ++i) {
+				isDirty[dirty[i]] = false;
+			}
+			int k = 0;
+			for (int i = 0; i < numRemaining; ++i) {
+				if (rank[remaining[i]] < 0) {
+					remaining[k++] = remaining[i];
+				}
+			}
+			numRemaining = k;
+		}
+		return toHierarchy();
+	}
+	
+	private static boolean less(int p1, int v1, int p2, int v2) {
+		return p1 < p2 || (p1 == p2 && v1 < v2);
+	}
+	
+	private boolean isLocalMinimum(int v) {
+		for (int i = 0; i < outSize[v]; ++i) {
+			int w = outNode[v][i];
+			if (!less(priority[v], v, priority[w], w)) {
+				return false;
+			}
+		}
+		for (int i = 0; i < inSize[v]; ++i) {
+			int u = inNode[v][i];
+			if (!less(priority[v], v, priority[u], u)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private ContractionHierarchy toHierarchy() {
+		int[] upBegin = new int[n + 1];
+		int[] downBegin = new int[n + 1];
+		for (int v = 0; v < n; ++v) {
+			upBegin[v + 1] = upBegin[v] + outSize[v];
+			downBegin[v + 1] = downBegin[v] + inSize[v];
+		}
+		int[] upHead = new int[upBegin[n]];
+		double[] upLength = new double[upBegin[n]];
+		int[] upArc = new int[upBegin[n]];
+		int[] downTail = new int[downBegin[n]];
+		double[] downLength = new double[downBegin[n]];
+		int[] downArc = new int[downBegin[n]];
+		for (int v = 0; v < n; ++v) {
+			System.arraycopy(outNode[v], 0, upHead, upBegin[v], outSize[v]);
+			System.arraycopy(outLength[v], 0, upLength, upBegin[v], outSize[v]);
+			System.arraycopy(outArc[v], 0, upArc, upBegin[v], outSize[v]);
+			System.arraycopy(inNode[v], 0, downTail, downBegin[v], inSize[v]);
+			System.arraycopy(inLength[v], 0, downLength, downBegin[v],
+					inSize[v]);
+			System.arraycopy(inArc[v], 0, downArc, downBegin[v], inSize[v]);
+		}
+		return new ContractionHierarchy(rank, upBegin, upHead, upLength, upArc,
+				downBegin, downTail, downLength, downArc,
+				Arrays.copyOf(original, numArcs), Arrays.copyOf(first, numArcs),
+				Arrays.copyOf(second, numArcs));
+	}
+}
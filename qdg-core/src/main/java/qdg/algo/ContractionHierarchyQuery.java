@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.view.DiGraphAsCursorDiGraph;
+
+/**
+ * Shortest path queries on a ContractionHierarchy: a forward search on the
+ * upward arcs from the source and a backward search on the downward arcs
+ * into the target, each stopped when its smallest key reaches the length of
+ * the shortest path found so far. Shortcuts are unpacked into the original
+ * arcs for the paths. Distance tables are computed by buckets: the backward
+ * searches from the targets store their distances at the nodes they settle,
+ * and the forward searches from the sources combine them.
+ * 
+ * The search state is stamped, and an object is not thread safe, as in
+ * BidirectionalDijkstra. The graph must be the one the hierarchy was built
+ * from, or one with the same node and arc ids.
+ */
+public class ContractionHierarchyQuery {
+	
+	private final ContractionHierarchy ch;
+	
+	private final CursorDiGraph g;
+	
+	private final SearchSpace forward;
+	
+	private final SearchSpace backward;
+	
+	private int meeting;
+	
+	private double best;
+	
+	public ContractionHierarchyQuery(ContractionHierarchy ch, DiGraph g) {
+		this(ch, DiGraphAsCursorDiGraph.of(g));
+	}
+	
+	public ContractionHierarchyQuery(ContractionHierarchyQuery other) {
+		this(other.ch, other.g);
+	}
+	
+	private ContractionHierarchyQuery(ContractionHierarchy ch,
+			CursorDiGraph g) {
+		if (g.getNodeIdBound() != ch.getNodeIdBound()) {
+			throw new IllegalArgumentException();
+		}
+		this.ch = ch;
+		this.g = g;
+		forward = new SearchSpace(ch.getNodeIdBound());
+		backward = new SearchSpace(ch.getNodeIdBound());
+	}
+	
+	public ContractionHierarchy getHierarchy() {
+		return ch;
+	}
+	
+	private void scanUp(SearchSpace search, int u) {
+		double dist = search.getDistance(u);
+		int end = ch.getUpBegin(u + 1);
+		for (int i = ch.getUpBegin(u); i < end; ++i) {
+			int v = ch.getUpHead(i);
+			double d = dist + ch.getUpLength(i);
+			if (d < search.getDistance(v)) {
+				search.label(v, d, d, ch.getUpArc(i), u);
+			}
+		}
+	}
+	
+	private void scanDown(SearchSpace search, int v) {
+		double dist = search.getDistance(v);
+		int end = ch.getDownBegin(v + 1);
+		for (int i = ch.getDownBegin(v); i < end; ++i) {
+			int u = ch.getDownTail(i);
+			double d = dist + ch.getDownLength(i);
+			if (d < search.getDistance(u)) {
+				search.label(u, d, d, ch.getDownArc(i), v);
+			}
+		}
+	}
+	
+	private void search(int s, int t) {
+		forward.reset();
+		backward.reset();
+		forward.label(s, 0.0, 0.0, -1, -1);
+		backward.label(t, 0.0, 0.0, -1, -1);
+		meeting = -1;
+		best = Double.POSITIVE_INFINITY;
+		while (true) {
+			boolean forwardActive = !forward.queue.isEmpty()
+					&& forward.queue.peekKey() < best;
+			boolean backwardActive = !backward.queue.isEmpty()
+					&& backward.queue.peekKey() < best;
+			if (forwardActive && (!backwardActive
+					|| forward.queue.peekKey() <= backward.queue.peekKey())) {
+				int u = forward.poll();
+				meet(u, forward.getDistance(u) + backward.getDistance(u));
+				scanUp(forward, u);
+			} else if (backwardActive) {
+				int v = backward.poll();
+				meet(v, forward.getDistance(v) + backward.getDistance(v));
+				scanDown(backward, v);
+			} else {
+				return;
+			}
+		}
+	}
+	
+	private void meet(int v, double length) {
+		if (length < best) {
+			best = length;
+			meeting = v;
+		}
+	}
+	
+	/**
+	 * The length of a shortest path from s to t, or infinity if t is not
+	 * reachable from s.
+	 */
+	public double computeDistance(Node s, Node t) {
+		search(g.getNodeId(s), g.getNodeId(t));
+		return best;
+	}
+	
+	/**
+	 * A shortest path from s to t, or null if t is not reachable from s.
+	 */
+	public ShortestPath computePath(Node s, Node t) {
+		search(g.getNodeId(s), g.getNodeId(t));
+		if (meeting < 0) {
+			return null;
+		}
+		List<Integer> up = new ArrayList<Integer>();
+		for (int v = meeting; forward.getPredArc(v) >= 0;
+				v = forward.getPredNode(v)) {
+			up.add(forward.getPredArc(v));
+		}
+		Collections.reverse(up);
+		List<Edge> arcs = new ArrayList<Edge>();
+		for (int arc : up) {
+			unpack(arc, arcs);
+		}
+		for (int v = meeting; backward.getPredArc(v) >= 0;
+				v = backward.getPredNode(v)) {
+			unpack(backward.getPredArc(v), arcs);
+		}
+		return new ShortestPath(best, arcs);
+	}
+	
+	/**
+	 * Appends the original arcs of an arc of the hierarchy.
+	 */
+	private void unpack(int arc, List<Edge> arcs) {
+		int[] stack = new int[16];
+		int size = 0;
+		stack[size++] = arc;
+		while (size > 0) {
+			int a = stack[--size];
+			if (ch.getOriginal(a) >= 0) {
+				arcs.add(g.arcFromId(ch.getOriginal(a)));
+			} else {
+				if (size + 2 > stack.length) {
+					stack = Arrays.copyOf(stack, 2 * stack.length);
+				}
+				stack[size++] = ch.getSecond(a);
+				stack[size++] = ch.getFirst(a);
+			}
+		}
+	}
+	
+	/**
+	 * The distances from each source to each target, infinity for
+	 * unreachable pairs. One search is run from each source and target.
+	 */
+	public double[][] computeDistanceTable(List<Node> sources,
+			List<Node> targets) {
+		int n = ch.getNodeIdBound();
+		// The settled nodes and distances of the backward searches,
+		// bucketed by node.
+		int[] bucketBegin = new int[n + 1];
+		int size = 0;
+		int[] nodes = new int[16];
+		int[] targetIndex = new int[16];
+		double[] distances = new double[16];
+		for (int j = 0; j < targets.size(); ++j) {
+			backward.reset();
+			backward.label(g.getNodeId(targets.get(j)), 0.0, 0.0, -1, -1);
+			while (!backward.queue.isEmpty()) {
+				int v = backward.poll();
+				if (size == nodes.length) {
+					nodes = Arrays.copyOf(nodes, 2 * size);
+					targetIndex = Arrays.copyOf(targetIndex, 2 * size);
+					distances = Arrays.copyOf(distances, 2 * size);
+				}
+				nodes[size] = v;
+				targetIndex[size] = j;
+				distances[size++] = backward.getDistance(v);
+				++bucketBegin[v + 1];
+				scanDown(backward, v);
+			}
+		}
+		for (int v = 0; v < n; ++v) {
+			bucketBegin[v + 1] += bucketBegin[v];
+		}
+		int[] bucketTarget = new int[size];
+		double[] bucketDistance = new double[size];
+		int[] next = Arrays.copyOf(bucketBegin, n);
+		for (int i = 0; i < size; ++i) {
+			int k = next[nodes[i]]++;
+			bucketTarget[k] = targetIndex[i];
+			bucketDistance[k] = distances[i];
+		}
+		double[][] table = new double[sources.size()][targets.size()];
+		for (int i = 0; i < sources.size(); ++i) {
+			double[] row = table[i];
+			Arrays.fill(row, Double.POSITIVE_INFINITY);
+			forward.reset();
+			forward.label(g.getNodeId(sources.get(i)), 0.0, 0.0, -1, -1);
+			while (!forward.queue.isEmpty()) {
+				int u = forward.poll();
+				double dist = forward.getDistance(u);
+				for (int k = bucketBegin[u]; k < bucketBegin[u + 1]; ++k) {
+					double d = dist + bucketDistance[k];
+					if (d < row[bucketTarget[k]]) {
+						row[bucketTarget[k]] = d;
+					}
+				}
+				scanUp(forward, u);
+			}
+		}
+		return table;
+	}
+	
+	/**
+	 * The number of nodes settled by the last distance or path query.
+	 */
+	public int getNumSettled() {
+		return forward.getNumSettled() + backward.getNumSettled();
+	}
+}
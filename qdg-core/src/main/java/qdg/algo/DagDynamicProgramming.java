@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.bits.BoxedMaps;
+
+/**
+ * Dynamic programming over an acyclic digraph, in one pass over the nodes
+ * in topological order and their out-arcs.
+ * 
+ * The value of a node v is the aggregate of its initial value and of
+ * value(u) + weight(a), or value(u) * weight(a) for SUM, over the in-arcs
+ * a = (u, v). With the default initial values these are the longest paths
+ * ending at the nodes for MAX, the shortest ones for MIN, and the numbers of
+ * paths ending at the nodes, weighted by the products of the arc weights,
+ * for SUM. For the paths from a single source s, set the default initial
+ * value to -infinity, +infinity or 0 respectively, and the one of s to 0, 0
+ * or 1.
+ * 
+ * For MAX and MIN the arc giving the value of each node is kept, e.g.\ for
+ * critical paths.
+ */
+public class DagDynamicProgramming {
+	
+	public enum Aggregate {
+		MAX, MIN, SUM
+	}
+	
+	private final TopologicalSort order;
+	
+	private final CursorDiGraph g;
+	
+	private final int n;
+	
+	private final double[] weight;
+	
+	private Aggregate aggregate = Aggregate.MAX;
+	
+	/**
+	 * NaN for the default of the aggregate.
+	 */
+	private double defaultInitialValue = Double.NaN;
+	
+	/**
+	 * The initial values set for node ids, NaN where not set.
+	 */
+	private double[] initialValue;
+	
+	private double[] value;
+	
+	private int[] predArc;
+	
+	/**
+	 * Over an order computed by either run method of an acyclic digraph.
+	 */
+	public DagDynamicProgramming(TopologicalSort order,
+			EntityMap<Edge, Double> weights) {
+		if (!order.isAcyclic()) {
+			throw new IllegalArgumentException();
+		}
+		this.order = order;
+		g = order.getGraph();
+		n = g.getNodeIdBound();
+		weight = new double[g.getArcIdBound()];
+		DoubleEntityMap<Edge> w = BoxedMaps.asDoubleMap(weights, Double.NaN);
+		for (Edge a : g.getArcs()) {
+			int id = g.getArcId(a);
+			weight[id] = w.getDouble(a);
+			if (Double.isNaN(weight[id])) {
+				throw new IllegalArgumentException();
+			}
+		}
+	}
+	
+	/**
+	 * Computes the topological order of g, which must be acyclic.
+	 */
+	public DagDynamicProgramming(DiGraph g, EntityMap<Edge, Double> weights) {
+		this(sort(g), weights);
+	}
+	
+	private static TopologicalSort sort(DiGraph g) {
+		TopologicalSort order = new TopologicalSort(g);
+		order.run();
+		return order;
+	}
+	
+	public CursorDiGraph getGraph() {
+		return g;
+	}
+	
+	public TopologicalSort getOrder() {
+		return order;
+	}
+	
+	/**
+	 * MAX by default.
+	 */
+	public void setAggregate(Aggregate aggregate) {
+		if (aggregate == null) {
+			throw new NullPointerException();
+		}
+		this.aggregate = aggregate;
+	}
+	
+	public Aggregate getAggregate() {
+		return aggregate;
+	}
+	
+	/**
+	 * The initial value of the nodes without their own, 0 for MAX and MIN
+	 * and 1 for SUM by default.
+	 */
+	public void setDefaultInitialValue(double v) {
+		if (Double.isNaN(v)) {
+			throw new IllegalArgumentException();
+		}
+		defaultInitialValue = v;
+	}
+	
+	public double getDefaultInitialValue() {
+		if (!Double.isNaN(defaultInitialValue)) {
+			return defaultInitialValue;
+		}
+		return aggregate == Aggregate.SUM ? 1.0 : 0.0;
+	}
+	
+	public void setInitialValue(int v, double initial) {
+		if (Double.isNaN(initial)) {
+			throw new IllegalArgumentException();
+		}
+		if (initialValue == null) {
+			initialValue = new double[n];
+			Arrays.fill(initialValue, Double.NaN);
+		}
+		initialValue[v] = initial;
+	}
+	
+	public void setInitialValue(Node v, double initial) {
+		setInitialValue(g.getNodeId(v), initial);
+	}
+	
+	/**
+	 * Resets the initial values of all the nodes to the default.
+	 */
+	public void clearInitialValues() {
+		initialValue = null;
+	}
+	
+	/**
+	 * Computes the values of the nodes.
+	 */
+	public void run() {
+		value = new double[n];
+		predArc = new int[n];
+		Arrays.fill(predArc, -1);
+		double initial = getDefaultInitialValue();
+		Arrays.fill(value, initial);
+		if (initialValue != null) {
+			for (int v = 0; v < n; ++v) {
+				if (!Double.isNaN(initialValue[v])) {
+					value[v] = initialValue[v];
+				}
+			}
+		}
+		int numNodes = order.getNumOrderedNodes();
+		for (int k = 0; k < numNodes; ++k) {
+			int u = order.getOrderedNode(k);
+			double x = value[u];
+			int end = order.getOutBegin(u + 1);
+			for (int i = order.getOutBegin(u); i < end; ++i) {
+				int v = order.getOutHead(i);
+				int a = order.getOutArc(i);
+				switch (aggregate) {
+				case MAX:
+					if (x + weight[a] > value[v]) {
+						value[v] = x + weight[a];
+						predArc[v] = a;
+					}
+					break;
+				case MIN:
+					if (x + weight[a] < value[v]) {
+						value[v] = x + weight[a];
+						predArc[v] = a;
+					}
+					break;
+				case SUM:
+					value[v] += x * weight[a];
+					break;
+				}
+			}
+		}
+	}
+	
+	private void checkRun() {
+		if (value == null) {
+			throw new IllegalStateException();
+		}
+	}
+	
+	public double getValue(int v) {
+		checkRun();
+		return value[v];
+	}
+	
+	public double getValue(Node v) {
+		return getValue(g.getNodeId(v));
+	}
+	
+	/**
+	 * A primitive map of the values of the nodes.
+	 */
+	public DoubleEntityMap<Node> createValueMap() {
+		checkRun();
+		DoubleEntityMap<Node> map = g.createDoubleNodeMap(Double.NaN);
+		for (Node v : g.getNodes()) {
+			map.putDouble(v, value[g.getNodeId(v)]);
+		}
+		return map;
+	}
+	
+	/**
+	 * The id of the arc giving the value of a node id for MAX and MIN, or -1
+	 * if the value is the initial one.
+	 */
+	public int getPredArc(int v) {
+		checkRun();
+		return predArc[v];
+	}
+	
+	public Edge getPredArc(Node v) {
+		int a = getPredArc(g.getNodeId(v));
+		return a < 0 ? null : g.arcFromId(a);
+	}
+	
+	/**
+	 * The arcs giving the value of a node for MAX and MIN, from a node with
+	 * its initial value, e.g.\ a critical path.
+	 */
+	public List<Edge> getPath(Node v) {
+		checkRun();
+		List<Edge> path = new ArrayList<Edge>();
+		int a = predArc[g.getNodeId(v)];
+		while (a >= 0) {
+			Edge arc = g.arcFromId(a);
+			path.add(arc);
+			a = predArc[g.getNodeId(g.getSource(arc))];
+		}
+		Collections.reverse(path);
+		return path;
+	}
+}
@@ -0,0 +1,540 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+import qdg.bits.ParallelTasks;
+import qdg.view.DiGraphAsCursorDiGraph;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Single source shortest paths by delta-stepping, with the relaxations of
+ * each step run in parallel by the tasks of an executor, e.g.\ a
+ * ForkJoinPool.
+ * 
+ * Based on:
+ * @ARTICLE{Meyer03,
+ *   author = {Ulrich Meyer and Peter Sanders},
+ *   title = {Delta-stepping: a parallelizable shortest path algorithm},
+ *   journal = {Journal of Algorithms},
+ *   year = {2003},
+ *   volume = {49},
+ *   number = {1},
+ *   pages = {114--152}
+ * }
+ * 
+ * The nodes are kept in buckets of width delta by their tentative
+ * distances. The nodes of the smallest non-empty bucket relax their light
+ * arcs, i.e.\ the arcs not longer than delta, until the bucket stays empty,
+ * and then all the removed nodes relax their heavy arcs once. The tentative
+ * distances are updated by compare-and-set in an AtomicLongArray of the bits
+ * of the doubles, which are ordered as the non-negative doubles themselves.
+ * 
+ * The lengths are copied into arrays when the object is created, as in
+ * Dijkstra. The shortest path tree is optional, and it is computed after
+ * the distances by a search over the tight arcs, hence it is a tree even
+ * with zero length cycles.
+ */
+@GwtIncompatible("java.util.concurrent")
+public class DeltaStepping {
+	
+	/**
+	 * Frontiers smaller than this many nodes per task are relaxed by a
+	 * single task.
+	 */
+	static final int MIN_NODES_PER_TASK = 64;
+	
+	/**
+	 * The maximal length divided by delta must be less than this, since the
+	 * buckets are allocated for that range.
+	 */
+	static final int MAX_NUM_BUCKETS = 1 << 24;
+	
+	private final CursorDiGraph g;
+	
+	/**
+	 * The out-arcs of each node in CSR form, the light arcs first.
+	 */
+	private final int[] outBegin;
+	
+	private final int[] lightEnd;
+	
+	private final int[] outHead;
+	
+	private final double[] outLength;
+	
+	private final int[] outArc;
+	
+	private final double maxLength;
+	
+	private double delta;
+	
+	private boolean predArcs;
+	
+	private AtomicLongArray distance;
+	
+	private int[] predArc;
+	
+	private int numPhases;
+	
+	private Executor executor;
+	
+	private final List<Relaxer> relaxers = new ArrayList<Relaxer>();
+	
+	private Bucket[] buckets;
+	
+	/**
+	 * The bucket index each node was last added to, -1 if none.
+	 */
+	private long[] bucketOf;
+	
+	public DeltaStepping(DiGraph g, EntityMap<Edge, Double> lengths) {
+		this(DiGraphAsCursorDiGraph.of(g), lengths);
+	}
+	
+	private DeltaStepping(CursorDiGraph g, EntityMap<Edge, Double> lengths) {
+		this(g, ArcLengths.of(g, lengths));
+	}
+	
+	private DeltaStepping(CursorDiGraph g, double[] lengths) {
+		this.g = g;
+		int n = g.getNodeIdBound();
+		outBegin = new int[n + 1];
+		EdgeCursor cursor = g.createOutArcCursor();
+		int numArcs = 0;
+		double max = 0.0;
+		for (int u = 0; u < n; ++u) {
+			outBegin[u] = numArcs;
+			cursor.reset(u);
+			while (cursor.next()) {
+				max = Math.max(max, lengths[cursor.getEdgeId()]);
+				++numArcs;
+			}
+		}
+		outBegin[n] = numArcs;
+		maxLength = max;
+		delta = computeDefaultDelta(n, numArcs);
+		lightEnd = new int[n];
+		outHead = new int[numArcs];
+		outLength = new double[numArcs];
+		outArc = new int[numArcs];
+		for (int u = 0; u < n; ++u) {
+			int light = outBegin[u];
+			int heavy = outBegin[u + 1];
+			cursor.reset(u);
+			while (cursor.next()) {
+				int a = cursor.getEdgeId();
+				int i = lengths[a] <= delta ? light++ : --heavy;
+				outHead[i] = cursor.getNodeId();
+				outLength[i] = lengths[a];
+				outArc[i] = a;
+			}
+			lightEnd[u] = light;
+		}
+	}
+	
+	/**
+	 * Delta-stepping with long lengths, which are exact below 2^53.
+	 */
+	public static DeltaStepping withLongLengths(DiGraph g,
+			EntityMap<Edge, Long> lengths) {
+		CursorDiGraph cg = DiGraphAsCursorDiGraph.of(g);
+		return new DeltaStepping(cg, ArcLengths.ofLongs(cg, lengths));
+	}
+	
+	/**
+	 * The maximal length divided by the average out-degree, following the
+	 * analysis of random lengths, or 1 if all the lengths are zero.
+	 */
+	private double computeDefaultDelta(int n, int numArcs) {
+		if (maxLength == 0.0) {
+			return 1.0;
+		}
+		int numNodes = 0;
+		for (int u = 0; u < n; ++u) {
+			if (outBegin[u + 1] > outBegin[u]) {
+				++numNodes;
+			}
+		}
+		double degree = numNodes == 0 ? 1.0
+				: Math.max(1.0, (double) numArcs / numNodes);
+		return maxLength / Math.min(degree, MAX_NUM_BUCKETS / 2);
+	}
+	
+	public CursorDiGraph getGraph() {
+		return g;
+	}
+	
+	/**
+	 * The bucket width, chosen automatically by default. Smaller values
+	 * mean less work, larger ones more parallelism.
+	 */
+	public void setDelta(double delta) {
+		if (!(delta > 0.0) || delta == Double.POSITIVE_INFINITY
+				|| maxLength / delta >= MAX_NUM_BUCKETS - 2) {
+			throw new IllegalArgumentException();
+		}
+		this.delta = delta;
+		int n = g.getNodeIdBound();
+		for (int u = 0; u < n; ++u) {
+			// Reorders the arcs of u by the new delta.
+			int light = outBegin[u];
+			int heavy = outBegin[u + 1] - 1;
+			while (light <= heavy) {
+				if (outLength[light] <= delta) {
+					++light;
+				} else {
+					swap(light, heavy--);
+				}
+			}
+			lightEnd[u] = light;
+		}
+	}
+	
+	private void swap(int i, int j) {
+		int head = outHead[i];
+		outHead[i] = outHead[j];
+		outHead[j] = head;
+		double length = outLength[i];
+		outLength[i] = outLength[j];
+		outLength[j] = length;
+		int arc = outArc[i];
+		outArc[i] = outArc[j];
+		outArc[j] = arc;
+	}
+	
+	public double getDelta() {
+		return delta;
+	}
+	
+	/**
+	 * If set, then the shortest path tree is computed as well, see
+	 * getPredArc().
+	 */
+	public void setPredArcs(boolean predArcs) {
+		this.predArcs = predArcs;
+	}
+	
+	public boolean isPredArcs() {
+		return predArcs;
+	}
+	
+	/**
+	 * Relaxes arcs, and collects the nodes whose distances it decreased.
+	 */
+	private class Relaxer {
+		
+		int[] updated = new int[16];
+		
+		int numUpdated;
+		
+		void relax(int u, boolean light) {
+			double d = Double.longBitsToDouble(distance.get(u));
+			int begin = light ? outBegin[u] : lightEnd[u];
+			int end = light ? lightEnd[u] : outBegin[u + 1];
+			for (int i = begin; i < end; ++i) {
+				int v = outHead[i];
+				long bits = Double.doubleToLongBits(d + outLength[i]);
+				while (true) {
+					long old = distance.get(v);
+					if (bits >= old) {
+						break;
+					}
+					if (distance.compareAndSet(v, old, bits)) {
+						if (numUpdated == updated.length) {
+							updated = Arrays.copyOf(updated, 2 * numUpdated);
+						}
+						updated[numUpdated++] = v;
+						break;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * A bucket, possibly with stale and repeated nodes.
+	 */
+	private static class Bucket {
+		
+		int[] nodes = new int[16];
+		
+		int size;
+		
+		void add(int v) {
+			if (size == nodes.length) {
+				nodes = Arrays.copyOf(nodes, 2 * size);
+			}
+			nodes[size++] = v;
+		}
+	}
+	
+	/**
+	 * Computes the distances from s.
+	 */
+	public void run(Node s) {
+		try {
+			run(s, null, 1);
+		} catch (InterruptedException e) {
+			// Nothing runs on other threads.
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Same as run(Node), but the relaxations are run by numTasks tasks of
+	 * the executor.
+	 */
+	public void run(Node s, Executor executor, int numTasks)
+			throws InterruptedException {
+		if (numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		this.executor = executor;
+		relaxers.clear();
+		for (int t = 0; t < numTasks; ++t) {
+			relaxers.add(new Relaxer());
+		}
+		int n = g.getNodeIdBound();
+		long infinity = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+		distance = new AtomicLongArray(n);
+		for (int v = 0; v < n; ++v) {
+			distance.set(v, infinity);
+		}
+		// The tentative distances are less than the current bucket plus the
+		// maximal length, hence the buckets are reused cyclically.
+		int numBuckets = (int) Math.floor(maxLength / delta) + 2;
+		buckets = new Bucket[numBuckets];
+		bucketOf = new long[n];
+		Arrays.fill(bucketOf, -1L);
+		int[] removedStamp = new int[n];
+		int[] frontierStamp = new int[n];
+		int[] removed = new int[n];
+		int[] frontier = new int[n];
+		int source = g.getNodeId(s);
+		distance.set(source, Double.doubleToLongBits(0.0));
+		addToBucket(source);
+		numPhases = 0;
+		int numQueued = 1;
+		long current = 0;
+		int stamp = 0;
+		while (numQueued > 0) {
+			Bucket bucket = buckets[(int) (current % numBuckets)];
+			if (bucket == null || bucket.size == 0) {
+				++current;
+				continue;
+			}
+			++numPhases;
+			int numRemoved = 0;
+			while (bucket.size > 0) {
+				++stamp;
+				int numFrontier = 0;
+				for (int i = 0; i < bucket.size; ++i) {
+					int v = bucket.nodes[i];
+					--numQueued;
+					if (bucketOf[v] != current || frontierStamp[v] == stamp) {
+						continue;
+					}
+					frontierStamp[v] = stamp;
+					frontier[numFrontier++] = v;
+					if (removedStamp[v] != numPhases) {
+						removedStamp[v] = numPhases;
+						removed[numRemoved++] = v;
+					}
+					bucketOf[v] = -1L;
+				}
+				bucket.size = 0;
+				numQueued += relaxAll(frontier, numFrontier, true);
+			}
+			numQueued += relaxAll(removed, numRemoved, false);
+			++current;
+		}
+		buckets = null;
+		bucketOf = null;
+		this.executor = null;
+		predArc = predArcs ? computePredArcs(source) : null;
+	}
+	
+	/**
+	 * Adds v to the bucket of its distance, unless it is already there, and
+	 * returns the number of added nodes.
+	 */
+	private int addToBucket(int v) {
+		double d = Double.longBitsToDouble(distance.get(v));
+		long index = (long) Math.floor(d / delta);
+		if (bucketOf[v] == index) {
+			return 0;
+		}
+		bucketOf[v] = index;
+		int i = (int) (index % buckets.length);
+		if (buckets[i] == null) {
+			buckets[i] = new Bucket();
+		}
+		buckets[i].add(v);
+		return 1;
+	}
+	
+	/**
+	 * Relaxes the light or the heavy arcs of the given nodes, adds the
+	 * updated nodes to their buckets, and returns the number of additions.
+	 */
+	private int relaxAll(final int[] nodes, final int count,
+			final boolean light) throws InterruptedException {
+		int numTasks = Math.min(relaxers.size(),
+				count / MIN_NODES_PER_TASK);
+		if (executor == null || numTasks < 2) {
+			Relaxer relaxer = relaxers.get(0);
+			for (int i = 0; i < count; ++i) {
+				relaxer.relax(nodes[i], light);
+			}
+		} else {
+			int chunkSize = (count + numTasks - 1) / numTasks;
+			List<Runnable> tasks = new ArrayList<Runnable>();
+			for (int t = 0; t < numTasks; ++t) {
+				final int begin = t * chunkSize;
+				final int end = Math.min(count, begin + chunkSize);
+				final Relaxer relaxer = relaxers.get(t);
+				tasks.add(new Runnable() {
+					
+					@Override
+					public void run() {
+						for (int i = begin; i < end; ++i) {
+							relaxer.relax(nodes[i], light);
+						}
+					}
+				});
+			}
+			ParallelTasks.run(executor, tasks);
+		}
+		int added = 0;
+		for (Relaxer relaxer : relaxers) {
+			for (int i = 0; i < relaxer.numUpdated; ++i) {
+				added += addToBucket(relaxer.updated[i]);
+			}
+			relaxer.numUpdated = 0;
+		}
+		return added;
+	}
+	
+	/**
+	 * The shortest path tree by a breadth first search over the tight arcs.
+	 */
+	private int[] computePredArcs(int source) {
+		int n = g.getNodeIdBound();
+		int[] pred = new int[n];
+		Arrays.fill(pred, -1);
+		boolean[] visited = new boolean[n];
+		int[] queue = new int[n];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = source;
+		visited[source] = true;
+		while (head < tail) {
+			int u = queue[head++];
+			double d = getDistance(u);
+			for (int i = outBegin[u]; i < outBegin[u + 1]; ++i) {
+				int v = outHead[i];
+				if (!visited[v] && d + outLength[i] == getDistance(v)) {
+					visited[v] = true;
+					pred[v] = outArc[i];
+					queue[tail++] = v;
+				}
+			}
+		}
+		return pred;
+	}
+	
+	/**
+	 * The distance from the source of the last run, or infinity if v is not
+	 * reachable.
+	 */
+	public double getDistance(int v) {
+		if (distance == null) {
+			throw new IllegalStateException();
+		}
+		return Double.longBitsToDouble(distance.get(v));
+	}
+	
+	public double getDistance(Node v) {
+		return getDistance(g.getNodeId(v));
+	}
+	
+	public boolean isReached(int v) {
+		return getDistance(v) < Double.POSITIVE_INFINITY;
+	}
+	
+	public boolean isReached(Node v) {
+		return isReached(g.getNodeId(v));
+	}
+	
+	/**
+	 * A primitive map of the distances of the last run, infinity for the
+	 * unreachable nodes.
+	 */
+	public DoubleEntityMap<Node> createDistanceMap() {
+		DoubleEntityMap<Node> map =
+				g.createDoubleNodeMap(Double.POSITIVE_INFINITY);
+		for (Node v : g.getNodes()) {
+			double d = getDistance(v);
+			if (d < Double.POSITIVE_INFINITY) {
+				map.putDouble(v, d);
+			}
+		}
+		return map;
+	}
+	
+	/**
+	 * The arc through which v is reached in the shortest path tree, or -1
+	 * for the source and the unreached nodes. The tree must have been
+	 * requested by setPredArcs().
+	 */
+	public int getPredArc(int v) {
+		if (predArc == null) {
+			throw new IllegalStateException();
+		}
+		return predArc[v];
+	}
+	
+	/**
+	 * The arc through which v is reached in the shortest path tree, or null
+	 * for the source and the unreached nodes.
+	 */
+	public Edge getPredArc(Node v) {
+		int arc = getPredArc(g.getNodeId(v));
+		return arc < 0 ? null : g.arcFromId(arc);
+	}
+	
+	/**
+	 * The number of buckets emptied by the last run.
+	 */
+	public int getNumPhases() {
+		return numPhases;
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import qdg.api.DiGraph;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+
+/**
+ * Depth first search without recursion. The stack keeps one cursor per
+ * depth, and the cursors are reused by later searches. The reached nodes
+ * are listed in preorder by getReached(), and in postorder by
+ * getFinished().
+ */
+public class Dfs extends Traversal {
+	
+	private final List<EdgeCursor> cursors = new ArrayList<EdgeCursor>();
+	
+	private boolean cursorReverse;
+	
+	private final int[] stack;
+	
+	private final int[] finished;
+	
+	private int numFinished;
+	
+	public Dfs(DiGraph g) {
+		super(g);
+		int n = this.g.getNodeIdBound();
+		stack = new int[n];
+		finished = new int[n];
+	}
+	
+	@Override
+	public void reset() {
+		super.reset();
+		numFinished = 0;
+	}
+	
+	private EdgeCursor cursor(int depth) {
+		if (cursorReverse != reverse) {
+			cursors.clear();
+			cursorReverse = reverse;
+		}
+		while (cursors.size() <= depth) {
+			cursors.add(createCursor());
+		}
+		return cursors.get(depth);
+	}
+	
+	/**
+	 * Searches the nodes reachable from root and not reached yet, i.e.\ adds
+	 * a tree to the search forest. Does nothing if root is already reached
+	 * or the visitor has stopped the search.
+	 */
+	public void visit(int root) {
+		TraversalVisitor visitor = this.visitor;
+		if (isReached(root) || visitor.stopped) {
+			return;
+		}
+		reach(root, -1);
+		order[numOrdered++] = root;
+		visitor.discover(root);
+		int depth = 0;
+		stack[0] = root;
+		EdgeCursor cursor = cursor(0);
+		cursor.reset(root);
+		while (!visitor.stopped) {
+			int u = stack[depth];
+			if (cursor.next()) {
+				int a = cursor.getEdgeId();
+				int v = cursor.getNodeId();
+				visitor.examineArc(a, u, v);
+				if (!isReached(v)) {
+					reach(v, a);
+					order[numOrdered++] = v;
+					visitor.treeArc(a, u, v);
+					visitor.discover(v);
+					stack[++depth] = v;
+					cursor = cursor(depth);
+					cursor.reset(v);
+				}
+			} else {
+				finished[numFinished++] = u;
+				visitor.finish(u);
+				if (depth == 0) {
+					return;
+				}
+				cursor = cursor(--depth);
+			}
+		}
+	}
+	
+	public void visit(Node root) {
+		visit(g.getNodeId(root));
+	}
+	
+	public void run(Node root) {
+		reset();
+		visit(root);
+	}
+	
+	/**
+	 * Searches the whole graph, starting new trees from the unreached nodes
+	 * in the order of getNodes().
+	 */
+	public void runAll() {
+		reset();
+		for (Node n : g.getNodes()) {
+			visit(g.getNodeId(n));
+		}
+	}
+	
+	/**
+	 * The number of nodes whose arcs are all scanned.
+	 */
+	public int getNumFinished() {
+		return numFinished;
+	}
+	
+	public int getFinishedId(int i) {
+		if (i < 0 || i >= numFinished) {
+			throw new IndexOutOfBoundsException();
+		}
+		return finished[i];
+	}
+	
+	/**
+	 * The i-th finished node, i.e.\ the nodes in postorder.
+	 */
+	public Node getFinished(int i) {
+		return g.nodeFromId(getFinishedId(i));
+	}
+}
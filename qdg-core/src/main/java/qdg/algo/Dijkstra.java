@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import qdg.IndexedDoubleHeap;
+import qdg.api.DiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+
+/**
+ * Dijkstra's algorithm for non-negative arc lengths, with an
+ * IndexedDoubleHeap as the queue. The lengths are copied into an array
+ * indexed by arc ids when the object is created. Usage as in Bfs.
+ * 
+ * The nodes are processed, i.e.\ listed by getReached(), when their
+ * distances become final. A node is reached as soon as it gets a tentative
+ * distance, hence getDistance() may be larger than the final distance for
+ * reached but unprocessed nodes if the search is stopped.
+ */
+public class Dijkstra extends Traversal {
+	
+	private final double[] lengths;
+	
+	private final double[] distance;
+	
+	private final IndexedDoubleHeap queue;
+	
+	private EdgeCursor cursor;
+	
+	private boolean cursorReverse;
+	
+	public Dijkstra(DiGraph g, EntityMap<Edge, Double> lengths) {
+		super(g);
+		this.lengths = ArcLengths.of(this.g, lengths);
+		int n = this.g.getNodeIdBound();
+		distance = new double[n];
+		queue = new IndexedDoubleHeap(n);
+	}
+	
+	@Override
+	public void reset() {
+		super.reset();
+		queue.clear();
+	}
+	
+	public void addSource(int s) {
+		if (!isReached(s)) {
+			reach(s, -1);
+			distance[s] = 0.0;
+			queue.add(s, 0.0);
+			visitor.discover(s);
+		} else if (queue.contains(s) && distance[s] > 0.0) {
+			setPredArc(s, -1);
+			distance[s] = 0.0;
+			queue.decrease(s, 0.0);
+		}
+	}
+	
+	public void addSource(Node s) {
+		addSource(g.getNodeId(s));
+	}
+	
+	/**
+	 * Processes the queue until it gets empty or the visitor stops the
+	 * search.
+	 */
+	public void start() {
+		if (cursor == null || cursorReverse != reverse) {
+			cursor = createCursor();
+			cursorReverse = reverse;
+		}
+		TraversalVisitor visitor = this.visitor;
+		while (!queue.isEmpty() && !visitor.stopped) {
+			int u = queue.poll();
+			order[numOrdered++] = u;
+			double dist = distance[u];
+			cursor.reset(u);
+			while (cursor.next()) {
+				int a = cursor.getEdgeId();
+				int v = cursor.getNodeId();
+				visitor.examineArc(a, u, v);
+				double d = dist + lengths[a];
+				if (!isReached(v)) {
+					reach(v, a);
+					distance[v] = d;
+					queue.add(v, d);
+					visitor.treeArc(a, u, v);
+					visitor.discover(v);
+				} else if (d < distance[v] && queue.contains(v)) {
+					setPredArc(v, a);
+					distance[v] = d;
+					queue.decrease(v, d);
+					visitor.treeArc(a, u, v);
+				}
+				if (visitor.stopped) {
+					return;
+				}
+			}
+			visitor.finish(u);
+		}
+	}
+	
+	public void run(Node s) {
+		reset();
+		addSource(s);
+		start();
+	}
+	
+	/**
+	 * The length of a shortest path from the sources, or infinity for
+	 * unreached nodes.
+	 */
+	public double getDistance(int v) {
+		return isReached(v) ? distance[v] : Double.POSITIVE_INFINITY;
+	}
+	
+	public double getDistance(Node v) {
+		return getDistance(g.getNodeId(v));
+	}
+	
+	/**
+	 * Whether the distance of v is final.
+	 */
+	public boolean isProcessed(int v) {
+		return isReached(v) && !queue.contains(v);
+	}
+	
+	public boolean isProcessed(Node v) {
+		return isProcessed(g.getNodeId(v));
+	}
+}
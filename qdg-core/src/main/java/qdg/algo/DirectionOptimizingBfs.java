@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import qdg.api.DiGraph;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+
+import com.google.common.collect.Iterators;
+
+/**
+ * Breadth first search that expands the large levels bottom-up, i.e.\ by
+ * scanning the in-arcs of the unreached nodes for arcs from the last level,
+ * which is kept in a bitset. The scan of a node stops at its first such
+ * arc, hence on graphs of small diameter, where most nodes are in one or
+ * two levels, most arcs are never scanned. Usage as in Bfs.
+ * 
+ * Based on:
+ * @INPROCEEDINGS{Beamer12,
+ *   author = {Scott Beamer and Krste Asanovi\'c and David Patterson},
+ *   title = {Direction-Optimizing Breadth-First Search},
+ *   booktitle = {Proceedings of the International Conference on High
+ *     Performance Computing, Networking, Storage and Analysis},
+ *   year = {2012},
+ *   pages = {12:1--12:10}
+ * }
+ * 
+ * A level is expanded bottom-up if its out-arcs are more than the in-arcs
+ * of the unreached nodes divided by alpha, and the search returns to
+ * top-down when a level has less than n / beta nodes. In bottom-up steps
+ * only the arcs found from the last level are examined, the nodes of the
+ * next level are discovered in the order of their ids, and the nodes of
+ * the last level are finished when the step is done.
+ */
+public class DirectionOptimizingBfs extends Traversal {
+	
+	public static final double DEFAULT_ALPHA = 14.0;
+	
+	public static final double DEFAULT_BETA = 24.0;
+	
+	private double alpha = DEFAULT_ALPHA;
+	
+	private double beta = DEFAULT_BETA;
+	
+	private final int[] distance;
+	
+	/**
+	 * All the node ids, the candidates of the bottom-up steps.
+	 */
+	private final int[] nodeIds;
+	
+	private final int[] outDegree;
+	
+	private final int[] inDegree;
+	
+	private final int numArcs;
+	
+	private final long[] level;
+	
+	private EdgeCursor cursor;
+	
+	private EdgeCursor oppositeCursor;
+	
+	private boolean cursorReverse;
+	
+	private int levelBegin;
+	
+	private int unreachedInArcs;
+	
+	private boolean bottomUp;
+	
+	private int numBottomUpSteps;
+	
+	public DirectionOptimizingBfs(DiGraph g) {
+		super(g);
+		int n = this.g.getNodeIdBound();
+		distance = new int[n];
+		nodeIds = new int[Iterators.size(this.g.getNodeIterator())];
+		outDegree = new int[n];
+		inDegree = new int[n];
+		level = new long[(n + 63) >>> 6];
+		int i = 0;
+		int m = 0;
+		EdgeCursor out = this.g.createOutArcCursor();
+		EdgeCursor in = this.g.createInArcCursor();
+		for (Node v : this.g.getNodes()) {
+			int id = this.g.getNodeId(v);
+			nodeIds[i++] = id;
+			out.reset(id);
+			while (out.next()) {
+				++outDegree[id];
+				++m;
+			}
+			in.reset(id);
+			while (in.next()) {
+				++inDegree[id];
+			}
+		}
+		numArcs = m;
+	}
+	
+	/**
+	 * The smaller alpha, the later the search turns bottom-up. Zero means
+	 * top-down only.
+	 */
+	public void setAlpha(double alpha) {
+		if (!(alpha >= 0.0)) {
+			throw new IllegalArgumentException();
+		}
+		this.alpha = alpha;
+	}
+	
+	public double getAlpha() {
+		return alpha;
+	}
+	
+	/**
+	 * The larger beta, the later the search returns to top-down.
+	 */
+	public void setBeta(double beta) {
+		if (!(beta > 0.0)) {
+			throw new IllegalArgumentException();
+		}
+		this.beta = beta;
+	}
+	
+	public double getBeta() {
+		return beta;
+	}
+	
+	@Override
+	public void reset() {
+		super.reset();
+		levelBegin = 0;
+		unreachedInArcs = numArcs;
+		bottomUp = false;
+		numBottomUpSteps = 0;
+	}
+	
+	private void reach(int v, int arc, int dist) {
+		reach(v, arc);
+		distance[v] = dist;
+		order[numOrdered++] = v;
+		unreachedInArcs -= reverse ? outDegree[v] : inDegree[v];
+	}
+	
+	/**
+	 * The sources must be added before start().
+	 */
+	public void addSource(int s) {
+		if (!isReached(s)) {
+			reach(s, -1, 0);
+			visitor.discover(s);
+		}
+	}
+	
+	public void addSource(Node s) {
+		addSource(g.getNodeId(s));
+	}
+	
+	/**
+	 * Expands the levels until there are no more nodes to reach or the
+	 * visitor stops the search.
+	 */
+	public void start() {
+		if (cursor == null || cursorReverse != reverse) {
+			cursor = createCursor();
+			oppositeCursor = reverse ? g.createOutArcCursor()
+					: g.createInArcCursor();
+			cursorReverse = reverse;
+		}
+		while (levelBegin < numOrdered && !visitor.stopped) {
+			int levelEnd = numOrdered;
+			bottomUp = isBottomUpCheaper(levelEnd);
+			if (bottomUp) {
+				++numBottomUpSteps;
+				expandBottomUp(levelEnd);
+			} else {
+				expandTopDown(levelEnd);
+			}
+			if (visitor.stopped) {
+				return;
+			}
+			levelBegin = levelEnd;
+		}
+	}
+	
+	private boolean isBottomUpCheaper(int levelEnd) {
+		if (bottomUp) {
+			return (levelEnd - levelBegin) * beta >= nodeIds.length;
+		}
+		long levelArcs = 0;
+		for (int i = levelBegin; i < levelEnd; ++i) {
+			int u = order[i];
+			levelArcs += reverse ? inDegree[u] : outDegree[u];
+		}
+		return levelArcs * alpha > unreachedInArcs;
+	}
+	
+	private void expandTopDown(int levelEnd) {
+		TraversalVisitor visitor = this.visitor;
+		for (int i = levelBegin; i < levelEnd; ++i) {
+			int u = order[i];
+			int dist = distance[u] + 1;
+			cursor.reset(u);
+			while (cursor.next()) {
+				int a = cursor.getEdgeId();
+				int v = cursor.getNodeId();
+				visitor.examineArc(a, u, v);
+				if (!isReached(v)) {
+					reach(v, a, dist);
+					visitor.treeArc(a, u, v);
+					visitor.discover(v);
+				}
+				if (visitor.stopped) {
+					return;
+				}
+			}
+			visitor.finish(u);
+		}
+	}
+	
+	private void expandBottomUp(int levelEnd) {
+		TraversalVisitor visitor = this.visitor;
+		for (int i = levelBegin; i < levelEnd; ++i) {
+			int u = order[i];
+			level[u >>> 6] |= 1L << u;
+		}
+		int dist = distance[order[levelBegin]] + 1;
+		try {
+			for (int v : nodeIds) {
+				if (isReached(v)) {
+					continue;
+				}
+				oppositeCursor.reset(v);
+				while (oppositeCursor.next()) {
+					int u = oppositeCursor.getNodeId();
+					if ((level[u >>> 6] & (1L << u)) != 0) {
+						int a = oppositeCursor.getEdgeId();
+						visitor.examineArc(a, u, v);
+						reach(v, a, dist);
+						visitor.treeArc(a, u, v);
+						visitor.discover(v);
+						if (visitor.stopped) {
+							return;
+						}
+						break;
+					}
+				}
+			}
+			for (int i = levelBegin; i < levelEnd && !visitor.stopped; ++i) {
+				visitor.finish(order[i]);
+			}
+		} finally {
+			for (int i = levelBegin; i < levelEnd; ++i) {
+				level[order[i] >>> 6] = 0;
+			}
+		}
+	}
+	
+	public void run(Node s) {
+		reset();
+		addSource(s);
+		start();
+	}
+	
+	/**
+	 * The number of arcs on a shortest path from the sources, or -1 for
+	 * unreached nodes.
+	 */
+	public int getDistance(int v) {
+		return isReached(v) ? distance[v] : -1;
+	}
+	
+	public int getDistance(Node v) {
+		return getDistance(g.getNodeId(v));
+	}
+	
+	/**
+	 * The number of levels expanded bottom-up by the last search.
+	 */
+	public int getNumBottomUpSteps() {
+		return numBottomUpSteps;
+	}
+}
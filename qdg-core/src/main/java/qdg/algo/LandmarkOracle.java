@@ -0,0 +1,480 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import qdg.IndexedDoubleHeap;
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+import qdg.api.bits.EdgeMutationHandler;
+import qdg.api.bits.NodeMutationHandler;
+import qdg.bits.BoxedMaps;
+import qdg.view.DiGraphAsCursorDiGraph;
+
+import com.google.common.base.Function;
+
+/**
+ * Distance oracle by landmarks and the triangle inequality, i.e.\ the ALT
+ * algorithm: A* with the lower bounds given by the distances from and to
+ * the landmarks as potentials.
+ * 
+ * Based on:
+ * @INPROCEEDINGS{Goldberg05,
+ *   author = {Andrew V. Goldberg and Chris Harrelson},
+ *   title = {Computing the Shortest Path: A* Search Meets Graph Theory},
+ *   booktitle = {Proceedings of the Sixteenth Annual ACM-SIAM Symposium on
+ *     Discrete Algorithms},
+ *   year = {2005},
+ *   pages = {156--165}
+ * }
+ * 
+ * The landmarks are chosen by the farthest or the avoid heuristic of
+ * Goldberg and Werneck. The tables are computed by compute(), or given to
+ * the constructor, e.g.\ after deserialization.
+ * 
+ * If the graph is a mutable CursorDiGraph, e.g.\ a ListDiGraph, then the
+ * tables follow its changes through mutation handlers. The distances
+ * decreased by added arcs are updated before the next query, when the
+ * lengths of the new arcs are already set. Removals keep the tables, which
+ * still give valid lower bounds, just weaker ones. Decreasing the length of
+ * an arc is not tracked, compute() must be called after that. Other graphs
+ * are handled as snapshots, and compute() must be called again after they
+ * change.
+ */
+public class LandmarkOracle {
+	
+	public enum Selection {
+		/**
+		 * Each landmark is the node farthest from the landmarks so far, in
+		 * the sum of the distances in the two directions.
+		 */
+		FARTHEST,
+		/**
+		 * Each landmark is a leaf of a shortest path tree from a random node,
+		 * reached by stepping to the child whose subtree has the largest
+		 * total gap between the distances and the lower bounds so far.
+		 */
+		AVOID
+	}
+	
+	public static final int DEFAULT_NUM_LANDMARKS = 16;
+	
+	private final DiGraph graph;
+	
+	private final EntityMap<Edge, Double> lengths;
+	
+	private CursorDiGraph g;
+	
+	private int numLandmarks = DEFAULT_NUM_LANDMARKS;
+	
+	private Selection selection = Selection.AVOID;
+	
+	private Random random = new Random();
+	
+	private LandmarkTables tables;
+	
+	private AStar aStar;
+	
+	private final boolean tracked;
+	
+	/**
+	 * The arcs added since the last update.
+	 */
+	private final List<Edge> addedArcs = new ArrayList<Edge>();
+	
+	private boolean changed;
+	
+	/**
+	 * The handlers are referenced here, since the graphs keep them in weak
+	 * maps.
+	 */
+	private final NodeMutationHandler nodeHandler = new NodeMutationHandler() {
+		
+		@Override
+		public void onAdd(Node node) {
+			changed = true;
+			if (tables != null) {
+				int v = g.getNodeId(node);
+				tables.ensureNodeIdBound(v + 1);
+				for (int i = 0; i < tables.getNumLandmarks(); ++i) {
+					tables.getFromLandmark(i)[v] = Double.POSITIVE_INFINITY;
+					tables.getToLandmark(i)[v] = Double.POSITIVE_INFINITY;
+				}
+			}
+		}
+		
+		@Override
+		public void onRemove(Node node) {
+			changed = true;
+		}
+	};
+	
+	private final EdgeMutationHandler arcHandler = new EdgeMutationHandler() {
+		
+		@Override
+		public void onAdd(Edge arc) {
+			changed = true;
+			addedArcs.add(arc);
+		}
+		
+		@Override
+		public void onRemove(Edge arc) {
+			changed = true;
+			addedArcs.remove(arc);
+		}
+	};
+	
+	public LandmarkOracle(DiGraph g, EntityMap<Edge, Double> lengths) {
+		this(g, lengths, null);
+	}
+	
+	/**
+	 * Uses tables computed earlier for the same graph.
+	 */
+	public LandmarkOracle(DiGraph g, EntityMap<Edge, Double> lengths,
+			LandmarkTables tables) {
+		this.graph = g;
+		this.lengths = lengths;
+		this.g = DiGraphAsCursorDiGraph.of(g);
+		boolean tracked = false;
+		if (g instanceof CursorDiGraph) {
+			try {
+				g.addNodeMutationHandler(nodeHandler);
+				g.addEdgeMutationHandler(arcHandler);
+				tracked = true;
+			} catch (UnsupportedOperationException e) {
+				// Immutable graph.
+			}
+		}
+		this.tracked = tracked;
+		if (tables != null) {
+			if (tables.getNodeIdBound() > this.g.getNodeIdBound()) {
+				throw new IllegalArgumentException();
+			}
+			tables.ensureNodeIdBound(this.g.getNodeIdBound());
+		}
+		this.tables = tables;
+	}
+	
+	public DiGraph getGraph() {
+		return graph;
+	}
+	
+	public EntityMap<Edge, Double> getLengths() {
+		return lengths;
+	}
+	
+	public void setNumLandmarks(int numLandmarks) {
+		if (numLandmarks < 0) {
+			throw new IllegalArgumentException();
+		}
+		this.numLandmarks = numLandmarks;
+	}
+	
+	public int getNumLandmarks() {
+		return numLandmarks;
+	}
+	
+	public void setSelection(Selection selection) {
+		this.selection = selection;
+	}
+	
+	public Selection getSelection() {
+		return selection;
+	}
+	
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+	
+	public Random getRandom() {
+		return random;
+	}
+	
+	/**
+	 * The tables, updated to the changes of the graph.
+	 */
+	public LandmarkTables getTables() {
+		update();
+		return tables;
+	}
+	
+	/**
+	 * Chooses the landmarks and computes the tables.
+	 */
+	public void compute() {
+		if (!tracked) {
+			g = DiGraphAsCursorDiGraph.of(graph);
+		}
+		addedArcs.clear();
+		changed = false;
+		aStar = null;
+		int n = g.getNodeIdBound();
+		List<Integer> nodes = new ArrayList<Integer>();
+		for (Node v : g.getNodes()) {
+			nodes.add(g.getNodeId(v));
+		}
+		Dijkstra forward = new Dijkstra(g, lengths);
+		Dijkstra backward = new Dijkstra(g, lengths);
+		backward.setReverse(true);
+		int k = Math.min(numLandmarks, nodes.size());
+		int[] landmarks = new int[k];
+		double[][] fromLandmark = new double[k][];
+		double[][] toLandmark = new double[k][];
+		int count = 0;
+		while (count < k) {
+			LandmarkTables selected = new LandmarkTables(
+					Arrays.copyOf(landmarks, count),
+					Arrays.copyOf(fromLandmark, count),
+					Arrays.copyOf(toLandmark, count));
+			int root = nodes.get(random.nextInt(nodes.size()));
+			int landmark = -1;
+			if (selection == Selection.AVOID && count > 0) {
+				landmark = avoid(forward, selected, root);
+			}
+			if (landmark < 0) {
+				landmark = farthest(forward, backward, selected, nodes, root);
+			}
+			if (landmark < 0) {
+				break;
+			}
+			landmarks[count] = landmark;
+			forward.run(g.nodeFromId(landmark));
+			backward.run(g.nodeFromId(landmark));
+			fromLandmark[count] = new double[n];
+			toLandmark[count] = new double[n];
+			for (int v = 0; v < n; ++v) {
+				fromLandmark[count][v] = forward.getDistance(v);
+				toLandmark[count][v] = backward.getDistance(v);
+			}
+			++count;
+		}
+		tables = new LandmarkTables(Arrays.copyOf(landmarks, count),
+				Arrays.copyOf(fromLandmark, count),
+				Arrays.copyOf(toLandmark, count));
+	}
+	
+	/**
+	 * Returns the node farthest from the landmarks so far, or from the root
+	 * for the first landmark, or -1 if all nodes are landmarks. Unreachable
+	 * nodes are the farthest.
+	 */
+	private int farthest(Dijkstra forward, Dijkstra backward,
+			LandmarkTables selected, List<Integer> nodes, int root) {
+		if (selected.getNumLandmarks() == 0) {
+			forward.run(g.nodeFromId(root));
+			backward.run(g.nodeFromId(root));
+		}
+		int best = -1;
+		double bestDistance = 0.0;
+		for (int v : nodes) {
+			double distance;
+			if (selected.getNumLandmarks() == 0) {
+				distance = forward.getDistance(v) + backward.getDistance(v);
+			} else {
+				distance = Double.POSITIVE_INFINITY;
+				for (int i = 0; i < selected.getNumLandmarks(); ++i) {
+					if (selected.getLandmark(i) == v) {
+						distance = -1.0;
+						break;
+					}
+					distance = Math.min(distance, selected.getDistanceFrom(i, v)
+							+ selected.getDistanceTo(i, v));
+				}
+			}
+			if (best < 0 && distance >= 0.0 || distance > bestDistance) {
+				best = v;
+				bestDistance = distance;
+			}
+		}
+		return best;
+	}
+	
+	/**
+	 * Returns the new landmark by the avoid heuristic, or -1 if each
+	 * subtree of the root contains a landmark or has no gap.
+	 */
+	private int avoid(Dijkstra forward, LandmarkTables selected, int root) {
+		forward.run(g.nodeFromId(root));
+		int n = g.getNodeIdBound();
+		double[] size = new double[n];
+		boolean[] hasLandmark = new boolean[n];
+		int[] bestChild = new int[n];
+		Arrays.fill(bestChild, -1);
+		for (int i = 0; i < selected.getNumLandmarks(); ++i) {
+			hasLandmark[selected.getLandmark(i)] = true;
+		}
+		for (int i = forward.getNumReached() - 1; i >= 0; --i) {
+			int v = forward.getReachedId(i);
+			// The children of v are done, so a subtree with a landmark has
+			// size 0.
+			if (hasLandmark[v]) {
+				size[v] = 0.0;
+			} else {
+				size[v] += forward.getDistance(v)
+						- selected.getLowerBound(root, v);
+			}
+			int arc = forward.getPredArc(v);
+			if (arc >= 0) {
+				int parent = g.getNodeId(g.getSource(g.arcFromId(arc)));
+				hasLandmark[parent] |= hasLandmark[v];
+				size[parent] += size[v];
+				if (!hasLandmark[v] && size[v] > 0.0 && (bestChild[parent] < 0
+						|| size[v] > size[bestChild[parent]])) {
+					bestChild[parent] = v;
+				}
+			}
+		}
+		int v = root;
+		while (bestChild[v] >= 0) {
+			v = bestChild[v];
+		}
+		return v == root ? -1 : v;
+	}
+	
+	/**
+	 * Applies the arcs added since the last update to the tables, or
+	 * recomputes them if they cannot be updated.
+	 */
+	public void update() {
+		if (tables == null || !tracked && changed) {
+			compute();
+			return;
+		}
+		if (!changed) {
+			return;
+		}
+		changed = false;
+		aStar = null;
+		tables.ensureNodeIdBound(g.getNodeIdBound());
+		if (addedArcs.isEmpty()) {
+			return;
+		}
+		DoubleEntityMap<Edge> l = BoxedMaps.asDoubleMap(lengths, Double.NaN);
+		IndexedDoubleHeap queue = new IndexedDoubleHeap(g.getNodeIdBound());
+		for (int i = 0; i < tables.getNumLandmarks(); ++i) {
+			for (boolean reverse : new boolean[] {false, true}) {
+				double[] distance = reverse ? tables.getToLandmark(i)
+						: tables.getFromLandmark(i);
+				for (Edge a : addedArcs) {
+					int u = g.getNodeId(reverse ? g.getTarget(a) : g.getSource(a));
+					int v = g.getNodeId(reverse ? g.getSource(a) : g.getTarget(a));
+					decrease(queue, distance, v, distance[u] + length(l, a));
+				}
+				EdgeCursor cursor = reverse ? g.createInArcCursor()
+						: g.createOutArcCursor();
+				while (!queue.isEmpty()) {
+					int u = queue.poll();
+					cursor.reset(u);
+					while (cursor.next()) {
+						decrease(queue, distance, cursor.getNodeId(), distance[u]
+								+ length(l, g.arcFromId(cursor.getEdgeId())));
+					}
+				}
+			}
+		}
+		addedArcs.clear();
+	}
+	
+	private static double length(DoubleEntityMap<Edge> l, Edge a) {
+		double length = l.getDouble(a);
+		if (!(length >= 0.0)) {
+			throw new IllegalArgumentException();
+		}
+		return length;
+	}
+	
+	private static void decrease(IndexedDoubleHeap queue, double[] distance,
+			int v, double d) {
+		if (d < distance[v]) {
+			distance[v] = d;
+			if (queue.contains(v)) {
+				queue.decrease(v, d);
+			} else {
+				queue.add(v, d);
+			}
+		}
+	}
+	
+	/**
+	 * A lower bound of the distance from s to t, without search. It is
+	 * infinity only if t is not reachable from s.
+	 */
+	public double getLowerBound(Node s, Node t) {
+		update();
+		return tables.getLowerBound(g.getNodeId(s), g.getNodeId(t));
+	}
+	
+	/**
+	 * The lower bounds of the distances to t, a consistent potential for
+	 * AStar.
+	 */
+	public Function<Node, Double> getPotential(Node t) {
+		update();
+		final LandmarkTables tables = this.tables;
+		final int target = g.getNodeId(t);
+		return new Function<Node, Double>() {
+			
+			@Override
+			public Double apply(Node v) {
+				return tables.getLowerBound(g.getNodeId(v), target);
+			}
+		};
+	}
+	
+	private AStar getAStar() {
+		update();
+		if (aStar == null) {
+			aStar = new AStar(g, lengths);
+		}
+		return aStar;
+	}
+	
+	/**
+	 * The length of a shortest path from s to t by A*, or infinity if t is
+	 * not reachable from s.
+	 */
+	public double computeDistance(Node s, Node t) {
+		AStar aStar = getAStar();
+		return aStar.computeDistance(s, t, getPotential(t));
+	}
+	
+	/**
+	 * A shortest path from s to t by A*, or null if t is not reachable from
+	 * s.
+	 */
+	public ShortestPath computePath(Node s, Node t) {
+		AStar aStar = getAStar();
+		return aStar.computePath(s, t, getPotential(t));
+	}
+	
+	/**
+	 * The number of nodes settled by the last query.
+	 */
+	public int getNumSettled() {
+		return aStar == null ? 0 : aStar.getNumSettled();
+	}
+}
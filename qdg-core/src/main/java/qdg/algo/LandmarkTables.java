@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * The distances from and to the landmarks of a LandmarkOracle, in double
+ * arrays indexed by node ids, with infinity for unreachable nodes. The
+ * tables can be serialized, and given to a new oracle of the same graph.
+ */
+public class LandmarkTables implements Serializable {
+	
+	private static final long serialVersionUID = -4715604127983263402L;
+	
+	private final int[] landmarks;
+	
+	/**
+	 * fromLandmark[i][v] is the distance from the i-th landmark to v.
+	 */
+	private final double[][] fromLandmark;
+	
+	/**
+	 * toLandmark[i][v] is the distance from v to the i-th landmark.
+	 */
+	private final double[][] toLandmark;
+	
+	LandmarkTables(int[] landmarks, double[][] fromLandmark,
+			double[][] toLandmark) {
+		this.landmarks = landmarks;
+		this.fromLandmark = fromLandmark;
+		this.toLandmark = toLandmark;
+	}
+	
+	public int getNumLandmarks() {
+		return landmarks.length;
+	}
+	
+	/**
+	 * The node id of the i-th landmark.
+	 */
+	public int getLandmark(int i) {
+		return landmarks[i];
+	}
+	
+	public int getNodeIdBound() {
+		return landmarks.length == 0 ? 0 : fromLandmark[0].length;
+	}
+	
+	public double getDistanceFrom(int i, int v) {
+		return fromLandmark[i][v];
+	}
+	
+	public double getDistanceTo(int i, int v) {
+		return toLandmark[i][v];
+	}
+	
+	double[] getFromLandmark(int i) {
+		return fromLandmark[i];
+	}
+	
+	double[] getToLandmark(int i) {
+		return toLandmark[i];
+	}
+	
+	/**
+	 * Makes room for node ids less than bound. New nodes are unreachable.
+	 */
+	void ensureNodeIdBound(int bound) {
+		for (int i = 0; i < landmarks.length; ++i) {
+			int size = fromLandmark[i].length;
+			if (bound > size) {
+				int newSize = Math.max(bound, 2 * size);
+				fromLandmark[i] = Arrays.copyOf(fromLandmark[i], newSize);
+				Arrays.fill(fromLandmark[i], size, newSize,
+						Double.POSITIVE_INFINITY);
+				toLandmark[i] = Arrays.copyOf(toLandmark[i], newSize);
+				Arrays.fill(toLandmark[i], size, newSize,
+						Double.POSITIVE_INFINITY);
+			}
+		}
+	}
+	
+	/**
+	 * The lower bound of the distance from v to t by the triangle
+	 * inequality, infinity if t is surely not reachable from v.
+	 */
+	double getLowerBound(int v, int t) {
+		double bound = 0.0;
+		for (int i = 0; i < landmarks.length; ++i) {
+			double[] to = toLandmark[i];
+			if (to[t] < Double.POSITIVE_INFINITY) {
+				if (to[v] == Double.POSITIVE_INFINITY) {
+					// v does not reach the landmark, which is reached from t.
+					return Double.POSITIVE_INFINITY;
+				}
+				bound = Math.max(bound, to[v] - to[t]);
+			}
+			double[] from = fromLandmark[i];
+			if (from[t] < Double.POSITIVE_INFINITY
+					&& from[v] < Double.POSITIVE_INFINITY) {
+				bound = Math.max(bound, from[t] - from[v]);
+			}
+		}
+		return bound;
+	}
+}
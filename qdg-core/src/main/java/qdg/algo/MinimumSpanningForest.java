@@ -0,0 +1,486 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import qdg.ConcurrentIntUnionFind;
+import qdg.IndexedDoubleHeap;
+import qdg.IntUnionFind;
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorUGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.MixedGraph;
+import qdg.api.UGraph;
+import qdg.api.bits.EdgeCursor;
+import qdg.bits.BoxedMaps;
+import qdg.bits.ParallelTasks;
+import qdg.view.MixedGraphAsUGraph;
+import qdg.view.UGraphAsCursorUGraph;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Minimum weight spanning forest of an undirected graph, or of a mixed graph
+ * with its arcs taken as undirected edges, by the algorithms of Kruskal,
+ * Prim or Boruvka.
+ * 
+ * The edges are compared by their weights, and equal weights by their ids,
+ * hence Kruskal's and Boruvka's algorithms give the same forest. Prim's
+ * algorithm may choose another one of the same weight if there are equal
+ * weights. Loops are never chosen.
+ * 
+ * The weights are copied into arrays when the object is created. The
+ * result is also given as a boolean edge map, which can be passed to
+ * EdgeSubMixedGraph to view the forest, with all the nodes.
+ */
+public class MinimumSpanningForest {
+	
+	/**
+	 * Fewer edges or nodes than this per task are processed by a single
+	 * task.
+	 */
+	static final int MIN_ITEMS_PER_TASK = 4096;
+	
+	private final CursorUGraph g;
+	
+	private final int n;
+	
+	/**
+	 * The ends and the weights of the edges by their ids, -1 ends for ids
+	 * not used by the graph.
+	 */
+	private final int[] source;
+	
+	private final int[] target;
+	
+	private final double[] weight;
+	
+	private boolean[] inForest;
+	
+	private int numForestEdges;
+	
+	private double totalWeight;
+	
+	public MinimumSpanningForest(UGraph g, EntityMap<Edge, Double> weights) {
+		this.g = UGraphAsCursorUGraph.of(g);
+		n = this.g.getNodeIdBound();
+		int m = this.g.getUEdgeIdBound();
+		source = new int[m];
+		target = new int[m];
+		Arrays.fill(source, -1);
+		Arrays.fill(target, -1);
+		weight = new double[m];
+		DoubleEntityMap<Edge> w = BoxedMaps.asDoubleMap(weights, Double.NaN);
+		for (Edge e : this.g.getUEdges()) {
+			int id = this.g.getUEdgeId(e);
+			source[id] = this.g.getNodeId(this.g.getSource(e));
+			target[id] = this.g.getNodeId(this.g.getTarget(e));
+			weight[id] = w.getDouble(e);
+			if (Double.isNaN(weight[id])) {
+				throw new IllegalArgumentException();
+			}
+		}
+	}
+	
+	/**
+	 * The forest of the MixedGraphAsUGraph view of g, with the weights of
+	 * its edges and arcs.
+	 */
+	public MinimumSpanningForest(MixedGraph g,
+			EntityMap<Edge, Double> weights) {
+		this(new MixedGraphAsUGraph(g), weights);
+	}
+	
+	public CursorUGraph getGraph() {
+		return g;
+	}
+	
+	private boolean less(int e, int f) {
+		return weight[e] < weight[f] || (weight[e] == weight[f] && e < f);
+	}
+	
+	private void init() {
+		inForest = new boolean[weight.length];
+		numForestEdges = 0;
+		totalWeight = 0.0;
+	}
+	
+	private void add(int e) {
+		inForest[e] = true;
+		++numForestEdges;
+		totalWeight += weight[e];
+	}
+	
+	/**
+	 * The ids of the edges which are not loops.
+	 */
+	private int[] getProperEdges() {
+		int count = 0;
+		for (int e = 0; e < weight.length; ++e) {
+			if (source[e] >= 0 && source[e] != target[e]) {
+				++count;
+			}
+		}
+		int[] edges = new int[count];
+		count = 0;
+		for (int e = 0; e < weight.length; ++e) {
+			if (source[e] >= 0 && source[e] != target[e]) {
+				edges[count++] = e;
+			}
+		}
+		return edges;
+	}
+	
+	/**
+	 * Kruskal's algorithm.
+	 */
+	public void computeKruskal() {
+		init();
+		int[] edges = getProperEdges();
+		sort(edges, new int[edges.length], 0, edges.length);
+		kruskal(edges);
+	}
+	
+	/**
+	 * Kruskal's algorithm, with the edges sorted in parallel by numTasks
+	 * tasks of the executor. The union-find part is sequential.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public void computeKruskal(Executor executor, int numTasks)
+			throws InterruptedException {
+		if (numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		init();
+		final int[] edges = getProperEdges();
+		final int[] tmp = new int[edges.length];
+		int numChunks = Math.max(1,
+				Math.min(numTasks, edges.length / MIN_ITEMS_PER_TASK));
+		final int chunkSize = (edges.length + numChunks - 1) / numChunks;
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (int t = 0; t < numChunks; ++t) {
+			final int begin = t * chunkSize;
+			final int end = Math.min(edges.length, begin + chunkSize);
+			tasks.add(new Runnable() {
+				
+				@Override
+				public void run() {
+					sort(edges, tmp, begin, end);
+				}
+			});
+		}
+		ParallelTasks.run(executor, tasks);
+		// Merges the sorted runs pairwise.
+		int[] from = edges;
+		int[] to = tmp;
+		for (int width = chunkSize; width < edges.length; width *= 2) {
+			tasks.clear();
+			for (int begin = 0; begin < edges.length; begin += 2 * width) {
+				final int[] src = from;
+				final int[] dst = to;
+				final int b = begin;
+				final int mid = Math.min(edges.length, begin + width);
+				final int end = Math.min(edges.length, begin + 2 * width);
+				tasks.add(new Runnable() {
+					
+					@Override
+					public void run() {
+						merge(src, dst, b, mid, end);
+					}
+				});
+			}
+			ParallelTasks.run(executor, tasks);
+			int[] swap = from;
+			from = to;
+			to = swap;
+		}
+		kruskal(from);
+	}
+	
+	private void kruskal(int[] sorted) {
+		IntUnionFind uf = new IntUnionFind(n);
+		for (int e : sorted) {
+			if (uf.union(source[e], target[e])) {
+				add(e);
+				if (numForestEdges == n - 1) {
+					break;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Merge sort of the edges in [begin, end), by the weights and then the
+	 * ids.
+	 */
+	private void sort(int[] edges, int[] tmp, int begin, int end) {
+		if (end - begin <= 16) {
+			for (int i = begin + 1; i < end; ++i) {
+				int e = edges[i];
+				int j = i;
+				while (j > begin && less(e, edges[j - 1])) {
+					edges[j] = edges[j - 1];
+					--j;
+				}
+				edges[j] = e;
+			}
+			return;
+		}
+		int mid = (begin + end) >>> 1;
+		sort(edges, tmp, begin, mid);
+		sort(edges, tmp, mid, end);
+		merge(edges, tmp, begin, mid, end);
+		System.arraycopy(tmp, begin, edges, begin, end - begin);
+	}
+	
+	/**
+	 * Merges the sorted ranges [begin, mid) and [mid, end) of src into dst.
+	 */
+	private void merge(int[] src, int[] dst, int begin, int mid, int end) {
+		int i = begin;
+		int j = mid;
+		for (int k = begin; k < end; ++k) {
+			if (j >= end || (i < mid && !less(src[j], src[i]))) {
+				dst[k] = src[i++];
+			} else {
+				dst[k] = src[j++];
+			}
+		}
+	}
+	
+	/**
+	 * Prim's algorithm, from the smallest node id of each component.
+	 */
+	public void computePrim() {
+		init();
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(n);
+		int[] bestEdge = new int[n];
+		Arrays.fill(bestEdge, -1);
+		boolean[] done = new boolean[n];
+		EdgeCursor cursor = g.createIncidentUEdgeCursor();
+		for (Node r : g.getNodes()) {
+			int root = g.getNodeId(r);
+			if (done[root]) {
+				continue;
+			}
+			heap.add(root, Double.NEGATIVE_INFINITY);
+			while (!heap.isEmpty()) {
+				int u = heap.poll();
+				done[u] = true;
+				if (bestEdge[u] >= 0) {
+					add(bestEdge[u]);
+				}
+				cursor.reset(u);
+				while (cursor.next()) {
+					int v = cursor.getNodeId();
+					int e = cursor.getEdgeId();
+					if (done[v]) {
+						continue;
+					}
+					if (!heap.contains(v)) {
+						bestEdge[v] = e;
+						heap.add(v, weight[e]);
+					} else if (less(e, bestEdge[v])) {
+						bestEdge[v] = e;
+						heap.decrease(v, weight[e]);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Boruvka's algorithm.
+	 */
+	public void computeBoruvka() {
+		try {
+			computeBoruvka(null, 1);
+		} catch (InterruptedException e) {
+			// Nothing runs on other threads.
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private interface RangeTask {
+		
+		void process(int begin, int end);
+	}
+	
+	@GwtIncompatible("java.util.concurrent")
+	private static void forEach(Executor executor, int numTasks, int count,
+			final RangeTask task) throws InterruptedException {
+		int numChunks = Math.min(numTasks, count / MIN_ITEMS_PER_TASK);
+		if (executor == null || numChunks < 2) {
+			task.process(0, count);
+			return;
+		}
+		int chunkSize = (count + numChunks - 1) / numChunks;
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (int t = 0; t < numChunks; ++t) {
+			final int begin = t * chunkSize;
+			final int end = Math.min(count, begin + chunkSize);
+			tasks.add(new Runnable() {
+				
+				@Override
+				public void run() {
+					task.process(begin, end);
+				}
+			});
+		}
+		ParallelTasks.run(executor, tasks);
+	}
+	
+	/**
+	 * Boruvka's algorithm, with the cheapest edges of the components found
+	 * by numTasks tasks of the executor in each round, by compare-and-set on
+	 * the edges chosen so far.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public void computeBoruvka(Executor executor, int numTasks)
+			throws InterruptedException {
+		if (numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		init();
+		final int[] edges = getProperEdges();
+		int numEdges = edges.length;
+		final ConcurrentIntUnionFind uf = new ConcurrentIntUnionFind(n);
+		final int[] component = new int[n];
+		for (int v = 0; v < n; ++v) {
+			component[v] = v;
+		}
+		final AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+		for (int v = 0; v < n; ++v) {
+			cheapest.set(v, -1);
+		}
+		while (numEdges > 0) {
+			forEach(executor, numTasks, numEdges, new RangeTask() {
+				
+				@Override
+				public void process(int begin, int end) {
+					for (int i = begin; i < end; ++i) {
+						int e = edges[i];
+						offer(cheapest, component[source[e]], e);
+						offer(cheapest, component[target[e]], e);
+					}
+				}
+			});
+			forEach(executor, numTasks, n, new RangeTask() {
+				
+				@Override
+				public void process(int begin, int end) {
+					for (int c = begin; c < end; ++c) {
+						int e = cheapest.get(c);
+						if (e >= 0) {
+							cheapest.set(c, -1);
+							if (uf.union(source[e], target[e])) {
+								inForest[e] = true;
+							}
+						}
+					}
+				}
+			});
+			forEach(executor, numTasks, n, new RangeTask() {
+				
+				@Override
+				public void process(int begin, int end) {
+					uf.compress(begin, end);
+					for (int v = begin; v < end; ++v) {
+						component[v] = uf.getParent(v);
+					}
+				}
+			});
+			int count = 0;
+			for (int i = 0; i < numEdges; ++i) {
+				int e = edges[i];
+				if (component[source[e]] != component[target[e]]) {
+					edges[count++] = e;
+				}
+			}
+			numEdges = count;
+		}
+		for (int e = 0; e < inForest.length; ++e) {
+			if (inForest[e]) {
+				++numForestEdges;
+				totalWeight += weight[e];
+			}
+		}
+	}
+	
+	/**
+	 * Lowers the cheapest edge of component c to e if e is cheaper.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	private void offer(AtomicIntegerArray cheapest, int c, int e) {
+		while (true) {
+			int f = cheapest.get(c);
+			if (f >= 0 && !less(e, f)) {
+				return;
+			}
+			if (cheapest.compareAndSet(c, f, e)) {
+				return;
+			}
+		}
+	}
+	
+	private void checkRun() {
+		if (inForest == null) {
+			throw new IllegalStateException();
+		}
+	}
+	
+	public boolean isInForest(int uEdge) {
+		checkRun();
+		return inForest[uEdge];
+	}
+	
+	public boolean isInForest(Edge uEdge) {
+		return isInForest(g.getUEdgeId(uEdge));
+	}
+	
+	public int getNumForestEdges() {
+		checkRun();
+		return numForestEdges;
+	}
+	
+	public double getTotalWeight() {
+		checkRun();
+		return totalWeight;
+	}
+	
+	/**
+	 * A primitive map of the edges of the forest, e.g.\ for EdgeSubMixedGraph.
+	 */
+	public BooleanEntityMap<Edge> createForestMap() {
+		checkRun();
+		BooleanEntityMap<Edge> map = g.createBooleanUEdgeMap(false);
+		for (Edge e : g.getUEdges()) {
+			if (inForest[g.getUEdgeId(e)]) {
+				map.putBoolean(e, true);
+			}
+		}
+		return map;
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.io.Serializable;
+import java.util.concurrent.Executor;
+
+import qdg.api.UGraph;
+import qdg.view.UGraphAsCursorUGraph;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Pruned landmark labeling of an unweighted undirected graph, i.e.\ a 2-hop
+ * cover for exact distance queries by merging two labels.
+ * 
+ * Based on:
+ * @INPROCEEDINGS{Akiba13,
+ *   author = {Takuya Akiba and Yoichi Iwata and Yuichi Yoshida},
+ *   title = {Fast Exact Shortest-Path Distance Queries on Large Networks
+ *     by Pruned Landmark Labeling},
+ *   booktitle = {Proceedings of the 2013 ACM SIGMOD International Conference
+ *     on Management of Data},
+ *   year = {2013},
+ *   pages = {349--360}
+ * }
+ * 
+ * A breadth first search is run from each node in the order of decreasing
+ * degrees, and the visited nodes get the root as a hub in their labels,
+ * except where the labels so far already give the distance, which prunes
+ * the search. With several tasks the searches of a batch of roots run in
+ * parallel, pruned by the labels of the earlier batches only, and the
+ * redundant entries are dropped when the batch is added in the order of the
+ * roots. Hence the labels do not depend on the number of tasks.
+ * 
+ * The labeling refers to the nodes by their ids in UGraphAsCursorUGraph.of(g),
+ * and it consists of int arrays only, the entries of each label sorted by
+ * the ranks of the hubs. Hence it is compact and serializable, as
+ * ContractionHierarchy.
+ */
+public class PrunedLandmarkLabeling implements Serializable {
+	
+	private static final long serialVersionUID = -2903561788640375139L;
+	
+	/**
+	 * The position of each node in the order of the searches, or -1 for ids
+	 * not used by the graph.
+	 */
+	private final int[] rank;
+	
+	/**
+	 * The node id of each rank.
+	 */
+	private final int[] order;
+	
+	private final int[] labelBegin;
+	
+	/**
+	 * The rank of the hub of each entry.
+	 */
+	private final int[] hubs;
+	
+	private final int[] distances;
+	
+	PrunedLandmarkLabeling(int[] rank, int[] order, int[] labelBegin,
+			int[] hubs, int[] distances) {
+		this.rank = rank;
+		this.order = order;
+		this.labelBegin = labelBegin;
+		this.hubs = hubs;
+		this.distances = distances;
+	}
+	
+	public static PrunedLandmarkLabeling build(UGraph g) {
+		return new PrunedLandmarkLabelingBuilder(
+				UGraphAsCursorUGraph.of(g)).build();
+	}
+	
+	/**
+	 * Same as build(UGraph), but the searches are run by numTasks tasks of
+	 * the executor.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public static PrunedLandmarkLabeling build(UGraph g, Executor executor,
+			int numTasks) throws InterruptedException {
+		if (numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		return new PrunedLandmarkLabelingBuilder(
+				UGraphAsCursorUGraph.of(g)).build(executor, numTasks);
+	}
+	
+	public int getNodeIdBound() {
+		return rank.length;
+	}
+	
+	/**
+	 * The position of a node in the order of the searches, or -1 for ids not
+	 * used by the graph.
+	 */
+	public int getRank(int node) {
+		return rank[node];
+	}
+	
+	public int getLabelSize(int node) {
+		return labelBegin[node + 1] - labelBegin[node];
+	}
+	
+	/**
+	 * The node id of the hub of the i-th entry of the label of a node.
+	 */
+	public int getHub(int node, int i) {
+		return order[hubs[labelBegin[node] + i]];
+	}
+	
+	public int getHubDistance(int node, int i) {
+		return distances[labelBegin[node] + i];
+	}
+	
+	/**
+	 * The total size of the labels.
+	 */
+	public int getNumEntries() {
+		return hubs.length;
+	}
+	
+	/**
+	 * The distance of two nodes by their ids, or -1 if they are not
+	 * connected.
+	 */
+	public int getDistance(int u, int v) {
+		int i = labelBegin[u];
+		int iEnd = labelBegin[u + 1];
+		int j = labelBegin[v];
+		int jEnd = labelBegin[v + 1];
+		int distance = Integer.MAX_VALUE;
+		while (i < iEnd && j < jEnd) {
+			int hi = hubs[i];
+			int hj = hubs[j];
+			if (hi < hj) {
+				++i;
+			} else if (hi > hj) {
+				++j;
+			} else {
+				distance = Math.min(distance, distances[i++] + distances[j++]);
+			}
+		}
+		return distance == Integer.MAX_VALUE ? -1 : distance;
+	}
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import qdg.api.CursorUGraph;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+import qdg.bits.ParallelTasks;
+
+/**
+ * Builds a PrunedLandmarkLabeling. The labels are kept in growing arrays per
+ * node, and they are only read while the searches of a batch run.
+ */
+final class PrunedLandmarkLabelingBuilder {
+	
+	/**
+	 * The batches grow from a single root up to this many roots per task,
+	 * since the first roots prune the most.
+	 */
+	static final int MAX_ROOTS_PER_TASK = 4;
+	
+	private final CursorUGraph g;
+	
+	private final int n;
+	
+	private final int[] rank;
+	
+	private final int[] order;
+	
+	private final int[][] labelHubs;
+	
+	private final int[][] labelDistances;
+	
+	private final int[] labelSize;
+	
+	private final List<PrunedSearch> searches = new ArrayList<PrunedSearch>();
+	
+	private Executor executor;
+	
+	/**
+	 * The nodes labeled by the search from a root, and their distances.
+	 */
+	private static class Entries {
+		
+		int[] nodes = new int[16];
+		
+		int[] distances = new int[16];
+		
+		int size;
+		
+		void add(int v, int distance) {
+			if (size == nodes.length) {
+				nodes = Arrays.copyOf(nodes, 2 * size);
+				distances = Arrays.copyOf(distances, 2 * size);
+			}
+			nodes[size] = v;
+			distances[size++] = distance;
+		}
+	}
+	
+	private class PrunedSearch {
+		
+		/**
+		 * The distances from the root to the hubs of its label, indexed by
+		 * ranks, -1 for other hubs.
+		 */
+		final int[] rootLabel = new int[order.length];
+		
+		final int[] distance = new int[n];
+		
+		final int[] queue = new int[n];
+		
+		final EdgeCursor cursor = g.createIncidentUEdgeCursor();
+		
+		PrunedSearch() {
+			Arrays.fill(rootLabel, -1);
+			Arrays.fill(distance, -1);
+		}
+		
+		void loadRoot(int r) {
+			for (int i = 0; i < labelSize[r]; ++i) {
+				rootLabel[labelHubs[r][i]] = labelDistances[r][i];
+			}
+		}
+		
+		void unloadRoot(int r) {
+			for (int i = 0; i < labelSize[r]; ++i) {
+				rootLabel[labelHubs[r][i]] = -1;
+			}
+		}
+		
+		/**
+		 * Whether the labels so far give at most d as the distance of the
+		 * loaded root and v.
+		 */
+		boolean isCovered(int v, int d) {
+			int[] hubs = labelHubs[v];
+			int[] distances = labelDistances[v];
+			for (int i = 0; i < labelSize[v]; ++i) {
+				int rd = rootLabel[hubs[i]];
+				if (rd >= 0 && rd <= d - distances[i]) {
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		/**
+		 * Runs the pruned search from r through the nodes of larger ranks.
+		 */
+		Entries search(int r) {
+			Entries entries = new Entries();
+			int rr = rank[r];
+			loadRoot(r);
+			int head = 0;
+			int tail = 0;
+			queue[tail++] = r;
+			distance[r] = 0;
+			while (head < tail) {
+				int v = queue[head++];
+				int d = distance[v];
+				if (isCovered(v, d)) {
+					continue;
+				}
+				entries.add(v, d);
+				cursor.reset(v);
+				while (cursor.next()) {
+					int w = cursor.getNodeId();
+					if (distance[w] < 0 && rank[w] > rr) {
+						distance[w] = d + 1;
+						queue[tail++] = w;
+					}
+				}
+			}
+			for (int i = 0; i < tail; ++i) {
+				distance[queue[i]] = -1;
+			}
+			unloadRoot(r);
+			return entries;
+		}
+	}
+	
+	PrunedLandmarkLabelingBuilder(CursorUGraph g) {
+		this.g = g;
+		n = g.getNodeIdBound();
+		rank = new int[n];
+		Arrays.fill(rank, -1);
+		// Decreasing degrees, then increasing ids.
+		List<Integer> nodes = new ArrayList<Integer>();
+		for (Node v : g.getNodes()) {
+			nodes.add(g.getNodeId(v));
+		}
+		long[] keys = new long[nodes.size()];
+		EdgeCursor cursor = g.createIncidentUEdgeCursor();
+		for (int i = 0; i < keys.length; ++i) {
+			int v = nodes.get(i);
+			int degree = 0;
+			cursor.reset(v);
+			while (cursor.next()) {
+				++degree;
+			}
+			keys[i] = ((long) (Integer.MAX_VALUE - degree) << 32) | v;
+		}
+		Arrays.sort(keys);
+		order = new int[keys.length];
+		for (int i = 0; i < keys.length; ++i) {
+			order[i] = (int) keys[i];
+			rank[order[i]] = i;
+		}
+		labelHubs = new int[n][];
+		labelDistances = new int[n][];
+		labelSize = new int[n];
+		for (int v : order) {
+			labelHubs[v] = new int[4];
+			labelDistances[v] = new int[4];
+		}
+	}
+	
+	private void addEntry(int v, int hub, int distance) {
+		int size = labelSize[v];
+		if (size == labelHubs[v].length) {
+			labelHubs[v] = Arrays.copyOf(labelHubs[v], 2 * size);
+			labelDistances[v] = Arrays.copyOf(labelDistances[v], 2 * size);
+		}
+		labelHubs[v][size] = hub;
+		labelDistances[v][size] = distance;
+		labelSize[v] = size + 1;
+	}
+	
+	PrunedLandmarkLabeling build() {
+		try {
+			return build(null, 1);
+		} catch (InterruptedException e) {
+			// Nothing runs on other threads.
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	PrunedLandmarkLabeling build(Executor executor, int numTasks)
+			throws InterruptedException {
+		this.executor = executor;
+		for (int t = 0; t < numTasks; ++t) {
+			searches.add(new PrunedSearch());
+		}
+		int maxBatchSize = executor == null ? 1
+				: numTasks * MAX_ROOTS_PER_TASK;
+		int maxSize = 1;
+		for (int begin = 0; begin < order.length; ) {
+			int batchSize = Math.min(maxSize, order.length - begin);
+			Entries[] entries = searchBatch(begin, batchSize);
+			PrunedSearch search = searches.get(0);
+			for (int i = 0; i < batchSize; ++i) {
+				int r = order[begin + i];
+				Entries e = entries[i];
+				// The entries found by the first search are not redundant.
+				boolean filter = i > 0;
+				if (filter) {
+					search.loadRoot(r);
+				}
+				for (int j = 0; j < e.size; ++j) {
+					if (!filter || !search.isCovered(e.nodes[j], e.distances[j])) {
+						addEntry(e.nodes[j], begin + i, e.distances[j]);
+					}
+				}
+				if (filter) {
+					search.unloadRoot(r);
+				}
+			}
+			begin += batchSize;
+			maxSize = Math.min(2 * maxSize, maxBatchSize);
+		}
+		int[] labelBegin = new int[n + 1];
+		for (int v = 0; v < n; ++v) {
+			labelBegin[v + 1] = labelBegin[v] + labelSize[v];
+		}
+		int[] hubs = new int[labelBegin[n]];
+		int[] distances = new int[labelBegin[n]];
+		for (int v = 0; v < n; ++v) {
+			if (labelSize[v] > 0) {
+				System.arraycopy(labelHubs[v], 0, hubs, labelBegin[v],
+						labelSize[v]);
+				System.arraycopy(labelDistances[v], 0, distances,
+						labelBegin[v], labelSize[v]);
+			}
+		}
+		return new PrunedLandmarkLabeling(rank, order, labelBegin, hubs,
+				distances);
+	}
+	
+	/**
+	 * Runs the searches from the roots of the ranks in [begin, begin + size),
+	 * by the tasks in a round robin manner.
+	 */
+	private Entries[] searchBatch(final int begin, final int size)
+			throws InterruptedException {
+		final Entries[] entries = new Entries[size];
+		int numTasks = Math.min(searches.size(), size);
+		if (numTasks == 1) {
+			for (int i = 0; i < size; ++i) {
+				entries[i] = searches.get(0).search(order[begin + i]);
+			}
+			return entries;
+		}
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (int t = 0; t < numTasks; ++t) {
+			final int first = t;
+			final int step = numTasks;
+			final PrunedSearch search = searches.get(t);
+			tasks.add(new Runnable() {
+				
+				@Override
+				public void run() {
+					for (int i = first; i < size; i += step) {
+						entries[i] = search.search(order[begin + i]);
+					}
+				}
+			});
+		}
+		ParallelTasks.run(executor, tasks);
+		return entries;
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.Arrays;
+
+import qdg.IndexedDoubleHeap;
+
+/**
+ * Stamped distances, predecessors and queue of one direction of a point to
+ * point search. Resetting is O(1) apart from clearing the queue, hence a
+ * query touches only the nodes it reaches.
+ */
+final class SearchSpace {
+	
+	final IndexedDoubleHeap queue;
+	
+	private final int[] stamp;
+	
+	private int version;
+	
+	private final double[] distance;
+	
+	private final int[] predArc;
+	
+	private final int[] predNode;
+	
+	private int numSettled;
+	
+	SearchSpace(int nodeIdBound) {
+		queue = new IndexedDoubleHeap(nodeIdBound);
+		stamp = new int[nodeIdBound];
+		distance = new double[nodeIdBound];
+		predArc = new int[nodeIdBound];
+		predNode = new int[nodeIdBound];
+	}
+	
+	void reset() {
+		if (++version == Integer.MAX_VALUE) {
+			Arrays.fill(stamp, 0);
+			version = 1;
+		}
+		queue.clear();
+		numSettled = 0;
+	}
+	
+	boolean isReached(int v) {
+		return stamp[v] == version;
+	}
+	
+	/**
+	 * Whether the distance of v is final.
+	 */
+	boolean isSettled(int v) {
+		return isReached(v) && !queue.contains(v);
+	}
+	
+	double getDistance(int v) {
+		return isReached(v) ? distance[v] : Double.POSITIVE_INFINITY;
+	}
+	
+	int getPredArc(int v) {
+		return predArc[v];
+	}
+	
+	int getPredNode(int v) {
+		return predNode[v];
+	}
+	
+	/**
+	 * Sets the distance of a new or queued node, with the given queue key.
+	 */
+	void label(int v, double dist, double key, int arc, int from) {
+		distance[v] = dist;
+		predArc[v] = arc;
+		predNode[v] = from;
+		if (isReached(v)) {
+			queue.decrease(v, key);
+		} else {
+			stamp[v] = version;
+			queue.add(v, key);
+		}
+	}
+	
+	int poll() {
+		++numSettled;
+		return queue.poll();
+	}
+	
+	int getNumSettled() {
+		return numSettled;
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.Collections;
+import java.util.List;
+
+import qdg.api.Graph.Edge;
+
+/**
+ * The result of a point to point query: the length of a shortest path and
+ * its arcs from the source to the target.
+ */
+public class ShortestPath {
+	
+	private final double distance;
+	
+	private final List<Edge> arcs;
+	
+	public ShortestPath(double distance, List<Edge> arcs) {
+		this.distance = distance;
+		this.arcs = Collections.unmodifiableList(arcs);
+	}
+	
+	public double getDistance() {
+		return distance;
+	}
+	
+	public List<Edge> getArcs() {
+		return arcs;
+	}
+	
+	@Override
+	public String toString() {
+		return "ShortestPath [distance=" + distance + ", arcs=" + arcs + "]";
+	}
+}
@@ -0,0 +1,629 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import qdg.StaticDiGraph;
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.Graph.Node;
+import qdg.api.IntEntityMap;
+import qdg.api.bits.EdgeCursor;
+import qdg.bits.ParallelTasks;
+import qdg.view.DiGraphAsCursorDiGraph;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Strongly connected components of a digraph, by an iterative version of
+ * Tarjan's algorithm, or in parallel by forward-backward searches.
+ * 
+ * Based on:
+ * @ARTICLE{Tarjan72,
+ *   author = {Robert Tarjan},
+ *   title = {Depth-First Search and Linear Graph Algorithms},
+ *   journal = {SIAM Journal on Computing},
+ *   year = {1972},
+ *   volume = {1},
+ *   number = {2},
+ *   pages = {146--160}
+ * }
+ * @INPROCEEDINGS{Fleischer00,
+ *   author = {Lisa K. Fleischer and Bruce Hendrickson and Ali Pinar},
+ *   title = {On Identifying Strongly Connected Components in Parallel},
+ *   booktitle = {Parallel and Distributed Processing, IPDPS 2000 Workshops},
+ *   year = {2000},
+ *   pages = {505--511}
+ * }
+ * 
+ * The out-arcs, and for the parallel version the in-arcs, are copied into
+ * int arrays, and the depth first search keeps its stacks in int arrays,
+ * hence there is no recursion and no allocation per node or arc.
+ * 
+ * The parallel version first removes the nodes without in-arcs or out-arcs
+ * repeatedly, which are components by themselves. Then the nodes reached
+ * both forward and backward from a pivot form a component, and the nodes
+ * reached only forward, only backward or neither are independent
+ * subproblems, processed by the tasks of an executor round by round. Small
+ * subproblems are finished by Tarjan's algorithm.
+ * 
+ * The components are numbered in a topological order, i.e.\ each arc
+ * between two components goes to the one with the larger number.
+ */
+public class StronglyConnectedComponents {
+	
+	/**
+	 * Subproblems with fewer nodes are finished by Tarjan's algorithm.
+	 */
+	static final int MIN_FORWARD_BACKWARD_SIZE = 1024;
+	
+	private final CursorDiGraph g;
+	
+	private final int n;
+	
+	private final int[] outBegin;
+	
+	private final int[] outHead;
+	
+	private int[] inBegin;
+	
+	private int[] inHead;
+	
+	/**
+	 * The representative of the component of each node while running, -1
+	 * if not known yet.
+	 */
+	private int[] rep;
+	
+	private int[] index;
+	
+	private int[] lowlink;
+	
+	/**
+	 * The subproblem of each node in the parallel version.
+	 */
+	private int[] color;
+	
+	private int[] component;
+	
+	private int[] componentSize;
+	
+	public StronglyConnectedComponents(DiGraph g) {
+		this.g = DiGraphAsCursorDiGraph.of(g);
+		n = this.g.getNodeIdBound();
+		outBegin = new int[n + 1];
+		outHead = copyArcs(this.g.createOutArcCursor(), outBegin);
+	}
+	
+	private int[] copyArcs(EdgeCursor cursor, int[] begin) {
+		int numArcs = 0;
+		for (int v = 0; v < n; ++v) {
+			cursor.reset(v);
+			while (cursor.next()) {
+				++numArcs;
+			}
+		}
+		int[] head = new int[numArcs];
+		int i = 0;
+		for (int v = 0; v < n; ++v) {
+			begin[v] = i;
+			cursor.reset(v);
+			while (cursor.next()) {
+				head[i++] = cursor.getNodeId();
+			}
+		}
+		begin[n] = i;
+		return head;
+	}
+	
+	public CursorDiGraph getGraph() {
+		return g;
+	}
+	
+	private void init() {
+		rep = new int[n];
+		Arrays.fill(rep, -1);
+		index = new int[n];
+		Arrays.fill(index, -1);
+		lowlink = new int[n];
+	}
+	
+	/**
+	 * The state of an iterative depth first search, for the nodes of a
+	 * given color, or for all the nodes without colors.
+	 */
+	private class Tarjan {
+		
+		final int[] callNode;
+		
+		final int[] callArc;
+		
+		final int[] stack;
+		
+		/**
+		 * The representatives in the order the components are found, which
+		 * is a reverse topological order.
+		 */
+		final int[] found;
+		
+		int numFound;
+		
+		Tarjan(int capacity) {
+			callNode = new int[capacity];
+			callArc = new int[capacity];
+			stack = new int[capacity];
+			found = new int[capacity];
+		}
+		
+		void run(int[] nodes, int count, int c) {
+			numFound = 0;
+			int counter = 0;
+			for (int k = 0; k < count; ++k) {
+				int r = nodes[k];
+				if (index[r] >= 0) {
+					continue;
+				}
+				int top = 0;
+				int stackSize = 0;
+				index[r] = lowlink[r] = counter++;
+				stack[stackSize++] = r;
+				callNode[0] = r;
+				callArc[0] = outBegin[r];
+				while (top >= 0) {
+					int v = callNode[top];
+					int i = callArc[top];
+					if (i < outBegin[v + 1]) {
+						callArc[top] = i + 1;
+						int w = outHead[i];
+						if (color != null && color[w] != c) {
+							continue;
+						}
+						if (index[w] < 0) {
+							index[w] = lowlink[w] = counter++;
+							stack[stackSize++] = w;
+							++top;
+							callNode[top] = w;
+							callArc[top] = outBegin[w];
+						} else if (rep[w] < 0 && index[w] < lowlink[v]) {
+							lowlink[v] = index[w];
+						}
+						continue;
+					}
+					if (lowlink[v] == index[v]) {
+						int w;
+						do {
+							w = stack[--stackSize];
+							rep[w] = v;
+						} while (w != v);
+						found[numFound++] = v;
+					}
+					if (--top >= 0) {
+						int u = callNode[top];
+						if (lowlink[v] < lowlink[u]) {
+							lowlink[u] = lowlink[v];
+						}
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Computes the components by Tarjan's algorithm.
+	 */
+	public void run() {
+		init();
+		color = null;
+		int[] nodes = new int[n];
+		int count = 0;
+		for (Node v : g.getNodes()) {
+			nodes[count++] = g.getNodeId(v);
+		}
+		Arrays.sort(nodes, 0, count);
+		Tarjan tarjan = new Tarjan(count);
+		tarjan.run(nodes, count, 0);
+		// Reverses the order of the representatives.
+		int numComponents = tarjan.numFound;
+		int[] id = lowlink;
+		for (int k = 0; k < numComponents; ++k) {
+			id[tarjan.found[k]] = numComponents - 1 - k;
+		}
+		finish(nodes, count, id, numComponents);
+	}
+	
+	/**
+	 * Sets the components by the ids of the representatives.
+	 */
+	private void finish(int[] nodes, int count, int[] id, int numComponents) {
+		component = new int[n];
+		Arrays.fill(component, -1);
+		componentSize = new int[numComponents];
+		for (int k = 0; k < count; ++k) {
+			int v = nodes[k];
+			int c = id[rep[v]];
+			component[v] = c;
+			++componentSize[c];
+		}
+		rep = null;
+		index = null;
+		lowlink = null;
+		color = null;
+	}
+	
+	/**
+	 * A set of nodes of the same color.
+	 */
+	private static class Subproblem {
+		
+		final int color;
+		
+		final int[] nodes;
+		
+		final int size;
+		
+		Subproblem(int color, int[] nodes, int size) {
+			this.color = color;
+			this.nodes = nodes;
+			this.size = size;
+		}
+	}
+	
+	/**
+	 * Computes the components by numTasks tasks of the executor.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public void run(Executor executor, int numTasks)
+			throws InterruptedException {
+		if (numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		if (inHead == null) {
+			inBegin = new int[n + 1];
+			inHead = copyArcs(g.createInArcCursor(), inBegin);
+		}
+		init();
+		color = new int[n];
+		Arrays.fill(color, -1);
+		int[] nodes = new int[n];
+		int count = 0;
+		for (Node v : g.getNodes()) {
+			nodes[count++] = g.getNodeId(v);
+		}
+		Arrays.sort(nodes, 0, count);
+		for (int k = 0; k < count; ++k) {
+			color[nodes[k]] = 0;
+		}
+		Subproblem whole = trim(nodes, count);
+		List<Subproblem> subproblems = new ArrayList<Subproblem>();
+		if (whole.size > 0) {
+			subproblems.add(whole);
+		}
+		final List<Tarjan> tarjans = new ArrayList<Tarjan>();
+		for (int t = 0; t < numTasks; ++t) {
+			tarjans.add(new Tarjan(MIN_FORWARD_BACKWARD_SIZE));
+		}
+		int nextColor = 1;
+		while (!subproblems.isEmpty()) {
+			final List<Subproblem> current = subproblems;
+			final Subproblem[] children = new Subproblem[3 * current.size()];
+			final int firstColor = nextColor;
+			nextColor += 2 * current.size();
+			int numChunks = Math.min(numTasks, current.size());
+			List<Runnable> tasks = new ArrayList<Runnable>();
+			for (int t = 0; t < numChunks; ++t) {
+				final int first = t;
+				final int step = numChunks;
+				final Tarjan tarjan = tarjans.get(t);
+				tasks.add(new Runnable() {
+					
+					@Override
+					public void run() {
+						for (int i = first; i < current.size(); i += step) {
+							split(current.get(i), firstColor + 2 * i, tarjan,
+									children, 3 * i);
+						}
+					}
+				});
+			}
+			if (numChunks == 1) {
+				tasks.get(0).run();
+			} else {
+				ParallelTasks.run(executor, tasks);
+			}
+			subproblems = new ArrayList<Subproblem>();
+			for (Subproblem s : children) {
+				if (s != null) {
+					subproblems.add(s);
+				}
+			}
+		}
+		number(nodes, count);
+	}
+	
+	/**
+	 * Removes the nodes without in-arcs or out-arcs from the others
+	 * repeatedly, as components by themselves, and returns the rest.
+	 */
+	private Subproblem trim(int[] nodes, int count) {
+		int[] inDegree = new int[n];
+		int[] outDegree = new int[n];
+		int[] queue = new int[n];
+		int tail = 0;
+		for (int k = 0; k < count; ++k) {
+			int v = nodes[k];
+			for (int i = outBegin[v]; i < outBegin[v + 1]; ++i) {
+				if (outHead[i] != v) {
+					++outDegree[v];
+					++inDegree[outHead[i]];
+				}
+			}
+		}
+		for (int k = 0; k < count; ++k) {
+			int v = nodes[k];
+			if (inDegree[v] == 0 || outDegree[v] == 0) {
+				rep[v] = v;
+				queue[tail++] = v;
+			}
+		}
+		for (int head = 0; head < tail; ++head) {
+			int v = queue[head];
+			for (int i = outBegin[v]; i < outBegin[v + 1]; ++i) {
+				int w = outHead[i];
+				if (w != v && rep[w] < 0 && --inDegree[w] == 0) {
+					rep[w] = w;
+					queue[tail++] = w;
+				}
+			}
+			for (int i = inBegin[v]; i < inBegin[v + 1]; ++i) {
+				int u = inHead[i];
+				if (u != v && rep[u] < 0 && --outDegree[u] == 0) {
+					rep[u] = u;
+					queue[tail++] = u;
+				}
+			}
+		}
+		int size = 0;
+		int[] rest = new int[count - tail];
+		for (int k = 0; k < count; ++k) {
+			int v = nodes[k];
+			if (rep[v] < 0) {
+				rest[size++] = v;
+			} else {
+				color[v] = -1;
+			}
+		}
+		return new Subproblem(0, rest, size);
+	}
+	
+	/**
+	 * Finds the component of a pivot of s, and stores the subproblems of
+	 * the nodes reached only forward, only backward and neither into
+	 * children, from offset on, with the colors c, c + 1 and the color of
+	 * s. Small subproblems are finished by Tarjan's algorithm instead.
+	 */
+	private void split(Subproblem s, int c, Tarjan tarjan,
+			Subproblem[] children, int offset) {
+		if (s.size < MIN_FORWARD_BACKWARD_SIZE) {
+			tarjan.run(s.nodes, s.size, s.color);
+			for (int k = 0; k < s.size; ++k) {
+				color[s.nodes[k]] = -1;
+			}
+			return;
+		}
+		int pivot = s.nodes[0];
+		int[] queue = new int[s.size];
+		// Forward, recoloring the reached nodes to c.
+		int tail = 0;
+		color[pivot] = c;
+		queue[tail++] = pivot;
+		for (int head = 0; head < tail; ++head) {
+			int v = queue[head];
+			for (int i = outBegin[v]; i < outBegin[v + 1]; ++i) {
+				int w = outHead[i];
+				if (color[w] == s.color) {
+					color[w] = c;
+					queue[tail++] = w;
+				}
+			}
+		}
+		// Backward, the nodes reached forward as well form the component,
+		// the others are recolored to c + 1.
+		tail = 0;
+		rep[pivot] = pivot;
+		color[pivot] = -1;
+		queue[tail++] = pivot;
+		for (int head = 0; head < tail; ++head) {
+			int v = queue[head];
+			for (int i = inBegin[v]; i < inBegin[v + 1]; ++i) {
+				int u = inHead[i];
+				if (color[u] == c) {
+					rep[u] = pivot;
+					color[u] = -1;
+					queue[tail++] = u;
+				} else if (color[u] == s.color) {
+					color[u] = c + 1;
+					queue[tail++] = u;
+				}
+			}
+		}
+		int[] forward = new int[s.size];
+		int numForward = 0;
+		int[] backward = new int[s.size];
+		int numBackward = 0;
+		int numRest = 0;
+		for (int k = 0; k < s.size; ++k) {
+			int v = s.nodes[k];
+			if (color[v] == c) {
+				forward[numForward++] = v;
+			} else if (color[v] == c + 1) {
+				backward[numBackward++] = v;
+			} else if (color[v] == s.color) {
+				// Reuses the array, the nodes are moved backward only.
+				s.nodes[numRest++] = v;
+			}
+		}
+		if (numForward > 0) {
+			children[offset] = new Subproblem(c, forward, numForward);
+		}
+		if (numBackward > 0) {
+			children[offset + 1] = new Subproblem(c + 1, backward, numBackward);
+		}
+		if (numRest > 0) {
+			children[offset + 2] = new Subproblem(s.color, s.nodes, numRest);
+		}
+	}
+	
+	/**
+	 * Numbers the components found in parallel in a topological order of
+	 * the representatives, by repeatedly numbering those without arcs from
+	 * unnumbered components.
+	 */
+	private void number(int[] nodes, int count) {
+		// The nodes grouped by their representatives.
+		int[] groupBegin = new int[n + 1];
+		for (int k = 0; k < count; ++k) {
+			++groupBegin[rep[nodes[k]] + 1];
+		}
+		for (int v = 0; v < n; ++v) {
+			groupBegin[v + 1] += groupBegin[v];
+		}
+		int[] grouped = new int[count];
+		int[] next = Arrays.copyOf(groupBegin, n);
+		for (int k = 0; k < count; ++k) {
+			int v = nodes[k];
+			grouped[next[rep[v]]++] = v;
+		}
+		int[] inDegree = index;
+		Arrays.fill(inDegree, 0);
+		for (int k = 0; k < count; ++k) {
+			int v = nodes[k];
+			for (int i = outBegin[v]; i < outBegin[v + 1]; ++i) {
+				if (rep[outHead[i]] != rep[v]) {
+					++inDegree[rep[outHead[i]]];
+				}
+			}
+		}
+		int[] queue = next;
+		int tail = 0;
+		for (int k = 0; k < count; ++k) {
+			int v = nodes[k];
+			if (rep[v] == v && inDegree[v] == 0) {
+				queue[tail++] = v;
+			}
+		}
+		int[] id = lowlink;
+		for (int head = 0; head < tail; ++head) {
+			int r = queue[head];
+			id[r] = head;
+			for (int j = groupBegin[r]; j < groupBegin[r + 1]; ++j) {
+				int v = grouped[j];
+				for (int i = outBegin[v]; i < outBegin[v + 1]; ++i) {
+					int s = rep[outHead[i]];
+					if (s != r && --inDegree[s] == 0) {
+						queue[tail++] = s;
+					}
+				}
+			}
+		}
+		finish(nodes, count, id, tail);
+	}
+	
+	private void checkRun() {
+		if (component == null) {
+			throw new IllegalStateException();
+		}
+	}
+	
+	public int getNumComponents() {
+		checkRun();
+		return componentSize.length;
+	}
+	
+	/**
+	 * The component of a node id, or -1 for ids not used by the graph.
+	 */
+	public int getComponent(int v) {
+		checkRun();
+		return component[v];
+	}
+	
+	public int getComponent(Node v) {
+		return getComponent(g.getNodeId(v));
+	}
+	
+	public int getComponentSize(int c) {
+		checkRun();
+		return componentSize[c];
+	}
+	
+	/**
+	 * A primitive map of the components of the nodes.
+	 */
+	public IntEntityMap<Node> createComponentMap() {
+		checkRun();
+		IntEntityMap<Node> map = g.createIntNodeMap(-1);
+		for (Node v : g.getNodes()) {
+			map.putInt(v, component[g.getNodeId(v)]);
+		}
+		return map;
+	}
+	
+	/**
+	 * The condensation, with the node of id c for component c, and one arc
+	 * for each pair of components connected by arcs, which is acyclic.
+	 */
+	public StaticDiGraph createCondensation() {
+		checkRun();
+		int numComponents = componentSize.length;
+		StaticDiGraph condensation = new StaticDiGraph();
+		Node[] nodes = new Node[numComponents];
+		for (int c = 0; c < numComponents; ++c) {
+			nodes[c] = condensation.addNode();
+		}
+		// The nodes grouped by their components.
+		int[] groupBegin = new int[numComponents + 1];
+		for (int c = 0; c < numComponents; ++c) {
+			groupBegin[c + 1] = groupBegin[c] + componentSize[c];
+		}
+		int[] grouped = new int[groupBegin[numComponents]];
+		int[] next = Arrays.copyOf(groupBegin, numComponents);
+		for (int v = 0; v < n; ++v) {
+			if (component[v] >= 0) {
+				grouped[next[component[v]]++] = v;
+			}
+		}
+		int[] last = new int[numComponents];
+		Arrays.fill(last, -1);
+		for (int c = 0; c < numComponents; ++c) {
+			for (int j = groupBegin[c]; j < groupBegin[c + 1]; ++j) {
+				int v = grouped[j];
+				for (int i = outBegin[v]; i < outBegin[v + 1]; ++i) {
+					int d = component[outHead[i]];
+					if (d != c && last[d] != c) {
+						last[d] = c;
+						condensation.addArc(nodes[c], nodes[d]);
+					}
+				}
+			}
+		}
+		return condensation;
+	}
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.IntEntityMap;
+import qdg.api.bits.EdgeCursor;
+import qdg.bits.ParallelTasks;
+import qdg.view.DiGraphAsCursorDiGraph;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Topological order of a digraph by Kahn's algorithm, i.e.\ by removing the
+ * nodes without in-arcs repeatedly, or in parallel level by level.
+ * 
+ * The out-arcs are copied into int arrays and the in-degrees are counted in
+ * an int array, hence there is no allocation per node or arc.
+ * 
+ * The level of a node is the number of arcs of the longest path ending at
+ * it, and the nodes are ordered by their levels. The parallel version gives
+ * the same levels, but the order of the nodes within a level may differ.
+ * 
+ * If the digraph has a cycle, then the nodes reachable from cycles are not
+ * ordered, and a cycle among them is given as a witness.
+ */
+public class TopologicalSort {
+	
+	/**
+	 * Levels with fewer nodes per task are processed by a single task.
+	 */
+	static final int MIN_NODES_PER_TASK = 1024;
+	
+	private final CursorDiGraph g;
+	
+	private final int n;
+	
+	private final int[] outBegin;
+	
+	private final int[] outHead;
+	
+	private final int[] outArc;
+	
+	/**
+	 * The ids of the nodes in increasing order.
+	 */
+	private final int[] nodes;
+	
+	private final int[] inDegree;
+	
+	private int[] order;
+	
+	private int numOrdered;
+	
+	private int[] position;
+	
+	private int[] level;
+	
+	private int numLevels;
+	
+	/**
+	 * The arc ids of the witness cycle, empty if acyclic.
+	 */
+	private int[] cycle;
+	
+	public TopologicalSort(DiGraph g) {
+		this.g = DiGraphAsCursorDiGraph.of(g);
+		n = this.g.getNodeIdBound();
+		EdgeCursor cursor = this.g.createOutArcCursor();
+		int numNodes = 0;
+		int numArcs = 0;
+		for (Node v : this.g.getNodes()) {
+			++numNodes;
+			cursor.reset(this.g.getNodeId(v));
+			while (cursor.next()) {
+				++numArcs;
+			}
+		}
+		nodes = new int[numNodes];
+		numNodes = 0;
+		for (Node v : this.g.getNodes()) {
+			nodes[numNodes++] = this.g.getNodeId(v);
+		}
+		Arrays.sort(nodes);
+		outBegin = new int[n + 1];
+		outHead = new int[numArcs];
+		outArc = new int[numArcs];
+		inDegree = new int[n];
+		int i = 0;
+		int k = 0;
+		for (int v = 0; v < n; ++v) {
+			outBegin[v] = i;
+			if (k < nodes.length && nodes[k] == v) {
+				++k;
+				cursor.reset(v);
+				while (cursor.next()) {
+					outHead[i] = cursor.getNodeId();
+					outArc[i] = cursor.getEdgeId();
+					++inDegree[outHead[i]];
+					++i;
+				}
+			}
+		}
+		outBegin[n] = i;
+	}
+	
+	public CursorDiGraph getGraph() {
+		return g;
+	}
+	
+	int getOutBegin(int v) {
+		return outBegin[v];
+	}
+	
+	int getOutHead(int i) {
+		return outHead[i];
+	}
+	
+	int getOutArc(int i) {
+		return outArc[i];
+	}
+	
+	private void init() {
+		order = new int[nodes.length];
+		numOrdered = 0;
+		position = new int[n];
+		Arrays.fill(position, -1);
+		level = new int[n];
+		Arrays.fill(level, -1);
+		numLevels = 0;
+		for (int v : nodes) {
+			if (inDegree[v] == 0) {
+				order[numOrdered++] = v;
+				level[v] = 0;
+			}
+		}
+	}
+	
+	/**
+	 * Computes the order by Kahn's algorithm.
+	 */
+	public void run() {
+		init();
+		int[] degree = Arrays.copyOf(inDegree, n);
+		// The order is the queue.
+		for (int head = 0; head < numOrdered; ++head) {
+			int u = order[head];
+			for (int i = outBegin[u]; i < outBegin[u + 1]; ++i) {
+				int v = outHead[i];
+				if (--degree[v] == 0) {
+					level[v] = level[u] + 1;
+					order[numOrdered++] = v;
+				}
+			}
+		}
+		finish();
+	}
+	
+	/**
+	 * Computes the order level by level, with the nodes of each level
+	 * processed by numTasks tasks of the executor.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public void run(Executor executor, int numTasks)
+			throws InterruptedException {
+		if (numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		init();
+		final AtomicIntegerArray degree = new AtomicIntegerArray(inDegree);
+		final AtomicInteger tail = new AtomicInteger(numOrdered);
+		int levelBegin = 0;
+		int levelEnd = numOrdered;
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (int l = 1; levelBegin < levelEnd; ++l) {
+			final int nextLevel = l;
+			int numChunks = Math.min(numTasks,
+					(levelEnd - levelBegin) / MIN_NODES_PER_TASK);
+			if (numChunks < 2) {
+				expand(degree, tail, levelBegin, levelEnd, nextLevel);
+			} else {
+				int chunkSize = (levelEnd - levelBegin + numChunks - 1)
+						/ numChunks;
+				tasks.clear();
+				for (int begin = levelBegin; begin < levelEnd;
+						begin += chunkSize) {
+					final int b = begin;
+					final int e = Math.min(levelEnd, begin + chunkSize);
+					tasks.add(new Runnable() {
+						
+						@Override
+						public void run() {
+							expand(degree, tail, b, e, nextLevel);
+						}
+					});
+				}
+				ParallelTasks.run(executor, tasks);
+			}
+			levelBegin = levelEnd;
+			levelEnd = tail.get();
+		}
+		numOrdered = levelEnd;
+		finish();
+	}
+	
+	/**
+	 * Removes the nodes in [begin, end) of the order, and appends the nodes
+	 * left without in-arcs.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	private void expand(AtomicIntegerArray degree, AtomicInteger tail,
+			int begin, int end, int nextLevel) {
+		for (int k = begin; k < end; ++k) {
+			int u = order[k];
+			for (int i = outBegin[u]; i < outBegin[u + 1]; ++i) {
+				int v = outHead[i];
+				if (degree.decrementAndGet(v) == 0) {
+					level[v] = nextLevel;
+					order[tail.getAndIncrement()] = v;
+				}
+			}
+		}
+	}
+	
+	private void finish() {
+		for (int k = 0; k < numOrdered; ++k) {
+			int v = order[k];
+			position[v] = k;
+			numLevels = Math.max(numLevels, level[v] + 1);
+		}
+		cycle = numOrdered < nodes.length ? findCycle() : new int[0];
+	}
+	
+	/**
+	 * Each node that is not ordered has an in-arc from another one, hence
+	 * following such in-arcs backward from any of them closes a cycle.
+	 */
+	private int[] findCycle() {
+		int v = -1;
+		for (int u : nodes) {
+			if (position[u] < 0) {
+				v = u;
+				break;
+			}
+		}
+		// The step at which the walk visited each node, or -1.
+		int[] step = new int[n];
+		Arrays.fill(step, -1);
+		int[] arcs = new int[nodes.length - numOrdered];
+		EdgeCursor cursor = g.createInArcCursor();
+		int numSteps = 0;
+		while (step[v] < 0) {
+			step[v] = numSteps;
+			cursor.reset(v);
+			int u = -1;
+			while (u < 0 && cursor.next()) {
+				if (position[cursor.getNodeId()] < 0) {
+					u = cursor.getNodeId();
+					arcs[numSteps++] = cursor.getEdgeId();
+				}
+			}
+			if (u < 0) {
+				throw new IllegalStateException();
+			}
+			v = u;
+		}
+		// The arcs from step[v] on, reversed to go forward.
+		int[] result = new int[numSteps - step[v]];
+		for (int i = 0; i < result.length; ++i) {
+			result[i] = arcs[numSteps - 1 - i];
+		}
+		return result;
+	}
+	
+	private void checkRun() {
+		if (position == null) {
+			throw new IllegalStateException();
+		}
+	}
+	
+	public boolean isAcyclic() {
+		checkRun();
+		return cycle.length == 0;
+	}
+	
+	/**
+	 * The number of ordered nodes, which is the number of nodes iff the
+	 * digraph is acyclic.
+	 */
+	public int getNumOrderedNodes() {
+		checkRun();
+		return numOrdered;
+	}
+	
+	/**
+	 * The id of the node at position i of the order.
+	 */
+	public int getOrderedNode(int i) {
+		checkRun();
+		if (i < 0 || i >= numOrdered) {
+			throw new IndexOutOfBoundsException();
+		}
+		return order[i];
+	}
+	
+	public List<Node> getOrder() {
+		checkRun();
+		List<Node> result = new ArrayList<Node>(numOrdered);
+		for (int k = 0; k < numOrdered; ++k) {
+			result.add(g.nodeFromId(order[k]));
+		}
+		return result;
+	}
+	
+	/**
+	 * The position of a node id in the order, or -1 if it is not ordered or
+	 * not used by the graph.
+	 */
+	public int getPosition(int v) {
+		checkRun();
+		return position[v];
+	}
+	
+	public int getPosition(Node v) {
+		return getPosition(g.getNodeId(v));
+	}
+	
+	/**
+	 * The level of a node id, or -1 if it is not ordered or not used by the
+	 * graph.
+	 */
+	public int getLevel(int v) {
+		checkRun();
+		return level[v];
+	}
+	
+	public int getLevel(Node v) {
+		return getLevel(g.getNodeId(v));
+	}
+	
+	public int getNumLevels() {
+		checkRun();
+		return numLevels;
+	}
+	
+	/**
+	 * The arcs of a cycle in their order along it, or an empty list if the
+	 * digraph is acyclic.
+	 */
+	public List<Edge> getCycle() {
+		checkRun();
+		if (cycle.length == 0) {
+			return Collections.emptyList();
+		}
+		List<Edge> result = new ArrayList<Edge>(cycle.length);
+		for (int a : cycle) {
+			result.add(g.arcFromId(a));
+		}
+		return result;
+	}
+	
+	/**
+	 * A primitive map of the positions of the nodes.
+	 */
+	public IntEntityMap<Node> createPositionMap() {
+		checkRun();
+		IntEntityMap<Node> map = g.createIntNodeMap(-1);
+		for (int k = 0; k < numOrdered; ++k) {
+			map.putInt(g.nodeFromId(order[k]), k);
+		}
+		return map;
+	}
+	
+	/**
+	 * A primitive map of the levels of the nodes.
+	 */
+	public IntEntityMap<Node> createLevelMap() {
+		checkRun();
+		IntEntityMap<Node> map = g.createIntNodeMap(-1);
+		for (int k = 0; k < numOrdered; ++k) {
+			int v = order[k];
+			map.putInt(g.nodeFromId(v), level[v]);
+		}
+		return map;
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import java.util.Arrays;
+
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+import qdg.view.DiGraphAsCursorDiGraph;
+
+/**
+ * Common parts of the graph traversals. The traversals run on the int
+ * cursors of a CursorDiGraph, and arbitrary graphs are wrapped into a
+ * DiGraphAsCursorDiGraph snapshot. Per node data is kept in arrays indexed
+ * by node ids and stamped with the version of the traversal that wrote
+ * them, so a traversal can be rerun from other sources without clearing
+ * the arrays. Hence the graph must not be modified while a traversal
+ * object is in use.
+ */
+public abstract class Traversal {
+	
+	private static final TraversalVisitor NO_VISITOR = new TraversalVisitor() {
+	};
+	
+	protected final CursorDiGraph g;
+	
+	protected TraversalVisitor visitor = NO_VISITOR;
+	
+	protected boolean reverse;
+	
+	private final int[] stamp;
+	
+	private int version;
+	
+	private final int[] predArc;
+	
+	/**
+	 * The reached nodes in the order the traversal processes them.
+	 */
+	protected final int[] order;
+	
+	protected int numOrdered;
+	
+	protected Traversal(DiGraph g) {
+		this.g = DiGraphAsCursorDiGraph.of(g);
+		int n = this.g.getNodeIdBound();
+		stamp = new int[n];
+		predArc = new int[n];
+		order = new int[n];
+	}
+	
+	public CursorDiGraph getGraph() {
+		return g;
+	}
+	
+	public void setVisitor(TraversalVisitor visitor) {
+		this.visitor = visitor == null ? NO_VISITOR : visitor;
+	}
+	
+	public TraversalVisitor getVisitor() {
+		return visitor == NO_VISITOR ? null : visitor;
+	}
+	
+	/**
+	 * If set, then the in-arcs are traversed backwards instead of the
+	 * out-arcs, e.g.\ to find the nodes from which a node is reachable.
+	 */
+	public void setReverse(boolean reverse) {
+		this.reverse = reverse;
+	}
+	
+	public boolean isReverse() {
+		return reverse;
+	}
+	
+	protected EdgeCursor createCursor() {
+		return reverse ? g.createInArcCursor() : g.createOutArcCursor();
+	}
+	
+	/**
+	 * Forgets the previous traversal.
+	 */
+	public void reset() {
+		if (++version == Integer.MAX_VALUE) {
+			Arrays.fill(stamp, 0);
+			version = 1;
+		}
+		numOrdered = 0;
+		visitor.stopped = false;
+	}
+	
+	/**
+	 * Marks v as reached through the given arc, which is -1 for sources.
+	 */
+	protected void reach(int v, int arc) {
+		stamp[v] = version;
+		predArc[v] = arc;
+	}
+	
+	protected void setPredArc(int v, int arc) {
+		predArc[v] = arc;
+	}
+	
+	public boolean isReached(int v) {
+		return stamp[v] == version;
+	}
+	
+	public boolean isReached(Node v) {
+		return isReached(g.getNodeId(v));
+	}
+	
+	/**
+	 * The arc through which v was reached, or -1 for sources and unreached
+	 * nodes.
+	 */
+	public int getPredArc(int v) {
+		return isReached(v) ? predArc[v] : -1;
+	}
+	
+	/**
+	 * The arc through which v was reached, or null for sources and unreached
+	 * nodes.
+	 */
+	public Edge getPredArc(Node v) {
+		int arc = getPredArc(g.getNodeId(v));
+		return arc < 0 ? null : g.arcFromId(arc);
+	}
+	
+	/**
+	 * The number of nodes processed by the traversal, see getReached().
+	 */
+	public int getNumReached() {
+		return numOrdered;
+	}
+	
+	public int getReachedId(int i) {
+		if (i < 0 || i >= numOrdered) {
+			throw new IndexOutOfBoundsException();
+		}
+		return order[i];
+	}
+	
+	/**
+	 * The i-th node in the order of processing, which is the order of
+	 * distances in Bfs and Dijkstra and preorder in Dfs.
+	 */
+	public Node getReached(int i) {
+		return g.nodeFromId(getReachedId(i));
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+/**
+ * Callbacks of the traversals in this package, which do nothing by default.
+ * Nodes and arcs are passed by their ids in Traversal.getGraph(). The from
+ * end of an arc is the end on the side of the sources, and the to end is
+ * the opposite one, hence they are swapped for in-arcs, see
+ * Traversal.setReverse().
+ * 
+ * A visitor can terminate the traversal by calling stop(), after which no
+ * further callbacks are made.
+ */
+public abstract class TraversalVisitor {
+	
+	boolean stopped;
+	
+	/**
+	 * Called when a node is reached first.
+	 */
+	public void discover(int node) {
+	}
+	
+	/**
+	 * Called for each scanned arc, before its to end is discovered.
+	 */
+	public void examineArc(int arc, int from, int to) {
+	}
+	
+	/**
+	 * Called for the arcs through which nodes are discovered, before
+	 * discover(to). In Dijkstra it is called whenever the arc improves the
+	 * distance of its to end.
+	 */
+	public void treeArc(int arc, int from, int to) {
+	}
+	
+	/**
+	 * Called when all the arcs of a node are scanned.
+	 */
+	public void finish(int node) {
+	}
+	
+	protected final void stop() {
+		stopped = true;
+	}
+	
+	public final boolean isStopped() {
+		return stopped;
+	}
+}
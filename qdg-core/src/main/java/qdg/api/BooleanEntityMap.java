@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.api;
+
+/**
+ * An entity map with boolean values, which can be read and written without
+ * boxing. Entities without a value are mapped to the default value of the
+ * map, also through the boxed accessors.
+ */
+public interface BooleanEntityMap<K> extends EntityMap<K, Boolean> {
+	
+	boolean getBoolean(Object k);
+	
+	void putBoolean(K k, boolean v);
+}
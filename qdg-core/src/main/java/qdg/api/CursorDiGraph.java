@@ -0,0 +1,31 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.api;
+
+import qdg.api.bits.ArcCursorable;
+
+/**
+ * Directed graph which can be traversed by integer ids through
+ * {@link qdg.api.bits.EdgeCursor}s. Any directed graph can be turned into
+ * one by {@link qdg.view.DiGraphAsCursorDiGraph#of(DiGraph)}.
+ */
+public interface CursorDiGraph extends DiIdGraph, ArcCursorable {
+	
+	int getNodeId(Node node);
+	
+	int getArcId(Edge arc);
+}
@@ -23,13 +23,14 @@ import qdg.api.bits.HasNodeMutationHandlers;
 import qdg.api.bits.InArcIterable;
 import qdg.api.bits.IncidentArcIterable;
 import qdg.api.bits.OutArcIterable;
+import qdg.api.bits.PrimitiveArcMappable;
 
 public interface DiGraph extends Graph,
 		ArcIterable<Graph.Edge>,
 		OutArcIterable<Graph.Node, Graph.Edge>,
 		InArcIterable<Graph.Node, Graph.Edge>,
 		IncidentArcIterable<Graph.Node, Graph.Edge>,
-		ArcMappable<Graph.Edge>,
+		ArcMappable<Graph.Edge>, PrimitiveArcMappable<Graph.Edge>,
 		HasNodeMutationHandlers, HasEdgeMutationHandlers {
 	
 	/**
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.api;
+
+/**
+ * An entity map with double values, which can be read and written without
+ * boxing. Entities without a value are mapped to the default value of the
+ * map, also through the boxed accessors.
+ */
+public interface DoubleEntityMap<K> extends EntityMap<K, Double> {
+	
+	double getDouble(Object k);
+	
+	void putDouble(K k, double v);
+	
+	/**
+	 * Adds d to the value of k, and returns the new value.
+	 */
+	double addDouble(K k, double d);
+}
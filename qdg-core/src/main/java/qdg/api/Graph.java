@@ -21,10 +21,13 @@ import qdg.api.bits.EdgeMappable;
 import qdg.api.bits.IncidentEdgeIterable;
 import qdg.api.bits.NodeIterable;
 import qdg.api.bits.NodeMappable;
+import qdg.api.bits.PrimitiveEdgeMappable;
+import qdg.api.bits.PrimitiveNodeMappable;
 
 public interface Graph extends NodeIterable<Graph.Node>,
 		EdgeIterable<Graph.Edge>, IncidentEdgeIterable<Graph.Node, Graph.Edge>,
-		NodeMappable<Graph.Node>, EdgeMappable<Graph.Edge> {
+		NodeMappable<Graph.Node>, EdgeMappable<Graph.Edge>,
+		PrimitiveNodeMappable<Graph.Node>, PrimitiveEdgeMappable<Graph.Edge> {
 	
 	interface Node {
 	}
@@ -19,13 +19,14 @@ package qdg.api;
 import qdg.api.bits.HasEdgeMutationHandlers;
 import qdg.api.bits.HasNodeMutationHandlers;
 import qdg.api.bits.IncidentUEdgeIterable;
+import qdg.api.bits.PrimitiveUEdgeMappable;
 import qdg.api.bits.UEdgeIterable;
 import qdg.api.bits.UEdgeMappable;
 
 public interface UGraph extends Graph,
 		UEdgeIterable<Graph.Edge>,
 		IncidentUEdgeIterable<Graph.Node, Graph.Edge>,
-		UEdgeMappable<Graph.Edge>,
+		UEdgeMappable<Graph.Edge>, PrimitiveUEdgeMappable<Graph.Edge>,
 		HasNodeMutationHandlers, HasEdgeMutationHandlers{
 	
 	Node addNode();
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.api.bits;
+
+public interface ArcCursorable {
+	
+	/**
+	 * All node ids are less than the bound, hence it can be used as the size
+	 * of arrays indexed by node ids.
+	 */
+	int getNodeIdBound();
+	
+	/**
+	 * All arc ids are less than the bound.
+	 */
+	int getArcIdBound();
+	
+	EdgeCursor createOutArcCursor();
+	
+	EdgeCursor createInArcCursor();
+	
+	/**
+	 * Out-arcs first, then in-arcs, as in the incident arc iterators.
+	 */
+	EdgeCursor createIncidentArcCursor();
+}
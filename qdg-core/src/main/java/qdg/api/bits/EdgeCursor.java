@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.api.bits;
+
+/**
+ * Iterates the edges of a node by their integer ids, without allocating
+ * any objects. A cursor is created once, and then it is reset to each
+ * node to be scanned:
+ * 
+ * <pre>
+ * cursor.reset(nodeId);
+ * while (cursor.next()) {
+ *     int edgeId = cursor.getEdgeId();
+ *     int otherNodeId = cursor.getNodeId();
+ * }
+ * </pre>
+ * 
+ * A cursor is not thread-safe, and its behavior is undefined if the graph
+ * is modified while it is used.
+ */
+public interface EdgeCursor {
+
+	/**
+	 * Positions the cursor before the first edge of the node.
+	 */
+	void reset(int nodeId);
+	
+	/**
+	 * Steps to the next edge, and returns false if there is none.
+	 */
+	boolean next();
+	
+	int getEdgeId();
+	
+	/**
+	 * The id of the opposite end of the current edge, i.e.\ the target of an
+	 * out-arc, the source of an in-arc, and the other end of an incident arc
+	 * or undirected edge. For loops it is the node itself.
+	 */
+	int getNodeId();
+}
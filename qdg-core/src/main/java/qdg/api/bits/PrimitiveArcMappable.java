@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.api.bits;
+
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+
+public interface PrimitiveArcMappable<Arc> {
+	
+	IntEntityMap<Arc> createIntArcMap(int defaultValue);
+	
+	LongEntityMap<Arc> createLongArcMap(long defaultValue);
+	
+	DoubleEntityMap<Arc> createDoubleArcMap(double defaultValue);
+	
+	BooleanEntityMap<Arc> createBooleanArcMap(boolean defaultValue);
+}
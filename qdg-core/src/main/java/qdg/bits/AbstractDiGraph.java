@@ -18,8 +18,12 @@ package qdg.bits;
 
 import java.util.Iterator;
 
+import qdg.api.BooleanEntityMap;
 import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
 
 public abstract class AbstractDiGraph extends AbstractGraph
 		implements DiGraph {
@@ -82,4 +86,48 @@ public abstract class AbstractDiGraph extends AbstractGraph
 	public <V> EntityMap<Edge, V> createEdgeMap() {
 		return createArcMap();
 	}
+
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return new BoxedMaps.IntMap<Edge>(
+				this.<Integer>createArcMap(), defaultValue);
+	}
+
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return new BoxedMaps.LongMap<Edge>(
+				this.<Long>createArcMap(), defaultValue);
+	}
+
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return new BoxedMaps.DoubleMap<Edge>(
+				this.<Double>createArcMap(), defaultValue);
+	}
+
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return new BoxedMaps.BooleanMap<Edge>(
+				this.<Boolean>createArcMap(), defaultValue);
+	}
+
+	@Override
+	public IntEntityMap<Edge> createIntEdgeMap(int defaultValue) {
+		return createIntArcMap(defaultValue);
+	}
+
+	@Override
+	public LongEntityMap<Edge> createLongEdgeMap(long defaultValue) {
+		return createLongArcMap(defaultValue);
+	}
+
+	@Override
+	public DoubleEntityMap<Edge> createDoubleEdgeMap(double defaultValue) {
+		return createDoubleArcMap(defaultValue);
+	}
+
+	@Override
+	public BooleanEntityMap<Edge> createBooleanEdgeMap(boolean defaultValue) {
+		return createBooleanArcMap(defaultValue);
+	}
 }
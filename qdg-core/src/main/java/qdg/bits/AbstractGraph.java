@@ -18,7 +18,11 @@ package qdg.bits;
 
 import java.util.Iterator;
 
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
 import qdg.api.Graph;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
 
 public abstract class AbstractGraph implements Graph {
 
@@ -54,4 +58,52 @@ public abstract class AbstractGraph implements Graph {
 			}
 		};
 	}
+
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return new BoxedMaps.IntMap<Node>(
+				this.<Integer>createNodeMap(), defaultValue);
+	}
+
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return new BoxedMaps.LongMap<Node>(
+				this.<Long>createNodeMap(), defaultValue);
+	}
+
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return new BoxedMaps.DoubleMap<Node>(
+				this.<Double>createNodeMap(), defaultValue);
+	}
+
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return new BoxedMaps.BooleanMap<Node>(
+				this.<Boolean>createNodeMap(), defaultValue);
+	}
+
+	@Override
+	public IntEntityMap<Edge> createIntEdgeMap(int defaultValue) {
+		return new BoxedMaps.IntMap<Edge>(
+				this.<Integer>createEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public LongEntityMap<Edge> createLongEdgeMap(long defaultValue) {
+		return new BoxedMaps.LongMap<Edge>(
+				this.<Long>createEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public DoubleEntityMap<Edge> createDoubleEdgeMap(double defaultValue) {
+		return new BoxedMaps.DoubleMap<Edge>(
+				this.<Double>createEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public BooleanEntityMap<Edge> createBooleanEdgeMap(boolean defaultValue) {
+		return new BoxedMaps.BooleanMap<Edge>(
+				this.<Boolean>createEdgeMap(), defaultValue);
+	}
 }
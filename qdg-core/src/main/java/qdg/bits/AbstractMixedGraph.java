@@ -18,6 +18,10 @@ package qdg.bits;
 
 import java.util.Iterator;
 
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
 import qdg.api.MixedGraph;
 
 public abstract class AbstractMixedGraph extends AbstractGraph
@@ -100,4 +104,52 @@ public abstract class AbstractMixedGraph extends AbstractGraph
 				getIncidentArcIterator(node),
 				getIncidentUEdgeIterator(node));
 	}
+
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return new BoxedMaps.IntMap<Edge>(
+				this.<Integer>createArcMap(), defaultValue);
+	}
+
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return new BoxedMaps.LongMap<Edge>(
+				this.<Long>createArcMap(), defaultValue);
+	}
+
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return new BoxedMaps.DoubleMap<Edge>(
+				this.<Double>createArcMap(), defaultValue);
+	}
+
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return new BoxedMaps.BooleanMap<Edge>(
+				this.<Boolean>createArcMap(), defaultValue);
+	}
+
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		return new BoxedMaps.IntMap<Edge>(
+				this.<Integer>createUEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		return new BoxedMaps.LongMap<Edge>(
+				this.<Long>createUEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		return new BoxedMaps.DoubleMap<Edge>(
+				this.<Double>createUEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		return new BoxedMaps.BooleanMap<Edge>(
+				this.<Boolean>createUEdgeMap(), defaultValue);
+	}
 }
@@ -18,7 +18,11 @@ package qdg.bits;
 
 import java.util.Iterator;
 
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
 import qdg.api.UGraph;
 
 public abstract class AbstractUGraph extends AbstractGraph implements UGraph {
@@ -59,4 +63,48 @@ public abstract class AbstractUGraph extends AbstractGraph implements UGraph {
 	public <V> EntityMap<Edge, V> createEdgeMap() {
 		return createUEdgeMap();
 	}
+
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		return new BoxedMaps.IntMap<Edge>(
+				this.<Integer>createUEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		return new BoxedMaps.LongMap<Edge>(
+				this.<Long>createUEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		return new BoxedMaps.DoubleMap<Edge>(
+				this.<Double>createUEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		return new BoxedMaps.BooleanMap<Edge>(
+				this.<Boolean>createUEdgeMap(), defaultValue);
+	}
+
+	@Override
+	public IntEntityMap<Edge> createIntEdgeMap(int defaultValue) {
+		return createIntUEdgeMap(defaultValue);
+	}
+
+	@Override
+	public LongEntityMap<Edge> createLongEdgeMap(long defaultValue) {
+		return createLongUEdgeMap(defaultValue);
+	}
+
+	@Override
+	public DoubleEntityMap<Edge> createDoubleEdgeMap(double defaultValue) {
+		return createDoubleUEdgeMap(defaultValue);
+	}
+
+	@Override
+	public BooleanEntityMap<Edge> createBooleanEdgeMap(boolean defaultValue) {
+		return createBooleanUEdgeMap(defaultValue);
+	}
 }
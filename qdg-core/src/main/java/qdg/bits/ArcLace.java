@@ -94,6 +94,22 @@ public class ArcLace<N> {
 		return arcs.get(arcId).target;
 	}
 	
+	public int getFirstOut(N node) {
+		return nodeContainer.get(node).firstOut;
+	}
+	
+	public int getNextOut(int arcId) {
+		return arcs.get(arcId).nextOut;
+	}
+	
+	public int getFirstIn(N node) {
+		return nodeContainer.get(node).firstIn;
+	}
+	
+	public int getNextIn(int arcId) {
+		return arcs.get(arcId).nextIn;
+	}
+	
 	public Iterator<Integer> getArcIterator() {
 		return arcs.keyIterator();
 	}
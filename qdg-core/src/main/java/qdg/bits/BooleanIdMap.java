@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.bits;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import qdg.api.BooleanEntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeMutationHandler;
+import qdg.api.bits.HasId;
+import qdg.api.bits.MutationHandler;
+import qdg.api.bits.NodeMutationHandler;
+
+/**
+ * A boolean valued map of entities having ids, stored in a bit set indexed
+ * by the ids. A set bit means that the value differs from the default value.
+ */
+public class BooleanIdMap<K> implements BooleanEntityMap<K>,
+		MutationHandler<K>, Serializable {
+	
+	private static final long serialVersionUID = -1146263297390405468L;
+
+	public static class NodeMap extends BooleanIdMap<Node>
+			implements NodeMutationHandler {
+
+		private static final long serialVersionUID = -5225412918917539040L;
+
+		public NodeMap(boolean defaultValue) {
+			super(defaultValue);
+		}
+	}
+	
+	public static class EdgeMap extends BooleanIdMap<Edge>
+			implements EdgeMutationHandler {
+
+		private static final long serialVersionUID = 4901769371750354077L;
+
+		public EdgeMap(boolean defaultValue) {
+			super(defaultValue);
+		}
+	}
+	
+	protected final boolean defaultValue;
+	
+	protected long[] words = new long[0];
+	
+	public BooleanIdMap(boolean defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+	
+	@Override
+	public boolean getBoolean(Object k) {
+		int id = ((HasId) k).getId();
+		int w = id >>> 6;
+		if (w < words.length && (words[w] & (1L << id)) != 0) {
+			return !defaultValue;
+		} else {
+			return defaultValue;
+		}
+	}
+	
+	@Override
+	public void putBoolean(K k, boolean v) {
+		int id = ((HasId) k).getId();
+		int w = id >>> 6;
+		if (v != defaultValue) {
+			if (w >= words.length) {
+				words = Arrays.copyOf(words,
+						Math.max(Math.max(2 * words.length, 4), w + 1));
+			}
+			words[w] |= 1L << id;
+		} else if (w < words.length) {
+			words[w] &= ~(1L << id);
+		}
+	}
+	
+	@Override
+	public Boolean get(Object k) {
+		return getBoolean(k);
+	}
+
+	@Override
+	public Boolean put(K k, Boolean v) {
+		boolean oldValue = getBoolean(k);
+		putBoolean(k, v == null ? defaultValue : v);
+		return oldValue;
+	}
+
+	@Override
+	public void onAdd(K k) {
+		// The bit set is extended lazily in put.
+	}
+
+	@Override
+	public void onRemove(K k) {
+		putBoolean(k, defaultValue);
+	}
+}
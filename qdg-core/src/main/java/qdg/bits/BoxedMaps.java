@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.bits;
+
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+
+/**
+ * Primitive entity maps on top of boxed entity maps, for graphs which cannot
+ * provide array based maps.
+ */
+public class BoxedMaps {
+
+	public static class IntMap<K> implements IntEntityMap<K> {
+		
+		protected EntityMap<K, Integer> map;
+		
+		protected int defaultValue;
+		
+		public IntMap(EntityMap<K, Integer> map, int defaultValue) {
+			this.map = map;
+			this.defaultValue = defaultValue;
+		}
+		
+		@Override
+		public int getInt(Object k) {
+			Integer v = map.get(k);
+			return v == null ? defaultValue : v;
+		}
+		
+		@Override
+		public void putInt(K k, int v) {
+			map.put(k, v);
+		}
+
+		@Override
+		public int addInt(K k, int d) {
+			int v = getInt(k) + d;
+			map.put(k, v);
+			return v;
+		}
+
+		@Override
+		public Integer get(Object k) {
+			return getInt(k);
+		}
+		
+		@Override
+		public Integer put(K k, Integer v) {
+			return map.put(k, v);
+		}
+	}
+	
+	/**
+	 * Returns the map itself if it is already a IntEntityMap.
+	 */
+	public static <K> IntEntityMap<K> asIntMap(EntityMap<K, Integer> map,
+			int defaultValue) {
+		if (map instanceof IntEntityMap) {
+			return (IntEntityMap<K>) map;
+		} else {
+			return new IntMap<K>(map, defaultValue);
+		}
+	}
+
+	public static class LongMap<K> implements LongEntityMap<K> {
+		
+		protected EntityMap<K, Long> map;
+		
+		protected long defaultValue;
+		
+		public LongMap(EntityMap<K, Long> map, long defaultValue) {
+			this.map = map;
+			this.defaultValue = defaultValue;
+		}
+		
+		@Override
+		public long getLong(Object k) {
+			Long v = map.get(k);
+			return v == null ? defaultValue : v;
+		}
+		
+		@Override
+		public void putLong(K k, long v) {
+			map.put(k, v);
+		}
+
+		@Override
+		public long addLong(K k, long d) {
+			long v = getLong(k) + d;
+			map.put(k, v);
+			return v;
+		}
+
+		@Override
+		public Long get(Object k) {
+			return getLong(k);
+		}
+		
+		@Override
+		public Long put(K k, Long v) {
+			return map.put(k, v);
+		}
+	}
+	
+	/**
+	 * Returns the map itself if it is already a LongEntityMap.
+	 */
+	public static <K> LongEntityMap<K> asLongMap(EntityMap<K, Long> map,
+			long defaultValue) {
+		if (map instanceof LongEntityMap) {
+			return (LongEntityMap<K>) map;
+		} else {
+			return new LongMap<K>(map, defaultValue);
+		}
+	}
+
+	public static class DoubleMap<K> implements DoubleEntityMap<K> {
+		
+		protected EntityMap<K, Double> map;
+		
+		protected double defaultValue;
+		
+		public DoubleMap(EntityMap<K, Double> map, double defaultValue) {
+			this.map = map;
+			this.defaultValue = defaultValue;
+		}
+		
+		@Override
+		public double getDouble(Object k) {
+			Double v = map.get(k);
+			return v == null ? defaultValue : v;
+		}
+		
+		@Override
+		public void putDouble(K k, double v) {
+			map.put(k, v);
+		}
+
+		@Override
+		public double addDouble(K k, double d) {
+			double v = getDouble(k) + d;
+			map.put(k, v);
+			return v;
+		}
+
+		@Override
+		public Double get(Object k) {
+			return getDouble(k);
+		}
+		
+		@Override
+		public Double put(K k, Double v) {
+			return map.put(k, v);
+		}
+	}
+	
+	/**
+	 * Returns the map itself if it is already a DoubleEntityMap.
+	 */
+	public static <K> DoubleEntityMap<K> asDoubleMap(EntityMap<K, Double> map,
+			double defaultValue) {
+		if (map instanceof DoubleEntityMap) {
+			return (DoubleEntityMap<K>) map;
+		} else {
+			return new DoubleMap<K>(map, defaultValue);
+		}
+	}
+
+	public static class BooleanMap<K> implements BooleanEntityMap<K> {
+		
+		protected EntityMap<K, Boolean> map;
+		
+		protected boolean defaultValue;
+		
+		public BooleanMap(EntityMap<K, Boolean> map, boolean defaultValue) {
+			this.map = map;
+			this.defaultValue = defaultValue;
+		}
+		
+		@Override
+		public boolean getBoolean(Object k) {
+			Boolean v = map.get(k);
+			return v == null ? defaultValue : v;
+		}
+		
+		@Override
+		public void putBoolean(K k, boolean v) {
+			map.put(k, v);
+		}
+
+		@Override
+		public Boolean get(Object k) {
+			return getBoolean(k);
+		}
+		
+		@Override
+		public Boolean put(K k, Boolean v) {
+			return map.put(k, v);
+		}
+	}
+	
+	/**
+	 * Returns the map itself if it is already a BooleanEntityMap.
+	 */
+	public static <K> BooleanEntityMap<K> asBooleanMap(EntityMap<K, Boolean> map,
+			boolean defaultValue) {
+		if (map instanceof BooleanEntityMap) {
+			return (BooleanEntityMap<K>) map;
+		} else {
+			return new BooleanMap<K>(map, defaultValue);
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.bits;
+
+import qdg.api.bits.EdgeCursor;
+
+/**
+ * Concatenation of two cursors, as {@link ConcatIterator} for iterators.
+ */
+public class ConcatEdgeCursor implements EdgeCursor {
+	
+	private EdgeCursor first;
+	
+	private EdgeCursor second;
+	
+	private EdgeCursor current;
+	
+	public ConcatEdgeCursor(EdgeCursor first, EdgeCursor second) {
+		this.first = first;
+		this.second = second;
+		this.current = first;
+	}
+
+	@Override
+	public void reset(int nodeId) {
+		first.reset(nodeId);
+		second.reset(nodeId);
+		current = first;
+	}
+
+	@Override
+	public boolean next() {
+		if (current == first) {
+			if (first.next()) {
+				return true;
+			}
+			current = second;
+		}
+		return second.next();
+	}
+
+	@Override
+	public int getEdgeId() {
+		return current.getEdgeId();
+	}
+
+	@Override
+	public int getNodeId() {
+		return current.getNodeId();
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.bits;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import qdg.api.DoubleEntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeMutationHandler;
+import qdg.api.bits.HasId;
+import qdg.api.bits.MutationHandler;
+import qdg.api.bits.NodeMutationHandler;
+
+/**
+ * A double valued map of entities having ids, stored in a double array
+ * indexed by the ids.
+ */
+public class DoubleIdMap<K> implements DoubleEntityMap<K>, MutationHandler<K>,
+		Serializable {
+	
+	private static final long serialVersionUID = 4702457217870347112L;
+
+	public static class NodeMap extends DoubleIdMap<Node>
+			implements NodeMutationHandler {
+
+		private static final long serialVersionUID = 807245392750664142L;
+
+		public NodeMap(double defaultValue) {
+			super(defaultValue);
+		}
+	}
+	
+	public static class EdgeMap extends DoubleIdMap<Edge>
+			implements EdgeMutationHandler {
+
+		private static final long serialVersionUID = -4624032049778536635L;
+
+		public EdgeMap(double defaultValue) {
+			super(defaultValue);
+		}
+	}
+	
+	protected final double defaultValue;
+	
+	protected double[] values = new double[0];
+	
+	public DoubleIdMap(double defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+	
+	private int ensureId(Object k) {
+		int id = ((HasId) k).getId();
+		if (id >= values.length) {
+			int oldLength = values.length;
+			values = Arrays.copyOf(values,
+					Math.max(Math.max(2 * oldLength, 16), id + 1));
+			Arrays.fill(values, oldLength, values.length, defaultValue);
+		}
+		return id;
+	}
+	
+	@Override
+	public double getDouble(Object k) {
+		int id = ((HasId) k).getId();
+		if (id < values.length) {
+			return values[id];
+		} else {
+			return defaultValue;
+		}
+	}
+	
+	@Override
+	public void putDouble(K k, double v) {
+		int id = ensureId(k);
+		values[id] = v;
+	}
+	
+	@Override
+	public double addDouble(K k, double d) {
+		int id = ensureId(k);
+		values[id] += d;
+		return values[id];
+	}
+	
+	@Override
+	public Double get(Object k) {
+		return getDouble(k);
+	}
+
+	@Override
+	public Double put(K k, Double v) {
+		int id = ensureId(k);
+		double oldValue = values[id];
+		values[id] = v == null ? defaultValue : v;
+		return oldValue;
+	}
+
+	@Override
+	public void onAdd(K k) {
+		// The array is extended lazily in put.
+	}
+
+	@Override
+	public void onRemove(K k) {
+		int id = ((HasId) k).getId();
+		if (id < values.length) {
+			values[id] = defaultValue;
+		}
+	}
+}
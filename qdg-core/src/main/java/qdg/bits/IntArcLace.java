@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.bits;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+
+import qdg.api.bits.EdgeCursor;
+
+import com.google.common.collect.UnmodifiableIterator;
+
+/**
+ * Doubly linked out- and in-arc lists of the nodes, as in {@link ArcLace},
+ * but with all the links stored in parallel int arrays indexed by the arc
+ * and node ids, instead of an object per arc and per node.
+ * 
+ * The lace also keeps track of the used arc ids, in the same way as
+ * {@link qdg.SparseArrayList}: used ids are linked in the order of their
+ * insertion, and free ids are reused in LIFO order by
+ * {@link #addArc(int, int)}. Arcs with caller given ids can be added by
+ * {@link #laceArc(int, int, int)}.
+ * 
+ * Node ids are not tracked, node arrays are extended as arcs are added. A
+ * node can be removed once all of its arcs are removed.
+ * 
+ * @author Marton Makai
+ */
+public class IntArcLace implements Serializable {
+	
+	private static final long serialVersionUID = -6296620584369251734L;
+
+	private static final int INITIAL_CAPACITY = 16;
+	
+	// Arc arrays, source is -1 for free ids.
+	protected int[] source = new int[0];
+	
+	protected int[] target = new int[0];
+	
+	protected int[] prevOut = new int[0];
+	
+	protected int[] nextOut = new int[0];
+	
+	protected int[] prevIn = new int[0];
+	
+	protected int[] nextIn = new int[0];
+	
+	// Used ids are doubly linked in the order of insertion, free ids are
+	// doubly linked in the order of removal, so that any free id can be
+	// taken by laceArc.
+	protected int[] prevArc = new int[0];
+	
+	protected int[] nextArc = new int[0];
+	
+	protected int arcIdBound = 0;
+	
+	protected int firstArc = -1;
+	
+	protected int lastArc = -1;
+	
+	protected int firstFree = -1;
+	
+	// Node arrays.
+	protected int[] firstOut = new int[0];
+	
+	// Though the iteration could be performed without the index of the
+	// last, with the pointer we can keep the insertion order.
+	protected int[] lastOut = new int[0];
+	
+	protected int[] firstIn = new int[0];
+	
+	protected int[] lastIn = new int[0];
+	
+	private static int grownCapacity(int capacity, int minCapacity) {
+		return Math.max(Math.max(2 * capacity, INITIAL_CAPACITY), minCapacity);
+	}
+	
+	private static int[] grow(int[] array, int capacity, int fill) {
+		int oldCapacity = array.length;
+		int[] result = Arrays.copyOf(array, capacity);
+		Arrays.fill(result, oldCapacity, capacity, fill);
+		return result;
+	}
+	
+	protected void ensureArcCapacity(int minCapacity) {
+		if (minCapacity > source.length) {
+			int capacity = grownCapacity(source.length, minCapacity);
+			source = grow(source, capacity, -1);
+			target = grow(target, capacity, -1);
+			prevOut = grow(prevOut, capacity, -1);
+			nextOut = grow(nextOut, capacity, -1);
+			prevIn = grow(prevIn, capacity, -1);
+			nextIn = grow(nextIn, capacity, -1);
+			prevArc = grow(prevArc, capacity, -1);
+			nextArc = grow(nextArc, capacity, -1);
+		}
+	}
+	
+	protected void ensureNodeCapacity(int minCapacity) {
+		if (minCapacity > firstOut.length) {
+			int capacity = grownCapacity(firstOut.length, minCapacity);
+			firstOut = grow(firstOut, capacity, -1);
+			lastOut = grow(lastOut, capacity, -1);
+			firstIn = grow(firstIn, capacity, -1);
+			lastIn = grow(lastIn, capacity, -1);
+		}
+	}
+	
+	public int getArcIdBound() {
+		return arcIdBound;
+	}
+	
+	public boolean contains(int arcId) {
+		return arcId >= 0 && arcId < arcIdBound && source[arcId] >= 0;
+	}
+	
+	public int getSource(int arcId) {
+		return source[arcId];
+	}
+	
+	public int getTarget(int arcId) {
+		return target[arcId];
+	}
+	
+	public int getFirstArc() {
+		return firstArc;
+	}
+	
+	public int getNextArc(int arcId) {
+		return nextArc[arcId];
+	}
+	
+	public int getFirstOut(int nodeId) {
+		return nodeId < firstOut.length ? firstOut[nodeId] : -1;
+	}
+	
+	public int getNextOut(int arcId) {
+		return nextOut[arcId];
+	}
+	
+	public int getFirstIn(int nodeId) {
+		return nodeId < firstIn.length ? firstIn[nodeId] : -1;
+	}
+	
+	public int getNextIn(int arcId) {
+		return nextIn[arcId];
+	}
+	
+	/**
+	 * Adds an arc with the last freed id, or with a new id if there is no
+	 * free id.
+	 */
+	public int addArc(int s, int t) {
+		int arcId = firstFree >= 0 ? firstFree : arcIdBound;
+		laceArc(arcId, s, t);
+		return arcId;
+	}
+	
+	/**
+	 * Adds an arc with the given id, which must not be used.
+	 */
+	public void laceArc(int arcId, int s, int t) {
+		if (arcId < arcIdBound && source[arcId] >= 0) {
+			throw new IllegalArgumentException("Arc id " + arcId + " is used");
+		}
+		ensureArcCapacity(arcId + 1);
+		// Ids skipped by the caller become free.
+		while (arcIdBound <= arcId) {
+			pushFree(arcIdBound++);
+		}
+		// Unlink from the free ids.
+		if (prevArc[arcId] >= 0) {
+			nextArc[prevArc[arcId]] = nextArc[arcId];
+		} else {
+			firstFree = nextArc[arcId];
+		}
+		if (nextArc[arcId] >= 0) {
+			prevArc[nextArc[arcId]] = prevArc[arcId];
+		}
+		// Link as last of the used ids.
+		prevArc[arcId] = lastArc;
+		nextArc[arcId] = -1;
+		if (lastArc >= 0) {
+			nextArc[lastArc] = arcId;
+		} else {
+			firstArc = arcId;
+		}
+		lastArc = arcId;
+		// Link into the out-arcs of the source and the in-arcs of the target.
+		ensureNodeCapacity(Math.max(s, t) + 1);
+		source[arcId] = s;
+		target[arcId] = t;
+		prevOut[arcId] = lastOut[s];
+		nextOut[arcId] = -1;
+		if (lastOut[s] >= 0) {
+			nextOut[lastOut[s]] = arcId;
+		} else {
+			firstOut[s] = arcId;
+		}
+		lastOut[s] = arcId;
+		prevIn[arcId] = lastIn[t];
+		nextIn[arcId] = -1;
+		if (lastIn[t] >= 0) {
+			nextIn[lastIn[t]] = arcId;
+		} else {
+			firstIn[t] = arcId;
+		}
+		lastIn[t] = arcId;
+	}
+	
+	private void pushFree(int arcId) {
+		prevArc[arcId] = -1;
+		nextArc[arcId] = firstFree;
+		if (firstFree >= 0) {
+			prevArc[firstFree] = arcId;
+		}
+		firstFree = arcId;
+	}
+	
+	public void remove(int arcId) {
+		int s = source[arcId];
+		int t = target[arcId];
+		if (prevOut[arcId] >= 0) {
+			nextOut[prevOut[arcId]] = nextOut[arcId];
+		} else {
+			firstOut[s] = nextOut[arcId];
+		}
+		if (nextOut[arcId] >= 0) {
+			prevOut[nextOut[arcId]] = prevOut[arcId];
+		} else {
+			lastOut[s] = prevOut[arcId];
+		}
+		if (prevIn[arcId] >= 0) {
+			nextIn[prevIn[arcId]] = nextIn[arcId];
+		} else {
+			firstIn[t] = nextIn[arcId];
+		}
+		if (nextIn[arcId] >= 0) {
+			prevIn[nextIn[arcId]] = prevIn[arcId];
+		} else {
+			lastIn[t] = prevIn[arcId];
+		}
+		if (prevArc[arcId] >= 0) {
+			nextArc[prevArc[arcId]] = nextArc[arcId];
+		} else {
+			firstArc = nextArc[arcId];
+		}
+		if (nextArc[arcId] >= 0) {
+			prevArc[nextArc[arcId]] = prevArc[arcId];
+		} else {
+			lastArc = prevArc[arcId];
+		}
+		source[arcId] = -1;
+		target[arcId] = -1;
+		prevOut[arcId] = -1;
+		nextOut[arcId] = -1;
+		prevIn[arcId] = -1;
+		nextIn[arcId] = -1;
+		pushFree(arcId);
+	}
+	
+	private static final int ARCS = 0, OUT = 1, IN = 2;
+	
+	private class LinkIterator extends UnmodifiableIterator<Integer> {
+		
+		private int kind;
+		
+		private int next;
+		
+		public LinkIterator(int kind, int first) {
+			this.kind = kind;
+			this.next = first;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public Integer next() {
+			int current = next;
+			switch (kind) {
+			case ARCS:
+				next = nextArc[current];
+				break;
+			case OUT:
+				next = nextOut[current];
+				break;
+			default:
+				next = nextIn[current];
+			}
+			return current;
+		}
+	}
+	
+	public Iterator<Integer> getArcIterator() {
+		return new LinkIterator(ARCS, firstArc);
+	}
+	
+	public Iterator<Integer> getOutArcIterator(int nodeId) {
+		return new LinkIterator(OUT, getFirstOut(nodeId));
+	}
+	
+	public Iterator<Integer> getInArcIterator(int nodeId) {
+		return new LinkIterator(IN, getFirstIn(nodeId));
+	}
+	
+	public Iterator<Integer> getIncidentArcIterator(int nodeId) {
+		return new ConcatIterator<Integer>(
+				getOutArcIterator(nodeId), getInArcIterator(nodeId));
+	}
+	
+	private class OutArcCursor implements EdgeCursor {
+		
+		private int nodeId;
+		
+		private boolean started;
+		
+		private int arcId = -1;
+		
+		@Override
+		public void reset(int nodeId) {
+			this.nodeId = nodeId;
+			started = false;
+		}
+
+		@Override
+		public boolean next() {
+			if (!started) {
+				arcId = getFirstOut(nodeId);
+				started = true;
+			} else if (arcId >= 0) {
+				arcId = nextOut[arcId];
+			}
+			return arcId >= 0;
+		}
+
+		@Override
+		public int getEdgeId() {
+			return arcId;
+		}
+
+		@Override
+		public int getNodeId() {
+			return target[arcId];
+		}
+	}
+	
+	private class InArcCursor implements EdgeCursor {
+		
+		private int nodeId;
+		
+		private boolean started;
+		
+		private int arcId = -1;
+		
+		@Override
+		public void reset(int nodeId) {
+			this.nodeId = nodeId;
+			started = false;
+		}
+
+		@Override
+		public boolean next() {
+			if (!started) {
+				arcId = getFirstIn(nodeId);
+				started = true;
+			} else if (arcId >= 0) {
+				arcId = nextIn[arcId];
+			}
+			return arcId >= 0;
+		}
+
+		@Override
+		public int getEdgeId() {
+			return arcId;
+		}
+
+		@Override
+		public int getNodeId() {
+			return source[arcId];
+		}
+	}
+	
+	public EdgeCursor createOutArcCursor() {
+		return new OutArcCursor();
+	}
+	
+	public EdgeCursor createInArcCursor() {
+		return new InArcCursor();
+	}
+	
+	public EdgeCursor createIncidentArcCursor() {
+		return new ConcatEdgeCursor(new OutArcCursor(), new InArcCursor());
+	}
+}
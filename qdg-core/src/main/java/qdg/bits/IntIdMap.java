@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.bits;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import qdg.api.IntEntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeMutationHandler;
+import qdg.api.bits.HasId;
+import qdg.api.bits.MutationHandler;
+import qdg.api.bits.NodeMutationHandler;
+
+/**
+ * A int valued map of entities having ids, stored in a int array
+ * indexed by the ids.
+ */
+public class IntIdMap<K> implements IntEntityMap<K>, MutationHandler<K>,
+		Serializable {
+	
+	private static final long serialVersionUID = -3417203446413525217L;
+
+	public static class NodeMap extends IntIdMap<Node>
+			implements NodeMutationHandler {
+
+		private static final long serialVersionUID = 6278314744523580143L;
+
+		public NodeMap(int defaultValue) {
+			super(defaultValue);
+		}
+	}
+	
+	public static class EdgeMap extends IntIdMap<Edge>
+			implements EdgeMutationHandler {
+
+		private static final long serialVersionUID = 8178487946830493815L;
+
+		public EdgeMap(int defaultValue) {
+			super(defaultValue);
+		}
+	}
+	
+	protected final int defaultValue;
+	
+	protected int[] values = new int[0];
+	
+	public IntIdMap(int defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+	
+	private int ensureId(Object k) {
+		int id = ((HasId) k).getId();
+		if (id >= values.length) {
+			int oldLength = values.length;
+			values = Arrays.copyOf(values,
+					Math.max(Math.max(2 * oldLength, 16), id + 1));
+			Arrays.fill(values, oldLength, values.length, defaultValue);
+		}
+		return id;
+	}
+	
+	@Override
+	public int getInt(Object k) {
+		int id = ((HasId) k).getId();
+		if (id < values.length) {
+			return values[id];
+		} else {
+			return defaultValue;
+		}
+	}
+	
+	@Override
+	public void putInt(K k, int v) {
+		int id = ensureId(k);
+		values[id] = v;
+	}
+	
+	@Override
+	public int addInt(K k, int d) {
+		int id = ensureId(k);
+		values[id] += d;
+		return values[id];
+	}
+	
+	@Override
+	public Integer get(Object k) {
+		return getInt(k);
+	}
+
+	@Override
+	public Integer put(K k, Integer v) {
+		int id = ensureId(k);
+		int oldValue = values[id];
+		values[id] = v == null ? defaultValue : v;
+		return oldValue;
+	}
+
+	@Override
+	public void onAdd(K k) {
+		// The array is extended lazily in put.
+	}
+
+	@Override
+	public void onRemove(K k) {
+		int id = ((HasId) k).getId();
+		if (id < values.length) {
+			values[id] = defaultValue;
+		}
+	}
+}
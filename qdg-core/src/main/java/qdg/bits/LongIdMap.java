@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.bits;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import qdg.api.LongEntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeMutationHandler;
+import qdg.api.bits.HasId;
+import qdg.api.bits.MutationHandler;
+import qdg.api.bits.NodeMutationHandler;
+
+/**
+ * A long valued map of entities having ids, stored in a long array
+ * indexed by the ids.
+ */
+public class LongIdMap<K> implements LongEntityMap<K>, MutationHandler<K>,
+		Serializable {
+	
+	private static final long serialVersionUID = 6285396405214786013L;
+
+	public static class NodeMap extends LongIdMap<Node>
+			implements NodeMutationHandler {
+
+		private static final long serialVersionUID = -7135090535216748403L;
+
+		public NodeMap(long defaultValue) {
+			super(defaultValue);
+		}
+	}
+	
+	public static class EdgeMap extends LongIdMap<Edge>
+			implements EdgeMutationHandler {
+
+		private static final long serialVersionUID = 6796619034484074658L;
+
+		public EdgeMap(long defaultValue) {
+			super(defaultValue);
+		}
+	}
+	
+	protected final long defaultValue;
+	
+	protected long[] values = new long[0];
+	
+	public LongIdMap(long defaultValue) {
+		this.defaultValue = defaultValue;
+	}
+	
+	private int ensureId(Object k) {
+		int id = ((HasId) k).getId();
+		if (id >= values.length) {
+			int oldLength = values.length;
+			values = Arrays.copyOf(values,
+					Math.max(Math.max(2 * oldLength, 16), id + 1));
+			Arrays.fill(values, oldLength, values.length, defaultValue);
+		}
+		return id;
+	}
+	
+	@Override
+	public long getLong(Object k) {
+		int id = ((HasId) k).getId();
+		if (id < values.length) {
+			return values[id];
+		} else {
+			return defaultValue;
+		}
+	}
+	
+	@Override
+	public void putLong(K k, long v) {
+		int id = ensureId(k);
+		values[id] = v;
+	}
+	
+	@Override
+	public long addLong(K k, long d) {
+		int id = ensureId(k);
+		values[id] += d;
+		return values[id];
+	}
+	
+	@Override
+	public Long get(Object k) {
+		return getLong(k);
+	}
+
+	@Override
+	public Long put(K k, Long v) {
+		int id = ensureId(k);
+		long oldValue = values[id];
+		values[id] = v == null ? defaultValue : v;
+		return oldValue;
+	}
+
+	@Override
+	public void onAdd(K k) {
+		// The array is extended lazily in put.
+	}
+
+	@Override
+	public void onRemove(K k) {
+		int id = ((HasId) k).getId();
+		if (id < values.length) {
+			values[id] = defaultValue;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.bits;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Runs tasks on an executor and waits for them.
+ */
+@GwtIncompatible("java.util.concurrent")
+public class ParallelTasks {
+	
+	private ParallelTasks() {
+	}
+	
+	/**
+	 * Waits for all the tasks. If any of them fails, the rest is cancelled
+	 * and the failure is rethrown.
+	 */
+	public static void run(Executor executor, List<Runnable> tasks)
+			throws InterruptedException {
+		List<FutureTask<Void>> futures = new ArrayList<FutureTask<Void>>();
+		boolean done = false;
+		try {
+			for (Runnable task : tasks) {
+				FutureTask<Void> future = new FutureTask<Void>(task, null);
+				futures.add(future);
+				executor.execute(future);
+			}
+			for (FutureTask<Void> future : futures) {
+				future.get();
+			}
+			done = true;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new RuntimeException(cause);
+			}
+		} finally {
+			if (!done) {
+				for (FutureTask<Void> future : futures) {
+					future.cancel(true);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import qdg.EntityMaps.NullMap;
+import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Node;
+import qdg.bits.BoxedMaps;
+
+/**
+ * Approximate betweenness centrality by sampling, with an adaptive stopping
+ * rule.
+ * 
+ * With sampling PIVOTS, sources are drawn uniformly at random and their
+ * dependencies are computed as in BetweennessCentrality. With SCALED_PIVOTS
+ * the dependencies are scaled linearly by the distances as in
+ * ScaledBetweennessCentrality, which gives better estimates for nodes
+ * close to the pivots, but is unbiased only if the digraph is symmetric,
+ * like the UGraphAsDiGraph view of an undirected graph. With PATHS, pairs of
+ * nodes are drawn uniformly at random, and a uniformly random shortest path
+ * between them is sampled:
+ * 
+ * @article{Riondato2016,
+ *   author = {Riondato, Matteo and Kornaropoulos, Evgenios M.},
+ *   title = {Fast approximation of betweenness centrality through sampling},
+ *   journal = {Data Mining and Knowledge Discovery},
+ *   year = {2016},
+ *   volume = {30},
+ *   number = {2},
+ *   pages = {438--475}
+ * }
+ * 
+ * Each sample gives an unbiased estimate of the betweenness of every node
+ * normalized by $n(n - 1)$. The sampling stops as soon as an empirical
+ * Bernstein bound, checked after 64, 128, 256, ... samples, shows that all
+ * normalized estimates are within epsilon of their expectations, or when
+ * getMaxNumSamples() is reached, which is the Hoeffding bound for pivots,
+ * and the vertex diameter bound of Riondato and Kornaropoulos for paths.
+ * Together the guarantee fails with probability at most delta.
+ * 
+ * The scores are added to the score map on the scale of
+ * BetweennessCentrality, i.e.\ as estimates of the sum of the dependencies
+ * over the ordered pairs of nodes.
+ */
+public class ApproximateBetweennessCentrality {
+	
+	public enum Sampling {
+		PIVOTS, SCALED_PIVOTS, PATHS
+	}
+	
+	private static final int FIRST_CHECK = 64;
+	
+	private final DiGraph g;
+	
+	private EntityMap<Node, Double> score;
+	
+	private Sampling sampling = Sampling.PIVOTS;
+	
+	private double epsilon = 0.01;
+	
+	private double delta = 0.1;
+	
+	private int vertexDiameterBound = -1;
+	
+	private Random random = new Random();
+	
+	private long numSamples;
+	
+	public ApproximateBetweennessCentrality(DiGraph g) {
+		this.g = g;
+		this.score = g.createDoubleNodeMap(0.0);
+	}
+	
+	/**
+	 * Draws a sample and passes the normalized contribution of each node,
+	 * if it is not zero, to record().
+	 */
+	private abstract class Sampler {
+		
+		protected final DiGraphIndex index;
+		
+		protected final List<Node> nodes;
+		
+		private final DoubleEntityMap<Node> sum;
+		
+		private final DoubleEntityMap<Node> sumSquares;
+		
+		public Sampler(DiGraphIndex index, List<Node> nodes,
+				DoubleEntityMap<Node> sum, DoubleEntityMap<Node> sumSquares) {
+			this.index = index;
+			this.nodes = nodes;
+			this.sum = sum;
+			this.sumSquares = sumSquares;
+		}
+		
+		protected abstract void sample();
+		
+		protected void record(Node v, double x) {
+			sum.addDouble(v, x);
+			sumSquares.addDouble(v, x * x);
+		}
+		
+		protected void recordDependencies(SingleSourceWorkspace workspace,
+				double factor) {
+			for (int i = 1; i < workspace.getNumReached(); ++i) {
+				int v = workspace.getReached(i);
+				double d = workspace.getDependency(v);
+				if (d != 0) {
+					record(index.getNode(v), factor * d);
+				}
+			}
+		}
+	}
+	
+	private class PivotSampler extends Sampler {
+		
+		private final BetweennessCentrality.SingleSource singleSource;
+		
+		public PivotSampler(DiGraphIndex index, List<Node> nodes,
+				DoubleEntityMap<Node> sum, DoubleEntityMap<Node> sumSquares) {
+			super(index, nodes, sum, sumSquares);
+			singleSource = new BetweennessCentrality(g).new SingleSource(index,
+					null, new NullMap<Node, Double>());
+		}
+		
+		@Override
+		protected void sample() {
+			singleSource.reset(nodes.get(random.nextInt(nodes.size())));
+			singleSource.scan();
+			singleSource.finish();
+			recordDependencies(singleSource.workspace, 1.0 / (nodes.size() - 1));
+		}
+	}
+	
+	private class ScaledPivotSampler extends Sampler {
+		
+		private final ScaledBetweennessCentrality.SingleSource singleSource;
+		
+		public ScaledPivotSampler(DiGraphIndex index, List<Node> nodes,
+				DoubleEntityMap<Node> sum, DoubleEntityMap<Node> sumSquares) {
+			super(index, nodes, sum, sumSquares);
+			singleSource = new ScaledBetweennessCentrality(g).new SingleSource(
+					index, null, new NullMap<Node, Double>());
+		}
+		
+		@Override
+		protected void sample() {
+			singleSource.reset(nodes.get(random.nextInt(nodes.size())));
+			singleSource.scan();
+			singleSource.finish();
+			// The scaled searches give half of the betweenness.
+			recordDependencies(singleSource.workspace, 2.0 / (nodes.size() - 1));
+		}
+	}
+	
+	private class PathSampler extends Sampler {
+		
+		private final BetweennessCentrality.SingleSource singleSource;
+		
+		public PathSampler(DiGraphIndex index, List<Node> nodes,
+				DoubleEntityMap<Node> sum, DoubleEntityMap<Node> sumSquares) {
+			super(index, nodes, sum, sumSquares);
+			singleSource = new BetweennessCentrality(g).new SingleSource(index,
+					null, new NullMap<Node, Double>());
+		}
+		
+		@Override
+		protected void sample() {
+			int n = nodes.size();
+			int i = random.nextInt(n);
+			int j = random.nextInt(n - 1);
+			Node s = nodes.get(i);
+			Node t = nodes.get(j < i ? j : j + 1);
+			singleSource.reset(s);
+			singleSource.scan();
+			SingleSourceWorkspace workspace = singleSource.workspace;
+			int w = index.getIndex(t);
+			if (!workspace.isReached(w)) {
+				return;
+			}
+			// Walk back from t, choosing each tight arc with probability
+			// proportional to the number of shortest paths to its source.
+			int sIndex = index.getIndex(s);
+			while (true) {
+				double r = random.nextDouble() * workspace.getNumShortestPaths(w);
+				int u = -1;
+				for (int k = 0; k < workspace.getNumPredecessors(w); ++k) {
+					u = index.getSource(workspace.getPredecessor(w, k));
+					r -= workspace.getNumShortestPaths(u);
+					if (r < 0) {
+						break;
+					}
+				}
+				if (u == sIndex) {
+					break;
+				}
+				record(index.getNode(u), 1.0);
+				w = u;
+			}
+		}
+	}
+	
+	private Sampler createSampler(DiGraphIndex index, List<Node> nodes,
+			DoubleEntityMap<Node> sum, DoubleEntityMap<Node> sumSquares) {
+		switch (sampling) {
+		case PIVOTS:
+			return new PivotSampler(index, nodes, sum, sumSquares);
+		case SCALED_PIVOTS:
+			return new ScaledPivotSampler(index, nodes, sum, sumSquares);
+		default:
+			return new PathSampler(index, nodes, sum, sumSquares);
+		}
+	}
+	
+	private double getRange() {
+		return sampling == Sampling.SCALED_PIVOTS ? 2.0 : 1.0;
+	}
+	
+	/**
+	 * The number of samples after which the sampling stops in any case,
+	 * for a graph with numNodes nodes.
+	 */
+	public long getMaxNumSamples(int numNodes) {
+		// Half of delta is left for the adaptive checks.
+		double d = delta / 2;
+		double bound;
+		if (sampling == Sampling.PATHS) {
+			int vd = vertexDiameterBound < 0 ? numNodes : vertexDiameterBound;
+			int log = 31 - Integer.numberOfLeadingZeros(Math.max(vd - 2, 1));
+			bound = 0.5 / (epsilon * epsilon) * (log + 1 + Math.log(1 / d));
+		} else {
+			double range = getRange();
+			bound = range * range * Math.log(2.0 * numNodes / d) /
+					(2 * epsilon * epsilon);
+		}
+		return Math.max(1, (long) Math.ceil(bound));
+	}
+	
+	private boolean isAccurate(List<Node> nodes, DoubleEntityMap<Node> sum,
+			DoubleEntityMap<Node> sumSquares, double d) {
+		double k = numSamples;
+		double log = Math.log(4.0 * nodes.size() / d);
+		double rangeTerm = 7 * getRange() * log / (3 * (k - 1));
+		if (rangeTerm > epsilon) {
+			return false;
+		}
+		for (Node v : nodes) {
+			double mean = sum.getDouble(v) / k;
+			double variance = Math.max(0.0,
+					(sumSquares.getDouble(v) - k * mean * mean) / (k - 1));
+			if (Math.sqrt(2 * variance * log / k) + rangeTerm > epsilon) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Approximate betweenness centrality scores are computed for all nodes,
+	 * and added to the values of the score map, the same way as in
+	 * BetweennessCentrality.compute().
+	 */
+	public void compute() {
+		List<Node> nodes = new ArrayList<Node>();
+		for (Node v : g.getNodes()) {
+			nodes.add(v);
+		}
+		numSamples = 0;
+		int n = nodes.size();
+		if (n < 2) {
+			return;
+		}
+		DoubleEntityMap<Node> sum = g.createDoubleNodeMap(0.0);
+		DoubleEntityMap<Node> sumSquares = g.createDoubleNodeMap(0.0);
+		Sampler sampler = createSampler(new DiGraphIndex(g), nodes, sum,
+				sumSquares);
+		long maxNumSamples = getMaxNumSamples(n);
+		long nextCheck = FIRST_CHECK;
+		// The i-th check may fail with probability delta / 2^(i + 2).
+		double checkDelta = delta / 4;
+		while (numSamples < maxNumSamples) {
+			sampler.sample();
+			++numSamples;
+			if (numSamples == nextCheck) {
+				if (isAccurate(nodes, sum, sumSquares, checkDelta)) {
+					break;
+				}
+				nextCheck *= 2;
+				checkDelta /= 2;
+			}
+		}
+		DoubleEntityMap<Node> s = BoxedMaps.asDoubleMap(score, 0.0);
+		double factor = (double) n * (n - 1) / numSamples;
+		for (Node v : nodes) {
+			double x = sum.getDouble(v);
+			if (x != 0) {
+				s.addDouble(v, factor * x);
+			}
+		}
+	}
+	
+	/**
+	 * The number of samples drawn by the last compute().
+	 */
+	public long getNumSamples() {
+		return numSamples;
+	}
+
+	public void setSampling(Sampling sampling) {
+		this.sampling = sampling;
+	}
+	
+	public Sampling getSampling() {
+		return sampling;
+	}
+	
+	/**
+	 * The maximal error of the normalized scores, i.e.\ of the scores divided
+	 * by $n(n - 1)$.
+	 */
+	public void setEpsilon(double epsilon) {
+		if (!(epsilon > 0)) {
+			throw new IllegalArgumentException();
+		}
+		this.epsilon = epsilon;
+	}
+	
+	public double getEpsilon() {
+		return epsilon;
+	}
+	
+	/**
+	 * The probability of failing the error bound.
+	 */
+	public void setDelta(double delta) {
+		if (!(delta > 0 && delta < 1)) {
+			throw new IllegalArgumentException();
+		}
+		this.delta = delta;
+	}
+	
+	public double getDelta() {
+		return delta;
+	}
+	
+	/**
+	 * An upper bound on the number of nodes of the shortest paths, used by
+	 * PATHS sampling. By default the number of nodes is taken. For an
+	 * undirected graph twice the eccentricity of any node plus one will do.
+	 */
+	public void setVertexDiameterBound(int vertexDiameterBound) {
+		this.vertexDiameterBound = vertexDiameterBound;
+	}
+	
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+	
+	public void setScore(EntityMap<Node, Double> score) {
+		this.score = score;
+	}
+	
+	public EntityMap<Node, Double> getScore() {
+		return score;
+	}
+}
@@ -16,16 +16,18 @@
 
 package qdg.contrib;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
-import java.util.Stack;
+import java.util.concurrent.Executor;
 
 import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
 import qdg.api.Graph.Edge;
 import qdg.api.Graph.Node;
+import qdg.bits.BoxedMaps;
+
+import com.google.common.annotations.GwtIncompatible;
 
 /**
  * Compute betweenness centrality of undirected graphs.
@@ -40,8 +42,10 @@ import qdg.api.Graph.Node;
  *   pages = {163--177}
  * }
  * 
- * For efficiency reasons, nodes not receiving any contributions from any
- * shortest paths can have score value null, instead of 0.0.
+ * The scores, distances, path counts and dependencies are kept in primitive
+ * maps of the graph. Nodes not receiving any contributions from any shortest
+ * paths have score 0.0 in the default score map, and keep their value, which
+ * can be null, in a boxed score map set by setScore.
  */
 public class BetweennessCentrality {
 
@@ -49,110 +53,132 @@ public class BetweennessCentrality {
 	
 	private EntityMap<Node, Double> score;
 	
+	/**
+	 * The search of singleSourceCompute(), created by its first call.
+	 */
+	private SingleSource singleSource;
+	
+	private boolean directionOptimizing = true;
+	
 	public BetweennessCentrality(DiGraph g) {
 		this.g = g;
-		this.score = g.<Double>createNodeMap();
+		this.score = g.createDoubleNodeMap(0.0);
 	}
 	
 	protected class SingleSource {
 		
 		private Node s;
 		
-		private EntityMap<Node, Double> score;
-		
-		protected EntityMap<Node, Integer> distance = g.createNodeMap();
+		private DoubleEntityMap<Node> score;
 		
-		protected EntityMap<Node, List<Edge>> tightEdges = g.createNodeMap();
+		protected final DiGraphIndex index;
 		
 		/**
 		 * Let $\delta_{u, v}(w) = \sigma_{u, v}(w) / \sigma_{u, v}(w)$, i.e.\
 		 * the ratio of shortest paths from $u$ to $v$ going through $w$.
-		 * For $w$ the map stores \sum_v\delta_{s, v}(w).
+		 * The dependency of $w$ is \sum_v\delta_{s, v}(w). Let $\sigma_{u, v}$
+		 * be the number of shortest paths from $u$ and $v$, and
+		 * $\sigma_{u, v}(w)$ the number of shortest paths form $u$ to $v$
+		 * going through $w$. The number of shortest paths of $v$ is
+		 * $\sigma_{s, v}$.
 		 */
-		protected EntityMap<Node, Double> dependency = g.createNodeMap();
+		protected final SingleSourceWorkspace workspace;
+		
+		public SingleSource(Node s, EntityMap<Node, Double> score) {
+			this(new DiGraphIndex(g), s, score);
+		}
+		
+		protected SingleSource(DiGraphIndex index, Node s,
+				EntityMap<Node, Double> score) {
+			this.index = index;
+			this.workspace = new SingleSourceWorkspace(index);
+			workspace.setDirectionOptimizing(directionOptimizing);
+			this.s = s;
+			this.score = BoxedMaps.asDoubleMap(score, 0.0);
+		}
 		
 		/**
-		 * Let $\sigma_{u, v}$ be the number of shortest paths from $u$ and $v$, and
-		 * $\sigma_{u, v}(w)$ the number of shortest paths form $u$ to $v$ going through $w$.
-		 * For $v$ the map stores $\sigma_{s, v}$
+		 * Sets the source of the next scan, which resets the workspace.
 		 */
-		protected EntityMap<Node, Integer> numShortestPaths = g.createNodeMap();
-		
-		protected Stack<Node> stack = new Stack<Node>();
+		protected void reset(Node s) {
+			this.s = s;
+		}
 		
-		public SingleSource(Node s, EntityMap<Node, Double> score) {
+		/**
+		 * Sets the source and the score map of the next scan.
+		 */
+		protected void reset(Node s, EntityMap<Node, Double> score) {
 			this.s = s;
-			this.score = score;
+			this.score = BoxedMaps.asDoubleMap(score, 0.0);
 		}
 		
 		protected void scan() {
-			distance.put(s, 0);
-			Queue<Node> queue = new ArrayDeque<Node>();
-			queue.add(s);
-			numShortestPaths.put(s, 1);
-			while (!queue.isEmpty()) {
-				Node u = queue.remove();
-				stack.push(u);
-				for (Edge e : g.getOutArcs(u)) {
-					Node v = g.getTarget(e);
-					if (distance.get(v) == null) {
-						Integer dist = distance.get(u) + 1;
-						distance.put(v, dist);
-						queue.add(v);
-					}
-					if (distance.get(v).equals(distance.get(u) + 1)) {
-						List<Edge> t = tightEdges.get(v);
-						if (t == null) {
-							t = new ArrayList<Edge>();
-							tightEdges.put(v, t);
-						}
-						t.add(e);
-						Integer i = numShortestPaths.get(v);
-						if (i == null) {
-							i = 0;
-						}
-						numShortestPaths.put(v, i + numShortestPaths.get(u));
-					}
-				}
-			}
+			workspace.bfs(index.getIndex(s), true);
 		}
 		
 		protected void finish() {
-			while (!stack.isEmpty()) {
-				Node v = stack.pop();
-				Double vDependency = dependency.get(v);
-				if (vDependency == null) {
-					vDependency = 0.0;
-				}
-				List<Edge> t = tightEdges.get(v);
-				if (t != null) {
-					for (Edge e : t) {
-						Node u = g.getSource(e);
-						if (!u.equals(s)) {
-							double partialDependency = (double) numShortestPaths.get(u) *
-									(1 + vDependency) / numShortestPaths.get(v);
-							Double dep = dependency.get(u);
-							if (dep == null) {
-								dep = 0.0;
-							}
-							dep += partialDependency;
-							dependency.put(u, dep);
-							Double s = score.get(u);
-							if (s == null) {
-								s = 0.0;
-							}
-							s += partialDependency;
-							score.put(u, s);
-						}
+			int sIndex = index.getIndex(s);
+			for (int i = workspace.getNumReached() - 1; i >= 0; --i) {
+				int v = workspace.getReached(i);
+				double vDependency = workspace.getDependency(v);
+				for (int j = 0; j < workspace.getNumPredecessors(v); ++j) {
+					int u = index.getSource(workspace.getPredecessor(v, j));
+					if (u != sIndex) {
+						double partialDependency = workspace.getNumShortestPaths(u) *
+								(1 + vDependency) / workspace.getNumShortestPaths(v);
+						workspace.addDependency(u, partialDependency);
 					}
 				}
 			}
+			// The scores are updated once per node, and only for the nodes
+			// receiving contributions.
+			for (int i = 1; i < workspace.getNumReached(); ++i) {
+				int v = workspace.getReached(i);
+				double vDependency = workspace.getDependency(v);
+				if (vDependency != 0) {
+					score.addDouble(index.getNode(v), vDependency);
+				}
+			}
+		}
+		
+		public int getDistance(Node v) {
+			return workspace.getDistance(index.getIndex(v));
+		}
+		
+		public double getNumShortestPaths(Node v) {
+			return workspace.getNumShortestPaths(index.getIndex(v));
+		}
+		
+		public double getDependency(Node v) {
+			return workspace.getDependency(index.getIndex(v));
+		}
+		
+		/**
+		 * The arcs entering v on shortest paths from the source.
+		 */
+		public List<Edge> getTightEdges(Node v) {
+			int vIndex = index.getIndex(v);
+			List<Edge> t = new ArrayList<Edge>();
+			for (int j = 0; j < workspace.getNumPredecessors(vIndex); ++j) {
+				t.add(index.getArc(workspace.getPredecessor(vIndex, j)));
+			}
+			return t;
 		}
 	}
 	
+	/**
+	 * Adds the dependencies of the nodes on s to score. The first call
+	 * takes a snapshot of the graph, which is reused by the later calls
+	 * together with the arrays of the search, hence the graph must not
+	 * change between the calls.
+	 */
 	public void singleSourceCompute(Node s,
 			EntityMap<Node, Double> score) {
-		SingleSource singleSource = new SingleSource(s, score);
+		if (singleSource == null) {
+			singleSource = new SingleSource(s, score);
+		} else {
+			singleSource.reset(s, score);
+		}
 		singleSource.scan();
 		singleSource.finish();
 	}
@@ -167,11 +193,70 @@ public class BetweennessCentrality {
 	 * value is not changed.
 	 */
 	public void compute() {
+		SingleSource singleSource = new SingleSource(null, score);
 		for (Node s : g.getNodes()) {
-			singleSourceCompute(s, score);
+			singleSource.reset(s);
+			singleSource.scan();
+			singleSource.finish();
 		}
 	}
+	
+	/**
+	 * Same as compute(), but the sources are run by numTasks tasks of the
+	 * executor, see ParallelSingleSources.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public void compute(Executor executor, int numTasks)
+			throws InterruptedException {
+		ParallelSingleSources.compute(g, executor, numTasks, searchFactory(),
+				score);
+	}
+	
+	/**
+	 * Same as compute(), on a new thread pool, with one task for each
+	 * thread.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public void compute(int numThreads) throws InterruptedException {
+		ParallelSingleSources.compute(g, numThreads, searchFactory(), score);
+	}
+	
+	@GwtIncompatible("java.util.concurrent")
+	private ParallelSingleSources.SearchFactory searchFactory() {
+		return new ParallelSingleSources.SearchFactory() {
+			
+			@Override
+			public ParallelSingleSources.Search create(DiGraphIndex index,
+					EntityMap<Node, Double> score) {
+				final SingleSource singleSource =
+						new SingleSource(index, null, score);
+				return new ParallelSingleSources.Search() {
+					
+					@Override
+					public void run(Node s) {
+						singleSource.reset(s);
+						singleSource.scan();
+						singleSource.finish();
+					}
+				};
+			}
+		};
+	}
 
+	/**
+	 * If set, which is the default, then the breadth first searches expand
+	 * a level bottom-up, i.e.\ by scanning the in-arcs of the unreached
+	 * nodes, when that is expected to be cheaper, see Beamer et al.
+	 */
+	public void setDirectionOptimizing(boolean directionOptimizing) {
+		this.directionOptimizing = directionOptimizing;
+		singleSource = null;
+	}
+	
+	public boolean isDirectionOptimizing() {
+		return directionOptimizing;
+	}
+	
 	public void setScore(EntityMap<Node, Double> score) {
 		this.score = score;
 	}
@@ -16,15 +16,25 @@
 
 package qdg.contrib;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
 
+import com.google.common.annotations.GwtIncompatible;
 import com.google.common.collect.Iterators;
 
 import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
-import qdg.api.Graph.Edge;
 import qdg.api.Graph.Node;
+import qdg.bits.BoxedMaps;
+import qdg.bits.ParallelTasks;
 
 /**
  * If there is no default distance value for unreachable nodes, then the
@@ -41,12 +51,19 @@ public class ClosenessCentrality {
 	
 	private EntityMap<Node, Double> score;
 	
+	/**
+	 * The search of singleSourceCompute(), created by its first call.
+	 */
+	private SingleSource singleSource;
+	
 	private Integer numOfNodes;
 	
 	private Double valueForUnreachableNode;
 	
+	private boolean directionOptimizing = true;
+	
 	public ClosenessCentrality(DiGraph g) {
-		this(g, g.<Double>createNodeMap(), (double) Iterators.size(g.getNodeIterator()));
+		this(g, g.createDoubleNodeMap(0.0), (double) Iterators.size(g.getNodeIterator()));
 	}
 	
 	public ClosenessCentrality(DiGraph g, EntityMap<Node, Double> score, Double valueForUnreachableNode) {
@@ -59,47 +76,95 @@ public class ClosenessCentrality {
 		
 		private Node s;
 		
-		private EntityMap<Node, Double> score;
+		private DoubleEntityMap<Node> score;
 		
-		protected EntityMap<Node, Integer> distance = g.createNodeMap();
+		protected final DiGraphIndex index;
+		
+		protected final SingleSourceWorkspace workspace;
 		
 		public SingleSource(Node s, EntityMap<Node, Double> score) {
+			this(new DiGraphIndex(g), s, score);
+		}
+		
+		protected SingleSource(DiGraphIndex index, Node s,
+				EntityMap<Node, Double> score) {
+			this.index = index;
+			this.workspace = createWorkspace(index);
 			this.s = s;
-			this.score = score;
+			this.score = BoxedMaps.asDoubleMap(score, 0.0);
+		}
+		
+		/**
+		 * Sets the source of the next scan, which resets the workspace.
+		 */
+		protected void reset(Node s) {
+			this.s = s;
+		}
+		
+		/**
+		 * Sets the source and the score map of the next scan.
+		 */
+		protected void reset(Node s, EntityMap<Node, Double> score) {
+			this.s = s;
+			this.score = BoxedMaps.asDoubleMap(score, 0.0);
 		}
 		
 		protected void scan() {
-			distance.put(s, 0);
-			Queue<Node> queue = new ArrayDeque<Node>();
-			queue.add(s);
-			Double ss = null;
-			int count = 0;
-			while (!queue.isEmpty()) {
-				Node u = queue.remove();
-				for (Edge e : g.getOutArcs(u)) {
-					Node v = g.getTarget(e);
-					if (distance.get(v) == null) {
-						Integer dist = distance.get(u) + 1;
-						distance.put(v, dist);
-						queue.add(v);
-						if (ss == null) {
-							ss = 0.0;
-						}
-						ss += dist;
-					}
-				}
-				++count;
-			}
-			if (valueForUnreachableNode != null) {
-				if (ss == null) {
-					ss = 0.0;
-				}
-				ss += (ensureNumOfNodes() - count) * valueForUnreachableNode;
-				count = ensureNumOfNodes();
-			}
-			if (ss != null) {
-				score.put(s, ((double) count - 1) / ss);
+			workspace.bfs(index.getIndex(s), false);
+			double ss = 0.0;
+			int count = workspace.getNumReached();
+			for (int i = 1; i < count; ++i) {
+				ss += workspace.getDistance(workspace.getReached(i));
 			}
+			putScore(score, s, ss, count);
+		}
+		
+		public int getDistance(Node v) {
+			return workspace.getDistance(index.getIndex(v));
+		}
+	}
+	
+	/**
+	 * Sets the score of s from the sum of the distances to the count nodes
+	 * reached, including s.
+	 */
+	private void putScore(DoubleEntityMap<Node> score, Node s, double ss,
+			int count) {
+		Double c = closeness(ss, count);
+		if (c != null) {
+			score.putDouble(s, c);
+		}
+	}
+	
+	/**
+	 * Returns null if nothing is reached, and there is no default distance.
+	 */
+	private Double closeness(double ss, int count) {
+		if (valueForUnreachableNode != null) {
+			ss += (ensureNumOfNodes() - count) * valueForUnreachableNode;
+			count = ensureNumOfNodes();
+		} else if (count == 1) {
+			// Nothing is reached.
+			return null;
+		}
+		return ((double) count - 1) / ss;
+	}
+	
+	/**
+	 * An upper bound on the closeness of a node reaching count nodes within
+	 * distance level, with sum ss of distances, and the rest of the nodes
+	 * farther away, or unreachable.
+	 */
+	private double closenessBound(double ss, int count, int level) {
+		int n = ensureNumOfNodes();
+		int rest = n - count;
+		if (valueForUnreachableNode != null) {
+			ss += rest * Math.min(level + 1, valueForUnreachableNode);
+			return ss > 0 ? (n - 1) / ss : Double.POSITIVE_INFINITY;
+		} else {
+			// Reaching more nodes is a mediant of the fractions.
+			return Math.max(((double) count - 1) / ss,
+					((double) n - 1) / (ss + rest * (level + 1)));
 		}
 	}
 	
@@ -110,9 +175,18 @@ public class ClosenessCentrality {
 		return numOfNodes;
 	}
 	
+	/**
+	 * Puts the closeness of s to score. The first call takes a snapshot of
+	 * the graph, which is reused by the later calls together with the arrays
+	 * of the search, hence the graph must not change between the calls.
+	 */
 	public void singleSourceCompute(Node s,
 			EntityMap<Node, Double> score) {
-		SingleSource singleSource = new SingleSource(s, score);
+		if (singleSource == null) {
+			singleSource = new SingleSource(s, score);
+		} else {
+			singleSource.reset(s, score);
+		}
 		singleSource.scan();
 	}
 	
@@ -127,11 +201,264 @@ public class ClosenessCentrality {
 	 */
 	public void compute() {
 		ensureNumOfNodes();
+		SingleSource singleSource = new SingleSource(null, score);
 		for (Node s : g.getNodes()) {
-			singleSourceCompute(s, score);
+			singleSource.reset(s);
+			singleSource.scan();
 		}
 	}
 
+	/**
+	 * Same as compute(), but the searches are run by MultiSourceBfs, 64
+	 * sources at a time. This is faster if the searches reach most of the
+	 * graph, e.g.\ for small-world graphs.
+	 */
+	public void computeMultiSource() {
+		ensureNumOfNodes();
+		final DiGraphIndex index = new DiGraphIndex(g);
+		int n = index.getNumNodes();
+		int[] sources = new int[n];
+		for (int v = 0; v < n; ++v) {
+			sources[v] = v;
+		}
+		final long[] distanceSums = new long[MultiSourceBfs.BATCH_SIZE];
+		final int[] counts = new int[MultiSourceBfs.BATCH_SIZE];
+		MultiSourceBfs bfs = new MultiSourceBfs(index);
+		DoubleEntityMap<Node> s = BoxedMaps.asDoubleMap(score, 0.0);
+		for (int from = 0; from < n; from += MultiSourceBfs.BATCH_SIZE) {
+			int count = Math.min(MultiSourceBfs.BATCH_SIZE, n - from);
+			Arrays.fill(distanceSums, 0L);
+			Arrays.fill(counts, 0);
+			bfs.run(sources, from, count, new MultiSourceBfs.Visitor() {
+				
+				@Override
+				public void reach(int v, long mask, int distance) {
+					for (; mask != 0; mask &= mask - 1) {
+						int i = Long.numberOfTrailingZeros(mask);
+						distanceSums[i] += distance;
+						++counts[i];
+					}
+				}
+			});
+			for (int i = 0; i < count; ++i) {
+				putScore(s, index.getNode(from + i), distanceSums[i], counts[i]);
+			}
+		}
+	}
+
+	/**
+	 * The candidates of the top-k computation, ordered by increasing score,
+	 * and decreasing index for the same scores.
+	 */
+	private static class Ranked implements Comparable<Ranked> {
+		
+		final int v;
+		
+		final double score;
+		
+		Ranked(int v, double score) {
+			this.v = v;
+			this.score = score;
+		}
+		
+		@Override
+		public int compareTo(Ranked o) {
+			if (score != o.score) {
+				return score < o.score ? -1 : 1;
+			}
+			return o.v - v;
+		}
+	}
+	
+	/**
+	 * The best k candidates so far, shared by the searches.
+	 */
+	private static class TopK {
+		
+		private final int k;
+		
+		private final PriorityQueue<Ranked> heap = new PriorityQueue<Ranked>();
+		
+		private volatile double threshold = Double.NEGATIVE_INFINITY;
+		
+		TopK(int k) {
+			this.k = k;
+		}
+		
+		synchronized void offer(Ranked r) {
+			if (heap.size() < k) {
+				heap.add(r);
+			} else if (heap.peek().compareTo(r) < 0) {
+				heap.poll();
+				heap.add(r);
+			}
+			if (heap.size() == k) {
+				threshold = heap.peek().score;
+			}
+		}
+		
+		/**
+		 * Nodes with scores less than the threshold are not in the top-k.
+		 */
+		double getThreshold() {
+			return threshold;
+		}
+		
+		synchronized List<Ranked> getSorted() {
+			List<Ranked> result = new ArrayList<Ranked>(heap);
+			Collections.sort(result, Collections.reverseOrder());
+			return result;
+		}
+	}
+	
+	/**
+	 * Searches from s level by level, and stops as soon as the closeness
+	 * bound of s drops below the threshold of the top-k.
+	 */
+	private void topKSearch(SingleSourceWorkspace workspace, int s, TopK topK) {
+		workspace.start(s);
+		double ss = 0.0;
+		int level = 0;
+		int count = 1;
+		while (workspace.expand(false)) {
+			++level;
+			ss += (double) (workspace.getNumReached() - count) * level;
+			count = workspace.getNumReached();
+			if (closenessBound(ss, count, level) < topK.getThreshold()) {
+				return;
+			}
+		}
+		Double c = closeness(ss, count);
+		if (c != null) {
+			topK.offer(new Ranked(s, c));
+		}
+	}
+	
+	/**
+	 * The nodes in decreasing order of out-degree, the likely central
+	 * nodes first, so that the top-k threshold rises early.
+	 */
+	private static Integer[] byDecreasingDegree(final DiGraphIndex index) {
+		Integer[] order = new Integer[index.getNumNodes()];
+		for (int v = 0; v < order.length; ++v) {
+			order[v] = v;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer u, Integer v) {
+				int du = index.getOutBegin(u + 1) - index.getOutBegin(u);
+				int dv = index.getOutBegin(v + 1) - index.getOutBegin(v);
+				return du != dv ? dv - du : u - v;
+			}
+		});
+		return order;
+	}
+	
+	private static List<Entry<Node, Double>> toEntries(DiGraphIndex index,
+			TopK topK) {
+		List<Entry<Node, Double>> result = new ArrayList<Entry<Node, Double>>();
+		for (Ranked r : topK.getSorted()) {
+			result.add(new AbstractMap.SimpleImmutableEntry<Node, Double>(
+					index.getNode(r.v), r.score));
+		}
+		return result;
+	}
+	
+	/**
+	 * The k nodes of the highest closeness, in decreasing order of the
+	 * scores, with the same scores as compute() gives, and the earlier nodes
+	 * of getNodes() first for equal scores. Nodes without scores, i.e.\ the
+	 * ones reaching nothing if there is no default distance, are not
+	 * ranked. The score map is not changed.
+	 * 
+	 * Each search is stopped as soon as an upper bound of the closeness,
+	 * computed from the levels reached so far, drops below the k-th best
+	 * score found so far, as in:
+	 * @inproceedings{Bergamini2016,
+	 *   author = {Bergamini, Elisabetta and Borassi, Michele and
+	 *     Crescenzi, Pierluigi and Marino, Andrea and Meyerhenke, Henning},
+	 *   title = {Computing Top-k Closeness Centrality Faster in Unweighted
+	 *     Graphs},
+	 *   booktitle = {ALENEX},
+	 *   year = {2016},
+	 *   pages = {68--80}
+	 * }
+	 */
+	public List<Entry<Node, Double>> computeTopK(int k) {
+		if (k < 0) {
+			throw new IllegalArgumentException();
+		}
+		ensureNumOfNodes();
+		DiGraphIndex index = new DiGraphIndex(g);
+		TopK topK = new TopK(k);
+		if (k > 0) {
+			SingleSourceWorkspace workspace = createWorkspace(index);
+			for (int s : byDecreasingDegree(index)) {
+				topKSearch(workspace, s, topK);
+			}
+		}
+		return toEntries(index, topK);
+	}
+	
+	/**
+	 * Same as computeTopK(int), but the searches are run as numTasks tasks
+	 * of the executor, sharing the top-k found so far. The result is the
+	 * same as the one of the sequential computation.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public List<Entry<Node, Double>> computeTopK(int k, Executor executor,
+			int numTasks) throws InterruptedException {
+		if (k < 0 || numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		ensureNumOfNodes();
+		final DiGraphIndex index = new DiGraphIndex(g);
+		final TopK topK = new TopK(k);
+		if (k > 0) {
+			final Integer[] order = byDecreasingDegree(index);
+			List<Runnable> tasks = new ArrayList<Runnable>();
+			for (int t = 0; t < numTasks && t < order.length; ++t) {
+				final int first = t;
+				final int step = numTasks;
+				final SingleSourceWorkspace workspace =
+						createWorkspace(index);
+				tasks.add(new Runnable() {
+
+					@Override
+					public void run() {
+						// Every task starts with nodes of high degree.
+						for (int i = first; i < order.length; i += step) {
+							topKSearch(workspace, order[i], topK);
+						}
+					}
+				});
+			}
+			ParallelTasks.run(executor, tasks);
+		}
+		return toEntries(index, topK);
+	}
+
+	private SingleSourceWorkspace createWorkspace(DiGraphIndex index) {
+		SingleSourceWorkspace workspace = new SingleSourceWorkspace(index);
+		workspace.setDirectionOptimizing(directionOptimizing);
+		return workspace;
+	}
+	
+	/**
+	 * If set, which is the default, then the breadth first searches expand
+	 * a level bottom-up, i.e.\ by scanning the in-arcs of the unreached
+	 * nodes, when that is expected to be cheaper, see Beamer et al.
+	 */
+	public void setDirectionOptimizing(boolean directionOptimizing) {
+		this.directionOptimizing = directionOptimizing;
+		singleSource = null;
+	}
+	
+	public boolean isDirectionOptimizing() {
+		return directionOptimizing;
+	}
+	
 	public EntityMap<Node, Double> getScore() {
 		return score;
 	}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import qdg.api.DiGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.IntEntityMap;
+
+/**
+ * Int indices of the nodes and arcs of a digraph, with the out-arcs of each
+ * node in a contiguous range of arc indices, in the order of getOutArcs().
+ * The index is a snapshot, it is not updated if the graph changes, and it
+ * can be shared by several workspaces.
+ */
+final class DiGraphIndex {
+	
+	private final Node[] nodes;
+	
+	private final IntEntityMap<Node> nodeIndex;
+	
+	private final Edge[] arcs;
+	
+	private final int[] arcSource;
+	
+	private final int[] arcTarget;
+	
+	private final int[] outBegin;
+	
+	private final int[] inBegin;
+	
+	private final int[] inArcs;
+	
+	DiGraphIndex(DiGraph g) {
+		List<Node> nodeList = new ArrayList<Node>();
+		nodeIndex = g.createIntNodeMap(-1);
+		for (Node v : g.getNodes()) {
+			nodeIndex.putInt(v, nodeList.size());
+			nodeList.add(v);
+		}
+		nodes = nodeList.toArray(new Node[nodeList.size()]);
+		int n = nodes.length;
+		List<Edge> arcList = new ArrayList<Edge>();
+		outBegin = new int[n + 1];
+		for (int i = 0; i < n; ++i) {
+			outBegin[i] = arcList.size();
+			for (Edge e : g.getOutArcs(nodes[i])) {
+				arcList.add(e);
+			}
+		}
+		outBegin[n] = arcList.size();
+		arcs = arcList.toArray(new Edge[arcList.size()]);
+		arcSource = new int[arcs.length];
+		arcTarget = new int[arcs.length];
+		inBegin = new int[n + 1];
+		for (int i = 0; i < n; ++i) {
+			for (int a = outBegin[i]; a < outBegin[i + 1]; ++a) {
+				arcSource[a] = i;
+				int j = nodeIndex.getInt(g.getTarget(arcs[a]));
+				arcTarget[a] = j;
+				++inBegin[j + 1];
+			}
+		}
+		for (int i = 0; i < n; ++i) {
+			inBegin[i + 1] += inBegin[i];
+		}
+		inArcs = new int[arcs.length];
+		int[] inEnd = new int[n];
+		System.arraycopy(inBegin, 0, inEnd, 0, n);
+		for (int a = 0; a < arcs.length; ++a) {
+			inArcs[inEnd[arcTarget[a]]++] = a;
+		}
+	}
+	
+	int getNumNodes() {
+		return nodes.length;
+	}
+	
+	int getNumArcs() {
+		return arcs.length;
+	}
+	
+	Node getNode(int v) {
+		return nodes[v];
+	}
+	
+	/**
+	 * Returns -1 for nodes not in the snapshot.
+	 */
+	int getIndex(Node v) {
+		return nodeIndex.getInt(v);
+	}
+	
+	Edge getArc(int a) {
+		return arcs[a];
+	}
+	
+	int getSource(int a) {
+		return arcSource[a];
+	}
+	
+	int getTarget(int a) {
+		return arcTarget[a];
+	}
+	
+	/**
+	 * The out-arcs of v are the indices from getOutBegin(v) to
+	 * getOutBegin(v + 1), exclusive.
+	 */
+	int getOutBegin(int v) {
+		return outBegin[v];
+	}
+	
+	/**
+	 * The prefix sums of the in-degrees, i.e.\ a range of in-degree size
+	 * starting at getInBegin(v) is reserved for v in arrays of arc indices.
+	 */
+	int getInBegin(int v) {
+		return inBegin[v];
+	}
+	
+	/**
+	 * The in-arcs of v are getInArc(i) for i from getInBegin(v) to
+	 * getInBegin(v + 1), exclusive, in increasing order of arc indices.
+	 */
+	int getInArc(int i) {
+		return inArcs[i];
+	}
+}
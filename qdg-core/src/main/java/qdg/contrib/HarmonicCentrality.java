@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import java.util.Arrays;
+
+import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Node;
+import qdg.bits.BoxedMaps;
+
+/**
+ * Harmonic centrality, i.e.\ the sum of the inverses of the distances to
+ * all the other nodes, where unreachable nodes contribute zero. Hence
+ * there is no need for a default distance for unreachable nodes as in
+ * ClosenessCentrality.
+ * 
+ * The searches are run by MultiSourceBfs, 64 sources at a time. The scores
+ * are added to the values of the score map. Nodes not reaching any other
+ * nodes have score 0.0 in the default score map, and keep their value,
+ * which can be null, in a boxed score map set by setScore.
+ */
+public class HarmonicCentrality {
+	
+	private final DiGraph g;
+	
+	private EntityMap<Node, Double> score;
+	
+	public HarmonicCentrality(DiGraph g) {
+		this.g = g;
+		this.score = g.createDoubleNodeMap(0.0);
+	}
+	
+	public void compute() {
+		DiGraphIndex index = new DiGraphIndex(g);
+		int n = index.getNumNodes();
+		int[] sources = new int[n];
+		for (int v = 0; v < n; ++v) {
+			sources[v] = v;
+		}
+		final double[] sums = new double[MultiSourceBfs.BATCH_SIZE];
+		MultiSourceBfs bfs = new MultiSourceBfs(index);
+		DoubleEntityMap<Node> s = BoxedMaps.asDoubleMap(score, 0.0);
+		for (int from = 0; from < n; from += MultiSourceBfs.BATCH_SIZE) {
+			int count = Math.min(MultiSourceBfs.BATCH_SIZE, n - from);
+			Arrays.fill(sums, 0.0);
+			bfs.run(sources, from, count, new MultiSourceBfs.Visitor() {
+				
+				@Override
+				public void reach(int v, long mask, int distance) {
+					if (distance == 0) {
+						return;
+					}
+					double d = 1.0 / distance;
+					for (; mask != 0; mask &= mask - 1) {
+						sums[Long.numberOfTrailingZeros(mask)] += d;
+					}
+				}
+			});
+			for (int i = 0; i < count; ++i) {
+				if (sums[i] != 0) {
+					s.addDouble(index.getNode(from + i), sums[i]);
+				}
+			}
+		}
+	}
+
+	public void setScore(EntityMap<Node, Double> score) {
+		this.score = score;
+	}
+	
+	public EntityMap<Node, Double> getScore() {
+		return score;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import qdg.api.DiGraph;
+
+/**
+ * Counts the ordered pairs of distinct nodes at each hop distance, with
+ * the searches run by MultiSourceBfs, 64 sources at a time. Unreachable
+ * pairs are not counted.
+ */
+public class HopDistanceHistogram {
+	
+	private final DiGraph g;
+	
+	private long[] numPairs = new long[0];
+	
+	public HopDistanceHistogram(DiGraph g) {
+		this.g = g;
+	}
+	
+	public void compute() {
+		DiGraphIndex index = new DiGraphIndex(g);
+		int n = index.getNumNodes();
+		int[] sources = new int[n];
+		for (int v = 0; v < n; ++v) {
+			sources[v] = v;
+		}
+		// Distances are less than n.
+		final long[] histogram = new long[Math.max(n, 1)];
+		MultiSourceBfs bfs = new MultiSourceBfs(index);
+		for (int from = 0; from < n; from += MultiSourceBfs.BATCH_SIZE) {
+			int count = Math.min(MultiSourceBfs.BATCH_SIZE, n - from);
+			bfs.run(sources, from, count, new MultiSourceBfs.Visitor() {
+				
+				@Override
+				public void reach(int v, long mask, int distance) {
+					histogram[distance] += Long.bitCount(mask);
+				}
+			});
+		}
+		int length = histogram.length;
+		while (length > 1 && histogram[length - 1] == 0) {
+			--length;
+		}
+		numPairs = new long[length];
+		System.arraycopy(histogram, 1, numPairs, 1, length - 1);
+	}
+	
+	/**
+	 * The number of ordered pairs of distinct nodes with the given distance.
+	 */
+	public long getNumPairs(int distance) {
+		return distance > 0 && distance < numPairs.length ?
+				numPairs[distance] : 0;
+	}
+	
+	/**
+	 * The largest finite distance, or 0 if there are no reachable pairs.
+	 */
+	public int getMaxDistance() {
+		return Math.max(numPairs.length - 1, 0);
+	}
+	
+	public long getNumReachablePairs() {
+		long sum = 0;
+		for (long p : numPairs) {
+			sum += p;
+		}
+		return sum;
+	}
+	
+	/**
+	 * The smallest distance d such that at least the given fraction of the
+	 * reachable pairs are within distance d, e.g.\ the effective diameter
+	 * for 0.9.
+	 */
+	public int getPercentileDistance(double fraction) {
+		long reachable = getNumReachablePairs();
+		long sum = 0;
+		for (int d = 1; d < numPairs.length; ++d) {
+			sum += numPairs[d];
+			if (sum >= fraction * reachable) {
+				return d;
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import java.util.Arrays;
+
+/**
+ * Breadth first searches from up to 64 sources at once, with one bit for
+ * each source in the long masks of the nodes. Sources with overlapping
+ * frontiers share the scans of the arcs.
+ * 
+ * Based on:
+ * @article{Then2014,
+ *   author = {Then, Manuel and Kaufmann, Moritz and Chirigati, Fernando and
+ *     Hoang-Vu, Tuan-Anh and Pham, Kien and Kemper, Alfons and
+ *     Neumann, Thomas and Vo, Huy T.},
+ *   title = {The More the Merrier: Efficient Multi-source Graph Traversal},
+ *   journal = {Proceedings of the VLDB Endowment},
+ *   year = {2014},
+ *   volume = {8},
+ *   number = {4},
+ *   pages = {449--460}
+ * }
+ */
+final class MultiSourceBfs {
+	
+	static final int BATCH_SIZE = 64;
+	
+	interface Visitor {
+		
+		/**
+		 * Called once for each node and distance with the mask of the
+		 * sources reaching the node first at that distance. Bit i stands
+		 * for the i-th source of the batch. The sources reach themselves
+		 * at distance 0.
+		 */
+		void reach(int v, long sources, int distance);
+	}
+	
+	private final DiGraphIndex index;
+	
+	private final long[] seen;
+	
+	private long[] visit;
+	
+	private long[] visitNext;
+	
+	MultiSourceBfs(DiGraphIndex index) {
+		this.index = index;
+		int n = index.getNumNodes();
+		seen = new long[n];
+		visit = new long[n];
+		visitNext = new long[n];
+	}
+	
+	/**
+	 * Searches from sources[from], ..., sources[from + count - 1], where
+	 * count is at most BATCH_SIZE.
+	 */
+	void run(int[] sources, int from, int count, Visitor visitor) {
+		if (count < 0 || count > BATCH_SIZE) {
+			throw new IllegalArgumentException();
+		}
+		Arrays.fill(seen, 0L);
+		Arrays.fill(visit, 0L);
+		int n = index.getNumNodes();
+		for (int i = 0; i < count; ++i) {
+			int s = sources[from + i];
+			seen[s] |= 1L << i;
+			visit[s] |= 1L << i;
+		}
+		for (int v = 0; v < n; ++v) {
+			if (visit[v] != 0) {
+				visitor.reach(v, visit[v], 0);
+			}
+		}
+		boolean active = count > 0;
+		for (int distance = 1; active; ++distance) {
+			for (int u = 0; u < n; ++u) {
+				long mask = visit[u];
+				if (mask != 0) {
+					int end = index.getOutBegin(u + 1);
+					for (int a = index.getOutBegin(u); a < end; ++a) {
+						visitNext[index.getTarget(a)] |= mask;
+					}
+				}
+			}
+			active = false;
+			for (int v = 0; v < n; ++v) {
+				long next = visitNext[v] & ~seen[v];
+				visitNext[v] = next;
+				if (next != 0) {
+					seen[v] |= next;
+					active = true;
+					visitor.reach(v, next, distance);
+				}
+			}
+			long[] t = visit;
+			visit = visitNext;
+			visitNext = t;
+			Arrays.fill(visitNext, 0L);
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Node;
+import qdg.bits.BoxedMaps;
+import qdg.bits.ParallelTasks;
+
+import com.google.common.annotations.GwtIncompatible;
+
+/**
+ * Runs single source computations as tasks of an executor, see
+ * ParallelTasks. The sources are dealt out to the tasks round-robin, so that
+ * expensive sources next to each other are spread over the tasks. Each task
+ * reuses one search and its own score map, created on the calling thread,
+ * and the scores of the tasks are summed up in the order of the tasks,
+ * hence the result differs from the sequential one only by the rounding of
+ * the additions.
+ */
+@GwtIncompatible("java.util.concurrent")
+class ParallelSingleSources {
+	
+	/**
+	 * The search of a task, run for each of its sources.
+	 */
+	interface Search {
+		
+		void run(Node s);
+	}
+	
+	interface SearchFactory {
+		
+		/**
+		 * A search over the shared index, adding its results to score.
+		 */
+		Search create(DiGraphIndex index, EntityMap<Node, Double> score);
+	}
+	
+	private ParallelSingleSources() {
+	}
+	
+	/**
+	 * Task t gets the sources t, t + numTasks, t + 2 * numTasks, ...
+	 */
+	static List<List<Node>> split(Iterable<Node> nodes, int numTasks) {
+		if (numTasks < 1) {
+			throw new IllegalArgumentException();
+		}
+		List<List<Node>> chunks = new ArrayList<List<Node>>();
+		int i = 0;
+		for (Node n : nodes) {
+			if (i < numTasks) {
+				chunks.add(new ArrayList<Node>());
+			}
+			chunks.get(i % numTasks).add(n);
+			++i;
+		}
+		return chunks;
+	}
+	
+	/**
+	 * Runs the searches from all the nodes of g by numTasks tasks of the
+	 * executor, and adds the scores to score.
+	 */
+	static void compute(DiGraph g, Executor executor, int numTasks,
+			SearchFactory factory, EntityMap<Node, Double> score)
+			throws InterruptedException {
+		DiGraphIndex index = new DiGraphIndex(g);
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		List<DoubleEntityMap<Node>> taskScores =
+				new ArrayList<DoubleEntityMap<Node>>();
+		for (final List<Node> sources : split(g.getNodes(), numTasks)) {
+			DoubleEntityMap<Node> taskScore = g.createDoubleNodeMap(0.0);
+			taskScores.add(taskScore);
+			final Search search = factory.create(index, taskScore);
+			tasks.add(new Runnable() {
+
+				@Override
+				public void run() {
+					for (Node s : sources) {
+						search.run(s);
+					}
+				}
+			});
+		}
+		ParallelTasks.run(executor, tasks);
+		reduce(g.getNodes(), taskScores, score);
+	}
+	
+	/**
+	 * Same as compute(DiGraph, Executor, int, SearchFactory, EntityMap), on
+	 * a new thread pool, with one task for each thread.
+	 */
+	static void compute(DiGraph g, int numThreads, SearchFactory factory,
+			EntityMap<Node, Double> score) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			compute(g, executor, numThreads, factory, score);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Nodes without any contributions are left unchanged in score.
+	 */
+	static void reduce(Iterable<Node> nodes,
+			List<DoubleEntityMap<Node>> taskScores,
+			EntityMap<Node, Double> score) {
+		DoubleEntityMap<Node> s = BoxedMaps.asDoubleMap(score, 0.0);
+		for (Node n : nodes) {
+			double sum = 0.0;
+			for (DoubleEntityMap<Node> taskScore : taskScores) {
+				sum += taskScore.getDouble(n);
+			}
+			if (sum != 0.0) {
+				s.addDouble(n, sum);
+			}
+		}
+	}
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import java.util.Arrays;
+
+/**
+ * Per source data of breadth first searches, allocated once and reused for
+ * many sources, e.g.\ by one thread of a parallel computation.
+ * 
+ * Resetting is O(1): each entry is stamped with the version of the search
+ * that wrote it, and entries with an older stamp read as unreached. The
+ * shortest path predecessors of a node v are stored as arc indices in the
+ * range reserved for v by DiGraphIndex.getInBegin().
+ * 
+ * The searches are direction optimizing by default, based on:
+ * @INPROCEEDINGS{Beamer12,
+ *   author = {Scott Beamer and Krste Asanovi\'c and David Patterson},
+ *   title = {Direction-Optimizing Breadth-First Search},
+ *   booktitle = {Proceedings of the International Conference on High
+ *     Performance Computing, Networking, Storage and Analysis},
+ *   year = {2012},
+ *   pages = {12:1--12:10}
+ * }
+ * A level is expanded bottom-up, i.e.\ by scanning the in-arcs of the
+ * unreached nodes for arcs from the last level, if that is expected to scan
+ * fewer arcs than the out-arcs of the last level. Without path counting the
+ * scan of a node stops at its first such arc. With path counting all the
+ * in-arcs are scanned, and the shortest path predecessors of the nodes
+ * reached bottom-up are in the order of the arc indices instead of the
+ * order of the search.
+ */
+final class SingleSourceWorkspace {
+	
+	/**
+	 * Bottom-up steps are taken if the out-arcs of the last level are more
+	 * than the in-arcs of the unreached nodes divided by ALPHA, and
+	 * continued while the last level has at least n / BETA nodes.
+	 */
+	static final int ALPHA = 14;
+	
+	static final int BETA = 24;
+	
+	private final DiGraphIndex index;
+	
+	private final int[] stamp;
+	
+	private int version;
+	
+	private final int[] distance;
+	
+	/**
+	 * Doubles, since the numbers of shortest paths can be exponential.
+	 */
+	private final double[] numShortestPaths;
+	
+	private final double[] dependency;
+	
+	private final int[] numPredecessors;
+	
+	private final int[] predecessors;
+	
+	/**
+	 * The reached nodes in the order of their distances, which is the queue
+	 * of the search, and the stack of the dependency accumulation.
+	 */
+	private final int[] reached;
+	
+	private int numReached;
+	
+	/**
+	 * The first reached node of the last level.
+	 */
+	private int levelBegin;
+	
+	private boolean directionOptimizing = true;
+	
+	private boolean bottomUp;
+	
+	/**
+	 * The sum of the in-degrees of the unreached nodes.
+	 */
+	private int unreachedInArcs;
+	
+	/**
+	 * The bitset of the last level during bottom-up steps, all zeros
+	 * otherwise.
+	 */
+	private long[] level;
+	
+	SingleSourceWorkspace(DiGraphIndex index) {
+		this.index = index;
+		int n = index.getNumNodes();
+		stamp = new int[n];
+		distance = new int[n];
+		numShortestPaths = new double[n];
+		dependency = new double[n];
+		numPredecessors = new int[n];
+		predecessors = new int[index.getNumArcs()];
+		reached = new int[n];
+	}
+	
+	DiGraphIndex getIndex() {
+		return index;
+	}
+	
+	/**
+	 * If set, which is the default, then levels are expanded bottom-up when
+	 * that is cheaper.
+	 */
+	void setDirectionOptimizing(boolean directionOptimizing) {
+		this.directionOptimizing = directionOptimizing;
+	}
+	
+	boolean isDirectionOptimizing() {
+		return directionOptimizing;
+	}
+	
+	void reset() {
+		if (++version == Integer.MAX_VALUE) {
+			Arrays.fill(stamp, 0);
+			version = 1;
+		}
+		numReached = 0;
+		unreachedInArcs = index.getNumArcs();
+	}
+	
+	private void reach(int v, int dist) {
+		stamp[v] = version;
+		distance[v] = dist;
+		numShortestPaths[v] = 0.0;
+		dependency[v] = 0.0;
+		numPredecessors[v] = 0;
+		reached[numReached++] = v;
+		unreachedInArcs -= index.getInBegin(v + 1) - index.getInBegin(v);
+	}
+	
+	/**
+	 * Resets the workspace and runs a breadth first search from s. If
+	 * countPaths is set, then the numbers of shortest paths and the
+	 * predecessors are computed as well.
+	 */
+	void bfs(int s, boolean countPaths) {
+		start(s);
+		while (expand(countPaths)) {
+			// Level by level.
+		}
+	}
+	
+	/**
+	 * Resets the workspace, and reaches s at distance 0.
+	 */
+	void start(int s) {
+		reset();
+		reach(s, 0);
+		numShortestPaths[s] = 1.0;
+		levelBegin = 0;
+		bottomUp = false;
+	}
+	
+	/**
+	 * Scans the out-arcs of the nodes reached last, i.e.\ reaches the nodes
+	 * of the next level, and returns false if there are none.
+	 */
+	boolean expand(boolean countPaths) {
+		int levelEnd = numReached;
+		if (directionOptimizing) {
+			bottomUp = isBottomUpCheaper(levelEnd, countPaths);
+		}
+		if (bottomUp) {
+			expandBottomUp(levelEnd, countPaths);
+		} else {
+			expandTopDown(levelEnd, countPaths);
+		}
+		levelBegin = levelEnd;
+		return numReached > levelEnd;
+	}
+	
+	private boolean isBottomUpCheaper(int levelEnd, boolean countPaths) {
+		int n = index.getNumNodes();
+		if (bottomUp) {
+			return (long) (levelEnd - levelBegin) * BETA >= n;
+		}
+		long levelArcs = 0;
+		for (int i = levelBegin; i < levelEnd; ++i) {
+			int u = reached[i];
+			levelArcs += index.getOutBegin(u + 1) - index.getOutBegin(u);
+		}
+		if (countPaths) {
+			return levelArcs > (long) unreachedInArcs + n - numReached;
+		} else {
+			return levelArcs * ALPHA > unreachedInArcs;
+		}
+	}
+	
+	private void expandTopDown(int levelEnd, boolean countPaths) {
+		for (int i = levelBegin; i < levelEnd; ++i) {
+			int u = reached[i];
+			int dist = distance[u] + 1;
+			int end = index.getOutBegin(u + 1);
+			for (int a = index.getOutBegin(u); a < end; ++a) {
+				int v = index.getTarget(a);
+				if (stamp[v] != version) {
+					reach(v, dist);
+				}
+				if (countPaths && distance[v] == dist) {
+					predecessors[index.getInBegin(v) + numPredecessors[v]++] = a;
+					numShortestPaths[v] += numShortestPaths[u];
+				}
+			}
+		}
+	}
+	
+	private void expandBottomUp(int levelEnd, boolean countPaths) {
+		int n = index.getNumNodes();
+		if (level == null) {
+			level = new long[(n + 63) >>> 6];
+		}
+		for (int i = levelBegin; i < levelEnd; ++i) {
+			int u = reached[i];
+			level[u >>> 6] |= 1L << u;
+		}
+		int dist = distance[reached[levelBegin]] + 1;
+		for (int v = 0; v < n; ++v) {
+			if (stamp[v] == version) {
+				continue;
+			}
+			boolean found = false;
+			int begin = index.getInBegin(v);
+			int end = index.getInBegin(v + 1);
+			for (int i = begin; i < end; ++i) {
+				int a = index.getInArc(i);
+				int u = index.getSource(a);
+				if ((level[u >>> 6] & (1L << u)) != 0) {
+					if (!found) {
+						reach(v, dist);
+						found = true;
+					}
+					if (!countPaths) {
+						break;
+					}
+					predecessors[begin + numPredecessors[v]++] = a;
+					numShortestPaths[v] += numShortestPaths[u];
+				}
+			}
+		}
+		for (int i = levelBegin; i < levelEnd; ++i) {
+			level[reached[i] >>> 6] = 0;
+		}
+	}
+	
+	boolean isReached(int v) {
+		return stamp[v] == version;
+	}
+	
+	int getNumReached() {
+		return numReached;
+	}
+	
+	int getReached(int i) {
+		return reached[i];
+	}
+	
+	/**
+	 * Returns -1 for unreached nodes.
+	 */
+	int getDistance(int v) {
+		return isReached(v) ? distance[v] : -1;
+	}
+	
+	double getNumShortestPaths(int v) {
+		return isReached(v) ? numShortestPaths[v] : 0.0;
+	}
+	
+	double getDependency(int v) {
+		return isReached(v) ? dependency[v] : 0.0;
+	}
+	
+	/**
+	 * Must be called for reached nodes only.
+	 */
+	void addDependency(int v, double d) {
+		dependency[v] += d;
+	}
+	
+	int getNumPredecessors(int v) {
+		return isReached(v) ? numPredecessors[v] : 0;
+	}
+	
+	/**
+	 * The arc index of the i-th shortest path predecessor arc of v.
+	 */
+	int getPredecessor(int v, int i) {
+		return predecessors[index.getInBegin(v) + i];
+	}
+}
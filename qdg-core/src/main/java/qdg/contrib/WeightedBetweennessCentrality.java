@@ -17,14 +17,22 @@
 package qdg.contrib;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Stack;
+import java.util.concurrent.Executor;
 
-import qdg.BinaryHeap;
+import qdg.BucketQueue;
+import qdg.IndexedDoubleHeap;
+import qdg.LongPriorityQueue;
+import qdg.RadixHeap;
 import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
 import qdg.api.Graph.Edge;
 import qdg.api.Graph.Node;
+import qdg.bits.BoxedMaps;
+
+import com.google.common.annotations.GwtIncompatible;
 
 /**
  * Compute betweenness centrality of undirected graphs.
@@ -39,135 +47,303 @@ import qdg.api.Graph.Node;
  *   pages = {163--177}
  * }
  * 
- * For efficiency reasons, nodes not receiving any contributions from any
- * shortest paths can have score value null, instead of 0.0.
+ * The distances, path counts and dependencies are kept in arrays indexed by
+ * a DiGraphIndex. The queue is an IndexedDoubleHeap, or a monotone integer
+ * queue for integer weights, see setBucketQueues(). Nodes not receiving
+ * any contributions from any shortest paths have score 0.0 in the default
+ * score map, and keep their value, which can be null, in a boxed score map
+ * set by setScore.
  */
 public class WeightedBetweennessCentrality {
+	
+	private static final double MAX_EXACT_DISTANCE = (double) (1L << 53);
 
 	private final DiGraph g;
 	
 	private EntityMap<Node, Double> score;
 	
+	/**
+	 * The search of singleSourceCompute(), created by its first call.
+	 */
+	private SingleSource singleSource;
+	
 	private EntityMap<Edge, Double> weights;
 	
+	private boolean bucketQueues = true;
+	
 	public WeightedBetweennessCentrality(DiGraph g) {
 		this.g = g;
-		this.score = g.<Double>createNodeMap();
+		this.score = g.createDoubleNodeMap(0.0);
 	}
 	
 	protected class SingleSource {
 		
 		private Node s;
 		
-		private EntityMap<Node, Double> score;
+		private DoubleEntityMap<Node> score;
 		
-		protected EntityMap<Node, Double> distance = g.createNodeMap();
+		protected final DiGraphIndex index;
 		
-		protected EntityMap<Node, List<Edge>> tightEdges = g.createNodeMap();
+		private final double[] arcWeights;
 		
 		/**
-		 * Let $\delta_{u, v}(w) = \sigma_{u, v}(w) / \sigma_{u, v}(w)$, i.e.\
-		 * the ratio of shortest paths from $u$ to $v$ going through $w$.
-		 * For $w$ the map stores \sum_v\delta_{s, v}(w).
+		 * The version of the scan writing the entries of the nodes, older
+		 * entries read as unreached.
 		 */
-		protected EntityMap<Node, Double> dependency = g.createNodeMap();
+		private final int[] stamp;
+		
+		private int version;
+		
+		private final double[] distance;
 		
 		/**
 		 * Let $\sigma_{u, v}$ be the number of shortest paths from $u$ and $v$, and
 		 * $\sigma_{u, v}(w)$ the number of shortest paths form $u$ to $v$ going through $w$.
-		 * For $v$ the map stores $\sigma_{s, v}$
+		 * For $v$ the array stores $\sigma_{s, v}$, in doubles, since it can be
+		 * exponential.
+		 */
+		private final double[] numShortestPaths;
+		
+		/**
+		 * Let $\delta_{u, v}(w) = \sigma_{u, v}(w) / \sigma_{u, v}(w)$, i.e.\
+		 * the ratio of shortest paths from $u$ to $v$ going through $w$.
+		 * For $w$ the array stores \sum_v\delta_{s, v}(w).
+		 */
+		private final double[] dependency;
+		
+		private final int[] numPredecessors;
+		
+		/**
+		 * The tight arcs entering each node, in the range reserved for the
+		 * node by DiGraphIndex.getInBegin().
+		 */
+		private final int[] predecessors;
+		
+		/**
+		 * The nodes in the order they leave the queue.
+		 */
+		private final int[] stack;
+		
+		private int stackSize;
+		
+		/**
+		 * The queue for the general weights.
 		 */
-		protected EntityMap<Node, Integer> numShortestPaths = g.createNodeMap();
+		protected final IndexedDoubleHeap queue;
 		
-		protected Stack<Node> stack = new Stack<Node>();
+		/**
+		 * The queue for positive integer weights, a BucketQueue or a
+		 * RadixHeap. Exactly one of the queues is used.
+		 */
+		protected final LongPriorityQueue integerQueue;
 		
 		public SingleSource(Node s, EntityMap<Node, Double> score) {
+			this(new DiGraphIndex(g), s, score);
+		}
+		
+		protected SingleSource(DiGraphIndex index, Node s,
+				EntityMap<Node, Double> score) {
+			this.index = index;
+			this.s = s;
+			this.score = BoxedMaps.asDoubleMap(score, 0.0);
+			DoubleEntityMap<Edge> w = BoxedMaps.asDoubleMap(weights, Double.NaN);
+			arcWeights = new double[index.getNumArcs()];
+			boolean integer = bucketQueues;
+			double maxWeight = 0.0;
+			for (int a = 0; a < arcWeights.length; ++a) {
+				double weight = w.getDouble(index.getArc(a));
+				arcWeights[a] = weight;
+				// Zero weights would make the path counts depend on the order
+				// of the nodes with equal distances, which differs by queue.
+				if (!(weight >= 1 && weight == Math.floor(weight))) {
+					integer = false;
+				}
+				maxWeight = Math.max(maxWeight, weight);
+			}
+			int n = index.getNumNodes();
+			// The distances must be exact in doubles as well.
+			if (integer && maxWeight * n < MAX_EXACT_DISTANCE) {
+				queue = null;
+				integerQueue = maxWeight < n ?
+						new BucketQueue(n, (long) maxWeight) : new RadixHeap(n);
+			} else {
+				queue = new IndexedDoubleHeap(n);
+				integerQueue = null;
+			}
+			stamp = new int[n];
+			distance = new double[n];
+			numShortestPaths = new double[n];
+			dependency = new double[n];
+			numPredecessors = new int[n];
+			predecessors = new int[index.getNumArcs()];
+			stack = new int[n];
+		}
+		
+		/**
+		 * Sets the source of the next scan, which clears the entries of the
+		 * previous one.
+		 */
+		protected void reset(Node s) {
+			this.s = s;
+		}
+		
+		/**
+		 * Sets the source and the score map of the next scan.
+		 */
+		protected void reset(Node s, EntityMap<Node, Double> score) {
 			this.s = s;
-			this.score = score;
+			this.score = BoxedMaps.asDoubleMap(score, 0.0);
+		}
+		
+		private boolean isReached(int v) {
+			return stamp[v] == version;
+		}
+		
+		private void reach(int v, double dist) {
+			stamp[v] = version;
+			distance[v] = dist;
+			numShortestPaths[v] = 0.0;
+			dependency[v] = 0.0;
+			numPredecessors[v] = 0;
+		}
+		
+		private void add(int v, double dist) {
+			if (queue != null) {
+				queue.add(v, dist);
+			} else {
+				integerQueue.add(v, (long) dist);
+			}
+		}
+		
+		private void decrease(int v, double dist) {
+			if (queue != null) {
+				// Rounding errors can cause crazy things, like
+				// improving a node that already left the queue.
+				if (queue.contains(v)) {
+					queue.decrease(v, dist);
+				}
+			} else {
+				integerQueue.decrease(v, (long) dist);
+			}
+		}
+		
+		private int poll() {
+			return queue != null ? queue.poll() : integerQueue.poll();
+		}
+		
+		private void addPredecessor(int v, int a) {
+			predecessors[index.getInBegin(v) + numPredecessors[v]++] = a;
 		}
 		
 		protected void scan() {
-			distance.put(s, 0.0);
-			BinaryHeap<Node, Double> queue = new BinaryHeap<Node, Double>(g.<Integer>createNodeMap());
-			queue.add(s, 0.0);
-			numShortestPaths.put(s, 1);
-			while (!queue.isEmpty()) {
-				Node u = queue.poll().getKey();
-				stack.push(u);
-				for (Edge e : g.getOutArcs(u)) {
-					Node v = g.getTarget(e);
-					Double dist = distance.get(u) + weights.get(e);
-					if (distance.get(v) == null) {
-						distance.put(v, dist);
-						queue.add(v, dist);
-						List<Edge> t = new ArrayList<Edge>();
-						tightEdges.put(v, t);
-						t.add(e);
-						numShortestPaths.put(v, numShortestPaths.get(u));
-					} else if (dist < distance.get(v)) {
-						distance.put(v, dist);
-						queue.decrease(v, dist);
-						List<Edge> t = tightEdges.get(v);
-						// This should not happen, but rounding errors can cause crazy things.
-						if (t == null) {
-							t = new ArrayList<Edge>();
-							tightEdges.put(v, t);
-						} else {
-							t.clear();
-						}
-						t.add(e);
-						numShortestPaths.put(v, numShortestPaths.get(u));
-					} else if (dist.equals(distance.get(v))) {
-						List<Edge> t = tightEdges.get(v);
-						// This should not happen, but rounding errors can cause crazy things.
-						if (t == null) {
-							t = new ArrayList<Edge>();
-							tightEdges.put(v, t);
-						}
-						t.add(e);
-						Integer i = numShortestPaths.get(v);
-						numShortestPaths.put(v, i + numShortestPaths.get(u));
+			if (++version == Integer.MAX_VALUE) {
+				Arrays.fill(stamp, 0);
+				version = 1;
+			}
+			stackSize = 0;
+			int sIndex = index.getIndex(s);
+			reach(sIndex, 0.0);
+			numShortestPaths[sIndex] = 1.0;
+			add(sIndex, 0.0);
+			for (int u = poll(); u >= 0; u = poll()) {
+				stack[stackSize++] = u;
+				double uDistance = distance[u];
+				int end = index.getOutBegin(u + 1);
+				for (int a = index.getOutBegin(u); a < end; ++a) {
+					int v = index.getTarget(a);
+					double dist = uDistance + arcWeights[a];
+					if (!isReached(v)) {
+						reach(v, dist);
+						add(v, dist);
+						addPredecessor(v, a);
+						numShortestPaths[v] = numShortestPaths[u];
+					} else if (dist < distance[v]) {
+						distance[v] = dist;
+						decrease(v, dist);
+						numPredecessors[v] = 0;
+						addPredecessor(v, a);
+						numShortestPaths[v] = numShortestPaths[u];
+					} else if (dist == distance[v]) {
+						addPredecessor(v, a);
+						numShortestPaths[v] += numShortestPaths[u];
 					}
 				}
 			}
 		}
 		
 		protected void finish() {
-			while (!stack.isEmpty()) {
-				Node v = stack.pop();
-				Double vDependency = dependency.get(v);
-				if (vDependency == null) {
-					vDependency = 0.0;
-				}
-				List<Edge> t = tightEdges.get(v);
-				if (t != null) {
-					for (Edge e : t) {
-						Node u = g.getSource(e);
-						if (!u.equals(s)) {
-							double partialDependency = (double) numShortestPaths.get(u) *
-									(1 + vDependency) / numShortestPaths.get(v);
-							Double dep = dependency.get(u);
-							if (dep == null) {
-								dep = 0.0;
-							}
-							dep += partialDependency;
-							dependency.put(u, dep);
-							Double s = score.get(u);
-							if (s == null) {
-								s = 0.0;
-							}
-							s += partialDependency;
-							score.put(u, s);
-						}
+			int sIndex = index.getIndex(s);
+			for (int i = stackSize - 1; i >= 0; --i) {
+				int v = stack[i];
+				double vDependency = dependency[v];
+				int begin = index.getInBegin(v);
+				for (int j = begin; j < begin + numPredecessors[v]; ++j) {
+					int u = index.getSource(predecessors[j]);
+					if (u != sIndex) {
+						double partialDependency = numShortestPaths[u] *
+								(1 + vDependency) / numShortestPaths[v];
+						dependency[u] += partialDependency;
 					}
 				}
 			}
+			// The scores are updated once per node, and only for the nodes
+			// receiving contributions.
+			for (int i = 1; i < stackSize; ++i) {
+				int v = stack[i];
+				if (dependency[v] != 0) {
+					score.addDouble(index.getNode(v), dependency[v]);
+				}
+			}
+		}
+		
+		/**
+		 * Returns NaN for unreached nodes.
+		 */
+		public double getDistance(Node v) {
+			int vIndex = index.getIndex(v);
+			return isReached(vIndex) ? distance[vIndex] : Double.NaN;
+		}
+		
+		public double getNumShortestPaths(Node v) {
+			int vIndex = index.getIndex(v);
+			return isReached(vIndex) ? numShortestPaths[vIndex] : 0.0;
+		}
+		
+		public double getDependency(Node v) {
+			int vIndex = index.getIndex(v);
+			return isReached(vIndex) ? dependency[vIndex] : 0.0;
+		}
+		
+		/**
+		 * The arcs entering v on shortest paths from the source.
+		 */
+		public List<Edge> getTightEdges(Node v) {
+			int vIndex = index.getIndex(v);
+			List<Edge> t = new ArrayList<Edge>();
+			if (isReached(vIndex)) {
+				int begin = index.getInBegin(vIndex);
+				for (int j = begin; j < begin + numPredecessors[vIndex]; ++j) {
+					t.add(index.getArc(predecessors[j]));
+				}
+			}
+			return t;
 		}
 	}
 	
+	/**
+	 * Adds the dependencies of the nodes on s to score. The first call
+	 * takes a snapshot of the graph, which is reused by the later calls
+	 * together with the weights and the arrays of the search, hence the
+	 * graph and the weights must not change between the calls, unless
+	 * setWeights() is called again.
+	 */
 	public void singleSourceCompute(Node s,
 			EntityMap<Node, Double> score) {
-		SingleSource singleSource = new SingleSource(s, score);
+		if (singleSource == null) {
+			singleSource = new SingleSource(s, score);
+		} else {
+			singleSource.reset(s, score);
+		}
 		singleSource.scan();
 		singleSource.finish();
 	}
@@ -182,19 +358,78 @@ public class WeightedBetweennessCentrality {
 	 * value is not changed.
 	 */
 	public void compute() {
+		SingleSource singleSource = new SingleSource(null, score);
 		for (Node s : g.getNodes()) {
-			singleSourceCompute(s, score);
+			singleSource.reset(s);
+			singleSource.scan();
+			singleSource.finish();
 		}
 	}
 	
+	/**
+	 * Same as compute(), but the sources are run by numTasks tasks of the
+	 * executor, see ParallelSingleSources.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public void compute(Executor executor, int numTasks)
+			throws InterruptedException {
+		ParallelSingleSources.compute(g, executor, numTasks, searchFactory(),
+				score);
+	}
+	
+	/**
+	 * Same as compute(), on a new thread pool, with one task for each
+	 * thread.
+	 */
+	@GwtIncompatible("java.util.concurrent")
+	public void compute(int numThreads) throws InterruptedException {
+		ParallelSingleSources.compute(g, numThreads, searchFactory(), score);
+	}
+	
+	@GwtIncompatible("java.util.concurrent")
+	private ParallelSingleSources.SearchFactory searchFactory() {
+		return new ParallelSingleSources.SearchFactory() {
+			
+			@Override
+			public ParallelSingleSources.Search create(DiGraphIndex index,
+					EntityMap<Node, Double> score) {
+				final SingleSource singleSource =
+						new SingleSource(index, null, score);
+				return new ParallelSingleSources.Search() {
+					
+					@Override
+					public void run(Node s) {
+						singleSource.reset(s);
+						singleSource.scan();
+						singleSource.finish();
+					}
+				};
+			}
+		};
+	}
+	
 	public void setWeights(EntityMap<Edge, Double> weights) {
 		this.weights = weights;
+		singleSource = null;
 	}
 	
 	public EntityMap<Edge, Double> getWeights() {
 		return weights;
 	}
 	
+	/**
+	 * If set, which is the default, and all the weights are positive
+	 * integers, then the searches use a BucketQueue if the weights are less
+	 * than the number of nodes, and a RadixHeap otherwise, instead of an
+	 * IndexedDoubleHeap. The tight edges and the path counts are the same,
+	 * only the order of the tight edges and the rounding of the dependencies
+	 * may differ.
+	 */
+	public void setBucketQueues(boolean bucketQueues) {
+		this.bucketQueues = bucketQueues;
+		singleSource = null;
+	}
+	
 	public void setScore(EntityMap<Node, Double> score) {
 		this.score = score;
 	}
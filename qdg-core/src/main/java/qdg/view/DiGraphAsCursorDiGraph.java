@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.view;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import qdg.CsrMixedGraph;
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+import qdg.api.bits.EdgeCursor;
+import qdg.api.bits.EdgeMutationHandler;
+import qdg.api.bits.NodeMutationHandler;
+import qdg.bits.AbstractDiGraph;
+
+/**
+ * Cursor view of an arbitrary directed graph. The nodes and arcs get
+ * consecutive ids in the order of their iteration when the view is created,
+ * and the adjacency is copied into a {@link CsrMixedGraph}. Hence the view is
+ * a snapshot: it must be recreated if the underlying graph is modified.
+ * The cursors return the edges of a node in the order of their ids, which
+ * may differ from the order of the iterators of the underlying graph.
+ * Everything else is delegated to the underlying graph, including its nodes,
+ * arcs and maps.
+ * 
+ * @author Marton Makai
+ */
+public class DiGraphAsCursorDiGraph extends AbstractDiGraph
+		implements CursorDiGraph {
+	
+	protected DiGraph g;
+	
+	protected List<Node> nodes = new ArrayList<Node>();
+	
+	protected List<Edge> arcs = new ArrayList<Edge>();
+	
+	protected EntityMap<Node, Integer> nodeIds;
+	
+	protected EntityMap<Edge, Integer> arcIds;
+	
+	protected CsrMixedGraph csr;
+	
+	public DiGraphAsCursorDiGraph(DiGraph g) {
+		this.g = g;
+		nodeIds = g.createNodeMap();
+		arcIds = g.createArcMap();
+		CsrMixedGraph.Builder builder = new CsrMixedGraph.Builder();
+		for (Node n : g.getNodes()) {
+			nodeIds.put(n, builder.addNode());
+			nodes.add(n);
+		}
+		for (Edge a : g.getArcs()) {
+			arcIds.put(a, builder.addArc(nodeIds.get(g.getSource(a)),
+					nodeIds.get(g.getTarget(a))));
+			arcs.add(a);
+		}
+		csr = builder.build();
+	}
+	
+	/**
+	 * Returns the graph itself if it supports cursors natively, otherwise a
+	 * snapshot view of it.
+	 */
+	public static CursorDiGraph of(DiGraph g) {
+		if (g instanceof CursorDiGraph) {
+			return (CursorDiGraph) g;
+		} else {
+			return new DiGraphAsCursorDiGraph(g);
+		}
+	}
+	
+	public DiGraph getGraph() {
+		return g;
+	}
+
+	@Override
+	public Node getSource(Edge arc) {
+		return g.getSource(arc);
+	}
+
+	@Override
+	public Node getTarget(Edge arc) {
+		return g.getTarget(arc);
+	}
+
+	@Override
+	public Iterator<Node> getNodeIterator() {
+		return nodes.iterator();
+	}
+
+	@Override
+	public Iterator<Edge> getArcIterator() {
+		return arcs.iterator();
+	}
+
+	@Override
+	public Iterator<Edge> getOutArcIterator(Node node) {
+		return g.getOutArcIterator(node);
+	}
+
+	@Override
+	public Iterator<Edge> getInArcIterator(Node node) {
+		return g.getInArcIterator(node);
+	}
+
+	@Override
+	public Iterator<Edge> getIncidentArcIterator(Node node) {
+		return g.getIncidentArcIterator(node);
+	}
+
+	@Override
+	public <V> EntityMap<Node, V> createNodeMap() {
+		return g.createNodeMap();
+	}
+
+	@Override
+	public <V> EntityMap<Edge, V> createArcMap() {
+		return g.createArcMap();
+	}
+	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return g.createIntNodeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return g.createLongNodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return g.createDoubleNodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return g.createBooleanNodeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return g.createIntArcMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return g.createLongArcMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return g.createDoubleArcMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return g.createBooleanArcMap(defaultValue);
+	}
+
+	@Override
+	public Node nodeFromId(int id) {
+		return nodes.get(id);
+	}
+
+	@Override
+	public Edge arcFromId(int id) {
+		return arcs.get(id);
+	}
+
+	@Override
+	public int getNodeId(Node node) {
+		return nodeIds.get(node);
+	}
+
+	@Override
+	public int getArcId(Edge arc) {
+		return arcIds.get(arc);
+	}
+
+	@Override
+	public int getNodeIdBound() {
+		return csr.getNodeIdBound();
+	}
+
+	@Override
+	public int getArcIdBound() {
+		return csr.getArcIdBound();
+	}
+
+	@Override
+	public EdgeCursor createOutArcCursor() {
+		return csr.createOutArcCursor();
+	}
+
+	@Override
+	public EdgeCursor createInArcCursor() {
+		return csr.createInArcCursor();
+	}
+
+	@Override
+	public EdgeCursor createIncidentArcCursor() {
+		return csr.createIncidentArcCursor();
+	}
+
+	@Override
+	public Node addNode() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void remove(Node n) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Edge addArc(Node source, Node target) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void remove(Edge arc) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void addNodeMutationHandler(NodeMutationHandler handler) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void addEdgeMutationHandler(EdgeMutationHandler handler) {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -21,8 +21,12 @@ import java.util.Iterator;
 import com.google.common.collect.Iterators;
 
 import qdg.EntityMaps.NullMap;
+import qdg.api.BooleanEntityMap;
 import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.NodeMutationHandler;
 import qdg.bits.AbstractMixedGraph;
@@ -150,4 +154,64 @@ public class DiGraphAsMixedGraph extends AbstractMixedGraph {
 	public <V> EntityMap<Edge, V> createArcMap() {
 		return graph.createArcMap();
 	}
+	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return graph.createIntNodeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return graph.createLongNodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return graph.createDoubleNodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return graph.createBooleanNodeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntEdgeMap(int defaultValue) {
+		return graph.createIntEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongEdgeMap(long defaultValue) {
+		return graph.createLongEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleEdgeMap(double defaultValue) {
+		return graph.createDoubleEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanEdgeMap(boolean defaultValue) {
+		return graph.createBooleanEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return graph.createIntArcMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return graph.createLongArcMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return graph.createDoubleArcMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return graph.createBooleanArcMap(defaultValue);
+	}
 }
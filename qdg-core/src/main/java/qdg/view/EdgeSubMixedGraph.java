@@ -22,7 +22,11 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.Iterators;
 
 import qdg.EntityMaps;
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
 import qdg.api.MixedGraph;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.NodeMutationHandler;
@@ -128,6 +132,86 @@ public class EdgeSubMixedGraph extends AbstractMixedGraph {
 	public <V> EntityMap<Edge, V> createArcMap() {
 		return g.createArcMap();
 	}
+	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return g.createIntNodeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return g.createLongNodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return g.createDoubleNodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return g.createBooleanNodeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntEdgeMap(int defaultValue) {
+		return g.createIntEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongEdgeMap(long defaultValue) {
+		return g.createLongEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleEdgeMap(double defaultValue) {
+		return g.createDoubleEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanEdgeMap(boolean defaultValue) {
+		return g.createBooleanEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		return g.createIntUEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		return g.createLongUEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		return g.createDoubleUEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		return g.createBooleanUEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntArcMap(int defaultValue) {
+		return g.createIntArcMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongArcMap(long defaultValue) {
+		return g.createLongArcMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleArcMap(double defaultValue) {
+		return g.createDoubleArcMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanArcMap(boolean defaultValue) {
+		return g.createBooleanArcMap(defaultValue);
+	}
 
 	/* (non-Javadoc)
 	 * @see qdg.api.DiGraph#addNode()
@@ -18,7 +18,11 @@ package qdg.view;
 
 import java.util.Iterator;
 
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
 import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
 import qdg.api.MixedGraph;
 import qdg.api.bits.EdgeMutationHandler;
 import qdg.api.bits.NodeMutationHandler;
@@ -329,6 +333,26 @@ public class MixedGraphAsBiDiGraph extends AbstractDiGraph {
 	public <V> EntityMap<Edge, V> createArcMap() {
 		return new ArcMap<V>();
 	}
+	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return g.createIntNodeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return g.createLongNodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return g.createDoubleNodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return g.createBooleanNodeMap(defaultValue);
+	}
 
 	@Override
 	public Node addNode() {
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.view;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import qdg.CsrMixedGraph;
+import qdg.api.BooleanEntityMap;
+import qdg.api.CursorUGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+import qdg.api.UGraph;
+import qdg.api.bits.EdgeCursor;
+import qdg.api.bits.EdgeMutationHandler;
+import qdg.api.bits.NodeMutationHandler;
+import qdg.bits.AbstractUGraph;
+
+/**
+ * Cursor view of an arbitrary undirected graph. The nodes and edges get
+ * consecutive ids in the order of their iteration when the view is created,
+ * and the adjacency is copied into a {@link CsrMixedGraph}. Hence the view is
+ * a snapshot: it must be recreated if the underlying graph is modified.
+ * The cursors return the edges of a node in the order of their ids, which
+ * may differ from the order of the iterators of the underlying graph.
+ * Everything else is delegated to the underlying graph, including its nodes,
+ * edges and maps.
+ * 
+ * @author Marton Makai
+ */
+public class UGraphAsCursorUGraph extends AbstractUGraph
+		implements CursorUGraph {
+	
+	protected UGraph g;
+	
+	protected List<Node> nodes = new ArrayList<Node>();
+	
+	protected List<Edge> uEdges = new ArrayList<Edge>();
+	
+	protected EntityMap<Node, Integer> nodeIds;
+	
+	protected EntityMap<Edge, Integer> uEdgeIds;
+	
+	protected CsrMixedGraph csr;
+	
+	public UGraphAsCursorUGraph(UGraph g) {
+		this.g = g;
+		nodeIds = g.createNodeMap();
+		uEdgeIds = g.createUEdgeMap();
+		CsrMixedGraph.Builder builder = new CsrMixedGraph.Builder();
+		for (Node n : g.getNodes()) {
+			nodeIds.put(n, builder.addNode());
+			nodes.add(n);
+		}
+		for (Edge u : g.getUEdges()) {
+			uEdgeIds.put(u, builder.addUEdge(nodeIds.get(g.getSource(u)),
+					nodeIds.get(g.getTarget(u))));
+			uEdges.add(u);
+		}
+		csr = builder.build();
+	}
+	
+	/**
+	 * Returns the graph itself if it supports cursors natively, otherwise a
+	 * snapshot view of it.
+	 */
+	public static CursorUGraph of(UGraph g) {
+		if (g instanceof CursorUGraph) {
+			return (CursorUGraph) g;
+		} else {
+			return new UGraphAsCursorUGraph(g);
+		}
+	}
+	
+	public UGraph getGraph() {
+		return g;
+	}
+
+	@Override
+	public Node getSource(Edge uEdge) {
+		return g.getSource(uEdge);
+	}
+
+	@Override
+	public Node getTarget(Edge uEdge) {
+		return g.getTarget(uEdge);
+	}
+
+	@Override
+	public Iterator<Node> getNodeIterator() {
+		return nodes.iterator();
+	}
+
+	@Override
+	public Iterator<Edge> getUEdgeIterator() {
+		return uEdges.iterator();
+	}
+
+	@Override
+	public Iterator<Edge> getIncidentUEdgeIterator(Node node) {
+		return g.getIncidentUEdgeIterator(node);
+	}
+
+	@Override
+	public <V> EntityMap<Node, V> createNodeMap() {
+		return g.createNodeMap();
+	}
+
+	@Override
+	public <V> EntityMap<Edge, V> createUEdgeMap() {
+		return g.createUEdgeMap();
+	}
+	
+	@Override
+	public IntEntityMap<Node> createIntNodeMap(int defaultValue) {
+		return g.createIntNodeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Node> createLongNodeMap(long defaultValue) {
+		return g.createLongNodeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Node> createDoubleNodeMap(double defaultValue) {
+		return g.createDoubleNodeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Node> createBooleanNodeMap(boolean defaultValue) {
+		return g.createBooleanNodeMap(defaultValue);
+	}
+	
+	@Override
+	public IntEntityMap<Edge> createIntUEdgeMap(int defaultValue) {
+		return g.createIntUEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public LongEntityMap<Edge> createLongUEdgeMap(long defaultValue) {
+		return g.createLongUEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public DoubleEntityMap<Edge> createDoubleUEdgeMap(double defaultValue) {
+		return g.createDoubleUEdgeMap(defaultValue);
+	}
+	
+	@Override
+	public BooleanEntityMap<Edge> createBooleanUEdgeMap(boolean defaultValue) {
+		return g.createBooleanUEdgeMap(defaultValue);
+	}
+
+	@Override
+	public Node nodeFromId(int id) {
+		return nodes.get(id);
+	}
+
+	@Override
+	public Edge uEdgeFromId(int id) {
+		return uEdges.get(id);
+	}
+
+	@Override
+	public int getNodeId(Node node) {
+		return nodeIds.get(node);
+	}
+
+	@Override
+	public int getUEdgeId(Edge uEdge) {
+		return uEdgeIds.get(uEdge);
+	}
+
+	@Override
+	public int getNodeIdBound() {
+		return csr.getNodeIdBound();
+	}
+
+	@Override
+	public int getUEdgeIdBound() {
+		return csr.getUEdgeIdBound();
+	}
+
+	@Override
+	public EdgeCursor createIncidentUEdgeCursor() {
+		return csr.createIncidentUEdgeCursor();
+	}
+
+	@Override
+	public Node addNode() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void remove(Node n) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Edge addUEdge(Node source, Node target) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void remove(Edge uEdge) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void addNodeMutationHandler(NodeMutationHandler handler) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void addEdgeMutationHandler(EdgeMutationHandler handler) {
+		throw new UnsupportedOperationException();
+	}
+}
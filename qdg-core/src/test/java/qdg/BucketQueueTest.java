@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BucketQueueTest {
+	
+	/**
+	 * Runs random monotone operations, like the ones of Dijkstra's
+	 * algorithm, and checks that the minimal keys are polled.
+	 */
+	static void checkMonotone(LongPriorityQueue queue, long maxStep,
+			long seed) {
+		Random u = new Random(seed);
+		int numItems = 300;
+		long[] keys = new long[numItems];
+		boolean[] present = new boolean[numItems];
+		int size = 1;
+		long last = 0;
+		queue.add(0, 0);
+		present[0] = true;
+		int nextItem = 1;
+		while (size > 0) {
+			assertEquals(size, queue.size());
+			long min = Long.MAX_VALUE;
+			for (int v = 0; v < nextItem; ++v) {
+				if (present[v]) {
+					min = Math.min(min, keys[v]);
+				}
+			}
+			int item = queue.poll();
+			assertTrue(present[item]);
+			assertEquals(min, keys[item]);
+			present[item] = false;
+			--size;
+			last = min;
+			for (int i = 0; i < 3 && nextItem < numItems; ++i) {
+				keys[nextItem] = last + (long) (u.nextDouble() * (maxStep + 1));
+				queue.add(nextItem, keys[nextItem]);
+				present[nextItem] = true;
+				++size;
+				++nextItem;
+			}
+			for (int i = 0; i < 2; ++i) {
+				int v = u.nextInt(nextItem);
+				assertEquals(present[v], queue.contains(v));
+				if (present[v]) {
+					assertEquals(keys[v], queue.getKey(v));
+					keys[v] = last + (keys[v] - last) / 2;
+					queue.decrease(v, keys[v]);
+				}
+			}
+		}
+		assertTrue(queue.isEmpty());
+		assertEquals(-1, queue.poll());
+	}
+	
+	@Test
+	public void random() {
+		checkMonotone(new BucketQueue(0, 10), 10, 1);
+		checkMonotone(new BucketQueue(10, 1), 1, 2);
+		checkMonotone(new BucketQueue(0, 0), 0, 3);
+	}
+	
+	@Test
+	public void window() {
+		BucketQueue queue = new BucketQueue(4, 3);
+		queue.add(2, 10);
+		queue.add(1, 13);
+		queue.add(3, 11);
+		assertEquals(2, queue.poll());
+		queue.decrease(1, 12);
+		queue.add(0, 13);
+		assertEquals(3, queue.poll());
+		assertEquals(1, queue.poll());
+		assertEquals(13, queue.getKey(0));
+		assertEquals(0, queue.poll());
+		// The empty queue accepts any key.
+		queue.add(2, 1);
+		assertEquals(2, queue.poll());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void outOfWindow() {
+		BucketQueue queue = new BucketQueue(4, 3);
+		queue.add(0, 10);
+		queue.add(1, 14);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void notMonotone() {
+		BucketQueue queue = new BucketQueue(4, 3);
+		queue.add(0, 10);
+		queue.add(1, 11);
+		queue.poll();
+		queue.decrease(1, 9);
+	}
+	
+	@Test
+	public void clear() {
+		BucketQueue queue = new BucketQueue(4, 3);
+		queue.add(0, 10);
+		queue.add(1, 11);
+		queue.clear();
+		assertTrue(queue.isEmpty());
+		assertFalse(queue.contains(0));
+		queue.add(0, 0);
+		assertEquals(0, queue.poll());
+	}
+}
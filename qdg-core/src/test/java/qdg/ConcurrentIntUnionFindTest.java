@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import qdg.bits.ParallelTasks;
+
+public class ConcurrentIntUnionFindTest {
+	
+	@Test
+	public void union() {
+		ConcurrentIntUnionFind uf = new ConcurrentIntUnionFind(4);
+		assertTrue(uf.union(3, 2));
+		assertFalse(uf.union(2, 3));
+		assertEquals(2, uf.find(3));
+		assertTrue(uf.union(1, 3));
+		assertEquals(1, uf.find(2));
+		assertFalse(uf.isSameSet(0, 3));
+		uf.compress(0, uf.size());
+		assertEquals(0, uf.getParent(0));
+		assertEquals(1, uf.getParent(3));
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		final int n = 5000;
+		final int[] sources = new int[4000];
+		final int[] targets = new int[sources.length];
+		Random random = new Random(2);
+		IntUnionFind expected = new IntUnionFind(n);
+		for (int i = 0; i < sources.length; ++i) {
+			sources[i] = random.nextInt(n);
+			targets[i] = random.nextInt(n);
+			expected.union(sources[i], targets[i]);
+		}
+		final ConcurrentIntUnionFind uf = new ConcurrentIntUnionFind(n);
+		final int numTasks = 4;
+		List<Runnable> tasks = new ArrayList<Runnable>();
+		for (int t = 0; t < numTasks; ++t) {
+			final int first = t;
+			tasks.add(new Runnable() {
+				
+				@Override
+				public void run() {
+					for (int i = first; i < sources.length; i += numTasks) {
+						uf.union(sources[i], targets[i]);
+					}
+				}
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(numTasks);
+		try {
+			ParallelTasks.run(executor, tasks);
+		} finally {
+			executor.shutdown();
+		}
+		uf.compress(0, n);
+		int numRoots = 0;
+		for (int i = 0; i < n; ++i) {
+			int root = uf.getParent(i);
+			assertTrue(root <= i);
+			assertEquals(root, uf.getParent(root));
+			assertTrue(expected.isSameSet(i, root));
+			if (root == i) {
+				++numRoots;
+			}
+		}
+		assertEquals(expected.getNumSets(), numRoots);
+	}
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.contrib.BetweennessCentrality;
+import qdg.view.MixedGraphAsDiGraph;
+
+import com.google.common.collect.Lists;
+
+public class CsrMixedGraphTest {
+
+	@Test
+	public void builderTest() {
+		CsrMixedGraph.Builder builder = new CsrMixedGraph.Builder();
+		int n0 = builder.addNode();
+		int n1 = builder.addNode();
+		int n2 = builder.addNode();
+		assertEquals(0, n0);
+		assertEquals(2, n2);
+		int a0 = builder.addArc(n2, n0);
+		int a1 = builder.addArc(n0, n1);
+		int a2 = builder.addArc(n2, n1);
+		int u0 = builder.addUEdge(n1, n2);
+		int u1 = builder.addUEdge(n0, n1);
+		CsrMixedGraph g = builder.build();
+		assertEquals(3, g.getNumNodes());
+		assertEquals(3, g.getNumArcs());
+		assertEquals(2, g.getNumUEdges());
+		assertEquals(Lists.newArrayList(g.nodeFromId(0), g.nodeFromId(1),
+				g.nodeFromId(2)), Lists.newArrayList(g.getNodes()));
+		assertEquals(g.nodeFromId(n2), g.getSource(g.arcFromId(a0)));
+		assertEquals(g.nodeFromId(n0), g.getTarget(g.arcFromId(a0)));
+		assertEquals(Lists.newArrayList(g.arcFromId(a0), g.arcFromId(a2)),
+				Lists.newArrayList(g.getOutArcs(g.nodeFromId(n2))));
+		assertEquals(Lists.newArrayList(g.arcFromId(a1), g.arcFromId(a2)),
+				Lists.newArrayList(g.getInArcs(g.nodeFromId(n1))));
+		assertEquals(Lists.newArrayList(g.arcFromId(a1), g.arcFromId(a0)),
+				Lists.newArrayList(g.getIncidentArcs(g.nodeFromId(n0))));
+		assertEquals(Lists.newArrayList(g.uEdgeFromId(u0), g.uEdgeFromId(u1)),
+				Lists.newArrayList(g.getIncidentUEdges(g.nodeFromId(n1))));
+		assertEquals(2, g.getOutDegree(g.nodeFromId(n2)));
+		assertEquals(0, g.getInDegree(g.nodeFromId(n2)));
+		assertTrue(g.isDirected(g.arcFromId(a0)));
+		assertFalse(g.isDirected(g.uEdgeFromId(u0)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void builderUnknownNodeTest() {
+		CsrMixedGraph.Builder builder = new CsrMixedGraph.Builder();
+		builder.addNode();
+		builder.addArc(0, 1);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void immutableTest() {
+		CsrMixedGraph g = new CsrMixedGraph.Builder().build();
+		g.addNode();
+	}
+
+	private static void assertSameEdges(List<Edge> expected, Iterable<Edge> actual,
+			EntityMap<Edge, Edge> edgeRef) {
+		List<Edge> mapped = Lists.newArrayList();
+		for (Edge e : expected) {
+			mapped.add(edgeRef.get(e));
+		}
+		assertEquals(mapped, Lists.newArrayList(actual));
+	}
+
+	@Test
+	public void copyTest() {
+		ListMixedGraph g = new ListMixedGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		Node n3 = g.addNode();
+		g.addArc(n0, n1);
+		g.addArc(n1, n2);
+		g.addUEdge(n0, n2);
+		g.addArc(n2, n3);
+		g.addUEdge(n3, n0);
+		g.remove(n1);
+		g.addArc(n3, n0);
+		EntityMap<Node, Node> nodeRef = g.createNodeMap();
+		EntityMap<Edge, Edge> edgeRef = g.createEdgeMap();
+		CsrMixedGraph c = CsrMixedGraph.copyOf(g, nodeRef, edgeRef);
+		assertEquals(3, c.getNumNodes());
+		assertEquals(2, c.getNumArcs());
+		assertEquals(2, c.getNumUEdges());
+		for (Node n : g.getNodes()) {
+			Node m = nodeRef.get(n);
+			assertSameEdges(Lists.newArrayList(g.getOutArcs(n)),
+					c.getOutArcs(m), edgeRef);
+			assertSameEdges(Lists.newArrayList(g.getInArcs(n)),
+					c.getInArcs(m), edgeRef);
+			assertEquals(edgeSet(g.getIncidentUEdges(n), edgeRef),
+					edgeSet(c.getIncidentUEdges(m), null));
+		}
+		for (Edge e : g.getEdges()) {
+			Edge f = edgeRef.get(e);
+			assertEquals(g.isDirected(e), c.isDirected(f));
+			assertEquals(nodeRef.get(g.getSource(e)), c.getSource(f));
+			assertEquals(nodeRef.get(g.getTarget(e)), c.getTarget(f));
+		}
+	}
+
+	private static Set<Edge> edgeSet(Iterable<Edge> edges,
+			EntityMap<Edge, Edge> edgeRef) {
+		Set<Edge> result = new HashSet<Edge>();
+		for (Edge e : edges) {
+			result.add(edgeRef == null ? e : edgeRef.get(e));
+		}
+		return result;
+	}
+
+	@Test
+	public void betweennessTest() {
+		StaticMixedGraph g = new StaticMixedGraph();
+		Node[] nodes = new Node[6];
+		for (int i = 0; i < nodes.length; ++i) {
+			nodes[i] = g.addNode();
+		}
+		g.addArc(nodes[0], nodes[1]);
+		g.addArc(nodes[1], nodes[2]);
+		g.addUEdge(nodes[2], nodes[3]);
+		g.addArc(nodes[0], nodes[3]);
+		g.addUEdge(nodes[3], nodes[4]);
+		g.addArc(nodes[4], nodes[5]);
+		g.addArc(nodes[2], nodes[5]);
+		EntityMap<Node, Node> nodeRef = g.createNodeMap();
+		CsrMixedGraph c = CsrMixedGraph.copyOf(g, nodeRef, null);
+		BetweennessCentrality expected =
+				new BetweennessCentrality(new MixedGraphAsDiGraph(g));
+		expected.compute();
+		BetweennessCentrality actual =
+				new BetweennessCentrality(new MixedGraphAsDiGraph(c));
+		actual.compute();
+		for (Node n : g.getNodes()) {
+			assertEquals(expected.getScore().get(n),
+					actual.getScore().get(nodeRef.get(n)));
+		}
+	}
+
+	@Test
+	public void serializationTest() throws IOException, ClassNotFoundException {
+		CsrMixedGraph.Builder builder = new CsrMixedGraph.Builder();
+		builder.addNodes(3);
+		builder.addArc(0, 2);
+		builder.addUEdge(2, 1);
+		CsrMixedGraph g = builder.build();
+		EntityMap<Node, String> w = g.createNodeMap();
+		w.put(g.nodeFromId(1), "n1");
+		ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytesOut);
+		out.writeObject(g);
+		out.writeObject(w);
+		ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(bytesOut.toByteArray()));
+		CsrMixedGraph g1 = (CsrMixedGraph) in.readObject();
+		@SuppressWarnings("unchecked")
+		EntityMap<Node, String> w1 = (EntityMap<Node, String>) in.readObject();
+		assertEquals(3, g1.getNumNodes());
+		assertEquals(g1.nodeFromId(2), g1.getTarget(g1.arcFromId(0)));
+		assertEquals(g1.nodeFromId(1), g1.getTarget(g1.uEdgeFromId(0)));
+		assertEquals(Lists.newArrayList(g1.uEdgeFromId(0)),
+				Lists.newArrayList(g1.getIncidentUEdges(g1.nodeFromId(1))));
+		assertEquals("n1", w1.get(g1.nodeFromId(1)));
+	}
+
+	@Test
+	public void cursorTest() {
+		StaticMixedGraph g = new StaticMixedGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		g.addArc(n1, n0);
+		g.addUEdge(n2, n0);
+		g.addArc(n1, n1);
+		g.addArc(n0, n2);
+		g.addUEdge(n1, n0);
+		g.addUEdge(n0, n0);
+		CsrMixedGraph c = CsrMixedGraph.copyOf(g);
+		CursorTest.checkArcCursors(c);
+		CursorTest.checkUEdgeCursors(c);
+	}
+}
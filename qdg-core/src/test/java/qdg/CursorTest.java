@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import qdg.api.CursorDiGraph;
+import qdg.api.CursorUGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.bits.EdgeCursor;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+
+public class CursorTest {
+	
+	/**
+	 * Views are allowed to return the edges in a different order than their
+	 * iterators, hence the edges are compared as multisets.
+	 */
+	private static void assertCursor(List<Edge> edges, Node node,
+			EdgeCursor cursor, CursorDiGraph g) {
+		Multiset<Edge> returned = HashMultiset.create();
+		cursor.reset(g.getNodeId(node));
+		while (cursor.next()) {
+			Edge e = g.arcFromId(cursor.getEdgeId());
+			assertEquals(g.getArcId(e), cursor.getEdgeId());
+			Node other = g.getSource(e).equals(node) ?
+					g.getTarget(e) : g.getSource(e);
+			assertEquals(other, g.nodeFromId(cursor.getNodeId()));
+			returned.add(e);
+		}
+		assertFalse(cursor.next());
+		assertEquals(HashMultiset.create(edges), returned);
+	}
+	
+	/**
+	 * Checks that the cursors return the same arcs as the iterators.
+	 */
+	public static void checkArcCursors(CursorDiGraph g) {
+		EdgeCursor out = g.createOutArcCursor();
+		EdgeCursor in = g.createInArcCursor();
+		EdgeCursor incident = g.createIncidentArcCursor();
+		for (Node n : g.getNodes()) {
+			assertTrue(g.getNodeId(n) < g.getNodeIdBound());
+			assertEquals(n, g.nodeFromId(g.getNodeId(n)));
+			assertCursor(Lists.newArrayList(g.getOutArcs(n)), n, out, g);
+			assertCursor(Lists.newArrayList(g.getInArcs(n)), n, in, g);
+			assertCursor(Lists.newArrayList(g.getIncidentArcs(n)), n, incident, g);
+		}
+		for (Edge a : g.getArcs()) {
+			assertTrue(g.getArcId(a) < g.getArcIdBound());
+		}
+	}
+	
+	/**
+	 * Checks that the cursors return the same edges as the iterators.
+	 */
+	public static void checkUEdgeCursors(CursorUGraph g) {
+		EdgeCursor incident = g.createIncidentUEdgeCursor();
+		for (Node n : g.getNodes()) {
+			assertTrue(g.getNodeId(n) < g.getNodeIdBound());
+			assertEquals(n, g.nodeFromId(g.getNodeId(n)));
+			Multiset<Edge> returned = HashMultiset.create();
+			incident.reset(g.getNodeId(n));
+			while (incident.next()) {
+				Edge u = g.uEdgeFromId(incident.getEdgeId());
+				assertEquals(g.getUEdgeId(u), incident.getEdgeId());
+				Node other = g.getSource(u).equals(n) ?
+						g.getTarget(u) : g.getSource(u);
+				assertEquals(other, g.nodeFromId(incident.getNodeId()));
+				returned.add(u);
+			}
+			assertEquals(HashMultiset.create(g.getIncidentUEdges(n)), returned);
+		}
+		for (Edge u : g.getUEdges()) {
+			assertTrue(g.getUEdgeId(u) < g.getUEdgeIdBound());
+		}
+	}
+	
+	public static void arcCursorTest(CursorDiGraph g) {
+		checkArcCursors(g);
+		Node n0 = g.addNode();
+		checkArcCursors(g);
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		g.addArc(n0, n1);
+		g.addArc(n1, n2);
+		g.addArc(n0, n2);
+		g.addArc(n2, n2);
+		g.addArc(n2, n0);
+		checkArcCursors(g);
+	}
+	
+	public static void uEdgeCursorTest(CursorUGraph g) {
+		checkUEdgeCursors(g);
+		Node n0 = g.addNode();
+		checkUEdgeCursors(g);
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		g.addUEdge(n0, n1);
+		g.addUEdge(n1, n2);
+		g.addUEdge(n0, n2);
+		g.addUEdge(n2, n2);
+		g.addUEdge(n2, n0);
+		checkUEdgeCursors(g);
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.google.common.collect.Iterators;
+
+public class DoubleSparseArrayListTest {
+	
+	@Test
+	public void putAndRemove() {
+		DoubleSparseArrayList s = new DoubleSparseArrayList(Double.NaN);
+		assertTrue(Double.isNaN(s.get(0)));
+		assertEquals(0, s.add(0.5));
+		assertEquals(1, s.add(1.5));
+		assertTrue(s.put(4, 2.5));
+		assertEquals(1.5, s.get(1), 0.0);
+		assertTrue(Double.isNaN(s.get(3)));
+		assertTrue(s.remove(0));
+		assertEquals("[1, 4]", Iterators.toString(s.keyIterator()));
+		assertEquals(0, s.add(3.5));
+		assertEquals(3, s.add(4.5));
+		assertEquals("[1, 4, 0, 3]", Iterators.toString(s.keyIterator()));
+		assertEquals(3.5, s.get(0), 0.0);
+	}
+}
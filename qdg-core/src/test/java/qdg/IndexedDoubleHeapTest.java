@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IndexedDoubleHeapTest {
+	
+	private static int[] pollAll(IndexedDoubleHeap heap) {
+		int[] result = new int[heap.size()];
+		for (int i = 0; i < result.length; ++i) {
+			result[i] = heap.poll();
+		}
+		return result;
+	}
+	
+	@Test
+	public void empty() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap();
+		assertTrue(heap.isEmpty());
+		assertEquals(-1, heap.peek());
+		assertEquals(-1, heap.poll());
+	}
+	
+	@Test
+	public void addPoll() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(2);
+		heap.add(3, 2.0);
+		heap.add(0, 3.0);
+		heap.add(7, 1.0);
+		heap.add(5, 2.0);
+		assertEquals(4, heap.size());
+		assertTrue(heap.contains(7));
+		assertFalse(heap.contains(1));
+		assertFalse(heap.contains(100));
+		assertEquals(2.0, heap.getKey(5), 0.0);
+		assertEquals(7, heap.peek());
+		assertEquals(1.0, heap.peekKey(), 0.0);
+		// Equal keys in increasing order of the items.
+		assertArrayEquals(new int[] {7, 3, 5, 0}, pollAll(heap));
+		assertFalse(heap.contains(7));
+		heap.add(7, 5.0);
+		assertEquals(7, heap.poll());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void addTwice() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap();
+		heap.add(1, 1.0);
+		heap.add(1, 2.0);
+	}
+	
+	@Test
+	public void decrease() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap(4, 2);
+		heap.add(0, 4.0);
+		heap.add(1, 3.0);
+		heap.add(2, 2.0);
+		heap.add(3, 1.0);
+		heap.decrease(0, 0.5);
+		heap.decrease(1, 1.0);
+		assertArrayEquals(new int[] {0, 1, 3, 2}, pollAll(heap));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void increase() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap();
+		heap.add(1, 1.0);
+		heap.decrease(1, 2.0);
+	}
+	
+	@Test
+	public void clear() {
+		IndexedDoubleHeap heap = new IndexedDoubleHeap();
+		heap.add(1, 1.0);
+		heap.add(2, 1.0);
+		heap.clear();
+		assertTrue(heap.isEmpty());
+		assertFalse(heap.contains(1));
+		heap.add(1, 3.0);
+		assertEquals(1, heap.poll());
+	}
+	
+	@Test
+	public void random() {
+		Random u = new Random(1);
+		for (int arity = 2; arity <= 5; ++arity) {
+			IndexedDoubleHeap heap = new IndexedDoubleHeap(0, arity);
+			double[] keys = new double[500];
+			int[] items = new int[250];
+			double[] itemKeys = new double[250];
+			for (int i = 0; i < 250; ++i) {
+				items[i] = 2 * i;
+				keys[2 * i] = itemKeys[i] = u.nextInt(100);
+			}
+			heap.addAll(items, itemKeys, items.length);
+			for (int i = 0; i < 250; ++i) {
+				keys[2 * i + 1] = u.nextInt(100);
+				heap.add(2 * i + 1, keys[2 * i + 1]);
+			}
+			for (int i = 0; i < 200; ++i) {
+				int item = u.nextInt(500);
+				keys[item] -= u.nextInt(50);
+				heap.decrease(item, keys[item]);
+			}
+			Integer[] expected = new Integer[500];
+			for (int i = 0; i < 500; ++i) {
+				expected[i] = i;
+			}
+			final double[] k = keys;
+			Arrays.sort(expected, new Comparator<Integer>() {
+
+				@Override
+				public int compare(Integer a, Integer b) {
+					return k[a] != k[b] ? Double.compare(k[a], k[b]) : a - b;
+				}
+			});
+			int[] polled = pollAll(heap);
+			for (int i = 0; i < 500; ++i) {
+				assertEquals(expected[i].intValue(), polled[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class IndexedLongHeapTest {
+	
+	@Test
+	public void addDecreasePoll() {
+		IndexedLongHeap heap = new IndexedLongHeap(0, 3);
+		heap.addAll(new int[] {4, 2, 9}, new long[] {7L, 5L, 1L << 40}, 3);
+		heap.add(0, 5L);
+		heap.decrease(9, -1L);
+		assertEquals(9, heap.peek());
+		assertEquals(-1L, heap.peekKey());
+		assertEquals(9, heap.poll());
+		assertEquals(0, heap.poll());
+		assertEquals(2, heap.poll());
+		assertEquals(7L, heap.getKey(4));
+		assertEquals(4, heap.poll());
+		assertEquals(-1, heap.poll());
+	}
+}
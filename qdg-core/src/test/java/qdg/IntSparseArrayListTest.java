@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterators;
+
+public class IntSparseArrayListTest {
+	
+	private IntSparseArrayList s;
+	
+	@Before
+	public void setUp() {
+		s = new IntSparseArrayList(-1);
+	}
+	
+	@Test
+	public void empty() {
+		assertFalse(s.keyIterator().hasNext());
+		assertEquals(-1, s.firstKey());
+		assertEquals(-1, s.get(0));
+		assertEquals(-1, s.get(100));
+		assertFalse(s.remove(100));
+		assertEquals(0, s.getIdBound());
+	}
+	
+	@Test
+	public void putAndRemove() {
+		assertTrue(s.put(3, 6));
+		assertEquals("[3]", Iterators.toString(s.keyIterator()));
+		assertEquals("[2, 1, 0]", Iterators.toString(s.freeKeyIterator()));
+		assertFalse(s.put(3, 7));
+		assertEquals(7, s.get(3));
+		assertEquals(-1, s.get(2));
+		assertTrue(s.put(1, 0));
+		assertEquals(0, s.get(1));
+		assertEquals("[3, 1]", Iterators.toString(s.keyIterator()));
+		assertEquals("[2, 0]", Iterators.toString(s.freeKeyIterator()));
+		assertTrue(s.remove(3));
+		assertFalse(s.remove(3));
+		assertFalse(s.containsKey(3));
+		assertEquals(-1, s.get(3));
+		assertEquals("[1]", Iterators.toString(s.keyIterator()));
+		assertEquals("[3, 2, 0]", Iterators.toString(s.freeKeyIterator()));
+		assertEquals(4, s.getIdBound());
+	}
+	
+	@Test
+	public void reAdd() {
+		for (int i = 0; i < 100; ++i) {
+			assertEquals(i, s.add(10 * i));
+		}
+		for (int i = 10; i < 100; i += 10) {
+			assertTrue(s.remove(i));
+		}
+		assertEquals(90, s.add(5));
+		assertEquals(80, s.add(6));
+		assertEquals(5, s.get(90));
+		assertEquals(100, s.getIdBound());
+		int count = 0;
+		int last = -1;
+		for (int k = s.firstKey(); k >= 0; k = s.nextKey(k)) {
+			++count;
+			last = k;
+		}
+		assertEquals(93, count);
+		assertEquals(80, last);
+	}
+}
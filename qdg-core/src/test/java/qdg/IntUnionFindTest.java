@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntUnionFindTest {
+	
+	@Test
+	public void union() {
+		IntUnionFind uf = new IntUnionFind(4);
+		assertEquals(4, uf.getNumSets());
+		assertTrue(uf.union(0, 1));
+		assertTrue(uf.union(2, 3));
+		assertFalse(uf.union(1, 0));
+		assertTrue(uf.isSameSet(0, 1));
+		assertFalse(uf.isSameSet(1, 2));
+		assertEquals(2, uf.getSetSize(3));
+		assertTrue(uf.union(1, 3));
+		assertEquals(1, uf.getNumSets());
+		assertEquals(4, uf.getSetSize(2));
+		assertEquals(uf.find(0), uf.find(3));
+	}
+	
+	@Test
+	public void add() {
+		IntUnionFind uf = new IntUnionFind();
+		for (int i = 0; i < 10; ++i) {
+			assertEquals(i, uf.add());
+		}
+		assertEquals(10, uf.size());
+		assertEquals(10, uf.getNumSets());
+		uf.union(3, 9);
+		assertEquals(uf.find(3), uf.find(9));
+		assertEquals(9, uf.getNumSets());
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void outOfBounds() {
+		new IntUnionFind(3).find(3);
+	}
+	
+	@Test
+	public void random() {
+		// Compared to the labels of the sets, relabeled on each union.
+		int n = 200;
+		IntUnionFind uf = new IntUnionFind(n);
+		int[] label = new int[n];
+		for (int i = 0; i < n; ++i) {
+			label[i] = i;
+		}
+		Random random = new Random(1);
+		for (int k = 0; k < 150; ++k) {
+			int a = random.nextInt(n);
+			int b = random.nextInt(n);
+			assertEquals(label[a] != label[b], uf.union(a, b));
+			int old = label[b];
+			for (int i = 0; i < n; ++i) {
+				if (label[i] == old) {
+					label[i] = label[a];
+				}
+			}
+		}
+		for (int i = 0; i < n; ++i) {
+			int size = 0;
+			for (int j = 0; j < n; ++j) {
+				assertEquals(label[i] == label[j], uf.isSameSet(i, j));
+				if (label[i] == label[j]) {
+					++size;
+				}
+			}
+			assertEquals(size, uf.getSetSize(i));
+		}
+	}
+}
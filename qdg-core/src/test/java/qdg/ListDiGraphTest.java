@@ -320,4 +320,9 @@ public class ListDiGraphTest {
 		assertEquals("n1", w1.get(n11));
 		assertEquals("n3", w1.get(n31));
 	}
+	
+	@Test
+	public void arcCursorTest() {
+		CursorTest.arcCursorTest(g);
+	}
 }
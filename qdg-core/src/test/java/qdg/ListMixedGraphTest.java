@@ -142,6 +142,34 @@ public class ListMixedGraphTest {
 		ListUGraphTest.uEdgeMapMutationHandlerUGraphTest(g);
 	}
 	
+	@Test
+	public void arcCursorTest() {
+		CursorTest.arcCursorTest(g);
+	}
+	
+	@Test
+	public void uEdgeCursorTest() {
+		CursorTest.uEdgeCursorTest(g);
+	}
+	
+	@Test
+	public void cursorAfterRemoveTest() {
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		g.addArc(n0, n1);
+		Edge a = g.addArc(n0, n2);
+		g.addArc(n2, n0);
+		g.addUEdge(n1, n2);
+		g.addUEdge(n2, n0);
+		g.remove(a);
+		g.remove(n1);
+		g.addArc(n2, n2);
+		g.addUEdge(g.addNode(), n0);
+		CursorTest.checkArcCursors(g);
+		CursorTest.checkUEdgeCursors(g);
+	}
+	
 	/**
 	 * Serialize single edge mixed graph.
 	 * 
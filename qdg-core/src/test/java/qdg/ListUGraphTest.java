@@ -295,4 +295,9 @@ public class ListUGraphTest {
 		assertEquals("n1", w1.get(n11));
 		assertEquals("n3", w1.get(n31));
 	}
+	
+	@Test
+	public void uEdgeCursorTest() {
+		CursorTest.uEdgeCursorTest(g);
+	}
 }
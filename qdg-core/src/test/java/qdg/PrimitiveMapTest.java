@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import qdg.api.BooleanEntityMap;
+import qdg.api.DiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.IntEntityMap;
+import qdg.api.LongEntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.bits.BoxedMaps;
+import qdg.bits.IntIdMap;
+import qdg.view.MixedGraphAsDiGraph;
+
+public class PrimitiveMapTest {
+
+	@Test
+	public void nodeMapTest() {
+		StaticDiGraph g = new StaticDiGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		IntEntityMap<Node> m = g.createIntNodeMap(-1);
+		assertEquals(-1, m.getInt(n0));
+		assertEquals(-1, m.get(n1).intValue());
+		m.putInt(n1, 5);
+		assertEquals(7, m.addInt(n1, 2));
+		assertEquals(7, m.getInt(n1));
+		assertEquals(-1, m.getInt(n0));
+		assertEquals(7, m.put(n1, 3).intValue());
+		assertEquals(3, m.getInt(n1));
+		Node n2 = null;
+		for (int i = 0; i < 100; ++i) {
+			n2 = g.addNode();
+		}
+		assertEquals(-1, m.getInt(n2));
+		m.putInt(n2, 1);
+		assertEquals(1, m.getInt(n2));
+		assertEquals(3, m.getInt(n1));
+	}
+	
+	@Test
+	public void arcMapTest() {
+		StaticDiGraph g = new StaticDiGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Edge a0 = g.addArc(n0, n1);
+		Edge a1 = g.addArc(n1, n0);
+		DoubleEntityMap<Edge> d = g.createDoubleArcMap(0.5);
+		d.putDouble(a0, 2.0);
+		assertEquals(2.5, d.addDouble(a0, 0.5), 0.0);
+		assertEquals(0.5, d.getDouble(a1), 0.0);
+		LongEntityMap<Edge> l = g.createLongEdgeMap(0);
+		l.putLong(a1, 1L << 40);
+		assertEquals((1L << 40) + 1, l.addLong(a1, 1));
+		assertEquals(0, l.getLong(a0));
+	}
+	
+	@Test
+	public void booleanMapTest() {
+		StaticUGraph g = new StaticUGraph();
+		Node[] nodes = new Node[70];
+		for (int i = 0; i < nodes.length; ++i) {
+			nodes[i] = g.addNode();
+		}
+		BooleanEntityMap<Node> t = g.createBooleanNodeMap(true);
+		BooleanEntityMap<Node> f = g.createBooleanNodeMap(false);
+		t.putBoolean(nodes[65], false);
+		f.putBoolean(nodes[65], true);
+		f.putBoolean(nodes[3], true);
+		f.put(nodes[3], false);
+		for (int i = 0; i < nodes.length; ++i) {
+			assertEquals(i != 65, t.getBoolean(nodes[i]));
+			assertEquals(i == 65, f.get(nodes[i]));
+		}
+	}
+	
+	@Test
+	public void removeTest() {
+		ListMixedGraph g = new ListMixedGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		IntEntityMap<Node> m = g.createIntNodeMap(0);
+		m.putInt(n0, 1);
+		m.putInt(n1, 2);
+		g.remove(n0);
+		Node n2 = g.addNode();
+		assertEquals(0, m.getInt(n2));
+		assertEquals(2, m.getInt(n1));
+	}
+	
+	@Test
+	public void viewTest() {
+		ListMixedGraph g = new ListMixedGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		g.addArc(n0, n1);
+		g.addUEdge(n1, n0);
+		DiGraph di = new MixedGraphAsDiGraph(g);
+		assertTrue(di.createIntNodeMap(0) instanceof IntIdMap);
+		IntEntityMap<Edge> m = di.createIntArcMap(-1);
+		assertTrue(m instanceof BoxedMaps.IntMap);
+		int i = 0;
+		for (Edge a : di.getArcs()) {
+			assertEquals(-1, m.getInt(a));
+			m.putInt(a, i++);
+		}
+		assertEquals(3, i);
+		i = 0;
+		for (Edge a : di.getArcs()) {
+			assertEquals(i++, m.getInt(a));
+		}
+	}
+}
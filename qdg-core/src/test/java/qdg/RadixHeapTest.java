@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RadixHeapTest {
+	
+	@Test
+	public void random() {
+		BucketQueueTest.checkMonotone(new RadixHeap(), 1000000, 1);
+		BucketQueueTest.checkMonotone(new RadixHeap(5), 3, 2);
+		BucketQueueTest.checkMonotone(new RadixHeap(), 1L << 40, 3);
+	}
+	
+	@Test
+	public void redistribute() {
+		RadixHeap heap = new RadixHeap();
+		heap.add(0, 0);
+		heap.add(1, 8);
+		heap.add(2, 12);
+		heap.add(3, 9);
+		heap.add(4, 1);
+		assertEquals(0, heap.poll());
+		assertEquals(4, heap.poll());
+		heap.decrease(2, 8);
+		assertEquals(8, heap.getKey(2));
+		int first = heap.poll();
+		int second = heap.poll();
+		assertEquals(3, first + second);
+		assertEquals(2, Math.max(first, second));
+		assertEquals(3, heap.poll());
+		assertEquals(-1, heap.poll());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void notMonotone() {
+		RadixHeap heap = new RadixHeap();
+		heap.add(0, 5);
+		heap.add(1, 7);
+		heap.poll();
+		heap.add(2, 4);
+	}
+}
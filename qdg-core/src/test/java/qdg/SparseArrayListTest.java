@@ -236,4 +236,27 @@ public class SparseArrayListTest {
 		assertEquals(s.lastUsed, 1);
 		assertEquals(s.firstFree, -1);
 	}
+	
+	@Test
+	public void grow() {
+		for (int i = 0; i < 40; ++i) {
+			assertEquals(i, s.add(i));
+		}
+		assertNull(s.put(45, 45));
+		assertEquals("[44, 43, 42, 41, 40]",
+				Iterators.toString(s.freeKeyIterator()));
+		assertNull(s.put(42, 42));
+		assertEquals("[44, 43, 41, 40]",
+				Iterators.toString(s.freeKeyIterator()));
+		assertEquals(new Integer(7), s.remove(7));
+		assertEquals(7, s.add(8));
+		assertEquals(44, s.add(9));
+		assertEquals(46, s.getIdBound());
+		int count = 0;
+		for (int k = s.firstKey(); k >= 0; k = s.nextKey(k)) {
+			assertEquals(s.get(k), Iterators.get(s.valueIterator(), count));
+			++count;
+		}
+		assertEquals(43, count);
+	}
 }
@@ -72,4 +72,9 @@ public class StaticDiGraphTest {
 	public void edgeMapTest() {
 		DiGraphTest.edgeMapTest(g);
 	}
+	
+	@Test
+	public void arcCursorTest() {
+		CursorTest.arcCursorTest(g);
+	}
 }
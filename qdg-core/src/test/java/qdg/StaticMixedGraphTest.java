@@ -111,4 +111,14 @@ public class StaticMixedGraphTest {
 	public void edgeMapUTest() {
 		UGraphTest.edgeMapTest(g);
 	}
+	
+	@Test
+	public void arcCursorTest() {
+		CursorTest.arcCursorTest(g);
+	}
+	
+	@Test
+	public void uEdgeCursorTest() {
+		CursorTest.uEdgeCursorTest(g);
+	}
 }
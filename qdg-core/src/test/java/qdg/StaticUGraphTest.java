@@ -62,4 +62,9 @@ public class StaticUGraphTest {
 	public void edgeMapTest() {
 		UGraphTest.edgeMapTest(g);
 	}
+	
+	@Test
+	public void uEdgeCursorTest() {
+		CursorTest.uEdgeCursorTest(g);
+	}
 }
@@ -72,4 +72,21 @@ public class UnionFindTest {
 		assertEquals("A", uf.find("C"));
 		assertEquals("A", uf.find("D"));
 	}
+	
+	@Test
+	public void rankAndCompression() {
+		for (String s : new String[] {"A", "B", "C", "D", "E"}) {
+			uf.add(s);
+		}
+		uf.union("A", "B");
+		assertEquals(1, (int) uf.rank.get("A"));
+		uf.union("C", "D");
+		uf.union("D", "E");
+		assertEquals(1, (int) uf.rank.get("C"));
+		uf.union("E", "B");
+		assertEquals(2, (int) uf.rank.get("C"));
+		assertEquals("A", uf.parent.get("B"));
+		assertEquals("C", uf.find("B"));
+		assertEquals("C", uf.parent.get("B"));
+	}
 }
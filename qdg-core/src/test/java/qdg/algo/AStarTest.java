@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import qdg.StaticDiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+
+import com.google.common.base.Function;
+
+public class AStarTest {
+	
+	@Test
+	public void random() {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = BidirectionalDijkstraTest.randomDiGraph(g, lengths,
+				150, 600, 3);
+		Dijkstra dijkstra = new Dijkstra(g, lengths);
+		final Dijkstra toTarget = new Dijkstra(g, lengths);
+		toTarget.setReverse(true);
+		AStar aStar = new AStar(g, lengths);
+		AStar copy = new AStar(aStar);
+		Function<Node, Double> zero = new Function<Node, Double>() {
+			
+			@Override
+			public Double apply(Node v) {
+				return 0.0;
+			}
+		};
+		// The exact distances to the target, with a finite value for the
+		// nodes not reaching the target, which is still consistent.
+		Function<Node, Double> exact = new Function<Node, Double>() {
+			
+			@Override
+			public Double apply(Node v) {
+				double d = toTarget.getDistance(v);
+				return d == Double.POSITIVE_INFINITY ? 1e6 : d;
+			}
+		};
+		Random random = new Random(4);
+		for (int i = 0; i < 100; ++i) {
+			Node s = nodes.get(random.nextInt(nodes.size()));
+			Node t = nodes.get(random.nextInt(nodes.size()));
+			dijkstra.run(s);
+			toTarget.run(t);
+			double expected = dijkstra.getDistance(t);
+			assertEquals(expected, aStar.computeDistance(s, t, zero), 0.0);
+			int numSettled = aStar.getNumSettled();
+			BidirectionalDijkstraTest.checkPath(g, lengths, s, t, expected,
+					copy.computePath(s, t, exact));
+			assertTrue(copy.getNumSettled() <= numSettled);
+		}
+	}
+	
+	@Test
+	public void potentialMap() {
+		StaticDiGraph g = new StaticDiGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(1.0);
+		g.addArc(n0, n1);
+		g.addArc(n1, n2);
+		lengths.put(g.addArc(n0, n2), 3.0);
+		EntityMap<Node, Double> potential = g.createDoubleNodeMap(0.0);
+		potential.put(n0, 2.0);
+		potential.put(n1, 1.0);
+		AStar aStar = new AStar(g, lengths);
+		assertEquals(2.0, aStar.computeDistance(n0, n2, potential), 0.0);
+		assertEquals(3, aStar.getNumSettled());
+		assertEquals(2, aStar.computePath(n0, n2, potential).getArcs().size());
+		assertNull(aStar.computePath(n2, n0, potential));
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import qdg.ListDiGraph;
+import qdg.ListMixedGraph;
+import qdg.api.DiGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.view.MixedGraphAsDiGraph;
+
+public class BfsTest {
+	
+	private static class Recorder extends TraversalVisitor {
+		
+		final List<String> events = new ArrayList<String>();
+		
+		int stopAt = -1;
+		
+		@Override
+		public void discover(int node) {
+			events.add("d" + node);
+			if (node == stopAt) {
+				stop();
+			}
+		}
+		
+		@Override
+		public void treeArc(int arc, int from, int to) {
+			events.add("t" + from + to);
+		}
+		
+		@Override
+		public void finish(int node) {
+			events.add("f" + node);
+		}
+	}
+	
+	@Test
+	public void bfs() {
+		ListDiGraph g = new ListDiGraph();
+		Node[] n = new Node[5];
+		for (int i = 0; i < n.length; ++i) {
+			n[i] = g.addNode();
+		}
+		Edge a01 = g.addArc(n[0], n[1]);
+		g.addArc(n[0], n[2]);
+		Edge a13 = g.addArc(n[1], n[3]);
+		g.addArc(n[2], n[3]);
+		g.addArc(n[3], n[0]);
+		g.addArc(n[4], n[0]);
+		Bfs bfs = new Bfs(g);
+		Recorder recorder = new Recorder();
+		bfs.setVisitor(recorder);
+		bfs.run(n[0]);
+		assertEquals(4, bfs.getNumReached());
+		assertEquals(n[0], bfs.getReached(0));
+		assertEquals(n[3], bfs.getReached(3));
+		assertEquals(0, bfs.getDistance(n[0]));
+		assertEquals(1, bfs.getDistance(n[2]));
+		assertEquals(2, bfs.getDistance(n[3]));
+		assertEquals(-1, bfs.getDistance(n[4]));
+		assertFalse(bfs.isReached(n[4]));
+		assertNull(bfs.getPredArc(n[0]));
+		assertEquals(a01, bfs.getPredArc(n[1]));
+		assertEquals(a13, bfs.getPredArc(n[3]));
+		assertEquals("[d0, t01, d1, t02, d2, f0, t13, d3, f1, f2, f3]",
+				recorder.events.toString());
+		
+		bfs.setReverse(true);
+		bfs.run(n[0]);
+		assertEquals(5, bfs.getNumReached());
+		assertEquals(1, bfs.getDistance(n[4]));
+		assertEquals(1, bfs.getDistance(n[3]));
+		assertEquals(2, bfs.getDistance(n[1]));
+		assertEquals(n[3], g.getTarget(bfs.getPredArc(n[1])));
+		
+		bfs.setReverse(false);
+		recorder.events.clear();
+		recorder.stopAt = 2;
+		bfs.run(n[0]);
+		assertTrue(recorder.isStopped());
+		assertEquals("[d0, t01, d1, t02, d2]", recorder.events.toString());
+		assertEquals(3, bfs.getNumReached());
+		assertFalse(bfs.isReached(n[3]));
+	}
+	
+	@Test
+	public void multipleSources() {
+		ListDiGraph g = new ListDiGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		Node n3 = g.addNode();
+		g.addArc(n0, n1);
+		g.addArc(n1, n2);
+		g.addArc(n3, n2);
+		g.remove(n1);
+		Bfs bfs = new Bfs(g);
+		bfs.reset();
+		bfs.addSource(n0);
+		bfs.addSource(n3);
+		bfs.addSource(n0);
+		bfs.start();
+		assertEquals(3, bfs.getNumReached());
+		assertEquals(0, bfs.getDistance(n0));
+		assertEquals(0, bfs.getDistance(n3));
+		assertEquals(1, bfs.getDistance(n2));
+	}
+	
+	private static int[][] distances(DiGraph g, List<Node> nodes) {
+		int n = nodes.size();
+		int[][] d = new int[n][n];
+		for (int i = 0; i < n; ++i) {
+			for (int j = 0; j < n; ++j) {
+				d[i][j] = i == j ? 0 : Integer.MAX_VALUE;
+			}
+		}
+		for (Edge a : g.getArcs()) {
+			int i = nodes.indexOf(g.getSource(a));
+			int j = nodes.indexOf(g.getTarget(a));
+			d[i][j] = Math.min(d[i][j], 1);
+		}
+		for (int k = 0; k < n; ++k) {
+			for (int i = 0; i < n; ++i) {
+				for (int j = 0; j < n; ++j) {
+					if (d[i][k] != Integer.MAX_VALUE
+							&& d[k][j] != Integer.MAX_VALUE) {
+						d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+					}
+				}
+			}
+		}
+		return d;
+	}
+	
+	@Test
+	public void random() {
+		Random random = new Random(13);
+		ListMixedGraph m = new ListMixedGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 30; ++i) {
+			nodes.add(m.addNode());
+		}
+		for (int i = 0; i < 60; ++i) {
+			m.addArc(nodes.get(random.nextInt(30)),
+					nodes.get(random.nextInt(30)));
+		}
+		DiGraph g = new MixedGraphAsDiGraph(m);
+		int[][] d = distances(g, nodes);
+		Bfs bfs = new Bfs(g);
+		for (int i = 0; i < nodes.size(); ++i) {
+			bfs.run(nodes.get(i));
+			for (int j = 0; j < nodes.size(); ++j) {
+				Node v = nodes.get(j);
+				assertEquals(d[i][j] == Integer.MAX_VALUE ? -1 : d[i][j],
+						bfs.getDistance(v));
+				Edge a = bfs.getPredArc(v);
+				if (a != null) {
+					assertEquals(v, g.getTarget(a));
+					assertEquals(bfs.getDistance(v) - 1,
+							bfs.getDistance(g.getSource(a)));
+				}
+			}
+		}
+	}
+}
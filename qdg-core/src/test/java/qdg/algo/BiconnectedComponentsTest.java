@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import qdg.ListUGraph;
+import qdg.StaticMixedGraph;
+import qdg.StaticUGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.UGraph;
+
+public class BiconnectedComponentsTest {
+	
+	/**
+	 * The number of connected components of g without the node and the edge,
+	 * if not null.
+	 */
+	private static int countComponents(UGraph g, List<Node> nodes,
+			Node removedNode, Edge removedEdge) {
+		int[] parent = new int[nodes.size()];
+		for (int i = 0; i < parent.length; ++i) {
+			parent[i] = i;
+		}
+		int count = nodes.size() - (removedNode == null ? 0 : 1);
+		for (Edge e : g.getUEdges()) {
+			Node s = g.getSource(e);
+			Node t = g.getTarget(e);
+			if (e.equals(removedEdge) || s.equals(removedNode)
+					|| t.equals(removedNode)) {
+				continue;
+			}
+			int a = find(parent, nodes.indexOf(s));
+			int b = find(parent, nodes.indexOf(t));
+			if (a != b) {
+				parent[a] = b;
+				--count;
+			}
+		}
+		return count;
+	}
+	
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			i = parent[i];
+		}
+		return i;
+	}
+	
+	/**
+	 * Compares the articulation points and the bridges to the definitions,
+	 * and checks that two edges are in the same block if they are on a
+	 * common cycle, for edges sharing a node.
+	 */
+	private static void check(UGraph g, List<Node> nodes,
+			BiconnectedComponents bc) {
+		int components = countComponents(g, nodes, null, null);
+		for (Node v : nodes) {
+			boolean separates = countComponents(g, nodes, v, null) > components;
+			assertEquals(separates, bc.isArticulationPoint(v));
+			assertEquals(separates, bc.createArticulationPointMap().get(v));
+		}
+		List<Edge> edges = new ArrayList<Edge>();
+		for (Edge e : g.getUEdges()) {
+			edges.add(e);
+			boolean separates = countComponents(g, nodes, null, e) > components;
+			assertEquals(separates, bc.isBridge(e));
+			if (g.getSource(e).equals(g.getTarget(e))) {
+				assertEquals(-1, bc.getBlock(e));
+			} else {
+				assertTrue(bc.getBlock(e) >= 0);
+			}
+		}
+		for (Node v : nodes) {
+			// Edges of v are in one block if v is not an articulation point.
+			if (!bc.isArticulationPoint(v)) {
+				int b = -1;
+				for (Edge e : edges) {
+					if (!g.getSource(e).equals(g.getTarget(e))
+							&& (g.getSource(e).equals(v)
+							|| g.getTarget(e).equals(v))) {
+						assertTrue(b < 0 || b == bc.getBlock(e));
+						b = bc.getBlock(e);
+					}
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void example() {
+		// Two triangles sharing node 2, and a bridge from 4 to 5.
+		StaticUGraph g = new StaticUGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 7; ++i) {
+			nodes.add(g.addNode());
+		}
+		g.addUEdge(nodes.get(0), nodes.get(1));
+		g.addUEdge(nodes.get(1), nodes.get(2));
+		g.addUEdge(nodes.get(2), nodes.get(0));
+		g.addUEdge(nodes.get(2), nodes.get(3));
+		g.addUEdge(nodes.get(3), nodes.get(4));
+		g.addUEdge(nodes.get(4), nodes.get(2));
+		Edge bridge = g.addUEdge(nodes.get(4), nodes.get(5));
+		BiconnectedComponents bc = new BiconnectedComponents(g);
+		bc.run();
+		assertEquals(3, bc.getNumBlocks());
+		assertTrue(bc.isArticulationPoint(nodes.get(2)));
+		assertTrue(bc.isArticulationPoint(nodes.get(4)));
+		assertTrue(bc.isBridge(bridge));
+		assertTrue(bc.createBridgeMap().getBoolean(bridge));
+		assertEquals(bc.getBlock(bridge),
+				(int) bc.createBlockMap().get(bridge));
+		check(g, nodes, bc);
+		StaticUGraph tree = bc.createBlockCutTree();
+		assertEquals(3 + 2, tree.getNodeIdBound());
+		assertEquals(4, tree.getUEdgeIdBound());
+	}
+	
+	@Test
+	public void parallelEdges() {
+		ListUGraph g = new ListUGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 3; ++i) {
+			nodes.add(g.addNode());
+		}
+		g.addUEdge(nodes.get(0), nodes.get(1));
+		g.addUEdge(nodes.get(1), nodes.get(0));
+		Edge bridge = g.addUEdge(nodes.get(1), nodes.get(2));
+		g.addUEdge(nodes.get(2), nodes.get(2));
+		BiconnectedComponents bc = new BiconnectedComponents(g);
+		bc.run();
+		assertEquals(2, bc.getNumBlocks());
+		assertTrue(bc.isBridge(bridge));
+		check(g, nodes, bc);
+	}
+	
+	@Test
+	public void random() {
+		ListUGraph g = new ListUGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 80; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random random = new Random(1);
+		for (int i = 0; i < 90; ++i) {
+			g.addUEdge(nodes.get(random.nextInt(nodes.size())),
+					nodes.get(random.nextInt(nodes.size())));
+		}
+		g.remove(nodes.remove(3));
+		BiconnectedComponents bc = new BiconnectedComponents(g);
+		bc.run();
+		check(g, nodes, bc);
+		// A tree: blocks and cut nodes, with one edge per block and cut node
+		// pair, and no cycle.
+		StaticUGraph tree = bc.createBlockCutTree();
+		int numCut = tree.getNodeIdBound() - bc.getNumBlocks();
+		ConnectedComponents cc = new ConnectedComponents(tree);
+		cc.run();
+		assertEquals(tree.getNodeIdBound() - cc.getNumComponents(),
+				tree.getUEdgeIdBound());
+		int numArticulationPoints = 0;
+		for (Node v : nodes) {
+			if (bc.isArticulationPoint(v)) {
+				++numArticulationPoints;
+			}
+		}
+		assertEquals(numArticulationPoints, numCut);
+	}
+	
+	@Test
+	public void mixedGraph() {
+		StaticMixedGraph m = new StaticMixedGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 4; ++i) {
+			nodes.add(m.addNode());
+		}
+		m.addArc(nodes.get(0), nodes.get(1));
+		m.addUEdge(nodes.get(1), nodes.get(2));
+		m.addArc(nodes.get(2), nodes.get(0));
+		m.addArc(nodes.get(3), nodes.get(2));
+		BiconnectedComponents bc = new BiconnectedComponents(m);
+		bc.run();
+		assertEquals(2, bc.getNumBlocks());
+		assertTrue(bc.isArticulationPoint(nodes.get(2)));
+		assertFalse(bc.isArticulationPoint(nodes.get(0)));
+	}
+	
+	@Test
+	public void longPath() {
+		// Deeper than the call stack would allow for a recursive search.
+		StaticUGraph g = new StaticUGraph();
+		int n = 200000;
+		Node last = g.addNode();
+		for (int i = 1; i < n; ++i) {
+			Node v = g.addNode();
+			g.addUEdge(last, v);
+			last = v;
+		}
+		BiconnectedComponents bc = new BiconnectedComponents(g);
+		bc.run();
+		assertEquals(n - 1, bc.getNumBlocks());
+		assertFalse(bc.isArticulationPoint(last));
+		assertTrue(bc.isArticulationPoint(n / 2));
+	}
+}
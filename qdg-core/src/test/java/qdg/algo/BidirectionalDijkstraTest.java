@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import qdg.StaticDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+
+public class BidirectionalDijkstraTest {
+	
+	static List<Node> randomDiGraph(StaticDiGraph g,
+			EntityMap<Edge, Double> lengths, int numNodes, int numArcs,
+			long seed) {
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < numNodes; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random random = new Random(seed);
+		for (int i = 0; i < numArcs; ++i) {
+			Edge a = g.addArc(nodes.get(random.nextInt(numNodes)),
+					nodes.get(random.nextInt(numNodes)));
+			lengths.put(a, (double) random.nextInt(20));
+		}
+		return nodes;
+	}
+	
+	static void checkPath(DiGraph g, EntityMap<Edge, Double> lengths,
+			Node s, Node t, double distance, ShortestPath path) {
+		if (distance == Double.POSITIVE_INFINITY) {
+			assertNull(path);
+			return;
+		}
+		assertEquals(distance, path.getDistance(), 0.0);
+		Node v = s;
+		double sum = 0.0;
+		for (Edge a : path.getArcs()) {
+			assertEquals(v, g.getSource(a));
+			v = g.getTarget(a);
+			sum += lengths.get(a);
+		}
+		assertEquals(t, v);
+		assertEquals(distance, sum, 0.0);
+	}
+	
+	@Test
+	public void random() {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = randomDiGraph(g, lengths, 200, 700, 1);
+		Dijkstra dijkstra = new Dijkstra(g, lengths);
+		BidirectionalDijkstra query = new BidirectionalDijkstra(g, lengths);
+		BidirectionalDijkstra copy = new BidirectionalDijkstra(query);
+		Random random = new Random(2);
+		int numSettled = 0;
+		int numDijkstraSettled = 0;
+		for (int i = 0; i < 200; ++i) {
+			Node s = nodes.get(random.nextInt(nodes.size()));
+			Node t = nodes.get(random.nextInt(nodes.size()));
+			dijkstra.run(s);
+			double expected = dijkstra.getDistance(t);
+			assertEquals(expected, query.computeDistance(s, t), 0.0);
+			numSettled += query.getNumSettled();
+			numDijkstraSettled += dijkstra.getNumReached();
+			checkPath(g, lengths, s, t, expected, copy.computePath(s, t));
+		}
+		assertTrue(numSettled < numDijkstraSettled);
+	}
+	
+	@Test
+	public void trivial() {
+		StaticDiGraph g = new StaticDiGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(1.0);
+		Edge a = g.addArc(n0, n1);
+		BidirectionalDijkstra query = new BidirectionalDijkstra(g, lengths);
+		assertEquals(0.0, query.computeDistance(n0, n0), 0.0);
+		assertTrue(query.computePath(n1, n1).getArcs().isEmpty());
+		assertNull(query.computePath(n1, n0));
+		assertEquals(Double.POSITIVE_INFINITY, query.computeDistance(n1, n0),
+				0.0);
+		ShortestPath path = query.computePath(n0, n1);
+		assertEquals(1.0, path.getDistance(), 0.0);
+		assertEquals(a, path.getArcs().get(0));
+	}
+}
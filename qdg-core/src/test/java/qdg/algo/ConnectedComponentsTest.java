@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import qdg.IntUnionFind;
+import qdg.ListUGraph;
+import qdg.StaticMixedGraph;
+import qdg.StaticUGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.IntEntityMap;
+import qdg.api.UGraph;
+
+public class ConnectedComponentsTest {
+	
+	private static List<Node> randomUGraph(UGraph g, int numNodes,
+			int numEdges, long seed) {
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < numNodes; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random random = new Random(seed);
+		for (int i = 0; i < numEdges; ++i) {
+			g.addUEdge(nodes.get(random.nextInt(numNodes)),
+					nodes.get(random.nextInt(numNodes)));
+		}
+		return nodes;
+	}
+	
+	/**
+	 * Compares the components to a sequential union-find of the edges.
+	 */
+	private static void check(UGraph g, List<Node> nodes,
+			ConnectedComponents cc) {
+		IntUnionFind uf = new IntUnionFind(nodes.size());
+		IntEntityMap<Node> index = g.createIntNodeMap(-1);
+		for (int i = 0; i < nodes.size(); ++i) {
+			index.putInt(nodes.get(i), i);
+		}
+		for (Edge e : g.getUEdges()) {
+			uf.union(index.getInt(g.getSource(e)), index.getInt(g.getTarget(e)));
+		}
+		assertEquals(uf.getNumSets(), cc.getNumComponents());
+		IntEntityMap<Node> components = cc.createComponentMap();
+		int total = 0;
+		int last = -1;
+		for (int i = 0; i < nodes.size(); ++i) {
+			Node v = nodes.get(i);
+			int c = cc.getComponent(v);
+			assertEquals(c, components.getInt(v));
+			assertEquals(uf.getSetSize(i), cc.getComponentSize(c));
+			for (int j = 0; j < i; ++j) {
+				assertEquals(uf.isSameSet(i, j),
+						c == cc.getComponent(nodes.get(j)));
+			}
+			// Numbered in the order of the smallest ids.
+			if (c > last) {
+				assertEquals(last + 1, c);
+				last = c;
+			}
+		}
+		for (int c = 0; c < cc.getNumComponents(); ++c) {
+			total += cc.getComponentSize(c);
+		}
+		assertEquals(nodes.size(), total);
+	}
+	
+	@Test
+	public void random() {
+		ListUGraph g = new ListUGraph();
+		List<Node> nodes = randomUGraph(g, 300, 200, 1);
+		// A hole in the ids.
+		g.remove(nodes.remove(10));
+		ConnectedComponents cc = new ConnectedComponents(g);
+		cc.run();
+		assertEquals(-1, cc.getComponent(10));
+		check(g, nodes, cc);
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		StaticUGraph g = new StaticUGraph();
+		List<Node> nodes = randomUGraph(g, 6000, 5000, 2);
+		ConnectedComponents cc = new ConnectedComponents(g);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			cc.run(executor, 4);
+		} finally {
+			executor.shutdown();
+		}
+		check(g, nodes, cc);
+	}
+	
+	@Test
+	public void mixedGraph() {
+		StaticMixedGraph m = new StaticMixedGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 6; ++i) {
+			nodes.add(m.addNode());
+		}
+		m.addArc(nodes.get(0), nodes.get(1));
+		m.addUEdge(nodes.get(2), nodes.get(1));
+		m.addArc(nodes.get(4), nodes.get(3));
+		ConnectedComponents cc = new ConnectedComponents(m);
+		cc.run();
+		assertEquals(3, cc.getNumComponents());
+		assertEquals(0, cc.getComponent(nodes.get(2)));
+		assertEquals(3, cc.getComponentSize(0));
+		assertEquals(1, cc.getComponent(nodes.get(3)));
+		assertEquals(2, cc.getComponent(nodes.get(5)));
+		assertEquals(1, cc.getComponentSize(2));
+	}
+	
+	@Test
+	public void empty() {
+		ConnectedComponents cc = new ConnectedComponents(new ListUGraph());
+		cc.run();
+		assertEquals(0, cc.getNumComponents());
+	}
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import qdg.StaticDiGraph;
+import qdg.StaticMixedGraph;
+import qdg.api.DiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.view.MixedGraphAsDiGraph;
+
+public class ContractionHierarchyTest {
+	
+	/**
+	 * A grid with random lengths and a few random long arcs.
+	 */
+	private static List<Node> roadLike(StaticDiGraph g,
+			EntityMap<Edge, Double> lengths, int size, long seed) {
+		Random random = new Random(seed);
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < size * size; ++i) {
+			nodes.add(g.addNode());
+		}
+		for (int i = 0; i < size; ++i) {
+			for (int j = 0; j < size; ++j) {
+				Node v = nodes.get(i * size + j);
+				if (j + 1 < size) {
+					Node w = nodes.get(i * size + j + 1);
+					lengths.put(g.addArc(v, w), 1.0 + random.nextInt(9));
+					lengths.put(g.addArc(w, v), 1.0 + random.nextInt(9));
+				}
+				if (i + 1 < size && random.nextInt(4) > 0) {
+					Node w = nodes.get((i + 1) * size + j);
+					lengths.put(g.addArc(v, w), 1.0 + random.nextInt(9));
+				}
+			}
+		}
+		for (int k = 0; k < size; ++k) {
+			lengths.put(g.addArc(nodes.get(random.nextInt(nodes.size())),
+					nodes.get(random.nextInt(nodes.size()))),
+					(double) random.nextInt(30));
+		}
+		return nodes;
+	}
+	
+	private static void check(DiGraph g, EntityMap<Edge, Double> lengths,
+			List<Node> nodes, ContractionHierarchy ch, long seed) {
+		Dijkstra dijkstra = new Dijkstra(g, lengths);
+		ContractionHierarchyQuery query = new ContractionHierarchyQuery(ch, g);
+		ContractionHierarchyQuery copy = new ContractionHierarchyQuery(query);
+		Random random = new Random(seed);
+		for (int i = 0; i < 100; ++i) {
+			Node s = nodes.get(random.nextInt(nodes.size()));
+			Node t = nodes.get(random.nextInt(nodes.size()));
+			dijkstra.run(s);
+			double expected = dijkstra.getDistance(t);
+			assertEquals(expected, query.computeDistance(s, t), 0.0);
+			BidirectionalDijkstraTest.checkPath(g, lengths, s, t, expected,
+					copy.computePath(s, t));
+		}
+		List<Node> sources = nodes.subList(0, 7);
+		List<Node> targets = nodes.subList(nodes.size() - 5, nodes.size());
+		double[][] table = query.computeDistanceTable(sources, targets);
+		for (int i = 0; i < sources.size(); ++i) {
+			dijkstra.run(sources.get(i));
+			for (int j = 0; j < targets.size(); ++j) {
+				assertEquals(dijkstra.getDistance(targets.get(j)), table[i][j],
+						0.0);
+			}
+		}
+	}
+	
+	/**
+	 * Compares the distances of all the pairs of nodes to Dijkstra's.
+	 */
+	private static void checkAllPairs(DiGraph g,
+			EntityMap<Edge, Double> lengths, List<Node> nodes,
+			ContractionHierarchy ch) {
+		Dijkstra dijkstra = new Dijkstra(g, lengths);
+		ContractionHierarchyQuery query = new ContractionHierarchyQuery(ch, g);
+		for (Node s : nodes) {
+			dijkstra.run(s);
+			for (Node t : nodes) {
+				assertEquals(dijkstra.getDistance(t),
+						query.computeDistance(s, t), 0.0);
+			}
+		}
+	}
+	
+	/**
+	 * The middle nodes are contracted in the same round, and the path
+	 * through either one must not witness the other.
+	 */
+	@Test
+	public void diamond() {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		Node v1 = g.addNode();
+		Node v2 = g.addNode();
+		Node u = g.addNode();
+		Node w = g.addNode();
+		lengths.put(g.addArc(u, v1), 1.0);
+		lengths.put(g.addArc(v1, w), 1.0);
+		lengths.put(g.addArc(u, v2), 1.0);
+		lengths.put(g.addArc(v2, w), 1.0);
+		ContractionHierarchy ch = ContractionHierarchy.build(g, lengths);
+		ContractionHierarchyQuery query = new ContractionHierarchyQuery(ch, g);
+		assertEquals(2.0, query.computeDistance(u, w), 0.0);
+		checkAllPairs(g, lengths, Arrays.asList(v1, v2, u, w), ch);
+	}
+	
+	@Test
+	public void allPairs() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			for (int seed = 0; seed < 30; ++seed) {
+				StaticDiGraph g = new StaticDiGraph();
+				EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+				List<Node> nodes = BidirectionalDijkstraTest.randomDiGraph(g,
+						lengths, 60, 60 + 10 * seed, seed);
+				checkAllPairs(g, lengths, nodes,
+						ContractionHierarchy.build(g, lengths));
+				checkAllPairs(g, lengths, nodes,
+						ContractionHierarchy.build(g, lengths, executor, 4));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void roadLike() {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = roadLike(g, lengths, 15, 1);
+		ContractionHierarchy ch = ContractionHierarchy.build(g, lengths);
+		assertTrue(ch.getNumShortcuts() > 0);
+		check(g, lengths, nodes, ch, 2);
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = roadLike(g, lengths, 12, 3);
+		ContractionHierarchy expected = ContractionHierarchy.build(g, lengths);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		ContractionHierarchy ch;
+		try {
+			ch = ContractionHierarchy.build(g, lengths, executor, 4);
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(expected.getNumArcs(), ch.getNumArcs());
+		for (Node v : nodes) {
+			int id = g.getNodeId(v);
+			assertEquals(expected.getRank(id), ch.getRank(id));
+		}
+		check(g, lengths, nodes, ch, 4);
+	}
+	
+	@Test
+	public void mixedGraph() {
+		StaticMixedGraph m = new StaticMixedGraph();
+		Random random = new Random(5);
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 80; ++i) {
+			nodes.add(m.addNode());
+		}
+		for (int i = 0; i < 120; ++i) {
+			Node u = nodes.get(random.nextInt(nodes.size()));
+			Node v = nodes.get(random.nextInt(nodes.size()));
+			if (random.nextBoolean()) {
+				m.addArc(u, v);
+			} else {
+				m.addUEdge(u, v);
+			}
+		}
+		DiGraph g = new MixedGraphAsDiGraph(m);
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		for (Edge a : g.getArcs()) {
+			lengths.put(a, (double) random.nextInt(10));
+		}
+		ContractionHierarchy ch = ContractionHierarchy.build(g, lengths);
+		check(g, lengths, nodes, ch, 6);
+	}
+	
+	@Test
+	public void serialization() throws IOException, ClassNotFoundException {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = roadLike(g, lengths, 8, 7);
+		ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytesOut);
+		out.writeObject(ContractionHierarchy.build(g, lengths));
+		ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(bytesOut.toByteArray()));
+		ContractionHierarchy ch = (ContractionHierarchy) in.readObject();
+		assertEquals(g.getNodeIdBound(), ch.getNodeIdBound());
+		check(g, lengths, nodes, ch, 8);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void otherGraph() {
+		StaticDiGraph g = new StaticDiGraph();
+		g.addNode();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		ContractionHierarchy ch = ContractionHierarchy.build(g, lengths);
+		g.addNode();
+		new ContractionHierarchyQuery(ch, g);
+	}
+}
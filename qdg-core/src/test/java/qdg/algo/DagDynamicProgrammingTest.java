@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import qdg.ListDiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+
+public class DagDynamicProgrammingTest {
+	
+	@Test
+	public void criticalPath() {
+		ListDiGraph g = new ListDiGraph();
+		Node s = g.addNode();
+		Node a = g.addNode();
+		Node b = g.addNode();
+		Node t = g.addNode();
+		DoubleEntityMap<Edge> weights = g.createDoubleArcMap(0.0);
+		Edge sa = g.addArc(s, a);
+		weights.putDouble(sa, 3.0);
+		Edge sb = g.addArc(s, b);
+		weights.putDouble(sb, 1.0);
+		Edge ab = g.addArc(a, b);
+		weights.putDouble(ab, 1.0);
+		Edge at = g.addArc(a, t);
+		weights.putDouble(at, 1.0);
+		Edge bt = g.addArc(b, t);
+		weights.putDouble(bt, 2.0);
+		DagDynamicProgramming dp = new DagDynamicProgramming(g, weights);
+		dp.run();
+		assertEquals(0.0, dp.getValue(s), 0.0);
+		assertEquals(3.0, dp.getValue(a), 0.0);
+		assertEquals(4.0, dp.getValue(b), 0.0);
+		assertEquals(6.0, dp.getValue(t), 0.0);
+		assertEquals(Arrays.asList(sa, ab, bt), dp.getPath(t));
+		assertNull(dp.getPredArc(s));
+		assertEquals(6.0, dp.createValueMap().getDouble(t), 0.0);
+		
+		dp.setAggregate(DagDynamicProgramming.Aggregate.MIN);
+		dp.setDefaultInitialValue(Double.POSITIVE_INFINITY);
+		dp.setInitialValue(s, 0.0);
+		dp.run();
+		assertEquals(1.0, dp.getValue(b), 0.0);
+		assertEquals(3.0, dp.getValue(t), 0.0);
+		assertEquals(Arrays.asList(sb, bt), dp.getPath(t));
+		
+		dp.setAggregate(DagDynamicProgramming.Aggregate.SUM);
+		dp.setDefaultInitialValue(0.0);
+		dp.setInitialValue(s, 1.0);
+		dp.run();
+		// The paths weighted by the products of the arc weights.
+		assertEquals(3.0 * 1.0 * 2.0 + 1.0 * 2.0 + 3.0 * 1.0,
+				dp.getValue(t), 0.0);
+		assertTrue(dp.getPath(t).isEmpty());
+	}
+	
+	@Test
+	public void countPaths() {
+		ListDiGraph g = new ListDiGraph();
+		DoubleEntityMap<Edge> weights = g.createDoubleArcMap(0.0);
+		Node last = g.addNode();
+		// A chain of 20 diamonds.
+		for (int i = 0; i < 20; ++i) {
+			Node a = g.addNode();
+			Node b = g.addNode();
+			Node next = g.addNode();
+			weights.putDouble(g.addArc(last, a), 1.0);
+			weights.putDouble(g.addArc(last, b), 1.0);
+			weights.putDouble(g.addArc(a, next), 1.0);
+			weights.putDouble(g.addArc(b, next), 1.0);
+			last = next;
+		}
+		DagDynamicProgramming dp = new DagDynamicProgramming(g, weights);
+		dp.setAggregate(DagDynamicProgramming.Aggregate.SUM);
+		dp.run();
+		// All the paths ending at last, including the ones of no arcs.
+		double expected = 1.0;
+		for (int i = 0; i < 20; ++i) {
+			expected = 2.0 * expected + 1.0 + 2.0;
+		}
+		assertEquals(expected, dp.getValue(last), 0.0);
+	}
+	
+	@Test
+	public void randomDags() {
+		for (int seed = 0; seed < 10; ++seed) {
+			ListDiGraph g = new ListDiGraph();
+			List<Node> nodes =
+					TopologicalSortTest.randomDag(g, 40, 20 * seed, seed);
+			DoubleEntityMap<Edge> weights = g.createDoubleArcMap(0.0);
+			DoubleEntityMap<Edge> negated = g.createDoubleArcMap(0.0);
+			int i = 0;
+			for (Edge a : g.getArcs()) {
+				weights.putDouble(a, i % 7 - 2);
+				negated.putDouble(a, 2 - i % 7);
+				++i;
+			}
+			DagDynamicProgramming max = new DagDynamicProgramming(g, weights);
+			max.run();
+			DagDynamicProgramming min = new DagDynamicProgramming(g, negated);
+			min.setAggregate(DagDynamicProgramming.Aggregate.MIN);
+			min.run();
+			// Relaxes the arcs in the order of the shuffled list.
+			double[] longest = new double[nodes.size()];
+			for (int j = 0; j < nodes.size(); ++j) {
+				Node v = nodes.get(j);
+				for (Edge a : g.getInArcs(v)) {
+					int k = nodes.indexOf(g.getSource(a));
+					longest[j] = Math.max(longest[j],
+							longest[k] + weights.getDouble(a));
+				}
+				assertEquals(longest[j], max.getValue(v), 0.0);
+				assertEquals(-longest[j], min.getValue(v), 0.0);
+				double length = 0.0;
+				for (Edge a : max.getPath(v)) {
+					length += weights.getDouble(a);
+				}
+				assertEquals(longest[j], length, 0.0);
+			}
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void cyclic() {
+		ListDiGraph g = new ListDiGraph();
+		Node a = g.addNode();
+		Node b = g.addNode();
+		DoubleEntityMap<Edge> weights = g.createDoubleArcMap(0.0);
+		g.addArc(a, b);
+		g.addArc(b, a);
+		new DagDynamicProgramming(g, weights);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void missingWeight() {
+		ListDiGraph g = new ListDiGraph();
+		g.addArc(g.addNode(), g.addNode());
+		new DagDynamicProgramming(g, g.<Double>createArcMap());
+	}
+}
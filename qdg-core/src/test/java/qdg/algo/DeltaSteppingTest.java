@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import qdg.ListDiGraph;
+import qdg.StaticDiGraph;
+import qdg.api.DoubleEntityMap;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+
+public class DeltaSteppingTest {
+	
+	private static void check(StaticDiGraph g, EntityMap<Edge, Double> lengths,
+			List<Node> nodes, Node s, DeltaStepping deltaStepping) {
+		Dijkstra dijkstra = new Dijkstra(g, lengths);
+		dijkstra.run(s);
+		for (Node v : nodes) {
+			assertEquals(dijkstra.getDistance(v), deltaStepping.getDistance(v),
+					0.0);
+			Edge a = deltaStepping.getPredArc(v);
+			if (v == s || !dijkstra.isReached(v)) {
+				assertNull(a);
+			} else {
+				assertEquals(v, g.getTarget(a));
+				assertEquals(dijkstra.getDistance(v),
+						dijkstra.getDistance(g.getSource(a)) + lengths.get(a),
+						0.0);
+			}
+		}
+	}
+	
+	@Test
+	public void random() {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = BidirectionalDijkstraTest.randomDiGraph(g, lengths,
+				300, 1200, 1);
+		DeltaStepping deltaStepping = new DeltaStepping(g, lengths);
+		assertTrue(deltaStepping.getDelta() > 0.0);
+		deltaStepping.setPredArcs(true);
+		Random random = new Random(2);
+		for (double delta : new double[] {0.5, 3.0, 19.0, 100.0}) {
+			deltaStepping.setDelta(delta);
+			for (int i = 0; i < 5; ++i) {
+				Node s = nodes.get(random.nextInt(nodes.size()));
+				deltaStepping.run(s);
+				check(g, lengths, nodes, s, deltaStepping);
+			}
+		}
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = BidirectionalDijkstraTest.randomDiGraph(g, lengths,
+				3000, 15000, 3);
+		DeltaStepping deltaStepping = new DeltaStepping(g, lengths);
+		deltaStepping.setPredArcs(true);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			for (double delta : new double[] {2.0, 50.0}) {
+				deltaStepping.setDelta(delta);
+				deltaStepping.run(nodes.get(0), executor, 4);
+				check(g, lengths, nodes, nodes.get(0), deltaStepping);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void longLengths() {
+		ListDiGraph g = new ListDiGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		Node n3 = g.addNode();
+		EntityMap<Edge, Long> lengths = g.createLongArcMap(0L);
+		lengths.put(g.addArc(n0, n1), 1L << 40);
+		lengths.put(g.addArc(n1, n2), 3L);
+		lengths.put(g.addArc(n0, n2), (1L << 40) + 4);
+		g.addArc(n2, n0);
+		DeltaStepping deltaStepping = DeltaStepping.withLongLengths(g, lengths);
+		deltaStepping.setPredArcs(true);
+		deltaStepping.run(n0);
+		assertEquals((1L << 40) + 3, (long) deltaStepping.getDistance(n2));
+		assertEquals(n1, g.getSource(deltaStepping.getPredArc(n2)));
+		assertFalse(deltaStepping.isReached(n3));
+		DoubleEntityMap<Node> distances = deltaStepping.createDistanceMap();
+		assertEquals(1L << 40, (long) distances.getDouble(n1));
+		assertEquals(Double.POSITIVE_INFINITY, distances.getDouble(n3), 0.0);
+	}
+	
+	@Test
+	public void zeroLengths() {
+		// A zero length cycle, whose tree must not be a cycle.
+		ListDiGraph g = new ListDiGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		g.addArc(n0, n1);
+		g.addArc(n1, n2);
+		g.addArc(n2, n1);
+		DeltaStepping deltaStepping = new DeltaStepping(g, lengths);
+		assertEquals(1.0, deltaStepping.getDelta(), 0.0);
+		deltaStepping.setPredArcs(true);
+		deltaStepping.run(n0);
+		assertEquals(0.0, deltaStepping.getDistance(n2), 0.0);
+		assertEquals(n0, g.getSource(deltaStepping.getPredArc(n1)));
+		assertEquals(n1, g.getSource(deltaStepping.getPredArc(n2)));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeLength() {
+		ListDiGraph g = new ListDiGraph();
+		Node n0 = g.addNode();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		lengths.put(g.addArc(n0, n0), -1.0);
+		new DeltaStepping(g, lengths);
+	}
+}
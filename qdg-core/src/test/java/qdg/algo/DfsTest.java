@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import qdg.StaticDiGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+
+public class DfsTest {
+	
+	private static class Recorder extends TraversalVisitor {
+		
+		final List<String> events = new ArrayList<String>();
+		
+		@Override
+		public void discover(int node) {
+			events.add("d" + node);
+		}
+		
+		@Override
+		public void examineArc(int arc, int from, int to) {
+			events.add("e" + from + to);
+		}
+		
+		@Override
+		public void finish(int node) {
+			events.add("f" + node);
+			if (node == 3) {
+				stop();
+			}
+		}
+	}
+	
+	@Test
+	public void dfs() {
+		StaticDiGraph g = new StaticDiGraph();
+		Node[] n = new Node[6];
+		for (int i = 0; i < n.length; ++i) {
+			n[i] = g.addNode();
+		}
+		Edge a01 = g.addArc(n[0], n[1]);
+		g.addArc(n[1], n[2]);
+		g.addArc(n[2], n[0]);
+		Edge a03 = g.addArc(n[0], n[3]);
+		g.addArc(n[3], n[2]);
+		g.addArc(n[4], n[3]);
+		g.addArc(n[5], n[5]);
+		Dfs dfs = new Dfs(g);
+		dfs.run(n[0]);
+		assertEquals(4, dfs.getNumReached());
+		assertEquals(n[0], dfs.getReached(0));
+		assertEquals(n[1], dfs.getReached(1));
+		assertEquals(n[2], dfs.getReached(2));
+		assertEquals(n[3], dfs.getReached(3));
+		assertEquals(4, dfs.getNumFinished());
+		assertEquals(n[2], dfs.getFinished(0));
+		assertEquals(n[1], dfs.getFinished(1));
+		assertEquals(n[3], dfs.getFinished(2));
+		assertEquals(n[0], dfs.getFinished(3));
+		assertEquals(a01, dfs.getPredArc(n[1]));
+		assertEquals(a03, dfs.getPredArc(n[3]));
+		assertFalse(dfs.isReached(n[4]));
+		
+		dfs.runAll();
+		assertEquals(6, dfs.getNumReached());
+		assertEquals(6, dfs.getNumFinished());
+		assertEquals(n[4], dfs.getReached(4));
+		assertNull(dfs.getPredArc(n[4]));
+		assertEquals(n[5], dfs.getFinished(5));
+		
+		dfs.setReverse(true);
+		dfs.run(n[3]);
+		assertEquals(5, dfs.getNumReached());
+		assertFalse(dfs.isReached(n[5]));
+		assertEquals(n[3], dfs.getFinished(4));
+	}
+	
+	@Test
+	public void stop() {
+		StaticDiGraph g = new StaticDiGraph();
+		Node[] n = new Node[4];
+		for (int i = 0; i < n.length; ++i) {
+			n[i] = g.addNode();
+		}
+		g.addArc(n[0], n[1]);
+		g.addArc(n[1], n[3]);
+		g.addArc(n[1], n[2]);
+		g.addArc(n[0], n[2]);
+		Dfs dfs = new Dfs(g);
+		Recorder recorder = new Recorder();
+		dfs.setVisitor(recorder);
+		dfs.run(n[0]);
+		assertEquals("[d0, e01, d1, e13, d3, f3]", recorder.events.toString());
+		assertFalse(dfs.isReached(n[2]));
+		dfs.visit(n[2]);
+		assertFalse(dfs.isReached(n[2]));
+		recorder.events.clear();
+		dfs.run(n[2]);
+		assertEquals("[d2, f2]", recorder.events.toString());
+	}
+}
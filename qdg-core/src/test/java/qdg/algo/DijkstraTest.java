@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import qdg.ListDiGraph;
+import qdg.StaticDiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+
+public class DijkstraTest {
+	
+	@Test
+	public void dijkstra() {
+		ListDiGraph g = new ListDiGraph();
+		Node[] n = new Node[5];
+		for (int i = 0; i < n.length; ++i) {
+			n[i] = g.addNode();
+		}
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		lengths.put(g.addArc(n[0], n[1]), 4.0);
+		lengths.put(g.addArc(n[0], n[2]), 1.0);
+		Edge a21 = g.addArc(n[2], n[1]);
+		lengths.put(a21, 2.0);
+		lengths.put(g.addArc(n[1], n[3]), 1.5);
+		lengths.put(g.addArc(n[3], n[2]), 0.5);
+		lengths.put(g.addArc(n[4], n[3]), 0.0);
+		Dijkstra dijkstra = new Dijkstra(g, lengths);
+		dijkstra.run(n[0]);
+		assertEquals(4, dijkstra.getNumReached());
+		assertEquals(n[0], dijkstra.getReached(0));
+		assertEquals(n[2], dijkstra.getReached(1));
+		assertEquals(n[1], dijkstra.getReached(2));
+		assertEquals(n[3], dijkstra.getReached(3));
+		assertEquals(3.0, dijkstra.getDistance(n[1]), 0.0);
+		assertEquals(4.5, dijkstra.getDistance(n[3]), 0.0);
+		assertEquals(a21, dijkstra.getPredArc(n[1]));
+		assertEquals(Double.POSITIVE_INFINITY, dijkstra.getDistance(n[4]),
+				0.0);
+		
+		dijkstra.setReverse(true);
+		dijkstra.reset();
+		dijkstra.addSource(n[1]);
+		dijkstra.addSource(n[4]);
+		dijkstra.start();
+		assertEquals(0.0, dijkstra.getDistance(n[4]), 0.0);
+		assertEquals(2.0, dijkstra.getDistance(n[2]), 0.0);
+		assertEquals(2.5, dijkstra.getDistance(n[3]), 0.0);
+		assertEquals(3.0, dijkstra.getDistance(n[0]), 0.0);
+	}
+	
+	@Test
+	public void stop() {
+		StaticDiGraph g = new StaticDiGraph();
+		final Node[] n = new Node[4];
+		for (int i = 0; i < n.length; ++i) {
+			n[i] = g.addNode();
+		}
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(1.0);
+		g.addArc(n[0], n[1]);
+		g.addArc(n[1], n[2]);
+		lengths.put(g.addArc(n[0], n[2]), 3.0);
+		g.addArc(n[2], n[3]);
+		final Dijkstra dijkstra = new Dijkstra(g, lengths);
+		dijkstra.setVisitor(new TraversalVisitor() {
+			
+			@Override
+			public void finish(int node) {
+				if (node == dijkstra.getGraph().getNodeId(n[1])) {
+					stop();
+				}
+			}
+		});
+		dijkstra.run(n[0]);
+		assertEquals(2, dijkstra.getNumReached());
+		assertTrue(dijkstra.isProcessed(n[1]));
+		assertTrue(dijkstra.isReached(n[2]));
+		assertFalse(dijkstra.isProcessed(n[2]));
+		assertEquals(2.0, dijkstra.getDistance(n[2]), 0.0);
+		assertFalse(dijkstra.isReached(n[3]));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeLength() {
+		StaticDiGraph g = new StaticDiGraph();
+		Node n0 = g.addNode();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(-1.0);
+		g.addArc(n0, n0);
+		new Dijkstra(g, lengths);
+	}
+	
+	@Test
+	public void random() {
+		Random random = new Random(17);
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		int n = 25;
+		for (int i = 0; i < n; ++i) {
+			nodes.add(g.addNode());
+		}
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		double[][] d = new double[n][n];
+		for (int i = 0; i < n; ++i) {
+			for (int j = 0; j < n; ++j) {
+				d[i][j] = i == j ? 0.0 : Double.POSITIVE_INFINITY;
+			}
+		}
+		for (int k = 0; k < 80; ++k) {
+			int i = random.nextInt(n);
+			int j = random.nextInt(n);
+			double length = random.nextInt(10);
+			lengths.put(g.addArc(nodes.get(i), nodes.get(j)), length);
+			d[i][j] = Math.min(d[i][j], length);
+		}
+		for (int k = 0; k < n; ++k) {
+			for (int i = 0; i < n; ++i) {
+				for (int j = 0; j < n; ++j) {
+					d[i][j] = Math.min(d[i][j], d[i][k] + d[k][j]);
+				}
+			}
+		}
+		Dijkstra dijkstra = new Dijkstra(g, lengths);
+		for (int i = 0; i < n; ++i) {
+			dijkstra.run(nodes.get(i));
+			double last = 0.0;
+			for (int k = 0; k < dijkstra.getNumReached(); ++k) {
+				double dist = dijkstra.getDistance(dijkstra.getReached(k));
+				assertTrue(last <= dist);
+				last = dist;
+			}
+			for (int j = 0; j < n; ++j) {
+				Node v = nodes.get(j);
+				assertEquals(d[i][j], dijkstra.getDistance(v), 0.0);
+				Edge a = dijkstra.getPredArc(v);
+				if (a != null) {
+					assertEquals(d[i][j], lengths.get(a)
+							+ dijkstra.getDistance(g.getSource(a)), 0.0);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import qdg.ListDiGraph;
+import qdg.StaticDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+
+public class DirectionOptimizingBfsTest {
+	
+	private static List<Node> randomDiGraph(DiGraph g, int numNodes,
+			int numArcs, long seed) {
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < numNodes; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random random = new Random(seed);
+		for (int i = 0; i < numArcs; ++i) {
+			g.addArc(nodes.get(random.nextInt(numNodes)),
+					nodes.get(random.nextInt(numNodes)));
+		}
+		return nodes;
+	}
+	
+	private static void check(Bfs expected, DirectionOptimizingBfs actual,
+			List<Node> nodes) {
+		assertEquals(expected.getNumReached(), actual.getNumReached());
+		DiGraph g = actual.getGraph();
+		for (Node v : nodes) {
+			int d = actual.getDistance(v);
+			assertEquals(expected.getDistance(v), d);
+			Edge a = actual.getPredArc(v);
+			if (d > 0) {
+				Node u = actual.isReverse() ? g.getTarget(a) : g.getSource(a);
+				assertEquals(v, actual.isReverse() ? g.getSource(a)
+						: g.getTarget(a));
+				assertEquals(d - 1, actual.getDistance(u));
+			} else {
+				assertNull(a);
+			}
+		}
+		for (int i = 1; i < actual.getNumReached(); ++i) {
+			assertTrue(actual.getDistance(actual.getReached(i - 1))
+					<= actual.getDistance(actual.getReached(i)));
+		}
+	}
+	
+	@Test
+	public void random() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = randomDiGraph(g, 300, 3000, 5);
+		Bfs bfs = new Bfs(g);
+		DirectionOptimizingBfs dobfs = new DirectionOptimizingBfs(g);
+		int numBottomUpSteps = 0;
+		for (boolean reverse : new boolean[] {false, true}) {
+			bfs.setReverse(reverse);
+			dobfs.setReverse(reverse);
+			for (int i = 0; i < nodes.size(); i += 11) {
+				bfs.run(nodes.get(i));
+				dobfs.run(nodes.get(i));
+				check(bfs, dobfs, nodes);
+				numBottomUpSteps += dobfs.getNumBottomUpSteps();
+			}
+		}
+		assertTrue(numBottomUpSteps > 0);
+		dobfs.setAlpha(0.0);
+		dobfs.run(nodes.get(0));
+		assertEquals(0, dobfs.getNumBottomUpSteps());
+	}
+	
+	@Test
+	public void removedNodes() {
+		ListDiGraph g = new ListDiGraph();
+		List<Node> nodes = randomDiGraph(g, 100, 1000, 6);
+		for (int i = 0; i < 100; i += 3) {
+			g.remove(nodes.get(i));
+		}
+		List<Node> remaining = new ArrayList<Node>();
+		for (Node v : g.getNodes()) {
+			remaining.add(v);
+		}
+		Bfs bfs = new Bfs(g);
+		DirectionOptimizingBfs dobfs = new DirectionOptimizingBfs(g);
+		dobfs.setBeta(1000.0);
+		for (Node s : remaining) {
+			bfs.run(s);
+			dobfs.run(s);
+			check(bfs, dobfs, remaining);
+		}
+	}
+	
+	@Test
+	public void stop() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = randomDiGraph(g, 100, 2000, 7);
+		final DirectionOptimizingBfs dobfs = new DirectionOptimizingBfs(g);
+		dobfs.setVisitor(new TraversalVisitor() {
+			
+			@Override
+			public void discover(int node) {
+				if (dobfs.getDistance(node) == 2) {
+					stop();
+				}
+			}
+		});
+		dobfs.run(nodes.get(0));
+		assertEquals(1, dobfs.getNumBottomUpSteps());
+		assertEquals(2, dobfs.getDistance(
+				dobfs.getReached(dobfs.getNumReached() - 1)));
+		Bfs bfs = new Bfs(g);
+		bfs.run(nodes.get(0));
+		assertTrue(dobfs.getNumReached() < bfs.getNumReached());
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import qdg.ListDiGraph;
+import qdg.StaticDiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+
+public class LandmarkOracleTest {
+	
+	private static void checkQueries(LandmarkOracle oracle, List<Node> nodes,
+			long seed) {
+		Dijkstra dijkstra = new Dijkstra(oracle.getGraph(),
+				oracle.getLengths());
+		Random random = new Random(seed);
+		for (int i = 0; i < 100; ++i) {
+			Node s = nodes.get(random.nextInt(nodes.size()));
+			Node t = nodes.get(random.nextInt(nodes.size()));
+			dijkstra.run(s);
+			double expected = dijkstra.getDistance(t);
+			assertTrue(oracle.getLowerBound(s, t) <= expected);
+			assertEquals(expected, oracle.computeDistance(s, t), 0.0);
+			BidirectionalDijkstraTest.checkPath(oracle.getGraph(),
+					oracle.getLengths(), s, t, expected,
+					oracle.computePath(s, t));
+		}
+	}
+	
+	@Test
+	public void farthest() {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = BidirectionalDijkstraTest.randomDiGraph(g, lengths,
+				200, 800, 5);
+		LandmarkOracle oracle = new LandmarkOracle(g, lengths);
+		oracle.setSelection(LandmarkOracle.Selection.FARTHEST);
+		oracle.setNumLandmarks(8);
+		oracle.setRandom(new Random(6));
+		oracle.compute();
+		assertEquals(8, oracle.getTables().getNumLandmarks());
+		checkQueries(oracle, nodes, 7);
+	}
+	
+	@Test
+	public void avoid() {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = BidirectionalDijkstraTest.randomDiGraph(g, lengths,
+				200, 800, 8);
+		LandmarkOracle oracle = new LandmarkOracle(g, lengths);
+		oracle.setNumLandmarks(8);
+		oracle.setRandom(new Random(9));
+		oracle.compute();
+		LandmarkTables tables = oracle.getTables();
+		assertEquals(8, tables.getNumLandmarks());
+		for (int i = 0; i < tables.getNumLandmarks(); ++i) {
+			for (int j = 0; j < i; ++j) {
+				assertTrue(tables.getLandmark(i) != tables.getLandmark(j));
+			}
+			assertEquals(0.0, tables.getDistanceFrom(i, tables.getLandmark(i)),
+					0.0);
+			assertEquals(0.0, tables.getDistanceTo(i, tables.getLandmark(i)),
+					0.0);
+		}
+		checkQueries(oracle, nodes, 10);
+	}
+	
+	@Test
+	public void fewerSettled() {
+		// A grid, where the landmarks in the corners direct the search.
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(1.0);
+		int size = 30;
+		Node[][] grid = new Node[size][size];
+		for (int i = 0; i < size; ++i) {
+			for (int j = 0; j < size; ++j) {
+				grid[i][j] = g.addNode();
+				if (i > 0) {
+					g.addArc(grid[i - 1][j], grid[i][j]);
+					g.addArc(grid[i][j], grid[i - 1][j]);
+				}
+				if (j > 0) {
+					g.addArc(grid[i][j - 1], grid[i][j]);
+					g.addArc(grid[i][j], grid[i][j - 1]);
+				}
+			}
+		}
+		LandmarkOracle oracle = new LandmarkOracle(g, lengths);
+		oracle.setNumLandmarks(4);
+		oracle.setRandom(new Random(11));
+		oracle.compute();
+		Node s = grid[size / 2][0];
+		Node t = grid[size / 2][size - 1];
+		assertEquals(size - 1, oracle.computeDistance(s, t), 0.0);
+		int numSettled = oracle.getNumSettled();
+		BidirectionalDijkstra dijkstra = new BidirectionalDijkstra(g, lengths);
+		assertEquals(size - 1, dijkstra.computeDistance(s, t), 0.0);
+		AStar aStar = new AStar(g, lengths);
+		EntityMap<Node, Double> zero = g.createDoubleNodeMap(0.0);
+		assertEquals(size - 1, aStar.computeDistance(s, t, zero), 0.0);
+		assertTrue(numSettled < aStar.getNumSettled() / 2);
+	}
+	
+	@Test
+	public void serialization() throws IOException, ClassNotFoundException {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = BidirectionalDijkstraTest.randomDiGraph(g, lengths,
+				100, 400, 12);
+		LandmarkOracle oracle = new LandmarkOracle(g, lengths);
+		oracle.setNumLandmarks(4);
+		oracle.setRandom(new Random(13));
+		oracle.compute();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(oracle.getTables());
+		out.close();
+		ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(bytes.toByteArray()));
+		LandmarkTables tables = (LandmarkTables) in.readObject();
+		assertEquals(4, tables.getNumLandmarks());
+		LandmarkOracle copy = new LandmarkOracle(g, lengths, tables);
+		for (Node s : nodes) {
+			for (Node t : nodes) {
+				assertEquals(oracle.getLowerBound(s, t),
+						copy.getLowerBound(s, t), 0.0);
+			}
+		}
+		checkQueries(copy, nodes, 14);
+	}
+	
+	@Test
+	public void addArcs() {
+		ListDiGraph g = new ListDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 100; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random random = new Random(15);
+		for (int i = 0; i < 200; ++i) {
+			Edge a = g.addArc(nodes.get(random.nextInt(nodes.size())),
+					nodes.get(random.nextInt(nodes.size())));
+			lengths.put(a, (double) random.nextInt(20));
+		}
+		LandmarkOracle oracle = new LandmarkOracle(g, lengths);
+		oracle.setNumLandmarks(6);
+		oracle.setRandom(new Random(16));
+		oracle.compute();
+		checkQueries(oracle, nodes, 17);
+		for (int round = 0; round < 5; ++round) {
+			for (int i = 0; i < 10; ++i) {
+				nodes.add(g.addNode());
+			}
+			for (int i = 0; i < 80; ++i) {
+				Edge a = g.addArc(nodes.get(random.nextInt(nodes.size())),
+						nodes.get(random.nextInt(nodes.size())));
+				lengths.put(a, (double) random.nextInt(20));
+			}
+			checkQueries(oracle, nodes, 18 + round);
+			// The tables are exact after additions.
+			LandmarkTables tables = oracle.getTables();
+			Dijkstra dijkstra = new Dijkstra(g, lengths);
+			for (int i = 0; i < tables.getNumLandmarks(); ++i) {
+				dijkstra.run(g.nodeFromId(tables.getLandmark(i)));
+				for (Node v : nodes) {
+					assertEquals(dijkstra.getDistance(v),
+							tables.getDistanceFrom(i, g.getNodeId(v)), 0.0);
+				}
+			}
+		}
+		// Removals keep valid lower bounds.
+		for (int i = 0; i < 100; ++i) {
+			Edge a = g.getArcIterator().next();
+			g.remove(a);
+		}
+		checkQueries(oracle, nodes, 23);
+	}
+}
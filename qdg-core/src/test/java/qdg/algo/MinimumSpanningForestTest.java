@@ -0,0 +1,230 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import qdg.IntUnionFind;
+import qdg.ListUGraph;
+import qdg.StaticMixedGraph;
+import qdg.api.BooleanEntityMap;
+import qdg.api.DoubleEntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.IntEntityMap;
+import qdg.api.UGraph;
+import qdg.view.EdgeSubMixedGraph;
+
+public class MinimumSpanningForestTest {
+	
+	private static DoubleEntityMap<Edge> randomUGraph(UGraph g, int numNodes,
+			int numEdges, int maxWeight, long seed) {
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < numNodes; ++i) {
+			nodes.add(g.addNode());
+		}
+		DoubleEntityMap<Edge> weights = g.createDoubleUEdgeMap(0.0);
+		Random random = new Random(seed);
+		for (int i = 0; i < numEdges; ++i) {
+			Edge e = g.addUEdge(nodes.get(random.nextInt(numNodes)),
+					nodes.get(random.nextInt(numNodes)));
+			weights.putDouble(e, random.nextInt(maxWeight) - maxWeight / 4);
+		}
+		return weights;
+	}
+	
+	/**
+	 * Checks that the forest has no cycles and spans the components of g.
+	 */
+	private static void checkForest(UGraph g, MinimumSpanningForest msf) {
+		IntEntityMap<Node> index = g.createIntNodeMap(-1);
+		int n = 0;
+		for (Node v : g.getNodes()) {
+			index.putInt(v, n++);
+		}
+		IntUnionFind components = new IntUnionFind(n);
+		IntUnionFind forest = new IntUnionFind(n);
+		int numForestEdges = 0;
+		BooleanEntityMap<Edge> map = msf.createForestMap();
+		for (Edge e : g.getUEdges()) {
+			int u = index.getInt(g.getSource(e));
+			int v = index.getInt(g.getTarget(e));
+			components.union(u, v);
+			assertEquals(msf.isInForest(e), map.getBoolean(e));
+			if (msf.isInForest(e)) {
+				assertTrue(forest.union(u, v));
+				++numForestEdges;
+			}
+		}
+		assertEquals(numForestEdges, msf.getNumForestEdges());
+		assertEquals(n - components.getNumSets(), numForestEdges);
+	}
+	
+	@Test
+	public void small() {
+		ListUGraph g = new ListUGraph();
+		Node a = g.addNode();
+		Node b = g.addNode();
+		Node c = g.addNode();
+		Node d = g.addNode();
+		g.addNode();
+		DoubleEntityMap<Edge> weights = g.createDoubleUEdgeMap(0.0);
+		Edge ab = g.addUEdge(a, b);
+		weights.putDouble(ab, 1.0);
+		Edge bc = g.addUEdge(b, c);
+		weights.putDouble(bc, 2.0);
+		Edge ac = g.addUEdge(a, c);
+		weights.putDouble(ac, 3.0);
+		Edge cd = g.addUEdge(c, d);
+		weights.putDouble(cd, -1.0);
+		Edge dd = g.addUEdge(d, d);
+		weights.putDouble(dd, -5.0);
+		MinimumSpanningForest msf = new MinimumSpanningForest(g, weights);
+		msf.computeKruskal();
+		assertTrue(msf.isInForest(ab));
+		assertTrue(msf.isInForest(bc));
+		assertFalse(msf.isInForest(ac));
+		assertTrue(msf.isInForest(cd));
+		assertFalse(msf.isInForest(dd));
+		assertEquals(3, msf.getNumForestEdges());
+		assertEquals(2.0, msf.getTotalWeight(), 0.0);
+		msf.computePrim();
+		assertEquals(2.0, msf.getTotalWeight(), 0.0);
+		assertFalse(msf.isInForest(ac));
+		msf.computeBoruvka();
+		assertEquals(2.0, msf.getTotalWeight(), 0.0);
+		assertFalse(msf.isInForest(ac));
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void notRun() {
+		ListUGraph g = new ListUGraph();
+		new MinimumSpanningForest(g, g.createDoubleUEdgeMap(0.0))
+				.getTotalWeight();
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void missingWeight() {
+		ListUGraph g = new ListUGraph();
+		g.addUEdge(g.addNode(), g.addNode());
+		new MinimumSpanningForest(g, g.<Double>createUEdgeMap());
+	}
+	
+	@Test
+	public void randomGraphs() {
+		for (int seed = 0; seed < 20; ++seed) {
+			ListUGraph g = new ListUGraph();
+			DoubleEntityMap<Edge> weights =
+					randomUGraph(g, 60, 20 + 10 * seed, 10, seed);
+			MinimumSpanningForest msf = new MinimumSpanningForest(g, weights);
+			msf.computeKruskal();
+			checkForest(g, msf);
+			double weight = msf.getTotalWeight();
+			List<Edge> forest = new ArrayList<Edge>();
+			for (Edge e : g.getUEdges()) {
+				if (msf.isInForest(e)) {
+					forest.add(e);
+				}
+			}
+			msf.computePrim();
+			checkForest(g, msf);
+			assertEquals(weight, msf.getTotalWeight(), 0.0);
+			msf.computeBoruvka();
+			checkForest(g, msf);
+			assertEquals(weight, msf.getTotalWeight(), 0.0);
+			// Equal weights are ordered by the ids.
+			for (Edge e : forest) {
+				assertTrue(msf.isInForest(e));
+			}
+		}
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		ListUGraph g = new ListUGraph();
+		DoubleEntityMap<Edge> weights = randomUGraph(g, 20000, 60000,
+				1000, 1);
+		MinimumSpanningForest msf = new MinimumSpanningForest(g, weights);
+		msf.computeKruskal();
+		double weight = msf.getTotalWeight();
+		List<Edge> forest = new ArrayList<Edge>();
+		for (Edge e : g.getUEdges()) {
+			if (msf.isInForest(e)) {
+				forest.add(e);
+			}
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			msf.computeKruskal(executor, 4);
+			checkForest(g, msf);
+			assertEquals(weight, msf.getTotalWeight(), 0.0);
+			for (Edge e : forest) {
+				assertTrue(msf.isInForest(e));
+			}
+			msf.computeBoruvka(executor, 4);
+			checkForest(g, msf);
+			assertEquals(weight, msf.getTotalWeight(), 0.0);
+			for (Edge e : forest) {
+				assertTrue(msf.isInForest(e));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		msf.computePrim();
+		assertEquals(weight, msf.getTotalWeight(), 0.0);
+	}
+	
+	@Test
+	public void mixedGraph() {
+		StaticMixedGraph g = new StaticMixedGraph();
+		Node a = g.addNode();
+		Node b = g.addNode();
+		Node c = g.addNode();
+		DoubleEntityMap<Edge> weights = g.createDoubleEdgeMap(0.0);
+		Edge ab = g.addArc(a, b);
+		weights.putDouble(ab, 1.0);
+		Edge cb = g.addArc(c, b);
+		weights.putDouble(cb, 1.0);
+		Edge ac = g.addUEdge(a, c);
+		weights.putDouble(ac, 2.0);
+		MinimumSpanningForest msf = new MinimumSpanningForest(g, weights);
+		msf.computeKruskal();
+		assertEquals(2.0, msf.getTotalWeight(), 0.0);
+		EdgeSubMixedGraph forest =
+				new EdgeSubMixedGraph(g, msf.createForestMap());
+		int numArcs = 0;
+		for (Edge e : forest.getArcs()) {
+			assertTrue(e.equals(ab) || e.equals(cb));
+			++numArcs;
+		}
+		assertEquals(2, numArcs);
+		assertFalse(forest.getUEdges().iterator().hasNext());
+		int numNodes = 0;
+		for (@SuppressWarnings("unused") Node v : forest.getNodes()) {
+			++numNodes;
+		}
+		assertEquals(3, numNodes);
+	}
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import qdg.ListUGraph;
+import qdg.StaticUGraph;
+import qdg.api.CursorUGraph;
+import qdg.api.Graph.Node;
+import qdg.api.UGraph;
+import qdg.view.UGraphAsDiGraph;
+
+public class PrunedLandmarkLabelingTest {
+	
+	private static List<Node> randomUGraph(UGraph g, int numNodes,
+			int numEdges, long seed) {
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < numNodes; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random random = new Random(seed);
+		for (int i = 0; i < numEdges; ++i) {
+			g.addUEdge(nodes.get(random.nextInt(numNodes)),
+					nodes.get(random.nextInt(numNodes)));
+		}
+		return nodes;
+	}
+	
+	private static void check(CursorUGraph g, List<Node> nodes,
+			PrunedLandmarkLabeling labeling) {
+		Bfs bfs = new Bfs(new UGraphAsDiGraph(g));
+		for (Node s : nodes) {
+			bfs.run(s);
+			for (Node t : nodes) {
+				assertEquals(bfs.getDistance(t),
+						labeling.getDistance(g.getNodeId(s), g.getNodeId(t)));
+			}
+		}
+	}
+	
+	@Test
+	public void random() {
+		ListUGraph g = new ListUGraph();
+		List<Node> nodes = randomUGraph(g, 150, 300, 1);
+		// A hole in the ids.
+		g.remove(nodes.remove(7));
+		PrunedLandmarkLabeling labeling = PrunedLandmarkLabeling.build(g);
+		assertEquals(g.getNodeIdBound(), labeling.getNodeIdBound());
+		assertEquals(-1, labeling.getRank(7));
+		assertEquals(0, labeling.getLabelSize(7));
+		check(g, nodes, labeling);
+		// The entries are sorted by the ranks of the hubs, and each node is
+		// its own last hub.
+		for (Node v : nodes) {
+			int id = g.getNodeId(v);
+			int size = labeling.getLabelSize(id);
+			for (int i = 1; i < size; ++i) {
+				assertTrue(labeling.getRank(labeling.getHub(id, i - 1))
+						< labeling.getRank(labeling.getHub(id, i)));
+			}
+			assertEquals(id, labeling.getHub(id, size - 1));
+			assertEquals(0, labeling.getHubDistance(id, size - 1));
+		}
+	}
+	
+	@Test
+	public void degreeOrder() {
+		// A star, whose center covers all the pairs.
+		StaticUGraph g = new StaticUGraph();
+		Node center = g.addNode();
+		List<Node> nodes = new ArrayList<Node>();
+		nodes.add(center);
+		for (int i = 0; i < 10; ++i) {
+			Node v = g.addNode();
+			g.addUEdge(v, center);
+			nodes.add(v);
+		}
+		PrunedLandmarkLabeling labeling = PrunedLandmarkLabeling.build(g);
+		assertEquals(0, labeling.getRank(g.getNodeId(center)));
+		assertEquals(1 + 2 * 10, labeling.getNumEntries());
+		check(g, nodes, labeling);
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		StaticUGraph g = new StaticUGraph();
+		List<Node> nodes = randomUGraph(g, 300, 900, 2);
+		PrunedLandmarkLabeling expected = PrunedLandmarkLabeling.build(g);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		PrunedLandmarkLabeling labeling;
+		try {
+			labeling = PrunedLandmarkLabeling.build(g, executor, 4);
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(expected.getNumEntries(), labeling.getNumEntries());
+		for (Node v : nodes) {
+			int id = g.getNodeId(v);
+			assertEquals(expected.getLabelSize(id), labeling.getLabelSize(id));
+			for (int i = 0; i < labeling.getLabelSize(id); ++i) {
+				assertEquals(expected.getHub(id, i), labeling.getHub(id, i));
+				assertEquals(expected.getHubDistance(id, i),
+						labeling.getHubDistance(id, i));
+			}
+		}
+		check(g, nodes, labeling);
+	}
+	
+	@Test
+	public void serialization() throws IOException, ClassNotFoundException {
+		StaticUGraph g = new StaticUGraph();
+		List<Node> nodes = randomUGraph(g, 100, 150, 3);
+		ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytesOut);
+		out.writeObject(PrunedLandmarkLabeling.build(g));
+		ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(bytesOut.toByteArray()));
+		PrunedLandmarkLabeling labeling =
+				(PrunedLandmarkLabeling) in.readObject();
+		check(g, nodes, labeling);
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import qdg.ListDiGraph;
+import qdg.StaticDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.IntEntityMap;
+
+public class StronglyConnectedComponentsTest {
+	
+	/**
+	 * Compares the components to mutual reachability by breadth first
+	 * searches.
+	 */
+	private static void check(DiGraph g, List<Node> nodes,
+			StronglyConnectedComponents scc) {
+		Bfs forward = new Bfs(g);
+		Bfs backward = new Bfs(g);
+		backward.setReverse(true);
+		int total = 0;
+		for (int c = 0; c < scc.getNumComponents(); ++c) {
+			total += scc.getComponentSize(c);
+		}
+		assertEquals(nodes.size(), total);
+		IntEntityMap<Node> components = scc.createComponentMap();
+		for (Node s : nodes) {
+			forward.run(s);
+			backward.run(s);
+			int c = scc.getComponent(s);
+			assertEquals(c, components.getInt(s));
+			int size = 0;
+			for (Node v : nodes) {
+				boolean same = forward.isReached(v) && backward.isReached(v);
+				assertEquals(same, scc.getComponent(v) == c);
+				if (same) {
+					++size;
+				}
+			}
+			assertEquals(size, scc.getComponentSize(c));
+		}
+		for (Edge a : g.getArcs()) {
+			assertTrue(scc.getComponent(g.getSource(a))
+					<= scc.getComponent(g.getTarget(a)));
+		}
+		StaticDiGraph condensation = scc.createCondensation();
+		int numArcs = 0;
+		for (Edge a : condensation.getArcs()) {
+			assertTrue(condensation.getNodeId(condensation.getSource(a))
+					< condensation.getNodeId(condensation.getTarget(a)));
+			++numArcs;
+		}
+		boolean[][] connected = new boolean[scc.getNumComponents()]
+				[scc.getNumComponents()];
+		int expected = 0;
+		for (Edge a : g.getArcs()) {
+			int c = scc.getComponent(g.getSource(a));
+			int d = scc.getComponent(g.getTarget(a));
+			if (c != d && !connected[c][d]) {
+				connected[c][d] = true;
+				++expected;
+			}
+		}
+		assertEquals(expected, numArcs);
+	}
+	
+	@Test
+	public void random() {
+		ListDiGraph g = new ListDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 200; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random random = new Random(1);
+		for (int i = 0; i < 260; ++i) {
+			g.addArc(nodes.get(random.nextInt(nodes.size())),
+					nodes.get(random.nextInt(nodes.size())));
+		}
+		// A hole in the ids.
+		g.remove(nodes.remove(5));
+		StronglyConnectedComponents scc = new StronglyConnectedComponents(g);
+		scc.run();
+		assertEquals(-1, scc.getComponent(5));
+		check(g, nodes, scc);
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		StaticDiGraph g = new StaticDiGraph();
+		EntityMap<Edge, Double> lengths = g.createDoubleArcMap(0.0);
+		List<Node> nodes = BidirectionalDijkstraTest.randomDiGraph(g, lengths,
+				2000, 6000, 2);
+		StronglyConnectedComponents scc = new StronglyConnectedComponents(g);
+		scc.run();
+		int numComponents = scc.getNumComponents();
+		int largest = 0;
+		for (int c = 0; c < numComponents; ++c) {
+			largest = Math.max(largest, scc.getComponentSize(c));
+		}
+		// Large enough for forward-backward searches.
+		assertTrue(largest
+				>= StronglyConnectedComponents.MIN_FORWARD_BACKWARD_SIZE);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			scc.run(executor, 4);
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(numComponents, scc.getNumComponents());
+		check(g, nodes, scc);
+	}
+	
+	@Test
+	public void longCycle() throws InterruptedException {
+		// Deeper than the call stack would allow for a recursive search.
+		StaticDiGraph g = new StaticDiGraph();
+		int n = 200000;
+		Node first = g.addNode();
+		Node last = first;
+		for (int i = 1; i < n; ++i) {
+			Node v = g.addNode();
+			g.addArc(last, v);
+			last = v;
+		}
+		Node tail = g.addNode();
+		g.addArc(last, tail);
+		StronglyConnectedComponents scc = new StronglyConnectedComponents(g);
+		scc.run();
+		assertEquals(n + 1, scc.getNumComponents());
+		g.addArc(last, first);
+		scc = new StronglyConnectedComponents(g);
+		scc.run();
+		assertEquals(2, scc.getNumComponents());
+		assertEquals(n, scc.getComponentSize(0));
+		assertEquals(1, scc.getComponent(tail));
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			scc.run(executor, 2);
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(2, scc.getNumComponents());
+		assertEquals(1, scc.getComponent(tail));
+		assertEquals(1, scc.createCondensation().getArcIdBound());
+	}
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.algo;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import qdg.ListDiGraph;
+import qdg.StaticDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.Graph.Edge;
+import qdg.api.Graph.Node;
+import qdg.api.IntEntityMap;
+
+public class TopologicalSortTest {
+	
+	/**
+	 * Arcs go from lower to higher indices of a shuffled list of the nodes.
+	 */
+	static List<Node> randomDag(DiGraph g, int numNodes, int numArcs,
+			long seed) {
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < numNodes; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random random = new Random(seed);
+		Collections.shuffle(nodes, random);
+		for (int i = 0; i < numArcs; ++i) {
+			int u = random.nextInt(numNodes);
+			int v = random.nextInt(numNodes);
+			if (u != v) {
+				g.addArc(nodes.get(Math.min(u, v)), nodes.get(Math.max(u, v)));
+			}
+		}
+		return nodes;
+	}
+	
+	/**
+	 * Checks the order and the levels of an acyclic digraph.
+	 */
+	private static void check(DiGraph g, TopologicalSort ts) {
+		assertTrue(ts.isAcyclic());
+		assertTrue(ts.getCycle().isEmpty());
+		List<Node> order = ts.getOrder();
+		int numNodes = 0;
+		for (@SuppressWarnings("unused") Node v : g.getNodes()) {
+			++numNodes;
+		}
+		assertEquals(numNodes, ts.getNumOrderedNodes());
+		assertEquals(numNodes, order.size());
+		IntEntityMap<Node> positions = ts.createPositionMap();
+		IntEntityMap<Node> levels = ts.createLevelMap();
+		int numLevels = 0;
+		for (int k = 0; k < order.size(); ++k) {
+			Node v = order.get(k);
+			assertEquals(k, ts.getPosition(v));
+			assertEquals(k, positions.getInt(v));
+			assertEquals(ts.getLevel(v), levels.getInt(v));
+			if (k > 0) {
+				assertTrue(ts.getLevel(order.get(k - 1)) <= ts.getLevel(v));
+			}
+			int level = 0;
+			for (Edge a : g.getInArcs(v)) {
+				Node u = g.getSource(a);
+				assertTrue(ts.getPosition(u) < k);
+				level = Math.max(level, ts.getLevel(u) + 1);
+			}
+			assertEquals(level, ts.getLevel(v));
+			numLevels = Math.max(numLevels, level + 1);
+		}
+		assertEquals(numLevels, ts.getNumLevels());
+	}
+	
+	@Test
+	public void small() {
+		ListDiGraph g = new ListDiGraph();
+		Node a = g.addNode();
+		Node b = g.addNode();
+		Node c = g.addNode();
+		Node d = g.addNode();
+		Node e = g.addNode();
+		g.addArc(d, b);
+		g.addArc(b, a);
+		g.addArc(d, a);
+		g.addArc(a, c);
+		TopologicalSort ts = new TopologicalSort(g);
+		ts.run();
+		check(g, ts);
+		assertEquals(0, ts.getLevel(d));
+		assertEquals(0, ts.getLevel(e));
+		assertEquals(1, ts.getLevel(b));
+		assertEquals(2, ts.getLevel(a));
+		assertEquals(3, ts.getLevel(c));
+		assertEquals(4, ts.getNumLevels());
+	}
+	
+	@Test
+	public void empty() {
+		TopologicalSort ts = new TopologicalSort(new StaticDiGraph());
+		ts.run();
+		assertTrue(ts.isAcyclic());
+		assertEquals(0, ts.getNumOrderedNodes());
+		assertEquals(0, ts.getNumLevels());
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void notRun() {
+		new TopologicalSort(new StaticDiGraph()).isAcyclic();
+	}
+	
+	@Test
+	public void randomDags() {
+		for (int seed = 0; seed < 20; ++seed) {
+			ListDiGraph g = new ListDiGraph();
+			randomDag(g, 50, 10 * seed, seed);
+			TopologicalSort ts = new TopologicalSort(g);
+			ts.run();
+			check(g, ts);
+		}
+	}
+	
+	/**
+	 * Checks that the witness is a cycle of the unordered nodes.
+	 */
+	private static void checkCycle(DiGraph g, TopologicalSort ts) {
+		assertFalse(ts.isAcyclic());
+		List<Edge> cycle = ts.getCycle();
+		assertFalse(cycle.isEmpty());
+		for (int i = 0; i < cycle.size(); ++i) {
+			Edge a = cycle.get(i);
+			Edge b = cycle.get((i + 1) % cycle.size());
+			assertEquals(g.getTarget(a), g.getSource(b));
+			assertEquals(-1, ts.getPosition(g.getSource(a)));
+			assertEquals(-1, ts.getLevel(g.getSource(a)));
+		}
+	}
+	
+	@Test
+	public void cycle() {
+		ListDiGraph g = new ListDiGraph();
+		Node a = g.addNode();
+		Node b = g.addNode();
+		Node c = g.addNode();
+		Node d = g.addNode();
+		Node e = g.addNode();
+		g.addArc(a, b);
+		g.addArc(b, c);
+		g.addArc(c, d);
+		g.addArc(d, b);
+		g.addArc(d, e);
+		TopologicalSort ts = new TopologicalSort(g);
+		ts.run();
+		checkCycle(g, ts);
+		assertEquals(3, ts.getCycle().size());
+		assertEquals(1, ts.getNumOrderedNodes());
+		assertEquals(0, ts.getPosition(a));
+		assertEquals(-1, ts.getPosition(e));
+	}
+	
+	@Test
+	public void loop() {
+		ListDiGraph g = new ListDiGraph();
+		Node a = g.addNode();
+		Node b = g.addNode();
+		g.addArc(a, b);
+		Edge loop = g.addArc(b, b);
+		TopologicalSort ts = new TopologicalSort(g);
+		ts.run();
+		checkCycle(g, ts);
+		assertEquals(Collections.singletonList(loop), ts.getCycle());
+	}
+	
+	@Test
+	public void randomCycles() {
+		for (int seed = 0; seed < 20; ++seed) {
+			ListDiGraph g = new ListDiGraph();
+			List<Node> nodes = randomDag(g, 50, 100, seed);
+			Random random = new Random(seed);
+			int u = random.nextInt(50);
+			int v = random.nextInt(50);
+			// A backward arc, or a loop, with a path forward.
+			g.addArc(nodes.get(Math.max(u, v)), nodes.get(Math.min(u, v)));
+			for (int i = Math.min(u, v); i < Math.max(u, v); ++i) {
+				g.addArc(nodes.get(i), nodes.get(i + 1));
+			}
+			TopologicalSort ts = new TopologicalSort(g);
+			ts.run();
+			checkCycle(g, ts);
+		}
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		ListDiGraph g = new ListDiGraph();
+		randomDag(g, 20000, 40000, 1);
+		TopologicalSort ts = new TopologicalSort(g);
+		ts.run();
+		IntEntityMap<Node> levels = ts.createLevelMap();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			ts.run(executor, 4);
+		} finally {
+			executor.shutdown();
+		}
+		check(g, ts);
+		for (Node v : g.getNodes()) {
+			assertEquals(levels.getInt(v), ts.getLevel(v));
+		}
+		// Wide enough levels to be split between the tasks.
+		int[] levelSize = new int[ts.getNumLevels()];
+		for (Node v : g.getNodes()) {
+			++levelSize[ts.getLevel(v)];
+		}
+		assertTrue(levelSize[0] >= 2 * TopologicalSort.MIN_NODES_PER_TASK);
+	}
+	
+	@Test
+	public void parallelCycle() throws InterruptedException {
+		ListDiGraph g = new ListDiGraph();
+		List<Node> nodes = randomDag(g, 20000, 100000, 2);
+		g.addArc(nodes.get(15000), nodes.get(5000));
+		for (int i = 5000; i < 15000; ++i) {
+			g.addArc(nodes.get(i), nodes.get(i + 1));
+		}
+		TopologicalSort ts = new TopologicalSort(g);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			ts.run(executor, 4);
+		} finally {
+			executor.shutdown();
+		}
+		checkCycle(g, ts);
+	}
+}
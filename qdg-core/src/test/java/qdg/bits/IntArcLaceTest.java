@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.bits;
+
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterators;
+
+public class IntArcLaceTest {
+	
+	private IntArcLace lace;
+	
+	@Before
+	public void setUp() {
+		lace = new IntArcLace();
+	}
+	
+	private static void assertIds(Iterator<Integer> it, Integer... ids) {
+		assertTrue(Iterators.elementsEqual(Iterators.forArray(ids), it));
+	}
+	
+	@Test
+	public void lace() {
+		assertEquals(0, lace.addArc(0, 1));
+		assertEquals(1, lace.addArc(1, 2));
+		assertEquals(2, lace.addArc(0, 2));
+		assertEquals(3, lace.addArc(2, 0));
+		assertEquals(4, lace.getArcIdBound());
+		assertIds(lace.getArcIterator(), 0, 1, 2, 3);
+		assertIds(lace.getOutArcIterator(0), 0, 2);
+		assertIds(lace.getInArcIterator(2), 1, 2);
+		assertIds(lace.getIncidentArcIterator(0), 0, 2, 3);
+		assertIds(lace.getOutArcIterator(5));
+		assertEquals(2, lace.getSource(3));
+		assertEquals(0, lace.getTarget(3));
+	}
+	
+	@Test
+	public void removeAndReuse() {
+		lace.addArc(0, 1);
+		lace.addArc(0, 2);
+		lace.addArc(0, 3);
+		lace.addArc(1, 3);
+		lace.remove(1);
+		lace.remove(3);
+		assertFalse(lace.contains(1));
+		assertTrue(lace.contains(2));
+		assertIds(lace.getArcIterator(), 0, 2);
+		assertIds(lace.getOutArcIterator(0), 0, 2);
+		assertIds(lace.getInArcIterator(3), 2);
+		assertIds(lace.getOutArcIterator(1));
+		// Free ids are reused in LIFO order, new arcs are the last ones.
+		assertEquals(3, lace.addArc(3, 0));
+		assertEquals(1, lace.addArc(0, 1));
+		assertEquals(4, lace.addArc(1, 1));
+		assertIds(lace.getArcIterator(), 0, 2, 3, 1, 4);
+		assertIds(lace.getOutArcIterator(0), 0, 2, 1);
+		assertIds(lace.getInArcIterator(1), 0, 1, 4);
+	}
+	
+	@Test
+	public void laceWithIds() {
+		lace.laceArc(5, 0, 1);
+		lace.laceArc(2, 1, 0);
+		assertEquals(6, lace.getArcIdBound());
+		assertIds(lace.getArcIterator(), 5, 2);
+		assertIds(lace.getIncidentArcIterator(1), 2, 5);
+		lace.remove(5);
+		lace.laceArc(5, 1, 1);
+		assertIds(lace.getArcIterator(), 2, 5);
+		assertIds(lace.getOutArcIterator(1), 2, 5);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void laceUsedId() {
+		lace.laceArc(1, 0, 1);
+		lace.laceArc(1, 1, 0);
+	}
+	
+	@Test
+	public void grow() {
+		for (int i = 0; i < 100; ++i) {
+			assertEquals(i, lace.addArc(i, i + 1));
+		}
+		for (int i = 0; i < 100; ++i) {
+			assertIds(lace.getOutArcIterator(i), i);
+			assertIds(lace.getInArcIterator(i + 1), i);
+		}
+	}
+}
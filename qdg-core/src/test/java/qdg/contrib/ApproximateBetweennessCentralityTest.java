@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import qdg.api.DiGraph;
+import qdg.api.Graph.Node;
+import qdg.EntityMaps.NullMap;
+import qdg.StaticDiGraph;
+import qdg.StaticUGraph;
+import qdg.contrib.ApproximateBetweennessCentrality.Sampling;
+import qdg.view.UGraphAsDiGraph;
+
+import org.junit.Test;
+
+public class ApproximateBetweennessCentralityTest {
+
+	private static DiGraph randomGraph(int numNodes, double p, long seed) {
+		StaticUGraph g = new StaticUGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < numNodes; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random u = new Random(seed);
+		for (int i = 0; i < nodes.size(); ++i) {
+			for (int j = i + 1; j < nodes.size(); ++j) {
+				if (u.nextDouble() < p) {
+					g.addUEdge(nodes.get(i), nodes.get(j));
+				}
+			}
+		}
+		return new UGraphAsDiGraph(g);
+	}
+	
+	private static void checkAgainstBrandesAlg(Sampling sampling, long seed) {
+		DiGraph g = randomGraph(60, .08, seed);
+		BetweennessCentrality b = new BetweennessCentrality(g);
+		b.compute();
+		ApproximateBetweennessCentrality c = new ApproximateBetweennessCentrality(g);
+		c.setSampling(sampling);
+		c.setEpsilon(.05);
+		c.setRandom(new Random(seed));
+		c.compute();
+		assertTrue(c.getNumSamples() > 0);
+		assertTrue(c.getNumSamples() <= c.getMaxNumSamples(60));
+		for (Node v : g.getNodes()) {
+			assertEquals(b.getScore().get(v), c.getScore().get(v), .05 * 60 * 59);
+		}
+	}
+	
+	@Test
+	public void pivots() {
+		checkAgainstBrandesAlg(Sampling.PIVOTS, 1);
+	}
+	
+	@Test
+	public void scaledPivots() {
+		checkAgainstBrandesAlg(Sampling.SCALED_PIVOTS, 2);
+	}
+	
+	@Test
+	public void paths() {
+		checkAgainstBrandesAlg(Sampling.PATHS, 3);
+	}
+	
+	/**
+	 * A chain of diamonds, with 2^60 shortest paths between its ends, more
+	 * than an int can count.
+	 */
+	@Test
+	public void manyShortestPaths() {
+		StaticDiGraph g = new StaticDiGraph();
+		Node first = g.addNode();
+		Node last = first;
+		for (int i = 0; i < 60; ++i) {
+			Node a = g.addNode();
+			Node b = g.addNode();
+			Node next = g.addNode();
+			g.addArc(last, a);
+			g.addArc(last, b);
+			g.addArc(a, next);
+			g.addArc(b, next);
+			last = next;
+		}
+		BetweennessCentrality b = new BetweennessCentrality(g);
+		BetweennessCentrality.SingleSource singleSource =
+				b.new SingleSource(first, new NullMap<Node, Double>());
+		singleSource.scan();
+		singleSource.finish();
+		assertEquals(Math.pow(2, 60), singleSource.getNumShortestPaths(last),
+				0.0);
+		b.compute();
+		ApproximateBetweennessCentrality c = new ApproximateBetweennessCentrality(g);
+		c.setSampling(Sampling.PATHS);
+		c.setEpsilon(.05);
+		c.setRandom(new Random(4));
+		c.compute();
+		assertTrue(c.getNumSamples() > 0);
+		int n = 181;
+		for (Node v : g.getNodes()) {
+			assertEquals(b.getScore().get(v), c.getScore().get(v),
+					.05 * n * (n - 1));
+		}
+	}
+	
+	@Test
+	public void adaptiveStop() {
+		StaticUGraph g = new StaticUGraph();
+		Node center = g.addNode();
+		for (int i = 0; i < 1000; ++i) {
+			g.addUEdge(center, g.addNode());
+		}
+		DiGraph di = new UGraphAsDiGraph(g);
+		ApproximateBetweennessCentrality c = new ApproximateBetweennessCentrality(di);
+		c.setSampling(Sampling.PATHS);
+		c.setEpsilon(.05);
+		c.setRandom(new Random(4));
+		c.compute();
+		assertTrue(c.getNumSamples() < c.getMaxNumSamples(1001));
+		assertEquals(1000.0 * 999, c.getScore().get(center), .05 * 1001 * 1000);
+		for (Node v : g.getNodes()) {
+			if (!v.equals(center)) {
+				assertEquals(0.0, c.getScore().get(v), 0.0);
+			}
+		}
+	}
+	
+	@Test
+	public void singleNode() {
+		StaticUGraph g = new StaticUGraph();
+		Node v = g.addNode();
+		ApproximateBetweennessCentrality c =
+				new ApproximateBetweennessCentrality(new UGraphAsDiGraph(g));
+		c.compute();
+		assertEquals(0, c.getNumSamples());
+		assertEquals(0.0, c.getScore().get(v), 0.0);
+	}
+}
@@ -18,14 +18,19 @@ package qdg.contrib;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
 
 import qdg.api.DiGraph;
 import qdg.api.EntityMap;
 import qdg.api.Graph.Edge;
 import qdg.api.Graph.Node;
 import qdg.EntityMaps.NullMap;
+import qdg.StaticDiGraph;
 import qdg.StaticUGraph;
 import qdg.contrib.BetweennessCentrality.SingleSource;
 import qdg.view.UGraphAsDiGraph;
@@ -51,28 +56,25 @@ public class BetweennessCentralityTest {
 		SingleSource singleSource = b.new SingleSource(v1,
 				new NullMap<Node, Double>());
 		singleSource.scan();
-		EntityMap<Node, List<Edge>> tightEdges = singleSource.tightEdges;
-		assertNull(tightEdges.get(v0));
-		assertNull(tightEdges.get(v1));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), tightEdges.get(v2));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), tightEdges.get(v3));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, true)), tightEdges.get(v4));
-		assertNull(tightEdges.get(v5));
+		assertTrue(singleSource.getTightEdges(v0).isEmpty());
+		assertTrue(singleSource.getTightEdges(v1).isEmpty());
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), singleSource.getTightEdges(v2));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), singleSource.getTightEdges(v3));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, true)), singleSource.getTightEdges(v4));
+		assertTrue(singleSource.getTightEdges(v5).isEmpty());
 		singleSource.finish();
-		EntityMap<Node, Integer> numShortestPaths = singleSource.numShortestPaths;
-		assertNull(numShortestPaths.get(v0));
-		assertEquals(1, numShortestPaths.get(v1).intValue());
-		assertEquals(1, numShortestPaths.get(v2).intValue());
-		assertEquals(1, numShortestPaths.get(v3).intValue());
-		assertEquals(1, numShortestPaths.get(v4).intValue());
-		assertNull(numShortestPaths.get(v5));
-		EntityMap<Node, Double> dependency = singleSource.dependency;
-		assertNull(dependency.get(v0));
-		assertNull(dependency.get(v1));
-		assertEquals(2, dependency.get(v2), 1e-8);
-		assertEquals(1, dependency.get(v3), 1e-8);
-		assertNull(dependency.get(v4));
-		assertNull(dependency.get(v5));
+		assertEquals(0, singleSource.getNumShortestPaths(v0), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v1), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v2), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v3), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v4), 0.0);
+		assertEquals(0, singleSource.getNumShortestPaths(v5), 0.0);
+		assertEquals(0, singleSource.getDependency(v0), 1e-8);
+		assertEquals(0, singleSource.getDependency(v1), 1e-8);
+		assertEquals(2, singleSource.getDependency(v2), 1e-8);
+		assertEquals(1, singleSource.getDependency(v3), 1e-8);
+		assertEquals(0, singleSource.getDependency(v4), 1e-8);
+		assertEquals(0, singleSource.getDependency(v5), 1e-8);
 	}
 	
 	@Test
@@ -91,25 +93,22 @@ public class BetweennessCentralityTest {
 		SingleSource singleSource = b.new SingleSource(v1,
 				new NullMap<Node, Double>());
 		singleSource.scan();
-		EntityMap<Node, List<Edge>> tightEdges = singleSource.tightEdges;
-		assertNull(tightEdges.get(v0));
-		assertNull(tightEdges.get(v1));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), tightEdges.get(v2));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), tightEdges.get(v3));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, true)), tightEdges.get(v4));
+		assertTrue(singleSource.getTightEdges(v0).isEmpty());
+		assertTrue(singleSource.getTightEdges(v1).isEmpty());
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), singleSource.getTightEdges(v2));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), singleSource.getTightEdges(v3));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, true)), singleSource.getTightEdges(v4));
 		singleSource.finish();
-		EntityMap<Node, Integer> numShortestPaths = singleSource.numShortestPaths;
-		assertNull(numShortestPaths.get(v0));
-		assertEquals(1, numShortestPaths.get(v1).intValue());
-		assertEquals(1, numShortestPaths.get(v2).intValue());
-		assertEquals(1, numShortestPaths.get(v3).intValue());
-		assertEquals(1, numShortestPaths.get(v4).intValue());
-		EntityMap<Node, Double> dependency = singleSource.dependency;
-		assertNull(dependency.get(v0));
-		assertNull(dependency.get(v1));
-		assertEquals(2, dependency.get(v2), 1e-8);
-		assertNull(dependency.get(v3));
-		assertNull(dependency.get(v4));
+		assertEquals(0, singleSource.getNumShortestPaths(v0), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v1), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v2), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v3), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v4), 0.0);
+		assertEquals(0, singleSource.getDependency(v0), 1e-8);
+		assertEquals(0, singleSource.getDependency(v1), 1e-8);
+		assertEquals(2, singleSource.getDependency(v2), 1e-8);
+		assertEquals(0, singleSource.getDependency(v3), 1e-8);
+		assertEquals(0, singleSource.getDependency(v4), 1e-8);
 	}
 	
 	@Test
@@ -131,29 +130,97 @@ public class BetweennessCentralityTest {
 		SingleSource singleSource = b.new SingleSource(v0,
 				new NullMap<Node, Double>());
 		singleSource.scan();
-		EntityMap<Node, List<Edge>> tightEdges = singleSource.tightEdges;
-		assertNull(tightEdges.get(v0));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), tightEdges.get(v1));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), tightEdges.get(v2));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, false)), tightEdges.get(v3));
-		// NOTE The ordering makes the following assert unstable, but there
-		// might be no ordering for the edges.
-		assertEquals(Arrays.asList(
+		assertTrue(singleSource.getTightEdges(v0).isEmpty());
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), singleSource.getTightEdges(v1));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), singleSource.getTightEdges(v2));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, false)), singleSource.getTightEdges(v3));
+		// The order of the edges depends on the direction of the search,
+		// v4 is reached bottom-up.
+		assertEquals(new HashSet<Edge>(Arrays.asList(
 				new UGraphAsDiGraph.A(e3, true),
-				new UGraphAsDiGraph.A(e5, true),
-				new UGraphAsDiGraph.A(e4, false)), tightEdges.get(v4));
+				new UGraphAsDiGraph.A(e4, false),
+				new UGraphAsDiGraph.A(e5, true))),
+				new HashSet<Edge>(singleSource.getTightEdges(v4)));
 		singleSource.finish();
-		EntityMap<Node, Integer> numShortestPaths = singleSource.numShortestPaths;
-		assertEquals(1, numShortestPaths.get(v0).intValue());
-		assertEquals(1, numShortestPaths.get(v1).intValue());
-		assertEquals(1, numShortestPaths.get(v2).intValue());
-		assertEquals(1, numShortestPaths.get(v3).intValue());
-		assertEquals(3, numShortestPaths.get(v4).intValue());
-		EntityMap<Node, Double> dependency = singleSource.dependency;
-		assertNull(dependency.get(v0));
-		assertEquals(2.0 / 6, dependency.get(v1), 1e-8);
-		assertEquals(2.0 / 6, dependency.get(v2), 1e-8);
-		assertEquals(2.0 / 6, dependency.get(v3), 1e-8);
-		assertNull(dependency.get(v4));
+		assertEquals(1, singleSource.getNumShortestPaths(v0), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v1), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v2), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v3), 0.0);
+		assertEquals(3, singleSource.getNumShortestPaths(v4), 0.0);
+		assertEquals(0, singleSource.getDependency(v0), 1e-8);
+		assertEquals(2.0 / 6, singleSource.getDependency(v1), 1e-8);
+		assertEquals(2.0 / 6, singleSource.getDependency(v2), 1e-8);
+		assertEquals(2.0 / 6, singleSource.getDependency(v3), 1e-8);
+		assertEquals(0, singleSource.getDependency(v4), 1e-8);
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		final StaticDiGraph g =
+				ParallelSingleSourcesTest.randomDiGraph(40, 160, 1);
+		BetweennessCentrality b = new BetweennessCentrality(g);
+		b.compute();
+		ParallelSingleSourcesTest.checkParallel(g, b.getScore(),
+				new ParallelSingleSourcesTest.ParallelCentrality() {
+			
+			@Override
+			public EntityMap<Node, Double> compute(Executor executor,
+					int numTasks) throws InterruptedException {
+				BetweennessCentrality c = new BetweennessCentrality(g);
+				c.compute(executor, numTasks);
+				return c.getScore();
+			}
+		});
+	}
+	
+	@Test
+	public void directionOptimizing() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 60; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random u = new Random(2);
+		for (int i = 0; i < 900; ++i) {
+			g.addArc(nodes.get(u.nextInt(nodes.size())),
+					nodes.get(u.nextInt(nodes.size())));
+		}
+		BetweennessCentrality b = new BetweennessCentrality(g);
+		b.setDirectionOptimizing(false);
+		b.compute();
+		BetweennessCentrality c = new BetweennessCentrality(g);
+		c.compute();
+		for (Node node : g.getNodes()) {
+			assertEquals(b.getScore().get(node), c.getScore().get(node), 1e-9);
+		}
+	}
+	
+	/**
+	 * The calls reuse one search, with different score maps.
+	 */
+	@Test
+	public void singleSourceCompute() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 40; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random u = new Random(4);
+		for (int i = 0; i < 160; ++i) {
+			g.addArc(nodes.get(u.nextInt(nodes.size())),
+					nodes.get(u.nextInt(nodes.size())));
+		}
+		BetweennessCentrality b = new BetweennessCentrality(g);
+		b.compute();
+		BetweennessCentrality c = new BetweennessCentrality(g);
+		EntityMap<Node, Double> even = g.createDoubleNodeMap(0.0);
+		EntityMap<Node, Double> odd = g.createDoubleNodeMap(0.0);
+		for (int i = 0; i < nodes.size(); ++i) {
+			c.singleSourceCompute(nodes.get(i), i % 2 == 0 ? even : odd);
+		}
+		for (Node node : nodes) {
+			assertEquals(b.getScore().get(node),
+					even.get(node) + odd.get(node), 1e-9);
+		}
 	}
 }
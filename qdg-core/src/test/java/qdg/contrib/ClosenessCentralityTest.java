@@ -18,8 +18,18 @@ package qdg.contrib;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.junit.Test;
 
+import qdg.StaticDiGraph;
 import qdg.StaticUGraph;
 import qdg.api.DiGraph;
 import qdg.api.EntityMap;
@@ -192,4 +202,115 @@ public class ClosenessCentralityTest {
 		assertEquals(4.0 / (2 * 1 + 2 * 2), score.get(v3), 1e-8);
 		assertEquals(4.0 / (3 * 1 + 2), score.get(v4), 1e-8);
 	}
+	
+	@Test
+	public void multiSource() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 150; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random u = new Random(1);
+		for (int i = 0; i < 300; ++i) {
+			g.addArc(nodes.get(u.nextInt(nodes.size())),
+					nodes.get(u.nextInt(nodes.size())));
+		}
+		ClosenessCentrality b = new ClosenessCentrality(g);
+		b.compute();
+		ClosenessCentrality c = new ClosenessCentrality(g);
+		c.computeMultiSource();
+		ClosenessCentrality b1 = new ClosenessCentrality(g,
+				g.<Double>createNodeMap(), null);
+		b1.compute();
+		ClosenessCentrality c1 = new ClosenessCentrality(g,
+				g.<Double>createNodeMap(), null);
+		c1.computeMultiSource();
+		for (Node v : nodes) {
+			assertEquals(b.getScore().get(v), c.getScore().get(v), 1e-12);
+			assertEquals(b1.getScore().get(v), c1.getScore().get(v));
+		}
+	}
+	
+	private static List<Node> randomDiGraph(StaticDiGraph g, int numNodes,
+			int numArcs, long seed) {
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < numNodes; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random u = new Random(seed);
+		for (int i = 0; i < numArcs; ++i) {
+			g.addArc(nodes.get(u.nextInt(nodes.size())),
+					nodes.get(u.nextInt(nodes.size())));
+		}
+		return nodes;
+	}
+	
+	@Test
+	public void directionOptimizing() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = randomDiGraph(g, 100, 1500, 5);
+		ClosenessCentrality b = new ClosenessCentrality(g);
+		b.setDirectionOptimizing(false);
+		b.compute();
+		ClosenessCentrality c = new ClosenessCentrality(g);
+		c.compute();
+		for (Node v : nodes) {
+			assertEquals(b.getScore().get(v), c.getScore().get(v));
+		}
+	}
+	
+	private static void checkTopK(ClosenessCentrality c, List<Node> nodes,
+			List<Entry<Node, Double>> topK, int k) {
+		c.compute();
+		final EntityMap<Node, Double> score = c.getScore();
+		List<Node> ranked = new ArrayList<Node>();
+		for (Node v : nodes) {
+			if (score.get(v) != null) {
+				ranked.add(v);
+			}
+		}
+		// Stable, hence earlier nodes first for equal scores.
+		Collections.sort(ranked, new Comparator<Node>() {
+
+			@Override
+			public int compare(Node u, Node v) {
+				return Double.compare(score.get(v), score.get(u));
+			}
+		});
+		ranked = ranked.subList(0, Math.min(k, ranked.size()));
+		assertEquals(ranked.size(), topK.size());
+		for (int i = 0; i < ranked.size(); ++i) {
+			assertEquals(ranked.get(i), topK.get(i).getKey());
+			assertEquals(score.get(ranked.get(i)), topK.get(i).getValue());
+		}
+	}
+	
+	@Test
+	public void topK() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = randomDiGraph(g, 200, 500, 3);
+		ClosenessCentrality c = new ClosenessCentrality(g);
+		checkTopK(c, nodes, c.computeTopK(10), 10);
+		ClosenessCentrality c1 = new ClosenessCentrality(g,
+				g.<Double>createNodeMap(), null);
+		checkTopK(c1, nodes, c1.computeTopK(10), 10);
+		checkTopK(c1, nodes, c1.computeTopK(1000), 1000);
+		assertTrue(c.computeTopK(0).isEmpty());
+	}
+	
+	@Test
+	public void topKParallel() throws InterruptedException {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = randomDiGraph(g, 200, 400, 4);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			ClosenessCentrality c = new ClosenessCentrality(g);
+			checkTopK(c, nodes, c.computeTopK(20, executor, 4), 20);
+			ClosenessCentrality c1 = new ClosenessCentrality(g,
+					g.<Double>createNodeMap(), null);
+			checkTopK(c1, nodes, c1.computeTopK(20, executor, 4), 20);
+		} finally {
+			executor.shutdown();
+		}
+	}
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import qdg.EntityMaps.NullMap;
+import qdg.StaticDiGraph;
+import qdg.StaticUGraph;
+import qdg.api.DiGraph;
+import qdg.api.Graph.Node;
+import qdg.view.UGraphAsDiGraph;
+
+public class HarmonicCentralityTest {
+	
+	@Test
+	public void path() {
+		StaticUGraph g = new StaticUGraph();
+		DiGraph di = new UGraphAsDiGraph(g);
+		Node v0 = g.addNode();
+		Node v1 = g.addNode();
+		Node v2 = g.addNode();
+		Node v3 = g.addNode();
+		g.addUEdge(v1, v2);
+		g.addUEdge(v3, v2);
+		HarmonicCentrality c = new HarmonicCentrality(di);
+		c.compute();
+		assertEquals(0.0, c.getScore().get(v0), 1e-8);
+		assertEquals(1 + 1.0 / 2, c.getScore().get(v1), 1e-8);
+		assertEquals(2.0, c.getScore().get(v2), 1e-8);
+		assertEquals(1 + 1.0 / 2, c.getScore().get(v3), 1e-8);
+	}
+	
+	@Test
+	public void randomDiGraph() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 150; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random u = new Random(2);
+		for (int i = 0; i < 300; ++i) {
+			g.addArc(nodes.get(u.nextInt(nodes.size())),
+					nodes.get(u.nextInt(nodes.size())));
+		}
+		HarmonicCentrality c = new HarmonicCentrality(g);
+		c.compute();
+		BetweennessCentrality b = new BetweennessCentrality(g);
+		for (Node s : nodes) {
+			BetweennessCentrality.SingleSource singleSource =
+					b.new SingleSource(s, new NullMap<Node, Double>());
+			singleSource.scan();
+			double expected = 0.0;
+			for (Node v : nodes) {
+				int d = singleSource.getDistance(v);
+				if (d > 0) {
+					expected += 1.0 / d;
+				}
+			}
+			assertEquals(expected, c.getScore().get(s), 1e-8);
+		}
+	}
+}
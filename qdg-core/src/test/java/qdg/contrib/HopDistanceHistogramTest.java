@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import qdg.StaticDiGraph;
+import qdg.StaticUGraph;
+import qdg.api.Graph.Node;
+import qdg.view.UGraphAsDiGraph;
+
+public class HopDistanceHistogramTest {
+	
+	@Test
+	public void path() {
+		StaticUGraph g = new StaticUGraph();
+		Node[] nodes = new Node[70];
+		for (int i = 0; i < nodes.length; ++i) {
+			nodes[i] = g.addNode();
+		}
+		for (int i = 0; i + 1 < 69; ++i) {
+			g.addUEdge(nodes[i], nodes[i + 1]);
+		}
+		HopDistanceHistogram h = new HopDistanceHistogram(new UGraphAsDiGraph(g));
+		h.compute();
+		// A path of 69 nodes and an isolated node.
+		assertEquals(68, h.getMaxDistance());
+		for (int d = 1; d <= 68; ++d) {
+			assertEquals(2 * (69 - d), h.getNumPairs(d));
+		}
+		assertEquals(0, h.getNumPairs(0));
+		assertEquals(0, h.getNumPairs(69));
+		assertEquals(69 * 68, h.getNumReachablePairs());
+		assertEquals(1, h.getPercentileDistance(0.0));
+		assertEquals(68, h.getPercentileDistance(1.0));
+	}
+	
+	@Test
+	public void empty() {
+		StaticDiGraph g = new StaticDiGraph();
+		g.addNode();
+		HopDistanceHistogram h = new HopDistanceHistogram(g);
+		h.compute();
+		assertEquals(0, h.getMaxDistance());
+		assertEquals(0, h.getNumReachablePairs());
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import qdg.StaticDiGraph;
+import qdg.api.DiGraph;
+import qdg.api.EntityMap;
+import qdg.api.Graph.Node;
+
+import org.junit.Test;
+
+public class ParallelSingleSourcesTest {
+	
+	/**
+	 * A centrality computed by the tasks of an executor.
+	 */
+	interface ParallelCentrality {
+		
+		EntityMap<Node, Double> compute(Executor executor, int numTasks)
+				throws InterruptedException;
+	}
+	
+	static StaticDiGraph randomDiGraph(int numNodes, int numArcs, long seed) {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < numNodes; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random u = new Random(seed);
+		for (int i = 0; i < numArcs; ++i) {
+			g.addArc(nodes.get(u.nextInt(nodes.size())),
+					nodes.get(u.nextInt(nodes.size())));
+		}
+		return g;
+	}
+	
+	/**
+	 * Compares the scores computed in parallel, with fewer and more tasks
+	 * than threads or nodes, to the expected ones.
+	 */
+	static void checkParallel(DiGraph g, EntityMap<Node, Double> expected,
+			ParallelCentrality centrality) throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			for (int numTasks : new int[] {1, 7, 100}) {
+				EntityMap<Node, Double> score =
+						centrality.compute(executor, numTasks);
+				for (Node node : g.getNodes()) {
+					assertEquals(expected.get(node), score.get(node), 1e-9);
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void split() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 7; ++i) {
+			nodes.add(g.addNode());
+		}
+		List<List<Node>> chunks = ParallelSingleSources.split(nodes, 3);
+		assertEquals(3, chunks.size());
+		assertEquals(Arrays.asList(nodes.get(0), nodes.get(3), nodes.get(6)),
+				chunks.get(0));
+		assertEquals(Arrays.asList(nodes.get(1), nodes.get(4)), chunks.get(1));
+		assertEquals(Arrays.asList(nodes.get(2), nodes.get(5)), chunks.get(2));
+		assertEquals(2, ParallelSingleSources.split(nodes.subList(0, 2), 3)
+				.size());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void noTasks() {
+		ParallelSingleSources.split(new ArrayList<Node>(), 0);
+	}
+}
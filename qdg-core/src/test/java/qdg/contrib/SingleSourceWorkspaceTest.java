@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.contrib;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import qdg.api.Graph.Node;
+import qdg.StaticDiGraph;
+
+import org.junit.Test;
+
+public class SingleSourceWorkspaceTest {
+
+	@Test
+	public void reuse() {
+		StaticDiGraph g = new StaticDiGraph();
+		Node v0 = g.addNode();
+		Node v1 = g.addNode();
+		Node v2 = g.addNode();
+		Node v3 = g.addNode();
+		g.addArc(v0, v1);
+		g.addArc(v0, v2);
+		g.addArc(v1, v3);
+		g.addArc(v2, v3);
+		g.addArc(v3, v1);
+		DiGraphIndex index = new DiGraphIndex(g);
+		assertEquals(4, index.getNumNodes());
+		assertEquals(5, index.getNumArcs());
+		assertEquals(2, index.getInBegin(2) - index.getInBegin(1));
+		SingleSourceWorkspace workspace = new SingleSourceWorkspace(index);
+		int i0 = index.getIndex(v0);
+		int i1 = index.getIndex(v1);
+		int i3 = index.getIndex(v3);
+		workspace.bfs(i0, true);
+		assertEquals(4, workspace.getNumReached());
+		assertEquals(i0, workspace.getReached(0));
+		assertEquals(2, workspace.getDistance(i3));
+		assertEquals(2, workspace.getNumShortestPaths(i3), 0.0);
+		assertEquals(2, workspace.getNumPredecessors(i3));
+		assertEquals(1, workspace.getNumPredecessors(i1));
+		assertEquals(v0, g.getSource(index.getArc(workspace.getPredecessor(i1, 0))));
+		workspace.addDependency(i1, 1.5);
+		workspace.bfs(i3, true);
+		assertEquals(2, workspace.getNumReached());
+		assertFalse(workspace.isReached(i0));
+		assertEquals(-1, workspace.getDistance(i0));
+		assertEquals(0, workspace.getNumShortestPaths(i0), 0.0);
+		assertEquals(1, workspace.getDistance(i1));
+		assertEquals(0.0, workspace.getDependency(i1), 0.0);
+		assertEquals(1, workspace.getNumPredecessors(i1));
+		assertEquals(v3, g.getSource(index.getArc(workspace.getPredecessor(i1, 0))));
+		workspace.bfs(i1, false);
+		assertEquals(2, workspace.getNumReached());
+		assertEquals(0, workspace.getNumPredecessors(i3));
+	}
+	
+	@Test
+	public void directionOptimizing() {
+		StaticDiGraph g = new StaticDiGraph();
+		int n = 200;
+		Node[] nodes = new Node[n];
+		for (int i = 0; i < n; ++i) {
+			nodes[i] = g.addNode();
+		}
+		Random u = new Random(3);
+		for (int i = 0; i < 2000; ++i) {
+			g.addArc(nodes[u.nextInt(n)], nodes[u.nextInt(n)]);
+		}
+		DiGraphIndex index = new DiGraphIndex(g);
+		for (int v = 0; v < n; ++v) {
+			Set<Integer> in = new HashSet<Integer>();
+			for (int i = index.getInBegin(v); i < index.getInBegin(v + 1); ++i) {
+				assertEquals(v, index.getTarget(index.getInArc(i)));
+				in.add(index.getInArc(i));
+			}
+			assertEquals(index.getInBegin(v + 1) - index.getInBegin(v), in.size());
+		}
+		SingleSourceWorkspace topDown = new SingleSourceWorkspace(index);
+		topDown.setDirectionOptimizing(false);
+		SingleSourceWorkspace workspace = new SingleSourceWorkspace(index);
+		assertTrue(workspace.isDirectionOptimizing());
+		for (int s = 0; s < n; s += 7) {
+			for (boolean countPaths : new boolean[] {false, true}) {
+				topDown.bfs(s, countPaths);
+				workspace.bfs(s, countPaths);
+				assertEquals(topDown.getNumReached(), workspace.getNumReached());
+				for (int v = 0; v < n; ++v) {
+					assertEquals(topDown.getDistance(v), workspace.getDistance(v));
+					assertEquals(topDown.getNumShortestPaths(v),
+							workspace.getNumShortestPaths(v), 0.0);
+					assertEquals(predecessors(topDown, v),
+							predecessors(workspace, v));
+				}
+				for (int i = 1; i < workspace.getNumReached(); ++i) {
+					assertTrue(workspace.getDistance(workspace.getReached(i - 1))
+							<= workspace.getDistance(workspace.getReached(i)));
+				}
+			}
+		}
+	}
+	
+	private static Set<Integer> predecessors(SingleSourceWorkspace workspace,
+			int v) {
+		Set<Integer> result = new HashSet<Integer>();
+		for (int i = 0; i < workspace.getNumPredecessors(v); ++i) {
+			result.add(workspace.getPredecessor(v, i));
+		}
+		return result;
+	}
+}
@@ -18,15 +18,22 @@ package qdg.contrib;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
 
 import qdg.api.DiGraph;
 import qdg.api.EntityMap;
 import qdg.api.Graph.Edge;
 import qdg.api.Graph.Node;
+import qdg.BucketQueue;
 import qdg.EntityMaps;
 import qdg.EntityMaps.NullMap;
+import qdg.RadixHeap;
+import qdg.StaticDiGraph;
 import qdg.StaticUGraph;
 import qdg.contrib.WeightedBetweennessCentrality.SingleSource;
 import qdg.view.UGraphAsDiGraph;
@@ -53,28 +60,25 @@ public class WeightedBetweennessCentralityTest {
 		SingleSource singleSource = b.new SingleSource(v1,
 				new NullMap<Node, Double>());
 		singleSource.scan();
-		EntityMap<Node, List<Edge>> tightEdges = singleSource.tightEdges;
-		assertNull(tightEdges.get(v0));
-		assertNull(tightEdges.get(v1));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), tightEdges.get(v2));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), tightEdges.get(v3));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, true)), tightEdges.get(v4));
-		assertNull(tightEdges.get(v5));
+		assertTrue(singleSource.getTightEdges(v0).isEmpty());
+		assertTrue(singleSource.getTightEdges(v1).isEmpty());
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), singleSource.getTightEdges(v2));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), singleSource.getTightEdges(v3));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, true)), singleSource.getTightEdges(v4));
+		assertTrue(singleSource.getTightEdges(v5).isEmpty());
 		singleSource.finish();
-		EntityMap<Node, Integer> numShortestPaths = singleSource.numShortestPaths;
-		assertNull(numShortestPaths.get(v0));
-		assertEquals(1, numShortestPaths.get(v1).intValue());
-		assertEquals(1, numShortestPaths.get(v2).intValue());
-		assertEquals(1, numShortestPaths.get(v3).intValue());
-		assertEquals(1, numShortestPaths.get(v4).intValue());
-		assertNull(numShortestPaths.get(v5));
-		EntityMap<Node, Double> dependency = singleSource.dependency;
-		assertNull(dependency.get(v0));
-		assertNull(dependency.get(v1));
-		assertEquals(2, dependency.get(v2), 1e-8);
-		assertEquals(1, dependency.get(v3), 1e-8);
-		assertNull(dependency.get(v4));
-		assertNull(dependency.get(v5));
+		assertEquals(0, singleSource.getNumShortestPaths(v0), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v1), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v2), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v3), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v4), 0.0);
+		assertEquals(0, singleSource.getNumShortestPaths(v5), 0.0);
+		assertEquals(0, singleSource.getDependency(v0), 1e-8);
+		assertEquals(0, singleSource.getDependency(v1), 1e-8);
+		assertEquals(2, singleSource.getDependency(v2), 1e-8);
+		assertEquals(1, singleSource.getDependency(v3), 1e-8);
+		assertEquals(0, singleSource.getDependency(v4), 1e-8);
+		assertEquals(0, singleSource.getDependency(v5), 1e-8);
 	}
 	
 	@Test
@@ -94,25 +98,22 @@ public class WeightedBetweennessCentralityTest {
 		SingleSource singleSource = b.new SingleSource(v1,
 				new NullMap<Node, Double>());
 		singleSource.scan();
-		EntityMap<Node, List<Edge>> tightEdges = singleSource.tightEdges;
-		assertNull(tightEdges.get(v0));
-		assertNull(tightEdges.get(v1));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), tightEdges.get(v2));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), tightEdges.get(v3));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, true)), tightEdges.get(v4));
+		assertTrue(singleSource.getTightEdges(v0).isEmpty());
+		assertTrue(singleSource.getTightEdges(v1).isEmpty());
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), singleSource.getTightEdges(v2));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), singleSource.getTightEdges(v3));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, true)), singleSource.getTightEdges(v4));
 		singleSource.finish();
-		EntityMap<Node, Integer> numShortestPaths = singleSource.numShortestPaths;
-		assertNull(numShortestPaths.get(v0));
-		assertEquals(1, numShortestPaths.get(v1).intValue());
-		assertEquals(1, numShortestPaths.get(v2).intValue());
-		assertEquals(1, numShortestPaths.get(v3).intValue());
-		assertEquals(1, numShortestPaths.get(v4).intValue());
-		EntityMap<Node, Double> dependency = singleSource.dependency;
-		assertNull(dependency.get(v0));
-		assertNull(dependency.get(v1));
-		assertEquals(2, dependency.get(v2), 1e-8);
-		assertNull(dependency.get(v3));
-		assertNull(dependency.get(v4));
+		assertEquals(0, singleSource.getNumShortestPaths(v0), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v1), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v2), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v3), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v4), 0.0);
+		assertEquals(0, singleSource.getDependency(v0), 1e-8);
+		assertEquals(0, singleSource.getDependency(v1), 1e-8);
+		assertEquals(2, singleSource.getDependency(v2), 1e-8);
+		assertEquals(0, singleSource.getDependency(v3), 1e-8);
+		assertEquals(0, singleSource.getDependency(v4), 1e-8);
 	}
 	
 	@Test
@@ -135,30 +136,28 @@ public class WeightedBetweennessCentralityTest {
 		SingleSource singleSource = b.new SingleSource(v0,
 				new NullMap<Node, Double>());
 		singleSource.scan();
-		EntityMap<Node, List<Edge>> tightEdges = singleSource.tightEdges;
-		assertNull(tightEdges.get(v0));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), tightEdges.get(v1));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), tightEdges.get(v2));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, false)), tightEdges.get(v3));
-		// NOTE The ordering makes the following assert unstable, but there
-		// might be no ordering for the edges.
-		assertEquals(Arrays.asList(
+		assertTrue(singleSource.getTightEdges(v0).isEmpty());
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), singleSource.getTightEdges(v1));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e1, true)), singleSource.getTightEdges(v2));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, false)), singleSource.getTightEdges(v3));
+		// The order of the edges depends on the queue, integer weights are
+		// handled by a BucketQueue.
+		assertEquals(new HashSet<Edge>(Arrays.asList(
 				new UGraphAsDiGraph.A(e3, true),
 				new UGraphAsDiGraph.A(e4, false),
-				new UGraphAsDiGraph.A(e5, true)), tightEdges.get(v4));
+				new UGraphAsDiGraph.A(e5, true))),
+				new HashSet<Edge>(singleSource.getTightEdges(v4)));
 		singleSource.finish();
-		EntityMap<Node, Integer> numShortestPaths = singleSource.numShortestPaths;
-		assertEquals(1, numShortestPaths.get(v0).intValue());
-		assertEquals(1, numShortestPaths.get(v1).intValue());
-		assertEquals(1, numShortestPaths.get(v2).intValue());
-		assertEquals(1, numShortestPaths.get(v3).intValue());
-		assertEquals(3, numShortestPaths.get(v4).intValue());
-		EntityMap<Node, Double> dependency = singleSource.dependency;
-		assertNull(dependency.get(v0));
-		assertEquals(2.0 / 6, dependency.get(v1), 1e-8);
-		assertEquals(2.0 / 6, dependency.get(v2), 1e-8);
-		assertEquals(2.0 / 6, dependency.get(v3), 1e-8);
-		assertNull(dependency.get(v4));
+		assertEquals(1, singleSource.getNumShortestPaths(v0), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v1), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v2), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v3), 0.0);
+		assertEquals(3, singleSource.getNumShortestPaths(v4), 0.0);
+		assertEquals(0, singleSource.getDependency(v0), 1e-8);
+		assertEquals(2.0 / 6, singleSource.getDependency(v1), 1e-8);
+		assertEquals(2.0 / 6, singleSource.getDependency(v2), 1e-8);
+		assertEquals(2.0 / 6, singleSource.getDependency(v3), 1e-8);
+		assertEquals(0, singleSource.getDependency(v4), 1e-8);
 	}
 	
 	@Test
@@ -196,31 +195,28 @@ public class WeightedBetweennessCentralityTest {
 		SingleSource singleSource = b.new SingleSource(v0,
 				new NullMap<Node, Double>());
 		singleSource.scan();
-		EntityMap<Node, List<Edge>> tightEdges = singleSource.tightEdges;
-		assertNull(tightEdges.get(v0));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), tightEdges.get(v1));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, false), new UGraphAsDiGraph.A(e1, false)), tightEdges.get(v2));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e3, false)), tightEdges.get(v3));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e4, false)), tightEdges.get(v4));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e6, false)), tightEdges.get(v5));
-		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e8, false)), tightEdges.get(v6));
+		assertTrue(singleSource.getTightEdges(v0).isEmpty());
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e0, false)), singleSource.getTightEdges(v1));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e2, false), new UGraphAsDiGraph.A(e1, false)), singleSource.getTightEdges(v2));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e3, false)), singleSource.getTightEdges(v3));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e4, false)), singleSource.getTightEdges(v4));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e6, false)), singleSource.getTightEdges(v5));
+		assertEquals(Arrays.asList(new UGraphAsDiGraph.A(e8, false)), singleSource.getTightEdges(v6));
 		singleSource.finish();
-		EntityMap<Node, Integer> numShortestPaths = singleSource.numShortestPaths;
-		assertEquals(1, numShortestPaths.get(v0).intValue());
-		assertEquals(1, numShortestPaths.get(v1).intValue());
-		assertEquals(2, numShortestPaths.get(v2).intValue());
-		assertEquals(2, numShortestPaths.get(v3).intValue());
-		assertEquals(2, numShortestPaths.get(v4).intValue());
-		assertEquals(2, numShortestPaths.get(v5).intValue());
-		assertEquals(2, numShortestPaths.get(v6).intValue());
-		EntityMap<Node, Double> dependency = singleSource.dependency;
-		assertNull(dependency.get(v0));
-		assertEquals(2.5, dependency.get(v1), 1e-8);
-		assertEquals(4.0, dependency.get(v2), 1e-8);
-		assertEquals(3.0, dependency.get(v3), 1e-8);
-		assertEquals(2.0, dependency.get(v4), 1e-8);
-		assertNull(dependency.get(v5));
-		assertNull(dependency.get(v6));
+		assertEquals(1, singleSource.getNumShortestPaths(v0), 0.0);
+		assertEquals(1, singleSource.getNumShortestPaths(v1), 0.0);
+		assertEquals(2, singleSource.getNumShortestPaths(v2), 0.0);
+		assertEquals(2, singleSource.getNumShortestPaths(v3), 0.0);
+		assertEquals(2, singleSource.getNumShortestPaths(v4), 0.0);
+		assertEquals(2, singleSource.getNumShortestPaths(v5), 0.0);
+		assertEquals(2, singleSource.getNumShortestPaths(v6), 0.0);
+		assertEquals(0, singleSource.getDependency(v0), 1e-8);
+		assertEquals(2.5, singleSource.getDependency(v1), 1e-8);
+		assertEquals(4.0, singleSource.getDependency(v2), 1e-8);
+		assertEquals(3.0, singleSource.getDependency(v3), 1e-8);
+		assertEquals(2.0, singleSource.getDependency(v4), 1e-8);
+		assertEquals(0, singleSource.getDependency(v5), 1e-8);
+		assertEquals(0, singleSource.getDependency(v6), 1e-8);
 	}
 	
 	@Test
@@ -257,10 +253,193 @@ public class WeightedBetweennessCentralityTest {
 		b.setWeights(di.createArcMap(weights, weights));
 		b.compute();
 		EntityMap<Node, Double> score = b.getScore();
-		assertNull(score.get(v0));
-		assertNull(score.get(v1));
+		assertEquals(0.0, score.get(v0), 1e-8);
+		assertEquals(0.0, score.get(v1), 1e-8);
 		assertEquals(10.0, score.get(v2), 1e-8);
-		assertNull(score.get(v3));
+		assertEquals(0.0, score.get(v3), 1e-8);
 		assertEquals(6.0, score.get(v4), 1e-8);
 	}
+	
+	/**
+	 * A directed grid, with more shortest paths between its corners than an
+	 * int can count.
+	 */
+	@Test
+	public void grid() {
+		StaticDiGraph g = new StaticDiGraph();
+		int size = 20;
+		Node[][] nodes = new Node[size][size];
+		for (int i = 0; i < size; ++i) {
+			for (int j = 0; j < size; ++j) {
+				nodes[i][j] = g.addNode();
+			}
+		}
+		for (int i = 0; i < size; ++i) {
+			for (int j = 0; j < size; ++j) {
+				if (i + 1 < size) {
+					g.addArc(nodes[i][j], nodes[i + 1][j]);
+				}
+				if (j + 1 < size) {
+					g.addArc(nodes[i][j], nodes[i][j + 1]);
+				}
+			}
+		}
+		EntityMap<Edge, Double> weights = g.createArcMap();
+		for (Edge e : g.getArcs()) {
+			weights.put(e, 1.0);
+		}
+		WeightedBetweennessCentrality w = new WeightedBetweennessCentrality(g);
+		w.setWeights(weights);
+		SingleSource singleSource = w.new SingleSource(nodes[0][0],
+				new NullMap<Node, Double>());
+		singleSource.scan();
+		// Binomial(38, 19).
+		assertEquals(35345263800.0,
+				singleSource.getNumShortestPaths(nodes[size - 1][size - 1]), 0.0);
+		w.compute();
+		BetweennessCentrality b = new BetweennessCentrality(g);
+		b.compute();
+		for (Node v : g.getNodes()) {
+			assertEquals(b.getScore().get(v), w.getScore().get(v), 1e-6);
+		}
+	}
+	
+	@Test
+	public void parallel() throws InterruptedException {
+		final StaticDiGraph g =
+				ParallelSingleSourcesTest.randomDiGraph(40, 160, 3);
+		final EntityMap<Edge, Double> weights = g.createArcMap();
+		Random u = new Random(3);
+		for (Edge e : g.getArcs()) {
+			weights.put(e, (double) (1 + u.nextInt(3)));
+		}
+		WeightedBetweennessCentrality b = new WeightedBetweennessCentrality(g);
+		b.setWeights(weights);
+		b.compute();
+		ParallelSingleSourcesTest.checkParallel(g, b.getScore(),
+				new ParallelSingleSourcesTest.ParallelCentrality() {
+			
+			@Override
+			public EntityMap<Node, Double> compute(Executor executor,
+					int numTasks) throws InterruptedException {
+				WeightedBetweennessCentrality c = new WeightedBetweennessCentrality(g);
+				c.setWeights(weights);
+				c.compute(executor, numTasks);
+				return c.getScore();
+			}
+		});
+	}
+	
+	/**
+	 * Compares the searches with the queue of the given class, or with the
+	 * heap if it is null, to the ones with the heap.
+	 */
+	private static void checkBucketQueues(int minWeight, int maxWeight,
+			Class<?> queueClass, long seed) {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 60; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random u = new Random(seed);
+		for (int i = 0; i < 300; ++i) {
+			g.addArc(nodes.get(u.nextInt(nodes.size())),
+					nodes.get(u.nextInt(nodes.size())));
+		}
+		EntityMap<Edge, Double> weights = g.createArcMap();
+		for (Edge e : g.getArcs()) {
+			weights.put(e, (double) (minWeight + u.nextInt(maxWeight)));
+		}
+		WeightedBetweennessCentrality b = new WeightedBetweennessCentrality(g);
+		b.setWeights(weights);
+		b.setBucketQueues(false);
+		WeightedBetweennessCentrality c = new WeightedBetweennessCentrality(g);
+		c.setWeights(weights);
+		for (Node s : nodes) {
+			SingleSource expected = b.new SingleSource(s,
+					new NullMap<Node, Double>());
+			assertNull(expected.integerQueue);
+			expected.scan();
+			expected.finish();
+			SingleSource actual = c.new SingleSource(s,
+					new NullMap<Node, Double>());
+			if (queueClass == null) {
+				assertNull(actual.integerQueue);
+			} else {
+				assertTrue(queueClass.isInstance(actual.integerQueue));
+			}
+			actual.scan();
+			actual.finish();
+			for (Node v : nodes) {
+				assertEquals(expected.getDistance(v), actual.getDistance(v), 0.0);
+				assertEquals(expected.getNumShortestPaths(v),
+						actual.getNumShortestPaths(v), 0.0);
+				assertEquals(new HashSet<Edge>(expected.getTightEdges(v)),
+						new HashSet<Edge>(actual.getTightEdges(v)));
+				assertEquals(expected.getDependency(v), actual.getDependency(v),
+						1e-9);
+			}
+		}
+		b.compute();
+		c.compute();
+		for (Node v : nodes) {
+			assertEquals(b.getScore().get(v), c.getScore().get(v), 1e-9);
+		}
+	}
+	
+	@Test
+	public void bucketQueue() {
+		checkBucketQueues(1, 3, BucketQueue.class, 1);
+	}
+	
+	@Test
+	public void radixHeap() {
+		checkBucketQueues(1, 1000, RadixHeap.class, 2);
+	}
+	
+	/**
+	 * The path counts would depend on the order of the nodes with equal
+	 * distances, hence the heap is used.
+	 */
+	@Test
+	public void zeroWeights() {
+		checkBucketQueues(0, 3, null, 3);
+	}
+	
+	/**
+	 * The calls reuse one search until the weights are set again.
+	 */
+	@Test
+	public void singleSourceCompute() {
+		StaticDiGraph g = new StaticDiGraph();
+		List<Node> nodes = new ArrayList<Node>();
+		for (int i = 0; i < 40; ++i) {
+			nodes.add(g.addNode());
+		}
+		Random u = new Random(5);
+		for (int i = 0; i < 160; ++i) {
+			g.addArc(nodes.get(u.nextInt(nodes.size())),
+					nodes.get(u.nextInt(nodes.size())));
+		}
+		EntityMap<Edge, Double> ones = g.createArcMap();
+		EntityMap<Edge, Double> weights = g.createArcMap();
+		for (Edge e : g.getArcs()) {
+			ones.put(e, 1.0);
+			weights.put(e, (double) (1 + u.nextInt(3)));
+		}
+		WeightedBetweennessCentrality b = new WeightedBetweennessCentrality(g);
+		b.setWeights(weights);
+		b.compute();
+		WeightedBetweennessCentrality c = new WeightedBetweennessCentrality(g);
+		c.setWeights(ones);
+		c.singleSourceCompute(nodes.get(0), new NullMap<Node, Double>());
+		c.setWeights(weights);
+		EntityMap<Node, Double> score = g.createDoubleNodeMap(0.0);
+		for (Node s : nodes) {
+			c.singleSourceCompute(s, score);
+		}
+		for (Node node : nodes) {
+			assertEquals(b.getScore().get(node), score.get(node), 1e-9);
+		}
+	}
 }
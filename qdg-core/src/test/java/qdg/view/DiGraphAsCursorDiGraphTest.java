@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.view;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import qdg.CursorTest;
+import qdg.ListDiGraph;
+import qdg.StaticDiGraph;
+import qdg.StaticUGraph;
+import qdg.api.CursorDiGraph;
+import qdg.api.Graph.Node;
+
+public class DiGraphAsCursorDiGraphTest {
+
+	@Test
+	public void nativeTest() {
+		StaticDiGraph g = new StaticDiGraph();
+		assertSame(g, DiGraphAsCursorDiGraph.of(g));
+	}
+	
+	@Test
+	public void listDiGraphTest() {
+		ListDiGraph g = new ListDiGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		g.addArc(n0, n1);
+		g.addArc(n1, n2);
+		g.addArc(n2, n0);
+		g.remove(n1);
+		g.addArc(n2, n2);
+		CursorDiGraph c = new DiGraphAsCursorDiGraph(g);
+		assertEquals(2, c.getNodeIdBound());
+		assertEquals(2, c.getArcIdBound());
+		CursorTest.checkArcCursors(c);
+	}
+	
+	@Test
+	public void uGraphAsDiGraphTest() {
+		StaticUGraph g = new StaticUGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		g.addUEdge(n0, n1);
+		g.addUEdge(n2, n1);
+		g.addUEdge(n2, n0);
+		CursorDiGraph c = DiGraphAsCursorDiGraph.of(new UGraphAsDiGraph(g));
+		assertEquals(6, c.getArcIdBound());
+		CursorTest.checkArcCursors(c);
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2014 Marton Makai
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package qdg.view;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import qdg.CursorTest;
+import qdg.ListUGraph;
+import qdg.StaticUGraph;
+import qdg.api.CursorUGraph;
+import qdg.api.Graph.Node;
+
+public class UGraphAsCursorUGraphTest {
+
+	@Test
+	public void nativeTest() {
+		StaticUGraph g = new StaticUGraph();
+		assertSame(g, UGraphAsCursorUGraph.of(g));
+	}
+	
+	@Test
+	public void listUGraphTest() {
+		ListUGraph g = new ListUGraph();
+		Node n0 = g.addNode();
+		Node n1 = g.addNode();
+		Node n2 = g.addNode();
+		g.addUEdge(n0, n1);
+		g.addUEdge(n1, n2);
+		g.addUEdge(n2, n0);
+		g.remove(n1);
+		g.addUEdge(n2, n2);
+		CursorUGraph c = new UGraphAsCursorUGraph(g);
+		assertEquals(2, c.getNodeIdBound());
+		assertEquals(2, c.getUEdgeIdBound());
+		CursorTest.checkUEdgeCursors(c);
+	}
+}